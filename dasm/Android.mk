@@ -28,4 +28,8 @@ include $(BUILD_PREBUILT)
 
 INTERNAL_DALVIK_MODULES += $(LOCAL_INSTALLED_MODULE)
 
-include $(LOCAL_PATH)/src/Android.mk
+# src/Android.mk resets LOCAL_PATH, so remember this dir for the includes.
+dasm_dir := $(LOCAL_PATH)
+include $(dasm_dir)/src/Android.mk
+include $(dasm_dir)/benchmarks/Android.mk
+dasm_dir :=
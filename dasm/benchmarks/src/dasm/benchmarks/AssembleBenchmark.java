@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dasm.benchmarks;
+
+import dasm.DAsm;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+
+/**
+ * Measures end to end assembly (parse and dex emission) of a synthetic file
+ * made of large methods.
+ *
+ * Usage: AssembleBenchmark [methods [insns_per_method [iterations]]]
+ */
+public class AssembleBenchmark {
+
+    public static void main(String[] args) throws Exception {
+        int methods = args.length > 0 ? Integer.parseInt(args[0]) : 4;
+        int insns = args.length > 1 ? Integer.parseInt(args[1]) : 10000;
+        int iterations = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+
+        String source = StressSource.generate(methods, insns);
+
+        // warm up
+        for (int i = 0; i < iterations; i++) {
+            assemble(source);
+        }
+
+        long best = Long.MAX_VALUE;
+        long total = 0;
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            assemble(source);
+            long time = System.nanoTime() - start;
+            best = Math.min(best, time);
+            total += time;
+        }
+
+        System.out.println(methods + " methods x " + insns + " insns: best "
+                + best / 1000000.0 + " ms, mean "
+                + total / iterations / 1000000.0 + " ms");
+    }
+
+    private static int assemble(String source) throws Exception {
+        DAsm dAsm = new DAsm();
+        dAsm.readD(new StringReader(source), "Stress.d", false);
+        if (dAsm.errorCount() > 0) {
+            throw new IllegalStateException("Found " + dAsm.errorCount()
+                    + " errors in generated source");
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        dAsm.write(out, null);
+        return out.size();
+    }
+}
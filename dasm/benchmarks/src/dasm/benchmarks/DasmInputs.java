@@ -0,0 +1,158 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dasm.benchmarks;
+
+import dasm.DAsm;
+
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+/**
+ * Sources assembled by the benchmarks. Files are looked up relative to the
+ * directory given by the dasm.benchmarks.root system property, which defaults
+ * to the current directory and should point to cts/tools.
+ */
+@State(Scope.Benchmark)
+public class DasmInputs {
+
+    /**
+     * all_opcodes: dasm/test/all_opcodes.d. vm_tests: every tenth .d file of
+     * the vm-tests opcode tests. stress: a generated file with four methods
+     * of 10000 instructions.
+     */
+    @Param({"all_opcodes", "vm_tests", "stress"})
+    public String input;
+
+    String[] names;
+    String[] sources;
+
+    @Setup
+    public void load() throws IOException {
+        File root = new File(System.getProperty("dasm.benchmarks.root", "."));
+        if (input.equals("all_opcodes")) {
+            File file = new File(root, "dasm/test/all_opcodes.d");
+            names = new String[] { file.getName() };
+            sources = new String[] { read(file) };
+        } else if (input.equals("vm_tests")) {
+            ArrayList<File> files = new ArrayList<File>();
+            File[] opcodes = new File(root,
+                    "vm-tests-tf/src/dot/junit/opcodes").listFiles();
+            if (opcodes == null) {
+                throw new IOException("vm-tests not found under " + root);
+            }
+            for (File dir : opcodes) {
+                File[] d_files = new File(dir, "d").listFiles();
+                if (d_files == null) continue;
+                for (File file : d_files) {
+                    if (file.getName().endsWith(".d")) files.add(file);
+                }
+            }
+            File[] sorted = files.toArray(new File[files.size()]);
+            Arrays.sort(sorted);
+            int n = (sorted.length + 9) / 10;
+            names = new String[n];
+            sources = new String[n];
+            for (int i = 0; i < n; i++) {
+                names[i] = sorted[i * 10].getName();
+                sources[i] = read(sorted[i * 10]);
+            }
+        } else if (input.equals("stress")) {
+            names = new String[] { "Stress.d" };
+            sources = new String[] { StressSource.generate(4, 10000) };
+        } else {
+            throw new IllegalArgumentException("unknown input " + input);
+        }
+    }
+
+    /**
+     * Parses all sources with new instances created by factory.
+     */
+    <T extends DAsm> ArrayList<T> parseAll(Factory<T> factory)
+            throws Exception {
+        ArrayList<T> result = new ArrayList<T>(sources.length);
+        for (int i = 0; i < sources.length; i++) {
+            T dAsm = factory.create();
+            dAsm.readD(new StringReader(sources[i]), names[i], false);
+            if (dAsm.errorCount() != 0) {
+                throw new IllegalStateException(names[i] + " has errors");
+            }
+            result.add(dAsm);
+        }
+        return result;
+    }
+
+    /**
+     * Parses all sources, as many times as it takes to parse at least
+     * BATCH_CHARS characters, with new instances created by factory.
+     */
+    <T extends DAsm> ArrayList<T> parseBatch(Factory<T> factory)
+            throws Exception {
+        long chars = 0;
+        for (String source : sources) {
+            chars += source.length();
+        }
+        if (chars == 0) {
+            throw new IllegalStateException(input + " is empty");
+        }
+        ArrayList<T> result = new ArrayList<T>();
+        for (long parsed = 0; parsed < BATCH_CHARS; parsed += chars) {
+            result.addAll(parseAll(factory));
+        }
+        return result;
+    }
+
+    /**
+     * The least number of source characters in a batch, enough for finishing
+     * or writing a batch of any input to take milliseconds.
+     */
+    static final int BATCH_CHARS = 512 * 1024;
+
+    interface Factory<T extends DAsm> {
+        T create();
+    }
+
+    static final Factory<DAsm> PLAIN = new Factory<DAsm>() {
+        public DAsm create() {
+            return new DAsm();
+        }
+    };
+
+    private static String read(File file) throws IOException {
+        Reader in = new InputStreamReader(new FileInputStream(file));
+        try {
+            StringBuilder sb = new StringBuilder((int) file.length());
+            char[] buf = new char[8192];
+            int n;
+            while ((n = in.read(buf)) > 0) {
+                sb.append(buf, 0, n);
+            }
+            return sb.toString();
+        } finally {
+            in.close();
+        }
+    }
+}
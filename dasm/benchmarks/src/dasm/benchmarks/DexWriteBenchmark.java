@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dasm.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+
+/**
+ * Measures DexFile.writeTo() for parsed files. dx finishes the method bodies
+ * only once the constants have their final indices, so this includes the
+ * work measured by FinisherBenchmark. The methods and bytes counters give
+ * methods/s and bytes/s.
+ *
+ * A parsed file is written only once, so every call writes a batch of files
+ * that was parsed before the call (see DasmInputs.parseBatch()), as
+ * FinisherBenchmark does.
+ */
+public class DexWriteBenchmark {
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        /**
+         * methods written, reported as methods/s
+         */
+        public long methods;
+
+        /**
+         * dex bytes written, reported as bytes/s
+         */
+        public long bytes;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            methods = 0;
+            bytes = 0;
+        }
+    }
+
+    /**
+     * The files to write in the next call.
+     */
+    @State(Scope.Thread)
+    public static class Batch {
+        ArrayList<FinisherBenchmark.RecordingDAsm> files;
+
+        @Setup(Level.Invocation)
+        public void parse(DasmInputs inputs) throws Exception {
+            files = inputs.parseBatch(FinisherBenchmark.RECORDING);
+        }
+    }
+
+    @Benchmark
+    public int write(Batch batch, Counters counters) throws Exception {
+        int size = 0;
+        for (FinisherBenchmark.RecordingDAsm dAsm : batch.files) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            dAsm.write(out, null);
+            size += out.size();
+            counters.methods += dAsm.codes.size();
+        }
+        counters.bytes += size;
+        return size;
+    }
+}
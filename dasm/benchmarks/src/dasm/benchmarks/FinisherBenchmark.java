@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dasm.benchmarks;
+
+import dasm.DAsm;
+
+import com.android.dx.dex.code.DalvCode;
+import com.android.dx.rop.cst.Constant;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Measures finishing of the method bodies built by DAsm, i.e. the work done
+ * by OutputFinisher and the catch table builder. When writing a file, dx
+ * assigns constant indices first; here every file numbers its constants in
+ * order of first use. The methods counter gives methods/s.
+ *
+ * Code is finished only once, so every call finishes a batch of files that
+ * was parsed and numbered before the call (see DasmInputs.parseBatch()). A
+ * batch takes milliseconds to finish, so its setup does not skew the timing
+ * of the call. Allocation figures of -prof gc include the parsing.
+ *
+ * A batch for a whole iteration would not do: the time based modes make an
+ * unknown number of calls per iteration, and the single shot mode of JMH 1.19
+ * reports no counters.
+ */
+public class FinisherBenchmark {
+
+    /**
+     * DAsm that remembers the code of every method it builds.
+     */
+    static class RecordingDAsm extends DAsm {
+        final ArrayList<DalvCode> codes = new ArrayList<DalvCode>();
+
+        @Override
+        protected DalvCode createCode() {
+            DalvCode code = super.createCode();
+            codes.add(code);
+            return code;
+        }
+    }
+
+    static final DasmInputs.Factory<RecordingDAsm> RECORDING =
+            new DasmInputs.Factory<RecordingDAsm>() {
+        public RecordingDAsm create() {
+            return new RecordingDAsm();
+        }
+    };
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        /**
+         * method bodies finished, reported as methods/s
+         */
+        public long methods;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            methods = 0;
+        }
+    }
+
+    /**
+     * The files to finish in the next call.
+     */
+    @State(Scope.Thread)
+    public static class Batch {
+        ArrayList<RecordingDAsm> files;
+
+        @Setup(Level.Invocation)
+        public void parse(DasmInputs inputs) throws Exception {
+            files = inputs.parseBatch(RECORDING);
+            for (RecordingDAsm dAsm : files) {
+                assignIndices(dAsm);
+            }
+        }
+    }
+
+    @Benchmark
+    public int finish(Batch batch, Counters counters) {
+        int insns = 0;
+        for (RecordingDAsm dAsm : batch.files) {
+            for (DalvCode code : dAsm.codes) {
+                insns += code.getInsns().size();
+                code.getCatches();
+                counters.methods++;
+            }
+        }
+        return insns;
+    }
+
+    private static void assignIndices(RecordingDAsm dAsm) {
+        final HashMap<Constant, Integer> indices =
+                new HashMap<Constant, Integer>();
+        DalvCode.AssignIndicesCallback callback =
+                new DalvCode.AssignIndicesCallback() {
+            public int getIndex(Constant cst) {
+                Integer index = indices.get(cst);
+                if (index == null) {
+                    index = indices.size();
+                    indices.put(cst, index);
+                }
+                return index;
+            }
+        };
+        for (DalvCode code : dAsm.codes) {
+            code.assignIndices(callback);
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dasm.benchmarks;
+
+import dasm.DAsm;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Measures parser.fast_parse(), including the semantic actions in DAsm, over
+ * tokens that were lexed beforehand. The tokens counter gives tokens/s.
+ */
+public class ParserBenchmark {
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        /**
+         * tokens parsed, reported as tokens/s
+         */
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Tokens {
+        ReplayScanner[] scanners;
+
+        @Setup
+        public void lex(DasmInputs inputs) throws Exception {
+            scanners = new ReplayScanner[inputs.sources.length];
+            for (int i = 0; i < scanners.length; i++) {
+                scanners[i] = ReplayScanner.lex(inputs.sources[i]);
+            }
+        }
+    }
+
+    @Benchmark
+    public int parse(DasmInputs inputs, Tokens tokens, Counters counters)
+            throws Exception {
+        int errors = 0;
+        for (int i = 0; i < tokens.scanners.length; i++) {
+            DAsm dAsm = new DAsm();
+            dAsm.init(inputs.names[i]);
+            dAsm.parse(tokens.scanners[i].reset());
+            errors += dAsm.errorCount();
+            counters.tokens += tokens.scanners[i].size();
+        }
+        return errors;
+    }
+}
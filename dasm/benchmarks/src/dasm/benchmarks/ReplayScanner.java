@@ -0,0 +1,82 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dasm.benchmarks;
+
+import dasm.DasmError;
+import dasm.Scanner;
+
+import java_cup.runtime.token;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+
+/**
+ * Returns tokens read once by a real Scanner, so that the parser can be
+ * measured without lexing.
+ */
+class ReplayScanner extends Scanner {
+    private final token[] tokens;
+    private final int[] lines;
+    private int pos;
+
+    private ReplayScanner(token[] tokens, int[] lines) {
+        this.tokens = tokens;
+        this.lines = lines;
+    }
+
+    /**
+     * Reads all tokens of source.
+     */
+    static ReplayScanner lex(String source) throws IOException, DasmError {
+        Scanner scanner = new Scanner(new StringReader(source));
+        ArrayList<token> tokens = new ArrayList<token>();
+        ArrayList<Integer> lines = new ArrayList<Integer>();
+        token tok;
+        do {
+            tok = scanner.next_token();
+            tokens.add(tok);
+            lines.add(scanner.token_line_num);
+        } while (tok.sym != Scanner.EOF);
+
+        int[] line_array = new int[lines.size()];
+        for (int i = 0; i < line_array.length; i++) {
+            line_array[i] = lines.get(i);
+        }
+        return new ReplayScanner(tokens.toArray(new token[tokens.size()]),
+                line_array);
+    }
+
+    /**
+     * Rewinds to the first token.
+     */
+    ReplayScanner reset() {
+        pos = 0;
+        return this;
+    }
+
+    int size() {
+        return tokens.length;
+    }
+
+    @Override
+    public token next_token() {
+        // the parser may ask again after EOF
+        if (pos == tokens.length) pos--;
+        token_line_num = lines[pos];
+        return tokens[pos++];
+    }
+}
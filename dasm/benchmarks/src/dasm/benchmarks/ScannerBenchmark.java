@@ -0,0 +1,70 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package dasm.benchmarks;
+
+import dasm.Scanner;
+
+import java_cup.runtime.token;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.StringReader;
+
+/**
+ * Measures Scanner.next_token(). The tokens counter gives tokens/s.
+ *
+ * Run with: java -cp dasm-benchmarks.jar:dasm.jar:dx.jar
+ * org.openjdk.jmh.Main -jvmArgs -Ddasm.benchmarks.root=cts/tools -prof gc
+ * dasm.*Benchmark
+ *
+ * The gc profiler reports the bytes allocated per operation.
+ */
+public class ScannerBenchmark {
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+        /**
+         * tokens lexed, reported as tokens/s
+         */
+        public long tokens;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            tokens = 0;
+        }
+    }
+
+    @Benchmark
+    public int lex(DasmInputs inputs, Counters counters) throws Exception {
+        int count = 0;
+        for (String source : inputs.sources) {
+            Scanner scanner = new Scanner(new StringReader(source));
+            token tok;
+            do {
+                tok = scanner.next_token();
+                count++;
+            } while (tok.sym != Scanner.EOF);
+        }
+        counters.tokens += count;
+        return count;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dasm.benchmarks;
+
+/**
+ * Generates synthetic .d sources with large methods. The generated code is
+ * only meant to be assembled, not verified or run.
+ */
+public class StressSource {
+
+    /**
+     * number of instructions in one generated block. Every block plants one
+     * label that is the target of a forward branch in the same block.
+     */
+    private static final int BLOCK_SIZE = 10;
+
+    /**
+     * Returns the source of a class named dasm.stress.Stress with the given
+     * number of methods, each made of at least insns instructions.
+     */
+    public static String generate(int methods, int insns) {
+        int blocks = (insns + BLOCK_SIZE - 1) / BLOCK_SIZE;
+        StringBuilder sb = new StringBuilder(methods * blocks * 300 + 256);
+
+        sb.append(".source Stress.java\n");
+        sb.append(".class public dasm.stress.Stress\n");
+        sb.append(".super java/lang/Object\n\n");
+        sb.append(".field public static counter I\n\n");
+
+        sb.append(".method public <init>()V\n");
+        sb.append(".limit regs 1\n");
+        sb.append("    invoke-direct {v0}, java/lang/Object/<init>()V\n");
+        sb.append("    return-void\n");
+        sb.append(".end method\n\n");
+
+        for (int m = 0; m < methods; m++) {
+            sb.append(".method public static run").append(m).append("(I)V\n");
+            sb.append(".limit regs 8\n");
+            for (int b = 0; b < blocks; b++) {
+                appendBlock(sb, b);
+            }
+            sb.append("    return-void\n");
+            sb.append(".end method\n\n");
+        }
+        return sb.toString();
+    }
+
+    private static void appendBlock(StringBuilder sb, int b) {
+        sb.append("    const/16 v0, ").append(b % 1000).append('\n');
+        sb.append("    add-int v1, v0, v7\n");
+        sb.append("    if-ne v0, v1, Label").append(b).append('\n');
+        sb.append("    invoke-static {v0, v1}, dasm/stress/Stress/helper(II)I\n");
+        sb.append("    move-result v2\n");
+        sb.append("    sget v3, dasm.stress.Stress.counter I\n");
+        sb.append("    const-string v4, \"s").append(b % 100).append("\"\n");
+        sb.append("    goto $+1\n");
+        sb.append("    add-int/lit8 v5, v2, 1\n");
+        sb.append("Label").append(b).append(":\n");
+        sb.append("    sput v5, dasm.stress.Stress.counter I\n");
+    }
+}
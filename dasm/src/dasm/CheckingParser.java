@@ -0,0 +1,47 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dasm;
+
+import java.util.Stack;
+
+import java_cup.runtime.lr_parser;
+import java_cup.runtime.symbol;
+
+/**
+ * Parser used by {@link DAsm#validate}. Errors raised by semantic actions are
+ * reported and parsing continues with the next statement, so that all errors
+ * of a file are found in one run.
+ */
+class CheckingParser extends parser {
+
+    CheckingParser(DAsm dAsm, Scanner scanner) {
+        super(dAsm, scanner);
+    }
+
+    public symbol do_action(int act_num, lr_parser parser, Stack stack,
+            int top) throws Exception {
+        try {
+            return super.do_action(act_num, parser, stack, top);
+        } catch (DasmError e) {
+            dAsm.report_error(e);
+        } catch (RuntimeException e) {
+            dAsm.report_error(e.getClass().getName() + ": " + e.getMessage());
+        }
+        // none of the productions calling DAsm has a typed left hand side
+        return new symbol(production_table()[act_num][0]);
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dasm;
+
+import com.android.dx.rop.cst.CstFieldRef;
+import com.android.dx.rop.cst.CstMethodRef;
+import com.android.dx.rop.cst.CstNat;
+import com.android.dx.rop.cst.CstString;
+import com.android.dx.rop.cst.CstType;
+import com.android.dx.rop.type.Type;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Constants referenced by instruction operands, keyed on the operand text as
+ * written in the source. Each distinct string, type, field or method
+ * reference is parsed and interned once, however many instructions use it.
+ *
+ * A table lives for one assembly session. It may be shared by DAsm instances
+ * assembling several files, also from several threads. Operands that fail
+ * to parse are not remembered, so they fail again wherever they are used.
+ */
+public class ConstantTable {
+    private final ConcurrentHashMap<String, CstString> strings =
+            new ConcurrentHashMap<String, CstString>();
+    private final ConcurrentHashMap<String, CstType> types =
+            new ConcurrentHashMap<String, CstType>();
+    private final ConcurrentHashMap<String, CstType> classes =
+            new ConcurrentHashMap<String, CstType>();
+    private final ConcurrentHashMap<String, CstFieldRef> fields =
+            new ConcurrentHashMap<String, CstFieldRef>();
+    private final ConcurrentHashMap<String, CstMethodRef> methods =
+            new ConcurrentHashMap<String, CstMethodRef>();
+
+    /**
+     * Returns the constant for a const-string operand.
+     */
+    CstString string(String value) {
+        CstString cst = strings.get(value);
+        if (cst == null) {
+            cst = new CstString(value);
+            strings.put(value, cst);
+        }
+        return cst;
+    }
+
+    /**
+     * Returns the constant for an operand that is either a type descriptor
+     * (I, [I, Ljava/lang/Object;) or a class name (java/lang/Object).
+     */
+    CstType type(String name) {
+        CstType cst = types.get(name);
+        if (cst == null) {
+            Type type;
+            try {
+                // try to intern it as primitive type first
+                type = Type.intern(name);
+            } catch (IllegalArgumentException e) {
+                type = Type.internClassName(name);
+            }
+            cst = CstType.intern(type);
+            types.put(name, cst);
+        }
+        return cst;
+    }
+
+    /**
+     * Returns the constant for an operand that is a class name.
+     */
+    CstType classType(String name) {
+        CstType cst = classes.get(name);
+        if (cst == null) {
+            cst = CstType.intern(Type.internClassName(name));
+            classes.put(name, cst);
+        }
+        return cst;
+    }
+
+    /**
+     * Returns the reference to field "class/name" of the given type.
+     */
+    CstFieldRef field(String field, String type) {
+        String key = field + ' ' + type;
+        CstFieldRef cst = fields.get(key);
+        if (cst == null) {
+            String[] names = Utils.getClassFieldFromString(field);
+            CstNat nat = new CstNat(new CstString(names[1]),
+                    new CstString(type));
+            cst = new CstFieldRef(classType(names[0]), nat);
+            fields.put(key, cst);
+        }
+        return cst;
+    }
+
+    /**
+     * Returns the reference to method "class/name(params)return".
+     */
+    CstMethodRef method(String signature) {
+        CstMethodRef cst = methods.get(signature);
+        if (cst == null) {
+            String[] names = Utils.getClassMethodSignatureFromString(
+                    signature);
+            CstNat nat = new CstNat(new CstString(names[1]),
+                    new CstString(names[2]));
+            cst = new CstMethodRef(classType(names[0]), nat);
+            methods.put(signature, cst);
+        }
+        return cst;
+    }
+}
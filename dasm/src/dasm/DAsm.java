@@ -61,11 +61,12 @@ import com.android.dx.util.IntList;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.io.PrintStream;
 import java.io.Reader;
 import java.util.ArrayList;
-import java.util.Enumeration;
-import java.util.Hashtable;
-import java.util.Vector;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 //TODO: copyright notice
 
@@ -74,7 +75,8 @@ import java.util.Vector;
  * and write) and few utility methods. To compile .d file: -create DAsm instance
  * -call readD() to read and parse content of .d file -call write() to write out
  * binary representation of .d file. .d file can contain several classes and/or
- * intefaces declarations.
+ * intefaces declarations. To only check a .d file for errors without
+ * generating code, call validate() instead.
  */
 
 public class DAsm {
@@ -83,8 +85,21 @@ public class DAsm {
     // number of errors reported in a file.
     int errors;
 
+    /**
+     * errors reported by validate(). null while assembling, in which case
+     * errors are printed as they are found.
+     */
+    ArrayList<String> check_messages;
+
+    // stream errors are printed to while assembling
+    PrintStream out = System.out;
+
     // options for dex output
     DexOptions dexOptions = new DexOptions();
+
+    // constants of instruction operands, possibly shared with other files
+    ConstantTable constants = new ConstantTable();
+
     // file being processed
     DexFile dexFile;
     int line_num;
@@ -97,7 +112,7 @@ public class DAsm {
     String superclass_name;
     String source_name;
     String filename;
-    Vector<String> interfaces = new Vector<String>();
+    ArrayList<String> interfaces = new ArrayList<String>();
     ClassDefItem classDef;
 
     // method being built
@@ -110,7 +125,7 @@ public class DAsm {
     /**
      * list of exceptions that method can throw.
      */
-    Vector<String> throw_list = new Vector<String>();
+    ArrayList<String> throw_list = new ArrayList<String>();
 
     /**
      * Constructor of CatchTable instances from method data.
@@ -134,9 +149,11 @@ public class DAsm {
     }
 
     /**
-     * Hold a translation table "LabelX" -> CodeAddress, planted.
+     * Hold a translation table "LabelX" -> CodeAddress, planted. The table is
+     * cleared and reused for every method.
      */
-    Hashtable<String, LabelTableEntry> labels_table;
+    HashMap<String, LabelTableEntry> labels_table =
+            new HashMap<String, LabelTableEntry>();
 
     /**
      * used by relative forward jumps. When relative forward offset is found,
@@ -146,17 +163,21 @@ public class DAsm {
      * output_finisher.
      */
     int current_insn_number;
-    Hashtable<Integer, CodeAddress> unprocessed_relative_goto_addr =
-            new Hashtable<Integer, CodeAddress>();
+    InsnAddressTable unprocessed_relative_goto_addr = new InsnAddressTable();
 
     // fill-array-data data
     int fill_data_reg;
     String fill_array_data_type;
-    Vector<Number> fill_array_data_values;
+    ArrayList<Number> fill_array_data_values = new ArrayList<Number>();
 
     // packed-switch and sparse-switch data
     int switch_reg;
-    Vector<Object> switch_targets;
+    /**
+     * switch target labels, null for relative targets. The relative offset of
+     * target i is kept at index i of switch_offsets.
+     */
+    ArrayList<String> switch_targets = new ArrayList<String>();
+    IntList switch_offsets = new IntList();
     IntList switch_keys;
     int packed_switch_first_key;
     int packed_switch_current_key;
@@ -165,7 +186,7 @@ public class DAsm {
      * holds sparse-switch, packed-switch and fill-array-data data blocks to be
      * added at the end of method
      */
-    Vector<DalvInsn> data_blocks = new Vector<DalvInsn>();
+    ArrayList<DalvInsn> data_blocks = new ArrayList<DalvInsn>();
 
     /**
      * Returns the number of warnings/errors encountered while parsing a file. 0
@@ -175,9 +196,41 @@ public class DAsm {
         return errors;
     }
 
+    /**
+     * Sets the stream errors found by readD() are printed to. Defaults to
+     * System.out.
+     */
+    public void setOutput(PrintStream out) {
+        this.out = out;
+    }
+
+    /**
+     * Makes this instance use constants, so that files assembled in one
+     * session parse each distinct operand only once.
+     */
+    public void setConstantTable(ConstantTable constants) {
+        this.constants = constants;
+    }
+
     void report_error(String msg) {
         errors++;
-        System.out.println("Line " + line_num + ": " + msg);
+        String line = "Line " + line_num + ": " + msg;
+        if (check_messages != null)
+            check_messages.add(line);
+        else
+            out.println(line);
+    }
+
+    /**
+     * Reports an error thrown by throwDasmError, which already carries the
+     * line number.
+     */
+    void report_error(DasmError e) {
+        errors++;
+        if (check_messages != null)
+            check_messages.add(e.getMessage());
+        else
+            out.println(e.getMessage());
     }
 
     void throwDasmError(String msg) throws DasmError {
@@ -286,7 +339,7 @@ public class DAsm {
         boolean found = false;
         // search for duplicates
         for (int i = 0; i < sz; i++) {
-            String s = interfaces.elementAt(i);
+            String s = interfaces.get(i);
             if (s.compareTo(name) == 0) {
                 found = true;
                 break;
@@ -366,6 +419,7 @@ public class DAsm {
                     + ", " + access + ", "
                     + (value == null ? "null" : value.toString()) + ")");
 
+        checkType(desc);
         CstNat nat = new CstNat(new CstString(name), new CstString(desc));
         CstFieldRef field = new CstFieldRef(classDef.getThisClass(), nat);
         EncodedField ef = new EncodedField(field, access);
@@ -397,11 +451,12 @@ public class DAsm {
         output_finisher = null;
         throw_list.clear();
         unprocessed_relative_goto_addr.clear();
-        labels_table = new Hashtable<String, LabelTableEntry>();
+        labels_table.clear();
         catch_builder = new DasmCatchBuilder(labels_table);
         current_insn_number = 0;
         regs_count = 1;
 
+        checkPrototype(descriptor);
         method_nat = new CstNat(new CstString(name), new CstString(descriptor));
         if (method_nat.isClassInit()) {
             access |= (AccessFlags.ACC_CONSTRUCTOR | AccessFlags.ACC_STATIC);
@@ -422,7 +477,7 @@ public class DAsm {
         // end of method
         int sz = data_blocks.size();
         for (int i = 0; i < sz; i++) {
-            addInsn(data_blocks.elementAt(i));
+            addInsn(data_blocks.get(i));
         }
         data_blocks.clear();
 
@@ -430,12 +485,17 @@ public class DAsm {
         if (unprocessed_relative_goto_addr.size() != 0) {
             report_error("Relative forward jump offset too big.");
         }
-        Enumeration<String> e = labels_table.keys();
-        while (e.hasMoreElements()) {
-            String key = e.nextElement();
-            LabelTableEntry lte = labels_table.get(key);
-            if (lte.planted == false) {
-                report_error("Label " + key + " not found.");
+        for (Map.Entry<String, LabelTableEntry> e : labels_table.entrySet()) {
+            if (e.getValue().planted == false) {
+                report_error("Label " + e.getKey() + " not found.");
+            }
+        }
+        // labels_table is reused by the next method
+        catch_builder.resolveLabels();
+        if (check_messages != null) {
+            // otherwise only detected when the catch table is built
+            for (String label : catch_builder.getUndefinedLabels()) {
+                report_error("Label " + label + " not defined.");
             }
         }
 
@@ -446,8 +506,7 @@ public class DAsm {
         DalvCode code = null;
         // output_finisher may be null at this point if method is native
         if (output_finisher != null)
-            code = new DalvCode(PositionList.NONE, output_finisher,
-                    catch_builder);
+            code = createCode();
         enc_method = new EncodedMethod(meth, method_acc, code, tl);
 
         if (meth.isInstanceInit() || meth.isClassInit()
@@ -458,7 +517,14 @@ public class DAsm {
             classDef.addVirtualMethod(enc_method);
         }
         catch_builder = null;
-        labels_table = null;
+    }
+
+    /**
+     * Wraps the instructions and catch table of the current method. The code
+     * is finished lazily, when the dex file is written.
+     */
+    protected DalvCode createCode() {
+        return new DalvCode(PositionList.NONE, output_finisher, catch_builder);
     }
 
     /**
@@ -680,7 +746,7 @@ public class DAsm {
                         + v1 + ")");
             }
             RegisterSpec reg1_spec = RegisterSpec.make(reg1_num, Type.STRING);
-            Constant constant = new CstString(v2);
+            Constant constant = constants.string(v2);
             DalvInsn dalvInsn = new CstInsn(insn.opcode,
                     createSourcePosition(), RegisterSpecList.make(reg1_spec),
                     constant);
@@ -694,16 +760,9 @@ public class DAsm {
                 throwDasmError("Bad arguments for instruction " + name + "("
                         + v1 + ")");
             }
-            Type type;
-            try {
-                // try to intern it as primitive type first
-                type = Type.intern(v2);
-            } catch (IllegalArgumentException e) {
-                type = Type.internClassName(v2);
-            }
-
-            RegisterSpec reg1_spec = RegisterSpec.make(reg1_num, type);
-            Constant constant = CstType.intern(type);
+            CstType constant = constants.type(v2);
+            RegisterSpec reg1_spec = RegisterSpec.make(reg1_num,
+                    constant.getClassType());
             DalvInsn dalvInsn = new CstInsn(insn.opcode,
                     createSourcePosition(), RegisterSpecList.make(reg1_spec),
                     constant);
@@ -738,30 +797,20 @@ public class DAsm {
             Constant constant;
             if (insn.args.compareToIgnoreCase(DopInfo.ARG_REGLIST_TYPE) == 0) {
                 // filled-new-array
-                Type type;
-                try {
-                    type = Type.intern(v2);
-                } catch (IllegalArgumentException e) {
-                    // in case of exception, try to intern type as a class name
-                    // (Lclass_name;)
-                    type = Type.internClassName(v2);
-                }
-                constant = CstType.intern(type);
+                constant = constants.type(v2);
             } else {
                 // invoke-kind
-                String[] names = Utils.getClassMethodSignatureFromString(v2);
-                CstNat method_nat = new CstNat(new CstString(names[1]),
-                        new CstString(names[2]));
+                CstMethodRef method = constants.method(v2);
+                checkPrototype(method.getNat().getDescriptor().getString());
 
                 /*
                  * if(insn.args.compareToIgnoreCase(
                  *          DopInfo.ARG_REGLIST_INTFMETHOD
                  * ) == 0) constant = new
-                 * CstInterfaceMethodRef(CstType.intern(Type
-                 * .internClassName(names[0])), method_nat); else
+                 * CstInterfaceMethodRef(method.getDefiningClass(),
+                 * method.getNat()); else
                  */
-                constant = new CstMethodRef(CstType.intern(Type
-                        .internClassName(names[0])), method_nat);
+                constant = method;
             }
 
             DalvInsn dalvInsn = new CstInsn(insn.opcode,
@@ -812,30 +861,20 @@ public class DAsm {
             Constant constant;
             if (insn.args.compareToIgnoreCase(DopInfo.ARG_REGRANGE_TYPE) == 0) {
                 // filled-new-array/range
-                Type type;
-                try {
-                    type = Type.intern(v2);
-                } catch (IllegalArgumentException e) {
-                    // in case of exception, try to intern type as a class name
-                    // (Lclass_name;)
-                    type = Type.internClassName(v2);
-                }
-                constant = CstType.intern(type);
+                constant = constants.type(v2);
             } else {
                 // invoke-kind/range
-                String[] names = Utils.getClassMethodSignatureFromString(v2);
-                CstNat method_nat = new CstNat(new CstString(names[1]),
-                        new CstString(names[2]));
+                CstMethodRef method = constants.method(v2);
+                checkPrototype(method.getNat().getDescriptor().getString());
 
                 /*
                  * if(insn.args.compareToIgnoreCase(
                  *         DopInfo.ARG_REGRANGE_INTFMETHOD
                  * ) == 0) constant = new
-                 * CstInterfaceMethodRef(CstType.intern(Type
-                 * .internClassName(names[0])), method_nat); else
+                 * CstInterfaceMethodRef(method.getDefiningClass(),
+                 * method.getNat()); else
                  */
-                constant = new CstMethodRef(CstType.intern(Type
-                        .internClassName(names[0])), method_nat);
+                constant = method;
             }
 
             DalvInsn dalvInsn = new CstInsn(insn.opcode,
@@ -1033,13 +1072,8 @@ public class DAsm {
             // TODO: is Type.INT suitable?
             RegisterSpec reg1_spec = RegisterSpec.make(reg1_num, Type.INT);
 
-            String[] names = Utils.getClassFieldFromString(v2);
-
-            CstNat field_nat = new CstNat(new CstString(names[1]),
-                    new CstString(v3));
-
-            Constant constant = new CstFieldRef(CstType.intern(Type
-                    .internClassName(names[0])), field_nat);
+            checkType(v3);
+            Constant constant = constants.field(v2, v3);
             DalvInsn dalvInsn = new CstInsn(insn.opcode,
                     createSourcePosition(), RegisterSpecList.make(reg1_spec),
                     constant);
@@ -1062,10 +1096,10 @@ public class DAsm {
                         + v2 + ")");
             }
 
-            Type type = Type.internClassName(v3);
+            CstType constant = constants.classType(v3);
+            Type type = constant.getClassType();
             RegisterSpec reg1_spec = RegisterSpec.make(reg1_num, type);
             RegisterSpec reg2_spec = RegisterSpec.make(reg2_num, type);
-            Constant constant = CstType.intern(type);
             DalvInsn dalvInsn = new CstInsn(insn.opcode,
                     createSourcePosition(), RegisterSpecList.make(reg1_spec,
                             reg2_spec), constant);
@@ -1105,13 +1139,8 @@ public class DAsm {
             RegisterSpec reg1_spec = RegisterSpec.make(reg1_num, Type.INT);
             RegisterSpec reg2_spec = RegisterSpec.make(reg2_num, Type.INT);
 
-            String[] names = Utils.getClassFieldFromString(v3);
-
-            CstNat field_nat = new CstNat(new CstString(names[1]),
-                    new CstString(v4));
-
-            Constant constant = new CstFieldRef(CstType.intern(Type
-                    .internClassName(names[0])), field_nat);
+            checkType(v4);
+            Constant constant = constants.field(v3, v4);
             DalvInsn dalvInsn = new CstInsn(insn.opcode,
                     createSourcePosition(), RegisterSpecList.make(reg1_spec,
                             reg2_spec), constant);
@@ -1148,15 +1177,7 @@ public class DAsm {
                 reg_spec_list.set(i, RegisterSpec.make(regC + i, Type.INT));
             }
 
-            Type type;
-            try {
-                type = Type.intern(v2);
-            } catch (IllegalArgumentException e) {
-                // in case of exception, try to intern type as a class name
-                // (Lclass_name;)
-                type = Type.internClassName(v2);
-            }
-            Constant constant = CstType.intern(type);
+            Constant constant = constants.type(v2);
 
             DalvInsn dalvInsn = new CstInsn(insn.opcode,
                     createSourcePosition(), reg_spec_list, constant);
@@ -1278,7 +1299,7 @@ public class DAsm {
         }
 
         fill_array_data_type = type;
-        fill_array_data_values = new Vector<Number>();
+        fill_array_data_values.clear();
     }
 
     /**
@@ -1300,7 +1321,7 @@ public class DAsm {
                 + fill_array_data_type));
         for (int i = 0; i < sz; i++) {
             Constant constant;
-            Number num = fill_array_data_values.elementAt(i);
+            Number num = fill_array_data_values.get(i);
             if (arrayType == CstType.LONG_ARRAY) {
                 constant = CstLong.make(num.longValue());
             } else if (arrayType == CstType.FLOAT_ARRAY) {
@@ -1339,7 +1360,7 @@ public class DAsm {
         data_blocks.add(data_addr);
         data_blocks.add(array_data);
 
-        fill_array_data_values = null;
+        fill_array_data_values.clear();
         fill_array_data_type = null;
     }
 
@@ -1363,7 +1384,8 @@ public class DAsm {
 
         packed_switch_first_key = first_key;
         packed_switch_current_key = 0;
-        switch_targets = new Vector<Object>();
+        switch_targets.clear();
+        switch_offsets.shrink(0);
         switch_keys = new IntList();
     }
 
@@ -1374,6 +1396,7 @@ public class DAsm {
         if (PARSER_DEBUG)
             System.out.println("addPackedSwitchData(" + target + ")");
         switch_targets.add(target);
+        switch_offsets.add(0);
         switch_keys.add(packed_switch_first_key + packed_switch_current_key);
         packed_switch_current_key++;
     }
@@ -1384,7 +1407,8 @@ public class DAsm {
     void addPackedSwitchData(int target) throws DasmError {
         if (PARSER_DEBUG)
             System.out.println("addPackedSwitchData(" + target + ")");
-        switch_targets.add(new Integer(target));
+        switch_targets.add(null);
+        switch_offsets.add(target);
         switch_keys.add(packed_switch_first_key + packed_switch_current_key);
         packed_switch_current_key++;
     }
@@ -1405,7 +1429,8 @@ public class DAsm {
             throwDasmError("Bad arguments for sparse-switch (" + reg + ")");
         }
 
-        switch_targets = new Vector<Object>();
+        switch_targets.clear();
+        switch_offsets.shrink(0);
         switch_keys = new IntList();
     }
 
@@ -1417,6 +1442,7 @@ public class DAsm {
             System.out.println("addSparseSwitchData(" + key + ", " + target
                     + ")");
         switch_targets.add(target);
+        switch_offsets.add(0);
         switch_keys.add(key);
     }
 
@@ -1427,7 +1453,8 @@ public class DAsm {
         if (PARSER_DEBUG)
             System.out.println("addSparseSwitchData(" + key + ", " + target
                     + ")");
-        switch_targets.add(new Integer(target));
+        switch_targets.add(null);
+        switch_offsets.add(target);
         switch_keys.add(key);
     }
 
@@ -1440,10 +1467,9 @@ public class DAsm {
 
         CodeAddress targets[] = new CodeAddress[sz];
         for (int i = 0; i < sz; i++) {
-            Object o = switch_targets.elementAt(i);
+            String t = switch_targets.get(i);
             CodeAddress addr;
-            if (o instanceof String) {
-                String t = (String) o;
+            if (t != null) {
                 LabelTableEntry lte = labels_table.get(t);
                 if (lte == null) {
                     CodeAddress code_address = new CodeAddress(
@@ -1453,15 +1479,15 @@ public class DAsm {
                 }
                 addr = lte.code_address;
             } else {
-                Integer t = (Integer) o;
+                int offset = switch_offsets.get(i);
 
                 addr = new CodeAddress(SourcePosition.NO_INFO);
-                if (t < 0) {
-                    output_finisher.insert(current_insn_number + t, addr);
+                if (offset < 0) {
+                    output_finisher.insert(current_insn_number + offset, addr);
                     current_insn_number++;
                 } else {
-                    unprocessed_relative_goto_addr.put(current_insn_number + t,
-                            addr);
+                    unprocessed_relative_goto_addr.put(
+                            current_insn_number + offset, addr);
                 }
             }
             targets[i] = addr;
@@ -1483,7 +1509,8 @@ public class DAsm {
         data_blocks.add(data_addr);
         data_blocks.add(switch_data);
 
-        switch_targets = null;
+        switch_targets.clear();
+        switch_offsets.shrink(0);
         switch_keys = null;
     }
 
@@ -1503,7 +1530,7 @@ public class DAsm {
     /**
      * Creates TypeList from list of types
      */
-    protected TypeList createTypeListFromStrings(Vector<String> strings) {
+    protected TypeList createTypeListFromStrings(List<String> strings) {
         StdTypeList tl;
 
         if (strings.size() == 0)
@@ -1512,12 +1539,28 @@ public class DAsm {
             int sz = strings.size();
             tl = new StdTypeList(sz);
             for (int i = 0; i < sz; i++) {
-                tl.set(i, Type.internClassName(strings.elementAt(i)));
+                tl.set(i, Type.internClassName(strings.get(i)));
             }
         }
         return tl;
     }
 
+    /**
+     * Checks that desc is a valid type descriptor when validating. While
+     * assembling, bad descriptors are only detected by dx when the dex file
+     * is written.
+     */
+    private void checkType(String desc) {
+        if (check_messages != null) Type.intern(desc);
+    }
+
+    /**
+     * Checks that desc is a valid method descriptor when validating.
+     */
+    private void checkPrototype(String desc) {
+        if (check_messages != null) Prototype.intern(desc);
+    }
+
     /**
      * Creates processor of instruction list.
      */
@@ -1602,14 +1645,18 @@ public class DAsm {
             throws IOException, Exception {
 
         // TODO: numberLines?
-        errors = 0;
-        filename = name;
-        source_name = name;
-        class_header = false;
-        classDef = null;
-        dexFile = new DexFile(dexOptions);
+        check_messages = null;
+        init(name);
 
-        scanner = new Scanner(input);
+        parse(new Scanner(input));
+    }
+
+    /**
+     * Parses the tokens returned by scanner. init() must have been called
+     * before.
+     */
+    public void parse(Scanner scanner) throws Exception {
+        this.scanner = scanner;
         parser parse_obj = new parser(this, scanner);
 
 
@@ -1617,8 +1664,62 @@ public class DAsm {
             // for debugging
             parse_obj.debug_parse();
         } else {
-            parse_obj.parse();
+            // the parse states are kept apart from the tokens, so tokens
+            // without a value need not be created for each occurrence
+            scanner.shareTokens = true;
+            parse_obj.fast_parse();
+        }
+
+    }
+
+    /**
+     * Checks a .d file for syntax errors, undefined labels, bad registers and
+     * malformed types without generating code. Unlike readD(), parsing goes on
+     * after an error, so all errors of the file are reported.
+     *
+     * @param input
+     *            is the stream containing the Dalvik assembly code.
+     * @param name
+     *            is the name of the stream.
+     * @return the list of errors found, empty if the file is correct. The same
+     *         number is returned by errorCount().
+     */
+    public List<String> validate(Reader input, String name)
+            throws IOException {
+        check_messages = new ArrayList<String>();
+        init(name);
+
+        try {
+            scanner = new Scanner(input);
+            scanner.shareTokens = true;
+            new CheckingParser(this, scanner).fast_parse();
+        } catch (DasmError e) {
+            // lexical errors can not be recovered from
+            if (scanner != null) line_num = scanner.line_num;
+            report_error(e.getMessage());
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            report_error("Exception <" + e.getClass().getName() + ">"
+                    + e.getMessage());
         }
 
+        List<String> result = check_messages;
+        check_messages = null;
+        return result;
+    }
+
+    /**
+     * Resets the state for parsing the file called name.
+     */
+    public void init(String name) {
+        errors = 0;
+        line_num = 0;
+        filename = name;
+        source_name = name;
+        class_header = false;
+        classDef = null;
+        scanner = null;
+        dexFile = new DexFile(dexOptions);
     }
 }
@@ -0,0 +1,347 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dasm;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.math.BigInteger;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Long running dasm process. Starting a JVM and loading the parser and dx
+ * takes much longer than assembling a typical .d file, so build systems can
+ * keep one process alive and send it requests instead.
+ *
+ * "dasm --daemon &lt;portfile&gt;" listens on a loopback port and writes the
+ * port number and a random key to portfile, which is only readable by the
+ * user. Every connection carries one request. The process exits when no
+ * request was received for the idle timeout. "dasm --daemon -" reads requests
+ * from stdin and writes responses to stdout until stdin is closed.
+ *
+ * A request starts with a line holding the key (socket mode only). It goes
+ * on with fields that each end with a NUL character, which is the only
+ * character arguments can't contain: the working directory of the client,
+ * the number of dasm command line arguments and the arguments. The response
+ * is the output of dasm with each line prefixed by "1 " for stdout or "2 "
+ * for stderr, followed by "exit &lt;status&gt;".
+ * See etc/dasm for a client.
+ */
+class Daemon {
+
+    /**
+     * default idle timeout, in seconds
+     */
+    private static final int DEFAULT_IDLE_SECONDS = 300;
+
+    private static final String CHARSET = "UTF-8";
+
+    /**
+     * key clients must send first, null when serving stdin
+     */
+    private final String key;
+
+    private Daemon(String key) {
+        this.key = key;
+    }
+
+    /**
+     * Called by Main for "--daemon" command lines.
+     *
+     * @return the exit status
+     */
+    static int main(String args[]) {
+        if (args.length < 2) {
+            System.err.println("Command line option --daemon"
+                    + " required argument missed");
+            return -1;
+        }
+        int idle_seconds = DEFAULT_IDLE_SECONDS;
+        for (int i = 2; i < args.length; i++) {
+            if (args[i].equals("-idle")) {
+                if (++i >= args.length) {
+                    System.err.println("Command line option -idle"
+                            + " required argument missed");
+                    return -1;
+                }
+                try {
+                    idle_seconds = Integer.parseInt(args[i]);
+                } catch (NumberFormatException e) {
+                    idle_seconds = 0;
+                }
+                if (idle_seconds < 1) {
+                    System.err.println("Command line option -idle requires"
+                            + " a number of seconds of at least 1, not "
+                            + args[i]);
+                    new Main(null, System.out, System.err).printUsage();
+                    return -1;
+                }
+            } else {
+                System.err.println("Unknown daemon option " + args[i]);
+                return -1;
+            }
+        }
+
+        try {
+            if (args[1].equals("-")) {
+                Daemon daemon = new Daemon(null);
+                BufferedReader in = new BufferedReader(new InputStreamReader(
+                        System.in, CHARSET));
+                while (daemon.handle(in, System.out)) {
+                }
+            } else {
+                serve(new File(args[1]), idle_seconds);
+            }
+        } catch (IOException e) {
+            if (Main.DEBUG) e.printStackTrace();
+            System.err.println("Exception <" + e.getClass().getName() + ">"
+                    + e.getMessage() + " in dasm daemon");
+            return -1;
+        }
+        return 0;
+    }
+
+    /**
+     * Accepts connections on a loopback port until idle for idle_seconds.
+     */
+    private static void serve(File port_file, int idle_seconds)
+            throws IOException {
+        ServerSocket server = new ServerSocket(0, 50,
+                InetAddress.getByName(null));
+        final Daemon daemon = new Daemon(
+                new BigInteger(130, new SecureRandom()).toString(32));
+        writePortFile(port_file, server.getLocalPort() + " " + daemon.key);
+
+        final AtomicInteger active = new AtomicInteger();
+        final AtomicLong last_activity = new AtomicLong(System.nanoTime());
+        long idle_nanos = idle_seconds * 1000000000L;
+        ExecutorService pool = Executors.newCachedThreadPool();
+
+        server.setSoTimeout(1000);
+        try {
+            for (;;) {
+                final Socket socket;
+                try {
+                    socket = server.accept();
+                } catch (SocketTimeoutException e) {
+                    if (active.get() == 0 && System.nanoTime()
+                            - last_activity.get() > idle_nanos) {
+                        break;
+                    }
+                    continue;
+                }
+                active.incrementAndGet();
+                pool.execute(new Runnable() {
+                    public void run() {
+                        try {
+                            daemon.handle(new BufferedReader(
+                                    new InputStreamReader(
+                                            socket.getInputStream(), CHARSET)),
+                                    socket.getOutputStream());
+                        } catch (IOException e) {
+                            // client went away
+                        } finally {
+                            try {
+                                socket.close();
+                            } catch (IOException e) {
+                            }
+                            last_activity.set(System.nanoTime());
+                            active.decrementAndGet();
+                        }
+                    }
+                });
+            }
+        } finally {
+            pool.shutdown();
+            server.close();
+            // a newer daemon may have replaced the file
+            if (daemon.key.equals(readPortFileKey(port_file))) {
+                port_file.delete();
+            }
+        }
+    }
+
+    /**
+     * Writes contents to port_file so that it is only readable by the user
+     * and never seen half written.
+     */
+    private static void writePortFile(File port_file, String contents)
+            throws IOException {
+        File dir = port_file.getAbsoluteFile().getParentFile();
+        if (!dir.exists()) dir.mkdirs();
+        File tmp = File.createTempFile("dasm", ".tmp", dir);
+        tmp.setReadable(false, false);
+        tmp.setReadable(true, true);
+        tmp.setWritable(false, false);
+        tmp.setWritable(true, true);
+        OutputStream out = new FileOutputStream(tmp);
+        try {
+            out.write((contents + "\n").getBytes(CHARSET));
+        } finally {
+            out.close();
+        }
+        if (!tmp.renameTo(port_file)) {
+            tmp.delete();
+            throw new IOException("Cannot create " + port_file);
+        }
+    }
+
+    private static String readPortFileKey(File port_file) {
+        try {
+            InputStream in = new FileInputStream(port_file);
+            try {
+                String line = new BufferedReader(new InputStreamReader(in,
+                        CHARSET)).readLine();
+                if (line == null) return null;
+                return line.substring(line.indexOf(' ') + 1);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Reads one request from in, runs it and writes the response to sink.
+     *
+     * @return false if there was no request to read
+     */
+    boolean handle(BufferedReader in, OutputStream sink) throws IOException {
+        if (key != null && !key.equals(in.readLine())) return false;
+        String dir = readField(in);
+        if (dir == null) return false;
+        File working_dir = new File(dir);
+
+        String count = readField(in);
+        if (count == null) return false;
+        int arg_count;
+        try {
+            arg_count = Integer.parseInt(count);
+        } catch (NumberFormatException e) {
+            return false;
+        }
+        ArrayList<String> args = new ArrayList<String>();
+        for (int i = 0; i < arg_count; i++) {
+            String arg = readField(in);
+            if (arg == null) return false;
+            args.add(arg);
+        }
+
+        TaggedOutputStream out = new TaggedOutputStream(sink, "1 ");
+        TaggedOutputStream err = new TaggedOutputStream(sink, "2 ");
+        PrintStream out_print = new PrintStream(out, true, CHARSET);
+        PrintStream err_print = new PrintStream(err, true, CHARSET);
+
+        int status;
+        try {
+            status = new Main(working_dir, out_print, err_print).run(
+                    args.toArray(new String[args.size()]));
+        } catch (RuntimeException e) {
+            e.printStackTrace(err_print);
+            status = -1;
+        }
+        out_print.flush();
+        err_print.flush();
+        out.finish();
+        err.finish();
+
+        synchronized (sink) {
+            sink.write(("exit " + status + "\n").getBytes(CHARSET));
+            sink.flush();
+        }
+        return true;
+    }
+
+    /**
+     * Reads a field of a request, up to the NUL character that ends it.
+     *
+     * @return the field, or null if in ended before the NUL character
+     */
+    private static String readField(BufferedReader in) throws IOException {
+        StringBuilder field = new StringBuilder();
+        int c;
+        while ((c = in.read()) != 0) {
+            if (c < 0) return null;
+            field.append((char) c);
+        }
+        return field.toString();
+    }
+
+    /**
+     * Writes whole lines to a shared sink, prefixed with a tag that tells the
+     * client which stream they belong to.
+     */
+    private static class TaggedOutputStream extends OutputStream {
+        private final OutputStream sink;
+        private final byte[] tag;
+        private final ByteArrayOutputStream line = new ByteArrayOutputStream();
+
+        TaggedOutputStream(OutputStream sink, String tag) throws IOException {
+            this.sink = sink;
+            this.tag = tag.getBytes(CHARSET);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            line.write(b);
+            if (b == '\n') writeLine();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            for (int i = 0; i < len; i++) {
+                write(b[off + i]);
+            }
+        }
+
+        /**
+         * Terminates and writes out any pending partial line.
+         */
+        void finish() throws IOException {
+            if (line.size() != 0) {
+                line.write('\n');
+                writeLine();
+            }
+        }
+
+        private void writeLine() throws IOException {
+            synchronized (sink) {
+                sink.write(tag);
+                line.writeTo(sink);
+                sink.flush();
+            }
+            line.reset();
+        }
+    }
+}
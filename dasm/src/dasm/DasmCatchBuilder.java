@@ -25,9 +25,13 @@ import com.android.dx.rop.type.Type;
 
 import dasm.DAsm.LabelTableEntry;
 
+import java.util.ArrayList;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
 import java.util.Vector;
 
 /**
@@ -99,7 +103,7 @@ public class DasmCatchBuilder implements CatchBuilder {
     private Vector<UnprocessedCatch> unprocessed_catches = 
             new Vector<UnprocessedCatch>();
     
-    private Hashtable<String, LabelTableEntry> labels_table;
+    private Map<String, LabelTableEntry> labels_table;
 
     /**
      * Constructs an instance.
@@ -107,10 +111,64 @@ public class DasmCatchBuilder implements CatchBuilder {
      * @param labels_table
      *            holds list of labels defined in method being processed
      */
-    public DasmCatchBuilder(Hashtable<String, LabelTableEntry> labels_table) {
+    public DasmCatchBuilder(Map<String, LabelTableEntry> labels_table) {
         this.labels_table = labels_table;
     }
 
+    /**
+     * Copies the labels referenced by catch blocks out of the method's label
+     * table, so that the table may be cleared and reused for the next method
+     * before {@link #build} is called.
+     */
+    public void resolveLabels() {
+        HashMap<String, LabelTableEntry> resolved =
+                new HashMap<String, LabelTableEntry>();
+        int sz = unprocessed_catches.size();
+        for (int i = 0; i < sz; i++) {
+            UnprocessedCatch uc = unprocessed_catches.elementAt(i);
+            resolveLabel(resolved, uc.from);
+            resolveLabel(resolved, uc.to);
+            Enumeration<String> branches = uc.type_branch.elements();
+            while (branches.hasMoreElements()) {
+                resolveLabel(resolved, branches.nextElement());
+            }
+        }
+        labels_table = resolved;
+    }
+
+    /**
+     * Returns the labels referenced by catch blocks that are not defined in
+     * the method, in the order they are used.
+     */
+    public List<String> getUndefinedLabels() {
+        ArrayList<String> result = new ArrayList<String>();
+        int sz = unprocessed_catches.size();
+        for (int i = 0; i < sz; i++) {
+            UnprocessedCatch uc = unprocessed_catches.elementAt(i);
+            checkLabel(result, uc.from);
+            checkLabel(result, uc.to);
+            Enumeration<String> branches = uc.type_branch.elements();
+            while (branches.hasMoreElements()) {
+                checkLabel(result, branches.nextElement());
+            }
+        }
+        return result;
+    }
+
+    private void checkLabel(List<String> undefined, String label) {
+        LabelTableEntry lte = labels_table.get(label);
+        if ((lte == null || lte.planted == false)
+                && !undefined.contains(label)) {
+            undefined.add(label);
+        }
+    }
+
+    private void resolveLabel(Map<String, LabelTableEntry> resolved,
+            String label) {
+        LabelTableEntry lte = labels_table.get(label);
+        if (lte != null) resolved.put(label, lte);
+    }
+
     /**
      * Gets the set of catch types associated with this instance.
      */
@@ -0,0 +1,95 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dasm;
+
+import com.android.dx.dex.code.CodeAddress;
+
+import java.util.Arrays;
+
+/**
+ * Maps instruction numbers to pending CodeAddress instances. Instruction
+ * numbers are small non-negative ints, so entries are kept in an array indexed
+ * directly by instruction number instead of boxing the keys. The table is
+ * meant to be cleared and reused for every method of a file.
+ */
+class InsnAddressTable {
+    private CodeAddress[] table = new CodeAddress[64];
+
+    /**
+     * number of non-null entries
+     */
+    private int size;
+
+    /**
+     * one more than the highest index ever used since the last clear()
+     */
+    private int limit;
+
+    /**
+     * Returns the CodeAddress registered for instruction insn_number or null.
+     */
+    CodeAddress get(int insn_number) {
+        if (size == 0 || insn_number < 0 || insn_number >= limit) return null;
+        return table[insn_number];
+    }
+
+    /**
+     * Registers code_address for instruction insn_number, replacing any
+     * previous entry.
+     */
+    void put(int insn_number, CodeAddress code_address) {
+        if (insn_number < 0)
+            throw new IllegalArgumentException("insn_number < 0");
+        if (insn_number >= table.length) {
+            int new_length = table.length * 2;
+            while (new_length <= insn_number) {
+                new_length *= 2;
+            }
+            table = Arrays.copyOf(table, new_length);
+        }
+        if (table[insn_number] == null) size++;
+        table[insn_number] = code_address;
+        if (insn_number >= limit) limit = insn_number + 1;
+    }
+
+    /**
+     * Removes the entry for instruction insn_number, if any.
+     */
+    void remove(int insn_number) {
+        if (insn_number < 0 || insn_number >= limit) return;
+        if (table[insn_number] != null) {
+            table[insn_number] = null;
+            size--;
+        }
+    }
+
+    /**
+     * Returns the number of pending entries.
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Removes all entries, keeping the allocated storage for reuse.
+     */
+    void clear() {
+        if (size != 0) Arrays.fill(table, 0, limit, null);
+        size = 0;
+        limit = 0;
+    }
+}
@@ -24,7 +24,15 @@ import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStreamReader;
+import java.io.PrintStream;
 import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * DAsm entry point
@@ -40,31 +48,77 @@ public class Main {
     /**
      * destination path to place .dex file(s)
      */
-    private static String destPath = null;
+    private String destPath = null;
 
     /**
      * generate human-readable files
      */
-    private static boolean humanHeadable = false;
+    private boolean humanHeadable = false;
 
     /**
      * input files codepage
      */
-    private static String encoding = null;
+    private String encoding = null;
 
     /**
      * automatically generate line numbers
      */
-    private static boolean generateLineNumbers = false;
+    private boolean generateLineNumbers = false;
 
-    private static void incompleteOption(String opt) {
-        System.err.println("Command line option " + opt
+    /**
+     * only check input files for errors, do not generate code
+     */
+    private boolean checkOnly = false;
+
+    /**
+     * number of files checked in parallel
+     */
+    private int threads = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * directory relative file names are resolved against, null for the
+     * current directory of the process
+     */
+    private final File workingDir;
+
+    /**
+     * streams messages are printed to
+     */
+    private final PrintStream out;
+    private final PrintStream err;
+
+    /**
+     * constants shared by all files assembled or checked by this instance
+     */
+    private final ConstantTable constants = new ConstantTable();
+
+    /**
+     * Creates an instance that resolves relative file names against
+     * workingDir and prints messages to out and err.
+     */
+    Main(File workingDir, PrintStream out, PrintStream err) {
+        this.workingDir = workingDir;
+        this.out = out;
+        this.err = err;
+    }
+
+    private int incompleteOption(String opt) {
+        err.println("Command line option " + opt
                 + " required argument missed");
-        System.exit(-1);
+        return -1;
+    }
+
+    /**
+     * Returns the file named name, relative to the working directory.
+     */
+    private File resolve(String name) {
+        File file = new File(name);
+        if (workingDir == null || file.isAbsolute()) return file;
+        return new File(workingDir, name);
     }
 
-    private static Reader createReader(String fname) throws IOException {
-        FileInputStream fs = new FileInputStream(fname);
+    private Reader createReader(String fname) throws IOException {
+        FileInputStream fs = new FileInputStream(resolve(fname));
         InputStreamReader ir;
         if (encoding == null)
             ir = new InputStreamReader(fs);
@@ -79,8 +133,10 @@ public class Main {
      * @param fname
      *            is the name of the file containing the DAsm source code.
      */
-    public static void assemble(String fname) {
+    public void assemble(String fname) {
         DAsm dAsm = new DAsm();
+        dAsm.setConstantTable(constants);
+        dAsm.setOutput(out);
 
         // read and parse .d file
         Reader inp = null;
@@ -89,11 +145,11 @@ public class Main {
             dAsm.readD(inp, new File(fname).getName(), generateLineNumbers);
             close(inp);
         } catch (DasmError e) {
-            if (DEBUG) e.printStackTrace();
-            System.err.println("DASM Error: " + e.getMessage());
+            if (DEBUG) e.printStackTrace(err);
+            err.println("DASM Error: " + e.getMessage());
         } catch (Exception e) {
-            if (DEBUG) e.printStackTrace();
-            System.err.println("Exception <" + e.getClass().getName() + ">"
+            if (DEBUG) e.printStackTrace(err);
+            err.println("Exception <" + e.getClass().getName() + ">"
                     + e.getMessage() + " while reading and parsing " + fname);
             return;
 
@@ -102,7 +158,7 @@ public class Main {
         }
 
         if (dAsm.errorCount() > 0) {
-            System.err.println("Found " + dAsm.errorCount() + " errors "
+            err.println("Found " + dAsm.errorCount() + " errors "
                     + " while reading and parsing " + fname);
             return;
         }
@@ -134,13 +190,13 @@ public class Main {
             hr_file = new File(dest_dir, class_name + ".dxt");
 
             // check that dest_dir exists
-            File dest = new File(dest_dir);
+            File dest = resolve(dest_dir);
             if (!dest.exists()) {
                 dest.mkdirs();
             }
 
             if (!dest.isDirectory()) {
-                System.err.println("Cannot create directory " + dest_dir);
+                err.println("Cannot create directory " + dest_dir);
                 return;
             }
         }
@@ -150,19 +206,20 @@ public class Main {
         FileWriter hr_outp = null;
 
         try {
-            outp = new FileOutputStream(out_file);
-            if (humanHeadable) hr_outp = new FileWriter(hr_file);
+            outp = new FileOutputStream(resolve(out_file.getPath()));
+            if (humanHeadable)
+                hr_outp = new FileWriter(resolve(hr_file.getPath()));
             dAsm.write(outp, hr_outp);
         } catch (Exception e) {
-            if (DEBUG) e.printStackTrace();
-            System.err.println("Exception <" + e.getClass().getName() + ">"
+            if (DEBUG) e.printStackTrace(err);
+            err.println("Exception <" + e.getClass().getName() + ">"
                     + e.getMessage() + " while writing " + out_file.getPath());
 
             close(hr_outp);
             close(outp);
 
-            hr_file.delete();
-            out_file.delete();
+            resolve(hr_file.getPath()).delete();
+            resolve(out_file.getPath()).delete();
 
             return;
         } finally {
@@ -170,7 +227,84 @@ public class Main {
             close(outp);
         }
 
-        System.out.println("Generated: " + out_file.getPath());
+        out.println("Generated: " + out_file.getPath());
+    }
+
+    /**
+     * Called to check a single file for errors without generating code.
+     *
+     * @param fname
+     *            is the name of the file containing the DAsm source code.
+     * @return the errors found in the file, one per line, or null if there
+     *         are none.
+     */
+    public String check(String fname) {
+        DAsm dAsm = new DAsm();
+        dAsm.setConstantTable(constants);
+        List<String> errors;
+
+        Reader inp = null;
+        try {
+            inp = createReader(fname);
+            errors = dAsm.validate(inp, new File(fname).getName());
+        } catch (IOException e) {
+            return "Exception <" + e.getClass().getName() + ">"
+                    + e.getMessage() + " while reading " + fname;
+        } finally {
+            close(inp);
+        }
+
+        if (errors.isEmpty()) return null;
+
+        StringBuilder sb = new StringBuilder();
+        for (String error : errors) {
+            sb.append(fname).append(": ").append(error).append('\n');
+        }
+        sb.append("Found " + errors.size() + " errors while checking "
+                + fname);
+        return sb.toString();
+    }
+
+    /**
+     * Checks files in parallel and prints the errors of every file, in the
+     * order the files were given.
+     *
+     * @return the number of files with errors
+     */
+    private int checkAll(List<String> files) {
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Future<String>> results = new ArrayList<Future<String>>();
+        for (final String fname : files) {
+            results.add(pool.submit(new Callable<String>() {
+                public String call() {
+                    return check(fname);
+                }
+            }));
+        }
+        pool.shutdown();
+
+        int failed = 0;
+        for (int i = 0; i < files.size(); i++) {
+            String report;
+            try {
+                report = results.get(i).get();
+            } catch (ExecutionException e) {
+                if (DEBUG) e.getCause().printStackTrace(err);
+                report = "Exception <" + e.getCause().getClass().getName()
+                        + ">" + e.getCause().getMessage()
+                        + " while checking " + files.get(i);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                report = "Interrupted while checking " + files.get(i);
+            }
+            if (report != null) {
+                out.println(report);
+                failed++;
+            }
+        }
+        out.println("Checked " + files.size() + " files, " + failed
+                + " with errors");
+        return failed;
     }
 
     private static void close(Closeable c) {
@@ -183,6 +317,18 @@ public class Main {
     }
 
     public static void main(String args[]) {
+        if (args.length > 0 && args[0].equals("--daemon")) {
+            System.exit(Daemon.main(args));
+        }
+        System.exit(new Main(null, System.out, System.err).run(args));
+    }
+
+    /**
+     * Runs dasm with the command line args.
+     *
+     * @return the exit status
+     */
+    int run(String args[]) {
         int i;
 
         String files[] = new String[args.length];
@@ -190,31 +336,47 @@ public class Main {
 
         if (args.length == 0) {
             printUsage();
-            System.exit(-1);
+            return -1;
         }
 
         for (i = 0; i < args.length; i++) {
             if (args[i].equals("-help") || args[i].equals("-?")) {
                 printUsage();
-                System.exit(0);
+                return 0;
             }
             if (args[i].equals("-version")) {
-                System.out.println("DAsm version: " + version);
-                if (DEBUG) System.out.println("(compiled with DEBUG flag on)");
-                System.exit(0);
+                out.println("DAsm version: " + version);
+                if (DEBUG) out.println("(compiled with DEBUG flag on)");
+                return 0;
             }
             if (args[i].equals("-g")) {
                 generateLineNumbers = true;
             } else if (args[i].equals("-d")) {
                 if (++i >= args.length)
-                    incompleteOption("-d");
+                    return incompleteOption("-d");
                 else
                     destPath = args[i];
+            } else if (args[i].equals("--check")) {
+                checkOnly = true;
+            } else if (args[i].equals("-j")) {
+                if (++i >= args.length)
+                    return incompleteOption("-j");
+                try {
+                    threads = Integer.parseInt(args[i]);
+                } catch (NumberFormatException e) {
+                    threads = 0;
+                }
+                if (threads < 1) {
+                    err.println("Command line option -j requires a number"
+                            + " of threads of at least 1, not " + args[i]);
+                    printUsage();
+                    return -1;
+                }
             } else if (args[i].equals("-h")) {
                 humanHeadable = true;
             } else if (args[i].equals("-e")) {
                 if (++i >= args.length)
-                    incompleteOption("-e");
+                    return incompleteOption("-e");
                 else
                     encoding = args[i];
             } else {
@@ -222,20 +384,35 @@ public class Main {
             }
         }
 
+        if (checkOnly) {
+            List<String> list = new ArrayList<String>(num_files);
+            for (i = 0; i < num_files; i++) {
+                list.add(files[i]);
+            }
+            return checkAll(list) == 0 ? 0 : 1;
+        }
+
         for (i = 0; i < num_files; i++) {
             assemble(files[i]);
         }
+        return 0;
     }
 
-    static void printUsage() {
-        System.err
-                .println("dasm [-d <outpath>] [-g] [-h] [-e <encoding>] <file>"
-                        + "[<file> ...]\n\n"
+    void printUsage() {
+        err.println("dasm [-d <outpath>] [-g] [-h] [-e <encoding>] <file>"
+                        + " [<file> ...]\n\n"
                         + "  -g - autogenerate linenumbers\n"
                         + "  -e - codepage for inputfile encoding\n"
                         + "  -d - path for generated classfiles\n"
                         + "  -h - generate human-readable output\n"
                         + "  file  - sourcefile\n"
+                        + "or: dasm --check [-j <threads>] [-e <encoding>] <file>"
+                        + " [<file> ...]\n\n"
+                        + "  --check - only report errors, do not generate code\n"
+                        + "  -j - number of files checked in parallel\n"
+                        + "or: dasm --daemon <portfile> [-idle <seconds>]\n"
+                        + "or: dasm --daemon -\n\n"
+                        + "  --daemon - keep running and assemble files on request\n"
                         + "or: dasm -version\n"
                         + "or: dasm -help");
     }
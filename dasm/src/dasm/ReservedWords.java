@@ -23,8 +23,16 @@ import java_cup.runtime.token;
 class ReservedWords {
     static Hashtable<String, token> reserved_words;
 
-    public static token get(String name) {
-        return (token) reserved_words.get(name);
+    /**
+     * Returns the token for the reserved word or null. Unless shared is set
+     * this is a new token, because parser.parse() stores its state in the
+     * tokens it shifts and files may be parsed in parallel. Tokens may be
+     * shared with parser.fast_parse(), which does not modify them.
+     */
+    public static token get(String name, boolean shared) {
+        token tok = reserved_words.get(name);
+        if (tok == null || shared) return tok;
+        return new token(tok.sym);
     }
 
     public static boolean contains(String name) {
@@ -33,7 +33,7 @@ import java_cup.runtime.token;
  */
 
 
-class Scanner {
+public class Scanner {
     /**
      * Chars buffer with autoexpanding.
      */
@@ -92,6 +92,12 @@ class Scanner {
      */
     protected static final String SEPARATORS = WHITESPACE + ":=" + ",";
 
+    /**
+     * The sym of the token returned at the end of the input, for scanners and
+     * callers outside this package (sym is package private).
+     */
+    public static final int EOF = sym.EOF;
+
     /**
      * error reporting
      */
@@ -103,6 +109,28 @@ class Scanner {
      */
     public Hashtable dict = new Hashtable();
 
+    /**
+     * If true, tokens that carry no value are shared instead of created for
+     * each occurrence. Only set this when parsing with parser.fast_parse(),
+     * which does not store its state in the tokens.
+     */
+    boolean shareTokens;
+
+    /**
+     * Shared tokens for the separators and EOF
+     */
+    private static final token SEP_TOKEN = new token(sym.SEP);
+    private static final token EOF_TOKEN = new token(sym.EOF);
+    private static final token EQ_TOKEN = new token(sym.EQ);
+    private static final token COLON_TOKEN = new token(sym.COLON);
+
+    /**
+     * Constructor for subclasses that do not read their tokens from a Reader.
+     */
+    protected Scanner() {
+        line = new StringBuffer();
+    }
+
     public Scanner(Reader i) throws IOException, DasmError {
         inputReader = i;
         line_num = 1;
@@ -197,6 +225,13 @@ class Scanner {
         return chval;
     }
 
+    /**
+     * Returns a token without a value, either the shared one or a copy
+     */
+    private token simpleToken(token shared) {
+        return shareTokens ? shared : new token(shared.sym);
+    }
+
     /**
      * Read and recognize next token
      */
@@ -211,7 +246,7 @@ class Scanner {
                 // interspersed with whitespace or comments)
                 skipEmptyLines();
                 token_line_num = line_num;
-                return new token(sym.SEP);
+                return simpleToken(SEP_TOKEN);
 
             case ' ':
             case '\t':
@@ -222,15 +257,15 @@ class Scanner {
 
             case -1: // EOF token
                 char_num = -1;
-                return new token(sym.EOF);
+                return simpleToken(EOF_TOKEN);
 
             case '=': // EQUALS token
                 readNextChar();
-                return new token(sym.EQ);
+                return simpleToken(EQ_TOKEN);
 
             case ':': // COLON token
                 readNextChar();
-                return new token(sym.COLON);
+                return simpleToken(COLON_TOKEN);
 
             case '-':
             case '+':
@@ -283,7 +318,7 @@ class Scanner {
                     token tok;
 
                     // keyword or directive?
-                    if ((tok = ReservedWords.get(str)) != null) return tok;
+                    if ((tok = ReservedWords.get(str, shareTokens)) != null) return tok;
 
                     // VM instruction?
                     if (DopInfo.contains(str))
@@ -459,11 +494,20 @@ class Scanner {
         token tok;
 
         // directive?
-        if ((tok = ReservedWords.get(str)) != null) return tok;
+        if ((tok = ReservedWords.get(str, shareTokens)) != null) return tok;
 
         Number num;
         try {
-            num = Utils.stringToNumber(str);
+            if (Utils.isIntegerLiteral(str)) {
+                long x = Utils.parseIntegerLiteral(str);
+                if (x <= (long) Integer.MAX_VALUE
+                        && x >= (long) Integer.MIN_VALUE) {
+                    return new int_token(sym.Int, (int) x);
+                }
+                num = Long.valueOf(x);
+            } else {
+                num = Utils.stringToNumber(str);
+            }
         } catch (NumberFormatException e) {
             if (charBuf.charAt(0) != '.') // directive?
                 throw new DasmError("Bad number format");
@@ -46,34 +46,46 @@ public class Utils {
      */
     public static Number stringToNumber(String str)
             throws NumberFormatException {
-        if (str.startsWith("+")) {
-            return new Integer(str.substring(1));
-        }
-        if (str.startsWith("0x")) {
-            return (Utils.stringToSmallestInteger(str.substring(2), 16));
-        } else if (str.indexOf('.') != -1) {
+        if (str.indexOf('.') != -1 && !str.startsWith("0x")
+                && !str.startsWith("+")) {
 
             double x = Double.parseDouble(str);
             if (x <= (double) Float.MAX_VALUE && x >= (float) Float.MIN_VALUE) {
-                return new Float((float) x);
+                return Float.valueOf((float) x);
             }
 
-            return new Double(x);
-        } else {
-            return (Utils.stringToSmallestInteger(str, 10));
+            return Double.valueOf(x);
         }
+
+        long x = parseIntegerLiteral(str);
+        if (x <= (long) Integer.MAX_VALUE && x >= (long) Integer.MIN_VALUE) {
+            return Integer.valueOf((int) x);
+        }
+        return Long.valueOf(x);
     }
 
     /**
-     * Converts string to a smallest possible integer (int or long)
+     * Returns true if str is parsed by {@link #parseIntegerLiteral} rather
+     * than as a floating point number.
      */
-    private static Number stringToSmallestInteger(String str, int radix)
+    public static boolean isIntegerLiteral(String str) {
+        return str.startsWith("+") || str.startsWith("0x")
+                || str.indexOf('.') == -1;
+    }
+
+    /**
+     * Parses an integer literal ("+int", "0x" hexadecimal or decimal) without
+     * boxing the result.
+     */
+    public static long parseIntegerLiteral(String str)
             throws NumberFormatException {
-        long x = Long.parseLong(str, radix);
-        if (x <= (long) Integer.MAX_VALUE && x >= (long) Integer.MIN_VALUE) {
-            return new Integer((int) x);
+        if (str.startsWith("+")) {
+            return Integer.parseInt(str.substring(1));
+        }
+        if (str.startsWith("0x")) {
+            return Long.parseLong(str.substring(2), 16);
         }
-        return new Long(x);
+        return Long.parseLong(str, 10);
     }
 
     /**
@@ -1 +1,5 @@
-java -jar ..\..\etc\java_cup.jar < parser.cup
\ No newline at end of file
+set CUP_CLASSES=%TEMP%\dasm_java_cup
+mkdir %CUP_CLASSES%
+javac -nowarn -d %CUP_CLASSES% ..\java_cup\*.java ..\java_cup\runtime\*.java
+java -cp %CUP_CLASSES% java_cup.Main -packed_tables -generator_src ..\java_cup %* < parser.cup
+rmdir /s /q %CUP_CLASSES%
@@ -1,7 +1,8 @@
 
 //----------------------------------------------------
 // The following code was generated by Java(tm) CUP v0.9d
-// Thu Dec 11 17:10:00 CET 2008
+// Sun Oct 18 23:59:07 UTC 2026
+// Specification hash 34e4c8529a815638eef917b2f11b4f3f92b830be
 //----------------------------------------------------
 
 package dasm;
@@ -16,785 +17,567 @@ public class parser extends java_cup.runtime.lr_parser {
   /** constructor */
   public parser() {super();}
 
-  /** production table */
-  protected static final short _production_table[][] = {
-        {25, 1},     {0, 2},     {26, 2},     {26, 1},     {27, 4}, 
-        {47, 10},     {43, 3},     {43, 0},     {35, 3},     {35, 3}, 
-        {35, 0},     {13, 4},     {13, 4},     {1, 1},     {99, 0}, 
-        {98, 2},     {11, 1},     {11, 0},     {10, 2},     {10, 1}, 
-        {9, 1},     {9, 1},     {9, 1},     {9, 1},     {9, 1}, 
-        {9, 1},     {9, 1},     {9, 1},     {9, 1},     {9, 1}, 
-        {9, 1},     {9, 1},     {9, 1},     {9, 1},     {9, 1}, 
-        {9, 1},     {9, 1},     {9, 1},     {39, 3},     {39, 0}, 
-        {22, 1},     {22, 0},     {23, 2},     {23, 1},     {24, 3}, 
-        {45, 3},     {45, 0},     {46, 1},     {44, 4},     {44, 0}, 
-        {48, 3},     {48, 0},     {49, 0},     {77, 1},     {77, 0}, 
-        {78, 2},     {78, 1},     {79, 3},     {94, 2},     {80, 2}, 
-        {81, 2},     {82, 3},     {82, 3},     {83, 3},     {83, 3}, 
-        {83, 4},     {83, 4},     {84, 1},     {84, 0},     {85, 2}, 
-        {85, 1},     {86, 3},     {92, 2},     {92, 3},     {87, 2}, 
-        {97, 2},     {97, 1},     {89, 2},     {89, 1},     {90, 1}, 
-        {96, 2},     {96, 1},     {95, 4},     {93, 1},     {88, 3}, 
-        {91, 1},     {91, 2},     {50, 1},     {50, 0},     {51, 2}, 
-        {51, 1},     {52, 3},     {53, 2},     {20, 1},     {20, 0}, 
-        {18, 2},     {18, 1},     {19, 8},     {19, 6},     {19, 4}, 
-        {6, 2},     {6, 0},     {54, 5},     {55, 3},     {56, 1}, 
-        {56, 0},     {57, 2},     {57, 1},     {58, 3},     {58, 3}, 
-        {58, 3},     {58, 4},     {7, 1},     {7, 1},     {7, 1}, 
-        {8, 1},     {8, 1},     {59, 1},     {59, 0},     {60, 2}, 
-        {60, 1},     {61, 7},     {61, 7},     {2, 1},     {2, 0}, 
-        {3, 2},     {3, 0},     {4, 2},     {4, 0},     {32, 1}, 
-        {32, 0},     {30, 2},     {30, 1},     {31, 3},     {31, 2}, 
-        {15, 4},     {17, 3},     {37, 2},     {37, 1},     {100, 0}, 
-        {36, 3},     {38, 1},     {38, 1},     {38, 1},     {38, 1}, 
-        {38, 0},     {28, 2},     {28, 3},     {16, 2},     {16, 2}, 
-        {16, 2},     {16, 2},     {16, 2},     {16, 2},     {16, 2}, 
-        {16, 2},     {16, 2},     {16, 4},     {16, 4},     {42, 9}, 
-        {42, 5},     {42, 9},     {5, 2},     {5, 0},     {29, 2}, 
-        {29, 2},     {40, 1},     {41, 1},     {12, 7},     {12, 7}, 
-        {33, 2},     {21, 1},     {21, 1},     {34, 1},     {34, 2}, 
-        {34, 2},     {34, 3},     {34, 3},     {34, 3},     {34, 3}, 
-        {34, 4},     {34, 4},     {34, 4},     {34, 3},     {34, 5}, 
-        {14, 2},     {14, 2},     {14, 2},     {62, 3},     {63, 3}, 
-        {64, 2},     {64, 1},     {65, 2},     {65, 2},     {66, 1}, 
-        {67, 3},     {68, 3},     {69, 2},     {69, 1},     {70, 2}, 
-        {70, 2},     {71, 1},     {72, 3},     {73, 2},     {74, 2}, 
-        {74, 1},     {75, 4},     {75, 4},     {76, 1}  };
+  /** parse tables, packed into string constants and unpacked
+   *  on first use (see java_cup.runtime.packed_table) */
+  static class CUP$tables {
+    /** production table */
+    static final short[][] production =
+      java_cup.runtime.packed_table.unpack_rows(new String[] {
+        "\u8000\u0275\u01a3\0053\003\005\001\005\0055\005\0055" +
+        "\003\0057\011\005_\025\005W\007\005W" +
+        "\001\005G\007\005G\007\005G\001\005\033" +
+        "\011\005\033\011\005\003\003\005\307\001\005\305" +
+        "\005\005\027\003\005\027\001\005\025\005\005\025" +
+        "\003\005\023\003\005\023\003\005\023\003\005\023" +
+        "\003\005\023\003\005\023\003\005\023\003\005\023" +
+        "\003\005\023\003\005\023\003\005\023\003\005\023" +
+        "\003\005\023\003\005\023\003\005\023\003\005\023" +
+        "\003\005\023\003\005\023\003\005O\007\005O" +
+        "\001\005-\003\005-\001\005/\005\005/" +
+        "\003\0051\007\005[\007\005[\001\005]" +
+        "\003\005Y\011\005Y\001\005a\007\005a" +
+        "\001\005c\001\005\233\003\005\233\001\005\235" +
+        "\005\005\235\003\005\237\007\005\275\005\005\241" +
+        "\005\005\243\005\005\245\007\005\245\007\005\247" +
+        "\007\005\247\007\005\247\011\005\247\011\005\251" +
+        "\003\005\251\001\005\253\005\005\253\003\005\255" +
+        "\007\005\271\005\005\271\007\005\257\005\005\303" +
+        "\005\005\303\003\005\263\005\005\263\003\005\265" +
+        "\003\005\301\005\005\301\003\005\277\011\005\273" +
+        "\003\005\261\007\005\267\003\005\267\005\005e" +
+        "\003\005e\001\005g\005\005g\003\005i" +
+        "\007\005k\005\005)\003\005)\001\005%" +
+        "\005\005%\003\005'\021\005'\015\005'" +
+        "\011\005\015\005\005\015\001\005m\013\005o" +
+        "\007\005q\003\005q\001\005s\005\005s" +
+        "\003\005u\007\005u\007\005u\007\005u" +
+        "\011\005\017\003\005\017\003\005\017\003\005\021" +
+        "\003\005\021\003\005w\003\005w\001\005y" +
+        "\005\005y\003\005{\017\005{\017\005\005" +
+        "\003\005\005\001\005\007\005\005\007\001\005\011" +
+        "\005\005\011\001\005A\003\005A\001\005=" +
+        "\005\005=\003\005?\007\005?\005\005\037" +
+        "\011\005#\007\005K\005\005K\003\005\311" +
+        "\001\005I\007\005M\003\005M\003\005M" +
+        "\003\005M\003\005M\001\0059\005\0059" +
+        "\007\005!\005\005!\005\005!\005\005!" +
+        "\005\005!\005\005!\005\005!\005\005!" +
+        "\005\005!\005\005!\011\005!\011\005U" +
+        "\023\005U\013\005U\023\005\013\005\005\013" +
+        "\001\005;\005\005;\005\005Q\003\005S" +
+        "\003\005\031\017\005\031\017\005C\005\005+" +
+        "\003\005+\003\005E\003\005E\005\005E" +
+        "\005\005E\007\005E\007\005E\007\005E" +
+        "\007\005E\011\005E\011\005E\011\005E" +
+        "\007\005E\013\005\035\005\005\035\005\005\035" +
+        "\005\005}\007\005\177\007\005\201\005\005\201" +
+        "\003\005\203\005\005\203\005\005\205\003\005\207" +
+        "\007\005\211\007\005\213\005\005\213\003\005\215" +
+        "\005\005\215\005\005\217\003\005\221\007\005\223" +
+        "\005\005\225\005\005\225\003\005\227\011\005\227" +
+        "\011\005\231\003"});
+
+    /** parse action table */
+    static final java_cup.runtime.packed_table action =
+      new java_cup.runtime.packed_table(new String[] {
+        "\u8000\u1211\u02cf\u0f41\u0709\u069b\0035\u07c3\u06e3\u0dbf\u0215\u0dd1\u06ad" +
+        "\u0de3\u0df5\u0e73\u0767\u05a1\u0821\u093dg\001\013\005\263" +
+        "\u06b7\u072d\001\361\003\u0197\u01a39\355\u01d9\u0219\u01d5" +
+        "\005\u0771\u024f\u0277\u02c7\u099d\u0165\u0305\u05e5\u0593\u024d\u07cf" +
+        "\u064d\u0821\u0929\u030f\u071d\u0953\u0989\u09b9\u09e9\021\u0287\u0289" +
+        "\007\u0745\023\u0a19\u0291\003\u033f\u02c3\u03c3\u02c5\u03c5\u03ef" +
+        "\u07e7\001\u0e3d\u03f1\u0e4f\u0edf\u03ef\u03f5\u0ee9\u0401\u0429\u0ef3" +
+        "=y\265\361\u012d\u0169\u01a5\u01e1\u021d\u0259\u0295\u02d1" +
+        "\u030d\u0349\u0385\u03c1\u03fd\u0439\u04751\u04b1\u04ed\u0425}" +
+        "\u0119\u042d\u042b\255\u0431\u0e61\u0b23\u043b\u079d\u0e85\u05dd\u064f" +
+        "\u0e97\u0ea9\u067d\u08df\027\u0709\u0ebb\u043d\u0ecd\u045f\u0465\u045f" +
+        "\u0167\u0465\u046b1\u0475\u0473\u04a1\u049d\u04a5\u04a7\251\u04a9" +
+        "\u04a5\u04a9\u04af\u04dd\u04df\u04e1\u04e3\u04df\u04e7\u04ef\u04f1\u0519" +
+        "\335\u0515\u051d\u0125\u069f\u051f\u0701\u0521\u07bb\u0871\u0523\u0875" +
+        "\u052b\u052d\u0557\u055de\u0567\u0555\u0569\u0665\u0595\u059b\u05a1" +
+        "\u05a3/\u05a5\u05cd\u05d7\u0737\u05dd\u062f\u020b\u0643\u064d\u0607" +
+        "\u0669\u0611\u061d\u0627\u0685\u063f\u064d\u02f7\u0647\u0669\u0679\u02f9" +
+        "\u067b\u07ab\u07e1\u0697\u07e7\u069b\u08c7\u06bb\u08f7\u076d\u06bf\u06c5" +
+        "\u06d1\u033b\u06db\u06e1\u06df\u06e3\u06f9\u0707\u033d\u0719\u0725\u03b3" +
+        "\u0729\u03b5\u0377\u07a7\u0735\u0a4f\u07af\u0751\u0757\u07dd\u0779\u077f" +
+        "\u03f1\u077d\u0785\u0787\u079b\u07a3\u079d\u0253\u028f\u07a9\u0379\u07c1" +
+        "\u07d1\u02cb\u0307\u07df\u0343\u07e3\u07eb\u07e9\u0819\u0829\u082f\u0831" +
+        "\u0883\u082f\u0857\u01a7\u0861\u02d3\u0281\u08af\u08b3\u086f\u088d\u088b" +
+        "\u0895\u03ff\u0897\u089b\u07c3\u0edf\u089b\u08a3\u07f1\u0529\u0565\345" +
+        "\u019f\u01d5\u08a5\u0221\u08b3\u08bf\u0e07\u08c3\u0251\u0121\u01d9\u0389" +
+        "\u08c7\u0e19\u0f1f\u0375\035\u0831\u086d\001\u09cd\u08c3\u08dd\u0a03" +
+        "\u0a33\u08db\u0af3\u0a63\u0a93\u0b4f\u08df\u08ef\u0b7f\u093f\u0baf\u08f7" +
+        "\u0c0f\u0c39\u0c63\u042d\u0d0b\u03f1\u0467\u0d2f\u08f3\u0e2b\u0d53\u0d77" +
+        "\u0903\u0d9b\u0987\u0c8d\u0cb7\u091d\u0ce1\u0919\u093d\u0bdf\u094d\u0ac3" +
+        "\u0949\u0963\u090b\u095f\u096d\u096d\u097b\u097d\u0669\u068b\u097f\u09a3" +
+        "\005\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\u0263\005\u02cd\u02631\u0263Eu\u0263'\u0263\u0263" +
+        "oy\u0263\u0263\u0263\u025d\u0263\u0263\u0263\u0263\u0263\u0263" +
+        "'''\177'\u025d\217o;%%\177" +
+        "55\365%%%%%%%%%" +
+        "%%%%%%%%%\313\313\u010b" +
+        "\u010b\u010b\u010b\245\245%\177)%\245\245\245" +
+        "\245\245\245\245\245\245\245\245\245\245\245\245" +
+        "\245\245\245\u010b\u0167\313\323\u0167\313\247\247\245" +
+        ";\007\245\247\247\247\247\247\247\247\247\247" +
+        "\247\247\247\247\247\247\247\247\247\u0155\u0155#" +
+        "\u0155\u0155=\251\251\247\323\323\247\251\251\251" +
+        "\251\251\251\251\251\251\251\251\251\251\251\251" +
+        "\251\251\251\u023b\u023b\u0119\333\333\u0119\253\253\251" +
+        "\u0119+\251\253\253\253\253\253\253\253\253\253" +
+        "\253\253\253\253\253\253\253\253\253\u024f\u024f\u023b" +
+        "\u0135\u0135\u023b\255\255\253=3\253\255\255\255" +
+        "\255\255\255\255\255\255\255\255\255\255\255\255" +
+        "\255\255\255\325\u0105\u024f\325\325\u024f\257\257\255" +
+        "\u013b\u013b\255\257\257\257\257\257\257\257\257\257" +
+        "\257\257\257\257\257\257\257\257\257\u0213C\u0213" +
+        "\u023d\u023dQ\261\261\257Q\u0105\257\261\261\261" +
+        "\261\261\261\261\261\261\261\261\261\261\261\261" +
+        "\261\261\261\u023f\u023f\u0251\u02517\u023d\263\263\261" +
+        "\u02139\261\263\263\263\263\263\263\263\263\263" +
+        "\263\263\263\263\263\263\263\263\263\017Y\u023f" +
+        "?\u0251C\265\265\263\u0243\017\263\265\265\265" +
+        "\265\265\265\265\265\265\265\265\265\265\265\265" +
+        "\265\265\265qs\u0175\u024d\u0175}\267\267\265" +
+        "A\u0243\265\267\267\267\267\267\267\267\267\267" +
+        "\267\267\267\267\267\267\267\267\267\203\207\u01eb" +
+        "I\u024dY\271\271\267K\u01eb\267\271\271\271" +
+        "\271\271\271\271\271\271\271\271\271\271\271\271" +
+        "\271\271\271\u0217\u0219\u01ed\u0219qs\273\273\271" +
+        "}\u01ed\271\273\273\273\273\273\273\273\273\273" +
+        "\273\273\273\273\273\273\273\273\273\u01af\u01bd\u01f7" +
+        "M\203\207\275\275\273\u0217\u01f7\273\275\275\275" +
+        "\275\275\275\275\275\275\275\275\275\275\275\275" +
+        "\275\275\275\u018b\u0193\u01f9S\u018b\u0193\277\277\275" +
+        "c\u01f9\275\277\277\277\277\277\277\277\277\277" +
+        "\277\277\277\277\277\277\277\277\277\u01c3\u01c7\u01fd" +
+        "\201\u01af\u01bd\301\301\277\u0253\u01fd\277\301\301\301" +
+        "\301\301\301\301\301\301\301\301\301\301\301\301" +
+        "\301\301\301\u01c9\u01dd\u025b\u025b\u01c9\u01f1\303\303\301" +
+        "\u01f1\u0253\301\303\303\303\303\303\303\303\303\303" +
+        "\303\303\303\303\303\303\303\303\303\u0227\u028b\u028f" +
+        "\u028f\u01c3\u01c7\305\305\303\205\211\303\305\305\305" +
+        "\305\305\305\305\305\305\305\305\305\305\305\305" +
+        "\305\305\305\u0291\213\223\231\233\u01dd\307\307\305" +
+        "\u0227\237\305\307\307\307\307\307\307\307\307\307" +
+        "\307\307\307\307\307\307\307\307\307\241\321\327" +
+        "\331\335\u028b\311\311\307\343\373\307\311\311\311" +
+        "\311\311\311\311\311\311\311\311\311\311\311\311" +
+        "\311\311\311\377\u0101\u0103\u0107\u0291\u0109\315\315\311" +
+        "\u010d\u010f\311\315\315\315\315\315\315\315\315\315" +
+        "\315\315\315\315\315\315\315\315\315\u0111\u0113\u0115" +
+        "\u0117\u011b\u011d\317\317\315\u011f\u0121\315\317\317\317" +
+        "\317\317\317\317\317\317\317\317\317\317\317\317" +
+        "\317\317\317\u0123\u0125\u0127\u0129\u012b\u012d\u0237\u0237\317" +
+        "\u012f\u0131\317\u0237\u0237\u0237\u0237\u0237\u0237\u0237\u0237\u0237" +
+        "\u0237\u0237\u0237\u0237\u0237\u0237\u0237\u0237\u0237\u0133\u0137\u0139" +
+        "\u013f\u0143\u0149\u0239\u0239\u0237\u014d\u014f\u0237\u0239\u0239\u0239" +
+        "\u0239\u0239\u0239\u0239\u0239\u0239\u0239\u0239\u0239\u0239\u0239\u0239" +
+        "\u0239\u0239\u0239\u0159\u0151\u0159\u0159\u0153\u0159\u0159\u0159\u0239" +
+        "\u0157\u015b\u0239\035\035\035\035\035\035\035\035\035" +
+        "\035\035\035\035\035\035\035\035\035UW\u015f" +
+        "WW\u0161WW\u0163\u0165\u0169\035\351\351\351" +
+        "\351\351\351\351\351\351\351\351\351\351\351\351" +
+        "\351\351\351\u016b\353\353]\353\u016d\353\353\u0171" +
+        "\353\u0173\351\353\353UU\u02c5UU\353\353" +
+        "\353]\353\361\361\u0177\361\u02c5\361\361\u0179\361" +
+        "\u02c7\u017b\361\361\u017d\003\u017f\u0181\003\361\361\361" +
+        "\u02c7\361\023\u0183\003\023\u0185\023\003\003\023-" +
+        "\353\023\353\u0187\353\023\023\u0189\353\u018d]\353" +
+        "\353\353---\013-\u015d\013\u018f\u015d\361" +
+        "\u015d\361\u015d\361\013\u0191\u0195\361\013\013\361\361" +
+        "\361\367\367\001\367\u013d\367\367\u019b\367\u019f\001" +
+        "\367\367e\001\001\u013d\u013d\367\367\367/\367" +
+        "\u016f\u016f\u01a3\u016f\u01a9\u016f\u016f\u01ab\u016few\u016f" +
+        "\u016f///\u01ad/\u016f\u016f\u016f\u01b1\u016f\033" +
+        "\u01b3\u01b5\033\u01b7\033w\u0141\033G\367\033\367" +
+        "\u01b9\367\033\033\u01bb\367\u0141\u0141\367\367\367G" +
+        "GG\345G\u01bf\345e\u01c1\u016f\u01c5\u016f\u01cb" +
+        "\u016f\345\u01cd\u01d1\u016f\345\345\u016f\u016f\u016f\u022d\u022d" +
+        "\011\u022dw\u022d\u022d\u01d3\u022d\u01d5\011\u022d\u022d\u01a7" +
+        "\011\u01a7\u01d7\u01a7\u022d\u022d\u022d\215\u022d\u0235\u0235\u01a7" +
+        "\u0235\u01d9\u0235\u0235\u01db\u0235\u01df\u01e1\u0235\u0235\215\215" +
+        "\215\u01e3\215\u0235\u0235\u0235\u01e5\u0235\037\u0197\u01e7\037" +
+        "\u01e9\037\u01ef\u0145\037\u0197\u022d\037\u022d\u0197\u022d\037" +
+        "\037\u01f3\u022d\u0145\u0145\u022d\u022d\u022d[\u01f5[[" +
+        "\u0199[[\u019d\u01fb\u0235\u01ff\u0235\u0199\u0235\u0201\u019d" +
+        "\u0199\u0235\u0203\u019d\u0235\u0235\u0235\u025f\u025f\u025f\u025f\u025f" +
+        "\u025f\u025f\u025f\u025f\u025f\u025f\u025f\u025f\u025f\u025f\u025f\u025f" +
+        "\u025f_\u0205__\u0207__\u0209\u020b\u020d\u020f" +
+        "\u025f\u0261\u0261\u0261\u0261\u0261\u0261\u0261\u0261\u0261\u0261\u0261" +
+        "\u0261\u0261\u0261\u0261\u0261\u0261\u0261\u0211\363\363\u0147\u0215" +
+        "\u014b\363\363\u021b\363\u021d\u0261\363\363\u021f\u0147\u0147" +
+        "\u014b\u014b\363\363\363\u02b9\363\u0221\u02b9\u0223\u02b9\u0225" +
+        "\u0229\u02b9\u022b\u02b9\u02b9\u0231\u0233\u02b9\u02b9\u02b9\u0241\u02b9" +
+        "\u02b9\u02b9\u02b9\u02b9\u02b9\u0245!\u01a1\u0247!\u024b!" +
+        "\u0255\u0267!\u01a1\363!\363\u01a1\363!!\u0269" +
+        "\363\u026f\u0279\363\363\363\u02bf\u01a5\u027b\u02bf\u027f\u02bf" +
+        "\u0283\u0295\u02bf\u01a5\u02bf\u02bf\u029d\u01a5\u02bf\u02bf\u02bf\u02a1" +
+        "\u02bf\u02bf\u02bf\u02bf\u02bf\u02bfO\u02a7\u02abOOO" +
+        "\u02cbaOaaOaa\u02cbOO\u02ad" +
+        "\u02cbOOOOO\u0265\u02b1\u02b5\u0265g\u0265" +
+        "gg\u0265gg\u0265\u02b7\u02bb\u0265\u0265\u0265\u02bd" +
+        "\u0265\u0265\u0265\u0265\u0265\u0265\u02c1\u02c3\u02c9\u026b\002\002" +
+        "\u026bi\u026bii\u026bii\u026b\002\002\u026b" +
+        "\u026b\u026bO\u026b\u026b\u026b\u026b\u026b\u026b\u026d\002\002" +
+        "\u026dk\u026dkk\u026dkk\u026d\002\002\u026d" +
+        "\u026d\u026d\002\u026d\u026d\u026d\u026d\u026d\u026d\u0273\002\002" +
+        "\u0273m\u0273mm\u0273mm\u0273\002\u01cf\u0273" +
+        "\u0273\u0273\002\u0273\u0273\u0273\u0273\u0273\u0273\u0275\002\002" +
+        "\u0275{\u0275{{\u0275{{\u0275\002\002\u0275" +
+        "\u0275\u0275\002\u0275\u0275\u0275\u0275\u0275\u0275\u02b3\002\002" +
+        "\u02b3\002\u02b3\002\002\u02b3\u01cf\u01cf\u02b3\u01cf\u01cf\u02b3" +
+        "\u02b3\u02b3\002\u02b3\u02b3\u02b3\u02b3\u02b3\u02b3\u0271\002\002" +
+        "\u0271\002\u0271\002\002\u0271\002\002\u0271\002\002\002" +
+        "\u0271\u0271\002\u0271\u0271\u0271\u0271\u0271\u0271\341\002\002" +
+        "\341\341\341\002\002\341\002\002\341\002\002\002" +
+        "\341\341\002\002\341\341\341\u0277\341\002\u0277\002" +
+        "\u0277\002\002\u0277\002\002\u0277\002\002\002\u0277\u0277" +
+        "\002\u0277\002\u0277\u0277\u0277\u0277\u027d\002\002\u027d\002" +
+        "\u027d\002\002\u027d\002\002\u027d\002\002\002\u027d\u027d" +
+        "\002\u027d\002\u027d\u027d\u027d\u027d\u0281\002\002\u0281\002" +
+        "\u0281\002\002\u0281\002\002\u0281\002\002\002\u0281\u0281" +
+        "\002\002\002\u0281\u0281\u0281\u0281\u02af\002\002\u02af\002" +
+        "\u02af\002\002\u02af\002\002\u02af\002\002\002\u02af\u02af" +
+        "\002\002\002\u02af\u02af\u02af\u02af\u0285\002\002\u0285\002" +
+        "\u0285\002\002\u0285\002\002\u0285\002\002\002\u0285\u0285" +
+        "\002\002\002\u0285\u0287\u0285\u0285\u0287\002\u0287\002\002" +
+        "\u0287\002\002\u0287\002\002\002\u0287\u0287\002\002\002" +
+        "\u0287\u0289\u0287\u0287\u0289\002\u0289\002\002\u0289\002\002" +
+        "\u0289\002\002\002\u0289\u0289\002\002\002\u0289\u02a3\u0289" +
+        "\u0289\u02a3\002\u02a3\002\002\u02a3\002\002\u02a3\002\002" +
+        "\002\u02a3\u02a3\002\002\002\u02a3\u02a5\u02a3\u02a3\u02a5\002" +
+        "\u02a5\002\002\u02a5\002\002\u02a5\002\002\002\u02a5\u02a5" +
+        "\002\002\002\u02a5\u02a9\u02a5\u02a5\u02a9\002\u02a9\002\002" +
+        "\u02a9\002\002\u02a9\002\002\002\u02a9\u02a9\002\002\002" +
+        "\u02a9\u028d\u02a9\u02a9\u028d\002\u028d\002\002\u028d\002\002" +
+        "\u028d\002\002\002\u028d\u028d\002\u0293\002\u028d\u0293\u028d" +
+        "\u0293\002\002\u0293\002\002\u0293\002\002\002\u0293\u0293" +
+        "\002\u0299\002\u0293\u0299\u0293\u0299\002\002\u0299\002\002" +
+        "\u0299\002\002\002\u0299\u0299\002\u029b\002\u0299\u029b\u0299" +
+        "\u029b\002\002\u029b\002\002\u029b\002\002\002\u029b\u029b" +
+        "\002\u029f\002\u029b\u029f\u029b\u029f\002\002\u029f\002\002" +
+        "\u029f\002\002\002\u029f\u029f\002\015\002\u029f\015\u029f" +
+        "\015\002\002\015\021\002\015\021\002\021\015\015" +
+        "\021\025\002\021\025\015\025\021\021\025\027\002" +
+        "\025\027\021\027\025\025\027\u0249\002\027\u0249\025" +
+        "\u0249\027\027\u0249\u0257\002\u0249\u0257\027\u0257\u0249\u0249" +
+        "\u0257\u0297\002\u0257\u0297\u0249\u0297\u0257\u0257\u0297\221\002" +
+        "\u0297\221\u0257\221\u0297\u0297\221\225\002\221\225\u0297" +
+        "\225\221\221\225\337\002\225\337\002\337\225\225" +
+        "\337\031\002\337\031\002\002\337\337\031\347\002" +
+        "\031\347\002\002\031\031\347\355\002\347\355\002" +
+        "\002\347\347\355\357\002\355\357\002\002\355\355" +
+        "\357\371\002\357\371\002\002\357\357\371\375\002" +
+        "\371\375\002\002\371\371\375\u022f\002\375\u022f\227" +
+        "\002\375\375\u022f\235\002\u022f\002\002\243\u022f\u022f" +
+        "\002\002\227\227\227\002\227\235\235\235\002\235" +
+        "\243\243\243\u0259\243\002\u0259\002\002\002\002\002" +
+        "\002\002\u0259\002\002\002\u0259\u0259P\u02cf\004P" +
+        "\221PMMP\324\u0269P\242\230PP" +
+        "P\u0263PPPPPP5-+\034" +
+        "7\u0261\225\242\212$$\034;9\375\311" +
+        "\303\305\257\253\275\265\271\313\261\277\267\263" +
+        "\301\255\307\273\251  \u01b5\u01af\u01b9\u01b7\042" +
+        "\042$\034j$\311\303\305\257\253\275\265" +
+        "\271\313\261\277\267\263\301\255\307\273\251\u01ad" +
+        "\u016a \333\u016f JJ\042C\u02cb\042J" +
+        "JJJJJJJJJJJJ" +
+        "JJJJJi]\323ca\210," +
+        ",J\327\314J,,,,,,," +
+        ",,,,,,,,,,,\372" +
+        "\372\u015c\327\314\u015bDD,\u015d\233,D" +
+        "DDDDDDDDDDDD" +
+        "DDDDD\372\372\372\u0141\u0145\u0241:" +
+        ":DC\213D:::::::" +
+        ":::::::::::i" +
+        "\u0207\372ca\u0241LL:\u017c\u017c:L" +
+        "LLLLLLLLLLLL" +
+        "LLLLL\u0148\216\u0217\u0243\376\222@" +
+        "@LU\u0205L@@@@@@@" +
+        "@@@@@@@@@@@\370" +
+        "\370\u0243\376\201\376**@\u0148\201@*" +
+        "************" +
+        "*****\u023b\220\370W\376\2166" +
+        "6*\u0247\u0239*6666666" +
+        "66666666666\250" +
+        "\212\u0179\374\u017b\214006S\u010260" +
+        "000000000000" +
+        "00000|~\u019cQ\374\220H" +
+        "H0O\u019c0HHHHHHH" +
+        "HHHHHHHHHHH\u021b" +
+        "\u021d\u0201\u021f\250C..H\214\u01f1H." +
+        "............" +
+        ".....\212\204\u01a0x|~8" +
+        "8.\u0142\u01a0.8888888" +
+        "88888888888\u0197" +
+        "\u018a\u019e\224\u019d\u018aBB8s\u019e8B" +
+        "BBBBBBBBBBBB" +
+        "BBBBB\206\200\u019a\205C\2042" +
+        "2B\u0247\u019aB2222222" +
+        "22222222222\254" +
+        "\202\u02c3\u02c5\u01d7\u01f5<<2\u01f7\u01022<" +
+        "<<<<<<<<<<<<" +
+        "<<<<<\u0146\212;9\206\200F" +
+        "F<\211`<FFFFFFF" +
+        "FFFFFFFFFFFz" +
+        "\217\227\241\237\202>>F\u0146\272F>" +
+        ">>>>>>>>>>>>" +
+        ">>>>>\245\325\343\335\341C4" +
+        "4>\312\377>4444444" +
+        "44444444444\233" +
+        "\u022b\u020f\u01e7z\213((4\u01a9\u018f4(" +
+        "((((((((((((" +
+        "(((((\u0122\201\u011e\u0171\u0120\u0157&" +
+        "&(\u0153\u0139(&&&&&&&" +
+        "&&&&&&&&&&&\u0158" +
+        "\u011cj\u015a\201\u0150\036\036&\u0130\u013a&\036" +
+        "\036\036\036\036\036\036\036\036\036\036\036\036" +
+        "\036\036\036\036\036\u0174\u013b\u013d\u0149\u0147\u017a\036" +
+        "\036\036\u0186\u012e\036\036\036\036\036\036\036\036" +
+        "\036\036\036\036\036\036\036\036\036\036\036\u015e" +
+        "\u014e\u0161\u015f\u0134\u0165\u0167\u0163\036\u0156\u0160\036\036" +
+        "\036\036\036\036\036\036\036\036\036\036\036\036" +
+        "\036\036\036\036\036e{\u0170i]\u0168c" +
+        "a\u0164\u0162\u016c\036\036\036\036\036\036\036\036" +
+        "\036\036\036\036\036\036\036\036\036\036\036\u016e" +
+        "\u0118\u0118\244\367\u0172\u0118\u0118\u0132\u0118\u0177\036\u0118" +
+        "\u0118i]\024ca\u0118\u0118\u0118\244\u0118\u0118" +
+        "\u0118\u0185\367\024\u0118\u0118\u017d\u0118\022\u017f\u0118\u0118" +
+        "\u0181\010\u0183\u0154\010\u0118\u0118\u0118\022\u0118\276\u0187" +
+        "\010\276\u0189\037\010\010\276\322\u0118\276\u0118\u018b" +
+        "\u0118\276\276\u0152\u0118\u0193\244\u0118\u0118\u01185-" +
+        "+\0027\u0166\020\u0176\u0169\u0118\u016d\u0118\u016b\u0118" +
+        "\020\u0195\u01a7\u0118\020\011\u0118\u0118\u0118\u0116\u0116\020" +
+        "\u0116\u014f\u0116\u0116\u019f\u0116\u0188\020\u0116\u0116\232\020" +
+        "\011\u0141\u0145\u0116\u0116\u0116\330\u0116\u011a\u011a\u0194\u011a" +
+        "\u0128\u011a\u011a\u01e1\u011ae\246\u011a\u011a\330\330\330" +
+        "\201\330\u011a\u011a\u011a\u01cb\u011a\302\201\u01c1\302\u01bb" +
+        "\302\246\u0180\302\340\u0116\302\u0116\201\u0116\302\302" +
+        "\u01bf\u0116\u0180\u0180\u0116\u0116\u0116\340\340\340\012\340" +
+        "\201\012\232\u01c5\u011a\u01c9\u011aM\u011a\012\u01d1\252" +
+        "\u011a\012\012\u011a\u011a\u011a\u0114\u0114\026\u0114\246\u0114" +
+        "\u0114\u013e\u0114\256\u025d\u0114\u0114\u0123\026\u0111M\u0109" +
+        "\u0114\u0114\u0114\332\u0114\u0110\u0110\u011b\u0110\u013c\u0110\u0110" +
+        "\u01df\u0110\226\u0136\u0110\u0110\332\332\332\u01f1\332\u0110" +
+        "\u0110\u0110\u01eb\u0110\274\u018e\u0178\274\u0198\037\u01f3\u0182" +
+        "\274\u018e\u0114\274\u0114\u018e\u0114\274\274\u01fb\u0114\u0182" +
+        "\u0182\u0114\u0114\u0114\350\u01f9\350\350\u01a5\350\350\u0192" +
+        "\u0196\u0110\u01a2\u0110\u0197\u0110\u012c\u0192\u019d\u0110\u020b\u0192" +
+        "\u0110\u0110\u0110\036\036\036\036\036\036\036\036\036" +
+        "\036\036\036\036\036\036\036\036\036\344\u0209\344" +
+        "\344\u014a\344\344\u014c\u012a\u0211\u0213\036\036\036\036" +
+        "\036\036\036\036\036\036\036\036\036\036\036\036" +
+        "\036\036\036\u0215\u011d\u0115\u0184\u0229\u017e\u0107\u0121\u0225" +
+        "\u011f\u0221\036\u012d\u0105\u0223\u0184\u0184\u017e\u017e\u010b\u0101" +
+        "\u0129\030\u010d\u0144\030\u0227\030\u0140\u0126\030\u0138\030" +
+        "\030\u0235\u0237\030\030\030\201\030\030\030\030\030" +
+        "\030\201\300\u018c\u024b\300\u0100\300\u0259\201\300\u018c" +
+        "\u0123\300\u0111\u018c\u0109\300\300\u026d\u0124\201\213\u0103" +
+        "\u011b\u010f\032\u0190\u027f\032\u02ad\032j\233\032\u0190" +
+        "\032\032\u02a1\u0190\032\032\032M\032\032\032\032" +
+        "\032\032v\u02ab\u02afvvv\016\342v\342" +
+        "\342v\342\342\016vv\u02b1\016vvv" +
+        "vvT\u02b5\201T\346T\346\346T\346" +
+        "\346T\u02bb\201\u0271TT\u02c1TTTT" +
+        "TT\u02c9\u02c7\u02cdN\001\001N\236N\236" +
+        "\236N\236\236N\001\001NNNvN" +
+        "NNNNNX\001\001X\352X\352" +
+        "\352X\352\352X\001\001XXX\001X" +
+        "XXXXXR\001\001R\240R\240" +
+        "\240R\240\240R\001e\u0271RR\001R" +
+        "RRRRRV\001\001V\234V\234" +
+        "\234V\234\234V\001\001VVV\001V" +
+        "VVVVVZ\001\001Z\001Z\001" +
+        "\001Zi]ZcaZZZ\001Z" +
+        "ZZZZZ^\001\001^\001^\001" +
+        "\001^\001\001^\001\001\001^^\001^" +
+        "\u027b^^^^\306\001\001\306\316\306\001" +
+        "\001\306\001\001\306\001\001\001\306\306\001\001" +
+        "\316\316\316d\316\001d\001d\001\001d" +
+        "\001\001d\001\001\001dd\001\u0281\001d" +
+        "ddd\134\001\001\134\001\134\001\001\134" +
+        "\001\001\134\001\001\001\134\134\001\134\001\134" +
+        "\134\134\134h\001\001h\001h\001\001h" +
+        "\001\001h\001\001\001hh\001\001\001h" +
+        "\u0285hhb\001\001b\001b\001\001b" +
+        "\001\001b\001\001\001bb\001\001\001b" +
+        "bbbn\001\001n\001n\001\001n" +
+        "\001\001n\001\001\001nn\001\001\001n" +
+        "rn\u0291r\001r\001\001r\001\001r" +
+        "\001\001\001rr\001\001\001rlrr" +
+        "l\001l\001\001l\001\001l\001\001\001" +
+        "ll\001\001\001ltl\u0291t\001t" +
+        "\001\001t\001\001t\001\001\001tt\001" +
+        "\001\001tpttp\001p\001\001p" +
+        "\001\001p\001\001\001pp\001\001\001p" +
+        "fppf\001f\001\001f\001\001f" +
+        "\001\001\001ff\001\001\001f\262ff" +
+        "\262\001\262\001\001\262\001\001\262\001\001\001" +
+        "\262\262\001\266\001\u0297\266\262\266\001\001\266" +
+        "\001\001\266\001\001\001\266\266\001\260\001\266" +
+        "\260\266\260\001\001\260\001\001\260\001\001\001" +
+        "\260\260\001\264\001\u0297\264\260\264\001\001\264" +
+        "\001\001\264\001\001\001\264\264\001\270\001\264" +
+        "\270\264\270\001\001\270\001\001\270\001\001\001" +
+        "\270\270\001\356\001\270\356\270\356\001\001\356" +
+        "\362\001\356\362\001\362\356\356\362\354\001\362" +
+        "\354\021\354\362\362\354\360\001\354\360\362\360" +
+        "\354\354\360\364\001\360\364\021\364\360\360\364" +
+        "\366\001\364\366\360\366\364\364\366\014\001\366" +
+        "\014\364\014\366\366\014\310\001\014\310\366\310" +
+        "\014\014\310\320\001\310\320\014\320\310\310\320" +
+        "\304\001\320\304\001\304\320\320\304\u0106\001\304" +
+        "\u0106\001\001\304\304\353\u010a\001\u0106\u010a\001\001" +
+        "\u0106\u0106\u010a\u0104\001\u010a\u0104\001\001\u010a\u010a\353" +
+        "\u0108\001\u0104\u0108\001\001\u0104\u0104\u0108\u010e\001\u0108" +
+        "\u010e\001\001\u0108\u0108\u010e\u0112\001\u010e\u0112\001\001" +
+        "\u010e\u010e\u0112\u010c\001\u0112\u010c\326\001\u0112\u0112\u010c" +
+        "\334\001\u010c\001\001\336\u010c\u010c\001\001\326\326" +
+        "\326\001\326\334\334\334\001\334\336\336\336\006" +
+        "\336\001\006\001\001\001\001\001\001\001\006\001" +
+        "\001\001\006\006"});
+
+    /** reduce_goto table */
+    static final java_cup.runtime.packed_table reduce =
+      new java_cup.runtime.packed_table(new String[] {
+        "\u8000\u044f\u02cf\u017f\001\001\001\001\033\005\001\001\001\001" +
+        "\003\001\001\001#G\001\0015\001\015#" +
+        "%\0013[Y\003\005\0057\001\001\001" +
+        "K\001\001\001\001\001\001\001\001A\001\001" +
+        "\001\001\001Ks\001\001\001\001\001\001#" +
+        "Q\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\015\001\001\u0129\001\001\001\001\001\0013\013" +
+        "\005\0017\001\001\001\001\001\001\315\001\345" +
+        "\u0103\001\343M\001\017\001\001\001\001\001\001" +
+        "\377\363\005\001\001\343\001\317\001\001\001\001" +
+        "%\001\001\001'\001\001\001\001\001\001\001" +
+        "\001\001\001\001!\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001w\001\001\001\001" +
+        "\001\001}\001\001\001\001\001\001A\001\001" +
+        "\007-_\011\001\001\u0145\001\001\u0147\001\001" +
+        "\001\001\001\253\001\007\001\001\001\255\001\001" +
+        "\001\001\001}\001\001\001\001\201\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001\001\001\001" +
+        "\001\001\001\u0145\001\001\001\001\001\001\001\001" +
+        "\001\001\001\001\001\001\001\001\001W_\u014d" +
+        "\u014d\001\u0153\u014f\u0157\001\001\001\001\u0157\u0157\u0157" +
+        "\001\001\001\001\u0147cg\u01159\u0163\001\001" +
+        "\001\u0165\u010f\u013b\001\u0115\u0113\001\001\001\u0111\u0111" +
+        "\001\001\2215#\321\001\001\u010d\001\u0111\001" +
+        "\001\001\177\001\001\001\001\001\001\001\001\001" +
+        "\u0179\001\001\u017b\001\001\001\001\001\001\001\001" +
+        "\001\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\002\002\002\002\002\002\002\002\002\002\002" +
+        "\002\u011379\u01ad\u01b3\323UU\245\u01cf\u01cf" +
+        "\u0113\325\363\031\363\355\023\023\023\363\353\u0155" +
+        "\u0155\001\001\001\363\013\031\031\031\355\363%" +
+        "%%\363WW\353\353\001\361\013\u01a7\001" +
+        "\011\013\u0265\u0265\u0265\u01a7\037)'''\015" +
+        "\015\015\025\361\u0121\u0121\u01a7\u028d\u028d\u028d+\035" +
+        "\u0107\u0107\u010f\u010f-\u0285\u0285\u02851\u0285\u0135\u0135" +
+        "\u013d\u013d;;;UU3\u01cf\u01cf;U" +
+        "UU\u01cf\u01cf\u01cfsss\u012b\353\u01af\u01af" +
+        "\u01afs\u028b\u028b\u028b=\u01af\035\035E\u028b=" +
+        "u\u010bW\351\351\u010b5\361\u018b\u018bcE" +
+        "\u0199\u0199u\u01b1\u01e3\u01e3\u01b1\u01ed\u01ed\u0237\u0237\u02a1" +
+        "\u012b\u0239\u0239\u025f\u025f\u0261\u0261\u0289e\u0289\333\377" +
+        "\u0103\u02a1\u0105\u0109\u011d\u011f\u0127\u01b9\u01bf\u01cb\u01d7\u0213" +
+        "\u023b\u023d\u0241\u0243\u0245\u024f\u0251\u0253\u025d\u0263\u0267\u026f" +
+        "\u0271\u0273\u0277\u0279\u0281\u0283\u028f\u0295\u0299\u02b5\u02bb\001" +
+        "\u0173\205\201\u01db\u01c5\327km\317km\u0171" +
+        "\343\u0129\353\u0115\353\037\033\031\u0125\371k\u0157" +
+        "\005\013\003\u0111\u0259\355\347\345\357\u0123\315\245" +
+        "\313\u0117km\367\361\011\u022f\011\u0129\015\u025d" +
+        "\015\u0271\u0273\u026d\u01a9!\2411-/\023\025" +
+        "\021\027\u022d\u0133\u0135\u0123\u0297\u0299\u0293\233'\u01e7" +
+        "\u01e3\u018f\u018b\227\u028d\u0289\u0287\221\u028b\u013d\u0141\u014b" +
+        "\u0149E=CWi\213Wi?]e" +
+        "Y]e\u01d1u=C\u012d\363\u01d7=C" +
+        "?\u02a1=C}?#%I??I" +
+        "\u01af{\u0231%\u01b1;\363\u0199\u0197sG\u01a1" +
+        "\u019fw\u01cb\u01ed\u01eb\u01cd\u01fd\u01fb\u024f%I\u012f" +
+        "\u023b%\u02bb%\u02b5%\u02a5o\u028b\335\u022b\u020b" +
+        "\u02a3\u0201\u01e1\u0153\u014f\u0131\u01bb\u01c1\u01d3\u01d9\u0217\u023d" +
+        "\u0243\u024d\u0247\u024b\u0251\u0253\u0255\u0263\u0265\u0269\u02b1\u0277" +
+        "\u0275\u0281\u027b\u0285\u02a7\u0291\u029d\u029b\u02b7\u02bd"});
+  }
 
   /** access to production table */
-  public short[][] production_table() {return _production_table;}
-
-  /** parse action table */
-  protected static final short[][] _action_table = {
-    /*0*/{3,-8,11,-8,15,-8,16,4,-1,0},
-    /*1*/{0,-4,3,-4,11,-4,15,-4,16,-4,-1,0},
-    /*2*/{0,359,-1,0},
-    /*3*/{71,357,-1,0},
-    /*4*/{3,-11,11,302,15,-11,-1,0},
-    /*5*/{0,-1,3,-8,11,-8,15,-8,16,4,-1,0},
-    /*6*/{0,-119,3,-119,5,-119,8,-119,11,-119,15,-119,16,-119,22,8,-1,0},
-    /*7*/{31,285,41,284,-1,0},
-    /*8*/{0,-121,3,-121,5,-121,8,-121,11,-121,15,-121,16,-121,22,-121,-1,0},
-    /*9*/{0,-95,3,-95,5,15,8,-95,11,-95,15,-95,16,-95,-1,0},
-    /*10*/{0,-118,3,-118,5,-118,8,-118,11,-118,15,-118,16,-118,22,8,-1,0},
-    /*11*/{0,-120,3,-120,5,-120,8,-120,11,-120,15,-120,16,-120,22,-120,-1,0},
-    /*12*/{0,-131,3,-131,8,117,11,-131,15,-131,16,-131,-1,0},
-    /*13*/{0,-97,3,-97,5,-97,8,-97,11,-97,15,-97,16,-97,-1,0},
-    /*14*/{39,-15,40,-15,41,-15,42,-15,43,-15,44,-15,45,-15,46,-15,47,-15,48,-15,49,-15,50,-15,51,-15,52,-15,53,-15,54,-15,55,-15,56,-15,68,-15,-1,0},
-    /*15*/{0,-94,3,-94,5,15,8,-94,11,-94,15,-94,16,-94,-1,0},
-    /*16*/{0,-96,3,-96,5,-96,8,-96,11,-96,15,-96,16,-96,-1,0},
-    /*17*/{68,105,-1,0},
-    /*18*/{33,-18,34,-18,39,100,40,97,41,98,42,87,43,85,44,94,45,90,46,92,47,101,48,88,49,95,50,91,51,89,52,96,53,86,54,99,55,93,56,84,65,-18,68,-18,-1,0},
-    /*19*/{4,-106,19,26,20,22,21,21,23,27,-1,0},
-    /*20*/{65,-53,-1,0},
-    /*21*/{68,77,-1,0},
-    /*22*/{4,-105,19,26,20,22,21,21,23,27,-1,0},
-    /*23*/{4,-108,19,-108,20,-108,21,-108,23,-108,-1,0},
-    /*24*/{4,72,-1,0},
-    /*25*/{67,69,-1,0},
-    /*26*/{35,29,36,28,-1,0},
-    /*27*/{68,64,-1,0},
-    /*28*/{68,64,-1,0},
-    /*29*/{4,-69,68,33,-1,0},
-    /*30*/{4,-68,68,33,-1,0},
-    /*31*/{64,43,-1,0},
-    /*32*/{68,41,-1,0},
-    /*33*/{4,-71,68,-71,-1,0},
-    /*34*/{4,38,-1,0},
-    /*35*/{4,-112,19,-112,20,-112,21,-112,23,-112,-1,0},
-    /*36*/{65,40,-1,0},
-    /*37*/{51,39,-1,0},
-    /*38*/{65,-60,-1,0},
-    /*39*/{0,-59,3,-59,4,-59,5,-59,8,-59,11,-59,15,-59,16,-59,19,-59,20,-59,21,-59,22,-59,23,-59,68,-59,-1,0},
-    /*40*/{64,-73,68,42,-1,0},
-    /*41*/{64,-74,-1,0},
-    /*42*/{23,50,67,52,68,46,70,49,71,48,-1,0},
-    /*43*/{65,61,67,52,68,46,70,49,71,48,-1,0},
-    /*44*/{4,-72,68,-72,-1,0},
-    /*45*/{65,-116,67,-116,68,-116,70,-116,71,-116,-1,0},
-    /*46*/{4,-82,23,-82,68,-82,-1,0},
-    /*47*/{65,-114,67,-114,68,-114,70,-114,71,-114,-1,0},
-    /*48*/{65,-113,67,-113,68,-113,70,-113,71,-113,-1,0},
-    /*49*/{65,57,-1,0},
-    /*50*/{4,-77,23,50,68,-77,-1,0},
-    /*51*/{65,-115,67,-115,68,-115,70,-115,71,-115,-1,0},
-    /*52*/{65,-79,67,-79,68,-79,70,-79,71,-79,-1,0},
-    /*53*/{65,-117,67,-117,68,-117,70,-117,71,-117,-1,0},
-    /*54*/{65,-80,67,-80,68,-80,70,-80,71,-80,-1,0},
-    /*55*/{4,-81,23,-81,-1,0},
-    /*56*/{4,-84,68,-84,-1,0},
-    /*57*/{4,-69,68,33,-1,0},
-    /*58*/{4,38,-1,0},
-    /*59*/{4,-83,23,-83,68,-83,-1,0},
-    /*60*/{4,-76,-1,0},
-    /*61*/{65,-78,67,-78,68,-78,70,-78,71,-78,-1,0},
-    /*62*/{4,-70,68,-70,-1,0},
-    /*63*/{26,-14,34,-14,65,-14,-1,0},
-    /*64*/{65,66,-1,0},
-    /*65*/{4,-62,68,-62,-1,0},
-    /*66*/{65,68,-1,0},
-    /*67*/{4,-63,68,-63,-1,0},
-    /*68*/{65,-48,-1,0},
-    /*69*/{65,71,-1,0},
-    /*70*/{4,-109,19,-109,20,-109,21,-109,23,-109,-1,0},
-    /*71*/{30,74,-1,0},
-    /*72*/{0,-100,3,-100,5,-100,8,-100,11,-100,15,-100,16,-100,-1,0},
-    /*73*/{65,75,-1,0},
-    /*74*/{0,-104,3,-104,5,-104,8,-104,11,-104,15,-104,16,-104,-1,0},
-    /*75*/{4,-107,19,-107,20,-107,21,-107,23,-107,-1,0},
-    /*76*/{67,80,-1,0},
-    /*77*/{65,79,-1,0},
-    /*78*/{4,-110,19,-110,20,-110,21,-110,23,-110,-1,0},
-    /*79*/{65,-93,-1,0},
-    /*80*/{65,82,-1,0},
-    /*81*/{4,-111,19,-111,20,-111,21,-111,23,-111,-1,0},
-    /*82*/{33,-17,34,-17,39,100,40,97,41,98,42,87,43,85,44,94,45,90,46,92,47,101,48,88,49,95,50,91,51,89,52,96,53,86,54,99,55,93,56,84,65,-17,68,-17,-1,0},
-    /*83*/{33,-37,34,-37,39,-37,40,-37,41,-37,42,-37,43,-37,44,-37,45,-37,46,-37,47,-37,48,-37,49,-37,50,-37,51,-37,52,-37,53,-37,54,-37,55,-37,56,-37,65,-37,68,-37,-1,0},
-    /*84*/{33,-22,34,-22,39,-22,40,-22,41,-22,42,-22,43,-22,44,-22,45,-22,46,-22,47,-22,48,-22,49,-22,50,-22,51,-22,52,-22,53,-22,54,-22,55,-22,56,-22,65,-22,68,-22,-1,0},
-    /*85*/{33,-34,34,-34,39,-34,40,-34,41,-34,42,-34,43,-34,44,-34,45,-34,46,-34,47,-34,48,-34,49,-34,50,-34,51,-34,52,-34,53,-34,54,-34,55,-34,56,-34,65,-34,68,-34,-1,0},
-    /*86*/{33,-29,34,-29,39,-29,40,-29,41,-29,42,-29,43,-29,44,-29,45,-29,46,-29,47,-29,48,-29,49,-29,50,-29,51,-29,52,-29,53,-29,54,-29,55,-29,56,-29,65,-29,68,-29,-1,0},
-    /*87*/{33,-38,34,-38,39,-38,40,-38,41,-38,42,-38,43,-38,44,-38,45,-38,46,-38,47,-38,48,-38,49,-38,50,-38,51,-38,52,-38,53,-38,54,-38,55,-38,56,-38,65,-38,68,-38,-1,0},
-    /*88*/{33,-32,34,-32,39,-32,40,-32,41,-32,42,-32,43,-32,44,-32,45,-32,46,-32,47,-32,48,-32,49,-32,50,-32,51,-32,52,-32,53,-32,54,-32,55,-32,56,-32,65,-32,68,-32,-1,0},
-    /*89*/{33,-21,34,-21,39,-21,40,-21,41,-21,42,-21,43,-21,44,-21,45,-21,46,-21,47,-21,48,-21,49,-21,50,-21,51,-21,52,-21,53,-21,54,-21,55,-21,56,-21,65,-21,68,-21,-1,0},
-    /*90*/{33,-27,34,-27,39,-27,40,-27,41,-27,42,-27,43,-27,44,-27,45,-27,46,-27,47,-27,48,-27,49,-27,50,-27,51,-27,52,-27,53,-27,54,-27,55,-27,56,-27,65,-27,68,-27,-1,0},
-    /*91*/{33,-24,34,-24,39,-24,40,-24,41,-24,42,-24,43,-24,44,-24,45,-24,46,-24,47,-24,48,-24,49,-24,50,-24,51,-24,52,-24,53,-24,54,-24,55,-24,56,-24,65,-24,68,-24,-1,0},
-    /*92*/{33,-36,34,-36,39,-36,40,-36,41,-36,42,-36,43,-36,44,-36,45,-36,46,-36,47,-36,48,-36,49,-36,50,-36,51,-36,52,-36,53,-36,54,-36,55,-36,56,-36,65,-36,68,-36,-1,0},
-    /*93*/{33,-23,34,-23,39,-23,40,-23,41,-23,42,-23,43,-23,44,-23,45,-23,46,-23,47,-23,48,-23,49,-23,50,-23,51,-23,52,-23,53,-23,54,-23,55,-23,56,-23,65,-23,68,-23,-1,0},
-    /*94*/{33,-28,34,-28,39,-28,40,-28,41,-28,42,-28,43,-28,44,-28,45,-28,46,-28,47,-28,48,-28,49,-28,50,-28,51,-28,52,-28,53,-28,54,-28,55,-28,56,-28,65,-28,68,-28,-1,0},
-    /*95*/{33,-33,34,-33,39,-33,40,-33,41,-33,42,-33,43,-33,44,-33,45,-33,46,-33,47,-33,48,-33,49,-33,50,-33,51,-33,52,-33,53,-33,54,-33,55,-33,56,-33,65,-33,68,-33,-1,0},
-    /*96*/{33,-25,34,-25,39,-25,40,-25,41,-25,42,-25,43,-25,44,-25,45,-25,46,-25,47,-25,48,-25,49,-25,50,-25,51,-25,52,-25,53,-25,54,-25,55,-25,56,-25,65,-25,68,-25,-1,0},
-    /*97*/{33,-30,34,-30,39,-30,40,-30,41,-30,42,-30,43,-30,44,-30,45,-30,46,-30,47,-30,48,-30,49,-30,50,-30,51,-30,52,-30,53,-30,54,-30,55,-30,56,-30,65,-30,68,-30,-1,0},
-    /*98*/{33,-35,34,-35,39,-35,40,-35,41,-35,42,-35,43,-35,44,-35,45,-35,46,-35,47,-35,48,-35,49,-35,50,-35,51,-35,52,-35,53,-35,54,-35,55,-35,56,-35,65,-35,68,-35,-1,0},
-    /*99*/{33,-31,34,-31,39,-31,40,-31,41,-31,42,-31,43,-31,44,-31,45,-31,46,-31,47,-31,48,-31,49,-31,50,-31,51,-31,52,-31,53,-31,54,-31,55,-31,56,-31,65,-31,68,-31,-1,0},
-    /*100*/{33,-26,34,-26,39,-26,40,-26,41,-26,42,-26,43,-26,44,-26,45,-26,46,-26,47,-26,48,-26,49,-26,50,-26,51,-26,52,-26,53,-26,54,-26,55,-26,56,-26,65,-26,68,-26,-1,0},
-    /*101*/{33,-16,34,-16,65,-16,68,-16,-1,0},
-    /*102*/{33,-20,34,-20,39,-20,40,-20,41,-20,42,-20,43,-20,44,-20,45,-20,46,-20,47,-20,48,-20,49,-20,50,-20,51,-20,52,-20,53,-20,54,-20,55,-20,56,-20,65,-20,68,-20,-1,0},
-    /*103*/{33,-19,34,-19,39,-19,40,-19,41,-19,42,-19,43,-19,44,-19,45,-19,46,-19,47,-19,48,-19,49,-19,50,-19,51,-19,52,-19,53,-19,54,-19,55,-19,56,-19,65,-19,68,-19,-1,0},
-    /*104*/{68,106,-1,0},
-    /*105*/{28,109,64,107,65,-102,-1,0},
-    /*106*/{67,52,70,49,71,48,-1,0},
-    /*107*/{65,113,-1,0},
-    /*108*/{67,110,-1,0},
-    /*109*/{64,107,65,-102,-1,0},
-    /*110*/{65,112,-1,0},
-    /*111*/{0,-98,3,-98,5,-98,8,-98,11,-98,15,-98,16,-98,-1,0},
-    /*112*/{0,-99,3,-99,4,-103,5,-99,8,-99,11,-99,15,-99,16,-99,19,-103,20,-103,21,-103,23,-103,-1,0},
-    /*113*/{65,-101,-1,0},
-    /*114*/{0,-5,3,-5,11,-5,15,-5,16,-5,-1,0},
-    /*115*/{0,-133,3,-133,8,-133,11,-133,15,-133,16,-133,-1,0},
-    /*116*/{39,-15,40,-15,41,-15,42,-15,43,-15,44,-15,45,-15,46,-15,47,-15,48,-15,49,-15,50,-15,51,-15,52,-15,53,-15,54,-15,55,-15,56,-15,68,-15,-1,0},
-    /*117*/{1,-140,2,-140,4,123,6,-140,7,-140,9,-140,12,-140,13,-140,19,-140,20,-140,21,-140,23,-140,57,-140,59,-140,61,-140,65,-140,68,-140,69,-140,70,-140,-1,0},
-    /*118*/{0,-130,3,-130,8,117,11,-130,15,-130,16,-130,-1,0},
-    /*119*/{0,-132,3,-132,8,-132,11,-132,15,-132,16,-132,-1,0},
-    /*120*/{1,-140,2,-140,4,123,6,-140,7,-140,9,-140,12,-140,13,-140,19,-140,20,-140,21,-140,23,-140,57,-140,59,-140,61,-140,65,-140,68,-140,69,-140,70,-140,-1,0},
-    /*121*/{1,142,2,138,6,131,7,144,9,143,12,150,13,130,19,133,20,128,21,148,23,134,57,145,59,136,61,132,65,-146,68,129,69,141,70,135,-1,0},
-    /*122*/{27,126,-1,0},
-    /*123*/{1,-139,2,-139,4,-139,6,-139,7,-139,9,-139,12,-139,13,-139,19,-139,20,-139,21,-139,23,-139,57,-139,59,-139,61,-139,65,-139,68,-139,69,-139,70,-139,-1,0},
-    /*124*/{0,-135,3,-135,8,-135,11,-135,15,-135,16,-135,-1,0},
-    /*125*/{65,127,-1,0},
-    /*126*/{0,-137,3,-137,8,-137,11,-137,15,-137,16,-137,-1,0},
-    /*127*/{68,77,-1,0},
-    /*128*/{66,277,-1,0},
-    /*129*/{70,263,-1,0},
-    /*130*/{29,259,68,258,-1,0},
-    /*131*/{68,243,-1,0},
-    /*132*/{67,69,-1,0},
-    /*133*/{35,218,36,215,37,220,38,219,63,214,-1,0},
-    /*134*/{66,212,-1,0},
-    /*135*/{68,199,-1,0},
-    /*136*/{65,-145,-1,0},
-    /*137*/{68,64,-1,0},
-    /*138*/{65,-143,-1,0},
-    /*139*/{65,184,-1,0},
-    /*140*/{65,-174,68,173,72,174,-1,0},
-    /*141*/{65,-144,-1,0},
-    /*142*/{68,171,-1,0},
-    /*143*/{70,169,-1,0},
-    /*144*/{68,156,-1,0},
-    /*145*/{65,-172,-1,0},
-    /*146*/{65,-142,-1,0},
-    /*147*/{65,-53,-1,0},
-    /*148*/{65,-173,-1,0},
-    /*149*/{68,64,-1,0},
-    /*150*/{65,-168,-1,0},
-    /*151*/{65,-152,-1,0},
-    /*152*/{65,-157,-1,0},
-    /*153*/{65,-186,-1,0},
-    /*154*/{70,160,71,162,-1,0},
-    /*155*/{68,157,-1,0},
-    /*156*/{65,158,-1,0},
-    /*157*/{70,-190,71,-190,-1,0},
-    /*158*/{58,167,70,160,71,162,-1,0},
-    /*159*/{65,164,-1,0},
-    /*160*/{58,-192,70,-192,71,-192,-1,0},
-    /*161*/{65,163,-1,0},
-    /*162*/{58,-193,70,-193,71,-193,-1,0},
-    /*163*/{58,-194,70,-194,71,-194,-1,0},
-    /*164*/{65,-189,-1,0},
-    /*165*/{58,-191,70,-191,71,-191,-1,0},
-    /*166*/{65,-195,-1,0},
-    /*167*/{65,-151,-1,0},
-    /*168*/{65,-167,-1,0},
-    /*169*/{65,-154,-1,0},
-    /*170*/{67,52,68,46,70,49,71,48,-1,0},
-    /*171*/{65,-171,-1,0},
-    /*172*/{65,-175,67,176,68,175,70,178,71,179,72,177,-1,0},
-    /*173*/{65,-176,-1,0},
-    /*174*/{65,-179,68,180,70,182,72,181,-1,0},
-    /*175*/{65,-184,-1,0},
-    /*176*/{65,-180,-1,0},
-    /*177*/{65,-178,-1,0},
-    /*178*/{65,-177,-1,0},
-    /*179*/{65,-181,68,183,-1,0},
-    /*180*/{65,-182,-1,0},
-    /*181*/{65,-183,-1,0},
-    /*182*/{65,-185,-1,0},
-    /*183*/{1,-141,2,-141,4,-141,6,-141,7,-141,9,-141,12,-141,13,-141,19,-141,20,-141,21,-141,23,-141,57,-141,59,-141,61,-141,65,-141,68,-141,69,-141,70,-141,-1,0},
-    /*184*/{65,-153,-1,0},
-    /*185*/{26,187,-1,0},
-    /*186*/{68,188,70,189,-1,0},
-    /*187*/{32,194,-1,0},
-    /*188*/{32,190,-1,0},
-    /*189*/{70,191,-1,0},
-    /*190*/{24,192,-1,0},
-    /*191*/{70,193,-1,0},
-    /*192*/{65,-170,-1,0},
-    /*193*/{68,195,-1,0},
-    /*194*/{24,196,-1,0},
-    /*195*/{68,197,-1,0},
-    /*196*/{65,-169,-1,0},
-    /*197*/{68,203,72,206,-1,0},
-    /*198*/{70,201,-1,0},
-    /*199*/{65,-187,-1,0},
-    /*200*/{65,202,-1,0},
-    /*201*/{68,-197,72,-197,-1,0},
-    /*202*/{65,211,-1,0},
-    /*203*/{60,-199,68,-199,72,-199,-1,0},
-    /*204*/{60,210,68,203,72,206,-1,0},
-    /*205*/{65,207,-1,0},
-    /*206*/{60,-201,68,-201,72,-201,-1,0},
-    /*207*/{65,-196,-1,0},
-    /*208*/{60,-198,68,-198,72,-198,-1,0},
-    /*209*/{65,-202,-1,0},
-    /*210*/{60,-200,68,-200,72,-200,-1,0},
-    /*211*/{57,145,59,136,61,132,69,141,-1,0},
-    /*212*/{65,-148,-1,0},
-    /*213*/{65,240,-1,0},
-    /*214*/{68,64,-1,0},
-    /*215*/{4,-69,68,33,-1,0},
-    /*216*/{68,229,-1,0},
-    /*217*/{68,64,-1,0},
-    /*218*/{70,224,-1,0},
-    /*219*/{70,221,-1,0},
-    /*220*/{68,64,-1,0},
-    /*221*/{65,223,-1,0},
-    /*222*/{4,-66,68,-66,-1,0},
-    /*223*/{68,64,-1,0},
-    /*224*/{65,226,-1,0},
-    /*225*/{4,-67,68,-67,-1,0},
-    /*226*/{65,228,-1,0},
-    /*227*/{4,-64,68,-64,-1,0},
-    /*228*/{64,-86,68,235,-1,0},
-    /*229*/{4,38,-1,0},
-    /*230*/{64,232,-1,0},
-    /*231*/{23,50,67,52,68,46,70,49,71,48,-1,0},
-    /*232*/{4,-85,-1,0},
-    /*233*/{65,-159,-1,0},
-    /*234*/{64,-87,-1,0},
-    /*235*/{4,38,-1,0},
-    /*236*/{65,-158,-1,0},
-    /*237*/{65,239,-1,0},
-    /*238*/{4,-65,68,-65,-1,0},
-    /*239*/{68,-75,-1,0},
-    /*240*/{65,-155,-1,0},
-    /*241*/{70,248,-1,0},
-    /*242*/{65,245,-1,0},
-    /*243*/{65,-188,-1,0},
-    /*244*/{70,-204,-1,0},
-    /*245*/{62,-206,70,-206,-1,0},
-    /*246*/{62,256,70,248,-1,0},
-    /*247*/{66,249,-1,0},
-    /*248*/{68,250,72,251,-1,0},
-    /*249*/{65,253,-1,0},
-    /*250*/{65,252,-1,0},
-    /*251*/{62,-208,70,-208,-1,0},
-    /*252*/{62,-207,70,-207,-1,0},
-    /*253*/{65,-203,-1,0},
-    /*254*/{62,-205,70,-205,-1,0},
-    /*255*/{65,-209,-1,0},
-    /*256*/{65,-150,-1,0},
-    /*257*/{70,261,-1,0},
-    /*258*/{70,260,-1,0},
-    /*259*/{65,-165,-1,0},
-    /*260*/{65,-166,-1,0},
-    /*261*/{65,-149,-1,0},
-    /*262*/{25,264,-1,0},
-    /*263*/{68,265,-1,0},
-    /*264*/{68,266,-1,0},
-    /*265*/{26,-164,28,267,65,-164,-1,0},
-    /*266*/{67,276,-1,0},
-    /*267*/{26,269,65,-161,-1,0},
-    /*268*/{68,270,70,271,-1,0},
-    /*269*/{32,274,-1,0},
-    /*270*/{32,272,-1,0},
-    /*271*/{70,273,-1,0},
-    /*272*/{65,-162,-1,0},
-    /*273*/{68,275,-1,0},
-    /*274*/{65,-160,-1,0},
-    /*275*/{26,-163,65,-163,-1,0},
-    /*276*/{65,-147,-1,0},
-    /*277*/{65,-156,-1,0},
-    /*278*/{1,-138,2,-138,4,-138,6,-138,7,-138,9,-138,12,-138,13,-138,19,-138,20,-138,21,-138,23,-138,57,-138,59,-138,61,-138,65,-138,68,-138,69,-138,70,-138,-1,0},
-    /*279*/{0,-134,3,-134,8,-134,11,-134,15,-134,16,-134,-1,0},
-    /*280*/{68,282,-1,0},
-    /*281*/{65,283,-1,0},
-    /*282*/{1,-136,2,-136,4,-136,6,-136,7,-136,9,-136,12,-136,13,-136,19,-136,20,-136,21,-136,23,-136,57,-136,59,-136,61,-136,65,-136,68,-136,69,-136,70,-136,-1,0},
-    /*283*/{33,-15,34,-15,39,-15,40,-15,41,-15,42,-15,43,-15,44,-15,45,-15,46,-15,47,-15,48,-15,49,-15,50,-15,51,-15,52,-15,53,-15,54,-15,55,-15,56,-15,65,-15,68,-15,-1,0},
-    /*284*/{33,-15,34,-15,39,-15,40,-15,41,-15,42,-15,43,-15,44,-15,45,-15,46,-15,47,-15,48,-15,49,-15,50,-15,51,-15,52,-15,53,-15,54,-15,55,-15,56,-15,65,-15,68,-15,-1,0},
-    /*285*/{33,-125,34,-125,65,-125,68,288,-1,0},
-    /*286*/{33,289,34,-127,65,-127,-1,0},
-    /*287*/{33,-124,34,-124,65,-124,-1,0},
-    /*288*/{68,64,-1,0},
-    /*289*/{34,291,65,-129,-1,0},
-    /*290*/{68,64,-1,0},
-    /*291*/{65,293,-1,0},
-    /*292*/{0,-122,3,-122,5,-122,8,-122,11,-122,15,-122,16,-122,22,-122,-1,0},
-    /*293*/{65,-128,-1,0},
-    /*294*/{34,-126,65,-126,-1,0},
-    /*295*/{33,-125,34,-125,65,-125,68,288,-1,0},
-    /*296*/{33,289,34,-127,65,-127,-1,0},
-    /*297*/{34,291,65,-129,-1,0},
-    /*298*/{65,300,-1,0},
-    /*299*/{0,-123,3,-123,5,-123,8,-123,11,-123,15,-123,16,-123,22,-123,-1,0},
-    /*300*/{0,-3,3,-3,11,-3,15,-3,16,-3,-1,0},
-    /*301*/{67,353,68,354,-1,0},
-    /*302*/{3,305,15,304,-1,0},
-    /*303*/{39,-15,40,-15,41,-15,42,-15,43,-15,44,-15,45,-15,46,-15,47,-15,48,-15,49,-15,50,-15,51,-15,52,-15,53,-15,54,-15,55,-15,56,-15,68,-15,-1,0},
-    /*304*/{39,-15,40,-15,41,-15,42,-15,43,-15,44,-15,45,-15,46,-15,47,-15,48,-15,49,-15,50,-15,51,-15,52,-15,53,-15,54,-15,55,-15,56,-15,68,-15,-1,0},
-    /*305*/{0,-40,3,-40,5,-40,8,-40,10,308,11,-40,14,-40,15,-40,16,-40,18,-40,19,-40,20,-40,21,-40,22,-40,23,-40,-1,0},
-    /*306*/{0,-42,3,-42,5,-42,8,-42,11,-42,14,312,15,-42,16,-42,18,-42,19,-42,20,-42,21,-42,22,-42,23,-42,-1,0},
-    /*307*/{68,64,-1,0},
-    /*308*/{65,310,-1,0},
-    /*309*/{0,-39,3,-39,5,-39,8,-39,11,-39,14,-39,15,-39,16,-39,18,-39,19,-39,20,-39,21,-39,22,-39,23,-39,-1,0},
-    /*310*/{0,-44,3,-44,5,-44,8,-44,11,-44,14,-44,15,-44,16,-44,18,-44,19,-44,20,-44,21,-44,22,-44,23,-44,-1,0},
-    /*311*/{68,64,-1,0},
-    /*312*/{0,-47,3,-47,5,-47,8,-47,11,-47,15,-47,16,-47,18,-47,19,317,20,-47,21,-47,22,-47,23,-47,-1,0},
-    /*313*/{0,-41,3,-41,5,-41,8,-41,11,-41,14,312,15,-41,16,-41,18,-41,19,-41,20,-41,21,-41,22,-41,23,-41,-1,0},
-    /*314*/{0,-43,3,-43,5,-43,8,-43,11,-43,14,-43,15,-43,16,-43,18,-43,19,-43,20,-43,21,-43,22,-43,23,-43,-1,0},
-    /*315*/{0,-50,3,-50,5,-50,8,-50,11,-50,15,-50,16,-50,18,320,20,-50,21,-50,22,-50,23,-50,-1,0},
-    /*316*/{67,69,-1,0},
-    /*317*/{65,319,-1,0},
-    /*318*/{0,-46,3,-46,5,-46,8,-46,11,-46,15,-46,16,-46,18,-46,20,-46,21,-46,22,-46,23,-46,-1,0},
-    /*319*/{27,342,-1,0},
-    /*320*/{0,-52,3,-52,5,-52,8,-52,11,-52,15,-52,16,-52,20,-52,21,322,22,-52,23,-52,-1,0},
-    /*321*/{65,-53,-1,0},
-    /*322*/{0,-55,3,-55,5,-55,8,-55,11,-55,15,-55,16,-55,20,-55,22,-55,23,328,-1,0},
-    /*323*/{0,-57,3,-57,5,-57,8,-57,11,-57,15,-57,16,-57,20,-57,22,-57,23,-57,-1,0},
-    /*324*/{0,-54,3,-54,5,-54,8,-54,11,-54,15,-54,16,-54,20,-54,22,-54,23,328,-1,0},
-    /*325*/{4,-69,68,33,-1,0},
-    /*326*/{0,-89,3,-89,5,-89,8,-89,11,-89,15,-89,16,-89,20,331,22,-89,-1,0},
-    /*327*/{35,29,36,28,-1,0},
-    /*328*/{4,-61,68,-61,-1,0},
-    /*329*/{0,-91,3,-91,5,-91,8,-91,11,-91,15,-91,16,-91,20,-91,22,-91,-1,0},
-    /*330*/{68,77,-1,0},
-    /*331*/{0,-6,3,-6,5,-6,8,-6,11,-6,15,-6,16,-6,22,-6,-1,0},
-    /*332*/{0,-88,3,-88,5,-88,8,-88,11,-88,15,-88,16,-88,20,331,22,-88,-1,0},
-    /*333*/{0,-90,3,-90,5,-90,8,-90,11,-90,15,-90,16,-90,20,-90,22,-90,-1,0},
-    /*334*/{65,336,-1,0},
-    /*335*/{0,-92,3,-92,5,-92,8,-92,11,-92,15,-92,16,-92,20,-92,22,-92,-1,0},
-    /*336*/{4,38,-1,0},
-    /*337*/{0,-58,3,-58,5,-58,8,-58,11,-58,15,-58,16,-58,20,-58,22,-58,23,-58,-1,0},
-    /*338*/{0,-56,3,-56,5,-56,8,-56,11,-56,15,-56,16,-56,20,-56,22,-56,23,-56,-1,0},
-    /*339*/{65,341,-1,0},
-    /*340*/{0,-51,3,-51,5,-51,8,-51,11,-51,15,-51,16,-51,20,-51,22,-51,23,-51,-1,0},
-    /*341*/{68,343,-1,0},
-    /*342*/{65,344,-1,0},
-    /*343*/{0,-49,3,-49,5,-49,8,-49,11,-49,15,-49,16,-49,20,-49,21,-49,22,-49,23,-49,-1,0},
-    /*344*/{65,346,-1,0},
-    /*345*/{0,-45,3,-45,5,-45,8,-45,11,-45,14,-45,15,-45,16,-45,18,-45,19,-45,20,-45,21,-45,22,-45,23,-45,-1,0},
-    /*346*/{68,64,-1,0},
-    /*347*/{65,349,-1,0},
-    /*348*/{0,-12,3,-12,5,-12,8,-12,10,-12,11,-12,14,-12,15,-12,16,-12,18,-12,19,-12,20,-12,21,-12,22,-12,23,-12,-1,0},
-    /*349*/{68,64,-1,0},
-    /*350*/{65,352,-1,0},
-    /*351*/{0,-13,3,-13,5,-13,8,-13,10,-13,11,-13,14,-13,15,-13,16,-13,18,-13,19,-13,20,-13,21,-13,22,-13,23,-13,-1,0},
-    /*352*/{65,356,-1,0},
-    /*353*/{65,355,-1,0},
-    /*354*/{3,-10,15,-10,-1,0},
-    /*355*/{3,-9,15,-9,-1,0},
-    /*356*/{65,358,-1,0},
-    /*357*/{3,-7,11,-7,15,-7,-1,0},
-    /*358*/{0,-2,-1,0},
-  };
-
-  /** access to parse action table */
-  public short[][] action_table() {return _action_table;}
-
-  /** reduce_goto table */
-  protected static final short[][] _reduce_table = {
-    /*0*/{25,2,26,5,27,1,43,4,47,6,-1,-1},
-    /*1*/{-1,-1},
-    /*2*/{-1,-1},
-    /*3*/{-1,-1},
-    /*4*/{35,302,-1,-1},
-    /*5*/{27,300,43,4,47,6,-1,-1},
-    /*6*/{59,9,60,10,61,8,-1,-1},
-    /*7*/{-1,-1},
-    /*8*/{-1,-1},
-    /*9*/{18,15,19,13,20,12,-1,-1},
-    /*10*/{61,11,-1,-1},
-    /*11*/{-1,-1},
-    /*12*/{15,117,30,118,31,115,32,114,-1,-1},
-    /*13*/{-1,-1},
-    /*14*/{54,19,98,17,99,18,-1,-1},
-    /*15*/{19,16,-1,-1},
-    /*16*/{-1,-1},
-    /*17*/{-1,-1},
-    /*18*/{9,102,10,82,11,101,-1,-1},
-    /*19*/{56,24,57,22,58,23,-1,-1},
-    /*20*/{49,80,-1,-1},
-    /*21*/{53,77,-1,-1},
-    /*22*/{58,75,-1,-1},
-    /*23*/{-1,-1},
-    /*24*/{55,72,-1,-1},
-    /*25*/{46,69,-1,-1},
-    /*26*/{82,29,-1,-1},
-    /*27*/{1,66,-1,-1},
-    /*28*/{1,64,-1,-1},
-    /*29*/{84,34,85,30,86,33,92,31,-1,-1},
-    /*30*/{86,62,92,31,-1,-1},
-    /*31*/{-1,-1},
-    /*32*/{-1,-1},
-    /*33*/{-1,-1},
-    /*34*/{80,36,94,35,-1,-1},
-    /*35*/{-1,-1},
-    /*36*/{-1,-1},
-    /*37*/{-1,-1},
-    /*38*/{-1,-1},
-    /*39*/{-1,-1},
-    /*40*/{-1,-1},
-    /*41*/{-1,-1},
-    /*42*/{7,53,8,54,89,43,90,52,95,46,96,50,97,44,-1,-1},
-    /*43*/{7,53,8,54,90,61,-1,-1},
-    /*44*/{-1,-1},
-    /*45*/{-1,-1},
-    /*46*/{-1,-1},
-    /*47*/{-1,-1},
-    /*48*/{-1,-1},
-    /*49*/{93,57,-1,-1},
-    /*50*/{95,55,-1,-1},
-    /*51*/{-1,-1},
-    /*52*/{-1,-1},
-    /*53*/{-1,-1},
-    /*54*/{-1,-1},
-    /*55*/{-1,-1},
-    /*56*/{-1,-1},
-    /*57*/{84,58,85,30,86,33,92,31,-1,-1},
-    /*58*/{80,36,94,59,-1,-1},
-    /*59*/{-1,-1},
-    /*60*/{-1,-1},
-    /*61*/{-1,-1},
-    /*62*/{-1,-1},
-    /*63*/{-1,-1},
-    /*64*/{-1,-1},
-    /*65*/{-1,-1},
-    /*66*/{-1,-1},
-    /*67*/{-1,-1},
-    /*68*/{-1,-1},
-    /*69*/{-1,-1},
-    /*70*/{-1,-1},
-    /*71*/{-1,-1},
-    /*72*/{-1,-1},
-    /*73*/{-1,-1},
-    /*74*/{-1,-1},
-    /*75*/{-1,-1},
-    /*76*/{-1,-1},
-    /*77*/{-1,-1},
-    /*78*/{-1,-1},
-    /*79*/{-1,-1},
-    /*80*/{-1,-1},
-    /*81*/{-1,-1},
-    /*82*/{9,103,-1,-1},
-    /*83*/{-1,-1},
-    /*84*/{-1,-1},
-    /*85*/{-1,-1},
-    /*86*/{-1,-1},
-    /*87*/{-1,-1},
-    /*88*/{-1,-1},
-    /*89*/{-1,-1},
-    /*90*/{-1,-1},
-    /*91*/{-1,-1},
-    /*92*/{-1,-1},
-    /*93*/{-1,-1},
-    /*94*/{-1,-1},
-    /*95*/{-1,-1},
-    /*96*/{-1,-1},
-    /*97*/{-1,-1},
-    /*98*/{-1,-1},
-    /*99*/{-1,-1},
-    /*100*/{-1,-1},
-    /*101*/{-1,-1},
-    /*102*/{-1,-1},
-    /*103*/{-1,-1},
-    /*104*/{-1,-1},
-    /*105*/{6,107,-1,-1},
-    /*106*/{7,113,-1,-1},
-    /*107*/{-1,-1},
-    /*108*/{-1,-1},
-    /*109*/{6,110,-1,-1},
-    /*110*/{-1,-1},
-    /*111*/{-1,-1},
-    /*112*/{-1,-1},
-    /*113*/{-1,-1},
-    /*114*/{-1,-1},
-    /*115*/{-1,-1},
-    /*116*/{98,280,99,18,-1,-1},
-    /*117*/{17,124,36,123,37,120,100,121,-1,-1},
-    /*118*/{15,117,31,119,-1,-1},
-    /*119*/{-1,-1},
-    /*120*/{17,279,36,278,100,121,-1,-1},
-    /*121*/{14,148,16,138,21,146,28,136,34,145,38,139,-1,-1},
-    /*122*/{-1,-1},
-    /*123*/{-1,-1},
-    /*124*/{-1,-1},
-    /*125*/{-1,-1},
-    /*126*/{-1,-1},
-    /*127*/{53,277,-1,-1},
-    /*128*/{-1,-1},
-    /*129*/{42,261,-1,-1},
-    /*130*/{29,256,-1,-1},
-    /*131*/{72,243,73,241,-1,-1},
-    /*132*/{46,240,-1,-1},
-    /*133*/{83,215,87,216,-1,-1},
-    /*134*/{-1,-1},
-    /*135*/{67,199,68,197,-1,-1},
-    /*136*/{-1,-1},
-    /*137*/{1,185,12,184,-1,-1},
-    /*138*/{-1,-1},
-    /*139*/{-1,-1},
-    /*140*/{-1,-1},
-    /*141*/{-1,-1},
-    /*142*/{33,169,-1,-1},
-    /*143*/{40,167,-1,-1},
-    /*144*/{62,153,63,154,-1,-1},
-    /*145*/{-1,-1},
-    /*146*/{-1,-1},
-    /*147*/{49,152,-1,-1},
-    /*148*/{-1,-1},
-    /*149*/{1,150,41,151,-1,-1},
-    /*150*/{-1,-1},
-    /*151*/{-1,-1},
-    /*152*/{-1,-1},
-    /*153*/{-1,-1},
-    /*154*/{64,158,65,160,-1,-1},
-    /*155*/{-1,-1},
-    /*156*/{-1,-1},
-    /*157*/{-1,-1},
-    /*158*/{65,165,66,164,-1,-1},
-    /*159*/{-1,-1},
-    /*160*/{-1,-1},
-    /*161*/{-1,-1},
-    /*162*/{-1,-1},
-    /*163*/{-1,-1},
-    /*164*/{-1,-1},
-    /*165*/{-1,-1},
-    /*166*/{-1,-1},
-    /*167*/{-1,-1},
-    /*168*/{-1,-1},
-    /*169*/{-1,-1},
-    /*170*/{7,53,8,171,-1,-1},
-    /*171*/{-1,-1},
-    /*172*/{-1,-1},
-    /*173*/{-1,-1},
-    /*174*/{-1,-1},
-    /*175*/{-1,-1},
-    /*176*/{-1,-1},
-    /*177*/{-1,-1},
-    /*178*/{-1,-1},
-    /*179*/{-1,-1},
-    /*180*/{-1,-1},
-    /*181*/{-1,-1},
-    /*182*/{-1,-1},
-    /*183*/{-1,-1},
-    /*184*/{-1,-1},
-    /*185*/{-1,-1},
-    /*186*/{-1,-1},
-    /*187*/{-1,-1},
-    /*188*/{-1,-1},
-    /*189*/{-1,-1},
-    /*190*/{-1,-1},
-    /*191*/{-1,-1},
-    /*192*/{-1,-1},
-    /*193*/{-1,-1},
-    /*194*/{-1,-1},
-    /*195*/{-1,-1},
-    /*196*/{-1,-1},
-    /*197*/{69,204,70,203,-1,-1},
-    /*198*/{-1,-1},
-    /*199*/{-1,-1},
-    /*200*/{-1,-1},
-    /*201*/{-1,-1},
-    /*202*/{-1,-1},
-    /*203*/{-1,-1},
-    /*204*/{70,208,71,207,-1,-1},
-    /*205*/{-1,-1},
-    /*206*/{-1,-1},
-    /*207*/{-1,-1},
-    /*208*/{-1,-1},
-    /*209*/{-1,-1},
-    /*210*/{-1,-1},
-    /*211*/{14,148,21,212,34,145,-1,-1},
-    /*212*/{-1,-1},
-    /*213*/{-1,-1},
-    /*214*/{1,237,-1,-1},
-    /*215*/{84,235,85,30,86,33,92,31,-1,-1},
-    /*216*/{88,229,91,230,-1,-1},
-    /*217*/{1,226,-1,-1},
-    /*218*/{-1,-1},
-    /*219*/{-1,-1},
-    /*220*/{1,221,-1,-1},
-    /*221*/{-1,-1},
-    /*222*/{-1,-1},
-    /*223*/{1,224,-1,-1},
-    /*224*/{-1,-1},
-    /*225*/{-1,-1},
-    /*226*/{-1,-1},
-    /*227*/{-1,-1},
-    /*228*/{-1,-1},
-    /*229*/{80,233,-1,-1},
-    /*230*/{-1,-1},
-    /*231*/{7,53,8,54,89,43,90,52,95,46,96,50,97,232,-1,-1},
-    /*232*/{-1,-1},
-    /*233*/{-1,-1},
-    /*234*/{-1,-1},
-    /*235*/{80,236,-1,-1},
-    /*236*/{-1,-1},
-    /*237*/{-1,-1},
-    /*238*/{-1,-1},
-    /*239*/{-1,-1},
-    /*240*/{-1,-1},
-    /*241*/{74,246,75,245,-1,-1},
-    /*242*/{-1,-1},
-    /*243*/{-1,-1},
-    /*244*/{-1,-1},
-    /*245*/{-1,-1},
-    /*246*/{75,254,76,253,-1,-1},
-    /*247*/{-1,-1},
-    /*248*/{-1,-1},
-    /*249*/{-1,-1},
-    /*250*/{-1,-1},
-    /*251*/{-1,-1},
-    /*252*/{-1,-1},
-    /*253*/{-1,-1},
-    /*254*/{-1,-1},
-    /*255*/{-1,-1},
-    /*256*/{-1,-1},
-    /*257*/{-1,-1},
-    /*258*/{-1,-1},
-    /*259*/{-1,-1},
-    /*260*/{-1,-1},
-    /*261*/{-1,-1},
-    /*262*/{-1,-1},
-    /*263*/{-1,-1},
-    /*264*/{-1,-1},
-    /*265*/{5,267,-1,-1},
-    /*266*/{-1,-1},
-    /*267*/{-1,-1},
-    /*268*/{-1,-1},
-    /*269*/{-1,-1},
-    /*270*/{-1,-1},
-    /*271*/{-1,-1},
-    /*272*/{-1,-1},
-    /*273*/{-1,-1},
-    /*274*/{-1,-1},
-    /*275*/{-1,-1},
-    /*276*/{-1,-1},
-    /*277*/{-1,-1},
-    /*278*/{-1,-1},
-    /*279*/{-1,-1},
-    /*280*/{-1,-1},
-    /*281*/{-1,-1},
-    /*282*/{-1,-1},
-    /*283*/{98,295,99,18,-1,-1},
-    /*284*/{98,285,99,18,-1,-1},
-    /*285*/{2,286,-1,-1},
-    /*286*/{3,289,-1,-1},
-    /*287*/{-1,-1},
-    /*288*/{1,294,-1,-1},
-    /*289*/{4,291,-1,-1},
-    /*290*/{1,293,-1,-1},
-    /*291*/{-1,-1},
-    /*292*/{-1,-1},
-    /*293*/{-1,-1},
-    /*294*/{-1,-1},
-    /*295*/{2,296,-1,-1},
-    /*296*/{3,297,-1,-1},
-    /*297*/{4,298,-1,-1},
-    /*298*/{-1,-1},
-    /*299*/{-1,-1},
-    /*300*/{-1,-1},
-    /*301*/{-1,-1},
-    /*302*/{13,305,-1,-1},
-    /*303*/{98,349,99,18,-1,-1},
-    /*304*/{98,346,99,18,-1,-1},
-    /*305*/{39,306,-1,-1},
-    /*306*/{22,312,23,313,24,310,-1,-1},
-    /*307*/{1,308,-1,-1},
-    /*308*/{-1,-1},
-    /*309*/{-1,-1},
-    /*310*/{-1,-1},
-    /*311*/{1,344,-1,-1},
-    /*312*/{45,315,-1,-1},
-    /*313*/{24,314,-1,-1},
-    /*314*/{-1,-1},
-    /*315*/{44,320,-1,-1},
-    /*316*/{46,317,-1,-1},
-    /*317*/{-1,-1},
-    /*318*/{-1,-1},
-    /*319*/{-1,-1},
-    /*320*/{48,322,-1,-1},
-    /*321*/{49,339,-1,-1},
-    /*322*/{77,326,78,324,79,323,81,325,-1,-1},
-    /*323*/{-1,-1},
-    /*324*/{79,338,81,325,-1,-1},
-    /*325*/{84,336,85,30,86,33,92,31,-1,-1},
-    /*326*/{50,331,51,332,52,329,-1,-1},
-    /*327*/{82,328,-1,-1},
-    /*328*/{-1,-1},
-    /*329*/{-1,-1},
-    /*330*/{53,334,-1,-1},
-    /*331*/{-1,-1},
-    /*332*/{52,333,-1,-1},
-    /*333*/{-1,-1},
-    /*334*/{-1,-1},
-    /*335*/{-1,-1},
-    /*336*/{80,36,94,337,-1,-1},
-    /*337*/{-1,-1},
-    /*338*/{-1,-1},
-    /*339*/{-1,-1},
-    /*340*/{-1,-1},
-    /*341*/{-1,-1},
-    /*342*/{-1,-1},
-    /*343*/{-1,-1},
-    /*344*/{-1,-1},
-    /*345*/{-1,-1},
-    /*346*/{1,347,-1,-1},
-    /*347*/{-1,-1},
-    /*348*/{-1,-1},
-    /*349*/{1,350,-1,-1},
-    /*350*/{-1,-1},
-    /*351*/{-1,-1},
-    /*352*/{-1,-1},
-    /*353*/{-1,-1},
-    /*354*/{-1,-1},
-    /*355*/{-1,-1},
-    /*356*/{-1,-1},
-    /*357*/{-1,-1},
-    /*358*/{-1,-1},
-  };
-
-  /** access to reduce_goto table */
-  public short[][] reduce_table() {return _reduce_table;}
+  public short[][] production_table() {return CUP$tables.production;}
+
+  /** the parse action and reduce_goto tables are packed */
+  public short[][] action_table() {return null;}
+  public short[][] reduce_table() {return null;}
+
+  /** access to packed parse action table */
+  public java_cup.runtime.packed_table packed_action_table()
+    {return CUP$tables.action;}
+
+  /** access to packed reduce_goto table */
+  public java_cup.runtime.packed_table packed_reduce_table()
+    {return CUP$tables.reduce;}
 
   /** instance of action encapsulation class */
   protected CUP$actions action_obj;
@@ -1,7 +1,8 @@
 
 //----------------------------------------------------
 // The following code was generated by Java(tm) CUP v0.9d
-// Thu Dec 11 17:10:00 CET 2008
+// Sun Oct 18 23:59:07 UTC 2026
+// Specification hash 34e4c8529a815638eef917b2f11b4f3f92b830be
 //----------------------------------------------------
 
 package dasm;
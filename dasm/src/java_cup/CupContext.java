@@ -0,0 +1,224 @@
+package java_cup;
+
+import java.io.BufferedInputStream;
+import java.io.PrintStream;
+import java.util.Hashtable;
+
+/** This class holds all of the state of one run of the parser generator:
+ *  the user options, the terminals, non terminals, productions and states
+ *  of the grammar being processed, the emitter and lexer, and the results
+ *  and statistics of the run.  Nothing is shared between contexts, so
+ *  several grammars can be processed one after the other, or at the same
+ *  time on different threads, inside the same VM.  A context must only be
+ *  used by one thread at a time.
+ *
+ * @see     java_cup.Main#run
+ */
+public class CupContext {
+
+  /*-----------------------------------------------------------*/
+  /*--- Constructor(s) ----------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Simple constructor.  This creates the special symbols that are part
+   *  of every grammar.
+   */
+  public CupContext()
+    {
+      emit  = new emit(this);
+      lexer = new lexer();
+
+      /* EOF and error always get the first two terminal indexes */
+      EOF   = new terminal(this, "EOF");
+      error = new terminal(this, "error");
+
+      START_nt = new non_terminal(this, "$START");
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- Emitter and Lexer -------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Code generation options, user code and counters for this run. */
+  public final emit emit;
+
+  /** Scanner for the specification, also counts errors and warnings. */
+  public final lexer lexer;
+
+  /*-----------------------------------------------------------*/
+  /*--- Symbols and Productions -------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Table of all terminals.  Elements are stored using name strings as
+   *  the key
+   */
+  protected Hashtable terminals = new Hashtable();
+
+  /** Table of all terminals indexed by their index number. */
+  protected Hashtable terminals_by_index = new Hashtable();
+
+  /** Counter to assign unique terminal indexes. */
+  protected int next_terminal_index = 0;
+
+  /** Special terminal for end of input. */
+  public final terminal EOF;
+
+  /** special terminal used for error recovery */
+  public final terminal error;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Table of all non-terminals -- elements are stored using name strings
+   *  as the key
+   */
+  protected Hashtable non_terminals = new Hashtable();
+
+  /** Counter to assign unique non terminal indexes. */
+  protected int next_non_terminal_index = 0;
+
+  /** Counter for creating unique non-terminal names */
+  protected int next_nt = 0;
+
+  /** special non-terminal for start symbol */
+  public final non_terminal START_nt;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Table of all productions.  Elements are stored using their index as
+   *  the key.
+   */
+  protected Hashtable productions = new Hashtable();
+
+  /** Counter for assigning unique production index numbers. */
+  protected int next_production_index = 0;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Collection of all states, keyed with their item sets. */
+  protected Hashtable states = new Hashtable();
+
+  /** Hash table to find states by their kernels. */
+  protected Hashtable state_kernels = new Hashtable();
+
+  /** Counter for assigning unique state indexes. */
+  protected int next_state_index = 0;
+
+  /*-----------------------------------------------------------*/
+  /*--- Options set by the user -------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** User option -- do we print progress messages. */
+  public boolean print_progress   = false;
+  /** User option -- do we produce a dump of the state machine */
+  public boolean opt_dump_states  = false;
+  /** User option -- do we produce a dump of the parse tables */
+  public boolean opt_dump_tables  = false;
+  /** User option -- do we produce a dump of the grammar */
+  public boolean opt_dump_grammar = false;
+  /** User option -- do we show timing information as a part of the summary */
+  public boolean opt_show_timing  = false;
+  /** User option -- do we run produce extra debugging messages */
+  public boolean opt_do_debug     = false;
+  /** User option -- do we compact tables by making most common reduce the
+      default action */
+  public boolean opt_compact_red  = false;
+  /** User option -- do we pack the tables into string constants that are
+      unpacked on first use */
+  public boolean opt_packed_tables = false;
+  /** User option -- do we generate code even if the output files were
+      already generated from the same specification and options */
+  public boolean opt_force = false;
+  /** User option -- should we include non terminal symbol numbers in the
+      symbol constant class. */
+  public boolean include_non_terms = false;
+  /** User option -- do not print a summary. */
+  public boolean no_summary = false;
+  /** User option -- number of conflicts to expect */
+  public int expect_conflicts = 0;
+
+  /** Path to create output files */
+  public String out_path = null;
+
+  /** User option -- file to write a machine readable (JSON) report of the
+      run to, or null for none */
+  public String report_file = null;
+
+  /** User option -- directory holding the java_cup sources to include in
+      the specification hash, or null for none */
+  public String generator_src = null;
+
+  /*-----------------------------------------------------------*/
+  /*--- Timing data -------------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /* not all of these time intervals are mutually exclusive, additional
+     timing information is also collected in emit.  All times are 
+     System.nanoTime() values. */
+
+  /** Timing data -- when did we start */
+  protected long start_time       = 0;
+  /** Timing data -- when did we end preliminaries */
+  protected long prelim_end       = 0;
+  /** Timing data -- when did we end parsing */
+  protected long parse_end        = 0;
+  /** Timing data -- when did we end checking */
+  protected long check_end        = 0;
+  /** Timing data -- when did we end dumping */
+  protected long dump_end         = 0;
+  /** Timing data -- when did we end state and table building */
+  protected long build_end        = 0;
+  /** Timing data -- when did we end nullability calculation */
+  protected long nullability_end  = 0;
+  /** Timing data -- when did we end first set calculation */
+  protected long first_end        = 0;
+  /** Timing data -- when did we end state machine construction */
+  protected long machine_end      = 0;
+  /** Timing data -- when did we end table construction */
+  protected long table_end        = 0;
+  /** Timing data -- when did we end checking for non-reduced productions */
+  protected long reduce_check_end = 0;
+  /** Timing data -- when did we finish emitting code */
+  protected long emit_end         = 0;
+  /** Timing data -- when were we completely done */
+  protected long final_time       = 0;
+
+  /*-----------------------------------------------------------*/
+  /*--- Files -------------------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Input file.  This is a buffered version of System.in unless an input
+   *  file name was given.
+   */
+  protected BufferedInputStream input_file;
+
+  /** Output file for the parser class. */
+  protected PrintStream parser_class_file;
+
+  /** Output file for the symbol constant class. */
+  protected PrintStream symbol_class_file;
+
+  /** Set when the specification parser gave up on a syntax error. */
+  protected boolean parse_aborted = false;
+
+  /*-----------------------------------------------------------*/
+  /*--- Internal Results of Generating the Parser -------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Start state in the overall state machine. */
+  protected lalr_state start_state;
+
+  /** Resulting parse action table. */
+  protected parse_action_table action_table;
+
+  /** Resulting reduce-goto table. */
+  protected parse_reduce_table reduce_table;
+
+  /** Set when the output files were already up to date. */
+  protected boolean up_to_date = false;
+
+  /** Set when the output files were written. */
+  protected boolean output_produced = false;
+
+  /*-----------------------------------------------------------*/
+
+};
@@ -3,17 +3,28 @@ package java_cup;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FileReader;
 import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.security.MessageDigest;
 import java.util.Enumeration;
+import java.util.Iterator;
 
 /** This class serves as the main driver for the JavaCup system.
  *  It accepts user options and coordinates overall control flow.
  *  The main flow of control includes the following activities:
  *  <ul>
  *    <li> Parse user supplied arguments and options.
+ *    <li> Read the specification and stop if the output files were already
+ *         generated from it with the same options.
  *    <li> Open output files.
  *    <li> Parse the specification from standard input.
  *    <li> Check for unused terminals, non-terminals, and productions.
@@ -36,6 +47,12 @@ import java.util.Enumeration;
  *   <dd> number of conflicts expected/allowed [default 0]
  *   <dt> -compact_red
  *   <dd> compact tables by defaulting to most frequent reduce
+ *   <dt> -packed_tables
+ *   <dd> pack tables into string constants, unpacked on first use
+ *   <dt> -force
+ *   <dd> generate code even if the output files are up to date
+ *   <dt> -generator_src dir
+ *   <dd> include the java_cup sources in dir in the up to date check
  *   <dt> -nowarn
  *   <dd> don't warn about useless productions, etc.
  *   <dt> -nosummary
@@ -44,6 +61,8 @@ import java.util.Enumeration;
  *   <dd> print messages to indicate progress of the system
  *   <dt> -time
  *   <dd> print time usage summary
+ *   <dt> -report file
+ *   <dd> write timings, sizes and counts of the run to a JSON file
  *   <dt> -dump_grammar
  *   <dd> produce a dump of the symbols and grammar
  *   <dt> -dump_states
@@ -69,67 +88,6 @@ public class Main {
       class. */
   private Main() { }
 
-  /*-------------------------*/
-  /* Options set by the user */
-  /*-------------------------*/
-  /** User option -- do we print progress messages. */
-  protected static boolean print_progress   = false;
-  /** User option -- do we produce a dump of the state machine */
-  protected static boolean opt_dump_states  = false;
-  /** User option -- do we produce a dump of the parse tables */
-  protected static boolean opt_dump_tables  = false;
-  /** User option -- do we produce a dump of the grammar */
-  protected static boolean opt_dump_grammar = false;
-  /** User option -- do we show timing information as a part of the summary */
-  protected static boolean opt_show_timing  = false;
-  /** User option -- do we run produce extra debugging messages */
-  protected static boolean opt_do_debug     = false;
-  /** User option -- do we compact tables by making most common reduce the
-      default action */
-  protected static boolean opt_compact_red  = false;
-  /** User option -- should we include non terminal symbol numbers in the
-      symbol constant class. */
-  protected static boolean include_non_terms = false;
-  /** User option -- do not print a summary. */
-  protected static boolean no_summary = false;
-  /** User option -- number of conflicts to expect */
-  protected static int expect_conflicts = 0;
-
-  /*----------------------------------------------------------------------*/
-  /* Timing data (not all of these time intervals are mutually exclusive) */
-  /*----------------------------------------------------------------------*/
-  /** Timing data -- when did we start */
-  protected static long start_time       = 0;
-  /** Timing data -- when did we end preliminaries */
-  protected static long prelim_end       = 0;
-  /** Timing data -- when did we end parsing */
-  protected static long parse_end        = 0;
-  /** Timing data -- when did we end checking */
-  protected static long check_end        = 0;
-  /** Timing data -- when did we end dumping */
-  protected static long dump_end         = 0;
-  /** Timing data -- when did we end state and table building */
-  protected static long build_end        = 0;
-  /** Timing data -- when did we end nullability calculation */
-  protected static long nullability_end  = 0;
-  /** Timing data -- when did we end first set calculation */
-  protected static long first_end        = 0;
-  /** Timing data -- when did we end state machine construction */
-  protected static long machine_end      = 0;
-  /** Timing data -- when did we end table construction */
-  protected static long table_end        = 0;
-  /** Timing data -- when did we end checking for non-reduced productions */
-  protected static long reduce_check_end = 0;
-  /** Timing data -- when did we finish emitting code */
-  protected static long emit_end         = 0;
-  /** Timing data -- when were we completely done */
-  protected static long final_time       = 0;
-
-  /* Additional timing information is also collected in emit */
-
-  /** Path to create output files */
-  private static String out_path = null;
-
   /*-----------------------------------------------------------*/
   /*--- Main Program ------------------------------------------*/
   /*-----------------------------------------------------------*/
@@ -140,76 +98,153 @@ public class Main {
   public static void main(String argv[])
     throws internal_error, java.io.IOException, java.lang.Exception
     {
-      boolean did_output = false;
+      int status = run(new CupContext(), argv);
+
+      if (status != 0) System.exit(status);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-      start_time = System.currentTimeMillis();
+  /** Run the system once.  All of the state of the run is kept in the given
+   *  context, so different contexts may be run at the same time on different
+   *  threads.
+   * @param ctx  a fresh context to run in.
+   * @param argv an array of strings containing command line arguments.
+   * @return the exit status of the run, 0 unless no code could be produced
+   *         because of a usage error (1), a parse that could not recover (1),
+   *         an output file that could not be opened (3 or 4) or more
+   *         conflicts than expected (100).
+   */
+  public static int run(CupContext ctx, String argv[])
+    throws internal_error, java.io.IOException, java.lang.Exception
+    {
+      ctx.start_time = System.nanoTime();
+
+      int status;
 
       /* process user options and arguments */
-      parse_args(argv);
+      if (!parse_args(ctx, argv)) return 1;
+
+      /* measure the peak heap use from here on (and don't charge the time
+         it takes to load the management classes to the run) */
+      if (ctx.report_file != null)
+    {
+      reset_peak_heap();
+      ctx.start_time = System.nanoTime();
+    }
+
+      try
+    {
+      status = run_files(ctx);
+    }
+      finally
+    {
+      /* make sure nothing stays open if we stopped early */
+      close_files(ctx);
+    }
+
+      if (ctx.report_file != null) emit_report(ctx, status);
+
+      return status;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Process the specification once the options are known.
+   * @param ctx the context to run in.
+   * @return the exit status of the run.
+   */
+  protected static int run_files(CupContext ctx)
+    throws internal_error, java.io.IOException, java.lang.Exception
+    {
+      boolean did_output = false;
+
+      /* read the specification */
+      if (ctx.print_progress) System.err.println("Reading specification...");
+      int status = open_input(ctx);
+      if (status != 0) return status;
+      hash_spec(ctx);
+
+      /* nothing to do if the outputs were built from the same specification
+         and options (unless we have to dump what we would build) */
+      if (!ctx.opt_force && !ctx.opt_dump_grammar && !ctx.opt_dump_states &&
+      !ctx.opt_dump_tables && outputs_up_to_date(ctx))
+    {
+      ctx.up_to_date = true;
+      if (!ctx.no_summary) emit_up_to_date_summary(ctx);
+      return 0;
+    }
 
       /* open output files */
-      if (print_progress) System.err.println("Opening files...");
-      open_files();
+      if (ctx.print_progress) System.err.println("Opening files...");
+      status = open_files(ctx);
+      if (status != 0) return status;
 
-      prelim_end = System.currentTimeMillis();
+      ctx.prelim_end = System.nanoTime();
 
       /* parse spec into internal data structures */
-      if (print_progress)
+      if (ctx.print_progress)
     System.err.println("Parsing specification from standard input...");
-      parse_grammar_spec();
+      parse_grammar_spec(ctx);
+      if (ctx.parse_aborted) return 1;
 
-      parse_end = System.currentTimeMillis();
+      ctx.parse_end = System.nanoTime();
 
       /* don't proceed unless we are error free */
-      if (lexer.error_count == 0)
+      if (ctx.lexer.error_count == 0)
     {
       /* check for unused bits */
-          if (print_progress) System.err.println("Checking specification...");
-          check_unused();
+          if (ctx.print_progress)
+        System.err.println("Checking specification...");
+          check_unused(ctx);
 
-          check_end = System.currentTimeMillis();
+          ctx.check_end = System.nanoTime();
 
       /* build the state machine and parse tables */
-          if (print_progress) System.err.println("Building parse tables...");
-          build_parser();
+          if (ctx.print_progress)
+        System.err.println("Building parse tables...");
+          if (!build_parser(ctx)) return 100;
 
-          build_end = System.currentTimeMillis();
+          ctx.build_end = System.nanoTime();
 
       /* output the generated code */
-          if (print_progress) System.err.println("Writing parser...");
-          emit_parser();
+          if (ctx.print_progress) System.err.println("Writing parser...");
+          emit_parser(ctx);
       did_output = true;
+      ctx.output_produced = true;
 
-          emit_end = System.currentTimeMillis();
+          ctx.emit_end = System.nanoTime();
     }
       else
     {
       /* fix up the times to make the summary easier */
-      emit_end = parse_end;
+      ctx.emit_end = ctx.parse_end;
     }
 
       /* do requested dumps */
-      if (opt_dump_grammar) dump_grammar();
-      if (opt_dump_states)  dump_machine();
-      if (opt_dump_tables)  dump_tables();
+      if (ctx.opt_dump_grammar) dump_grammar(ctx);
+      if (ctx.opt_dump_states)  dump_machine(ctx);
+      if (ctx.opt_dump_tables)  dump_tables(ctx);
 
-      dump_end = System.currentTimeMillis();
+      ctx.dump_end = System.nanoTime();
 
       /* close output files */
-      if (print_progress) System.err.println("Closing files...");
-      close_files();
+      if (ctx.print_progress) System.err.println("Closing files...");
+      close_files(ctx);
 
       /* produce a summary if desired */
-      if (!no_summary) emit_summary(did_output);
+      if (!ctx.no_summary) emit_summary(ctx, did_output);
+
+      return 0;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Print a "usage message" that described possible command line options,
-   *  then exit.
+  /** Print a "usage message" that described possible command line options.
    * @param message a specific error message to preface the usage message by.
+   * @return false, so that option parsing can stop with "return usage(...)".
    */
-  protected static void usage(String message)
+  protected static boolean usage(String message)
     {
       System.err.println();
       System.err.println(message);
@@ -225,25 +260,32 @@ public class Main {
 "    -nonterms      put non terminals in symbol constant class\n" +
 "    -expect #      number of conflicts expected/allowed [default 0]\n" +
 "    -compact_red   compact tables by defaulting to most frequent reduce\n" +
+"    -packed_tables pack tables into string constants, unpacked on first use\n"+
+"    -force         generate code even if the output files are up to date\n" +
+"    -generator_src dir  include the java_cup sources in dir in the up to\n" +
+"                   date check\n" +
 "    -nowarn        don't warn about useless productions, etc.\n" +
 "    -nosummary     don't print the usual summary of parse states, etc.\n" +
 "    -progress      print messages to indicate progress of the system\n" +
 "    -time          print time usage summary\n" +
+"    -report file   write timings, sizes and counts of the run to a JSON file\n"+
 "    -dump_grammar  produce a human readable dump of the symbols and grammar\n"+
 "    -dump_states   produce a dump of parse state machine\n"+
 "    -dump_tables   produce a dump of the parse tables\n"+
 "    -dump          produce a dump of all of the above\n"
       );
-      System.exit(1);
+      return false;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Parse command line options and arguments to set various user-option
    *  flags and variables.
+   * @param ctx  the context to set the options of.
    * @param argv the command line arguments to be parsed.
+   * @return false if the arguments are not valid.
    */
-  protected static void parse_args(String argv[])
+  protected static boolean parse_args(CupContext ctx, String argv[])
     {
       int len = argv.length;
       int i;
@@ -257,187 +299,384 @@ public class Main {
           /* must have an arg */
           if (++i >= len || argv[i].startsWith("-") ||
                 argv[i].endsWith(".cup"))
-        usage("-package must have a name argument");
+        return usage("-package must have a name argument");
 
           /* record the name */
-          emit.package_name = argv[i];
+          ctx.emit.package_name = argv[i];
         }
       else if (argv[i].equals("-parser"))
         {
           /* must have an arg */
           if (++i >= len || argv[i].startsWith("-") ||
                 argv[i].endsWith(".cup"))
-        usage("-parser must have a name argument");
+        return usage("-parser must have a name argument");
 
           /* record the name */
-          emit.parser_class_name = argv[i];
+          ctx.emit.parser_class_name = argv[i];
         }
       else if (argv[i].equals("-input")) {
           /* must have an arg */
           if (++i >= len || argv[i].startsWith("-") ||
               argv[i].endsWith(".cup"))
-              usage("-input must have a name argument");
+              return usage("-input must have a name argument");
 
           /* record the name */
-          emit.input_file_name = argv[i];
+          ctx.emit.input_file_name = argv[i];
       }
       else if (argv[i].equals("-symbols"))
         {
           /* must have an arg */
           if (++i >= len || argv[i].startsWith("-") ||
                 argv[i].endsWith(".cup"))
-        usage("-symbols must have a name argument");
+        return usage("-symbols must have a name argument");
 
           /* record the name */
-          emit.symbol_const_class_name = argv[i];
+          ctx.emit.symbol_const_class_name = argv[i];
         }
       else if (argv[i].equals("-nonterms"))
         {
-          include_non_terms = true;
+          ctx.include_non_terms = true;
         }
       else if (argv[i].equals("-expect"))
         {
           /* must have an arg */
           if (++i >= len || argv[i].startsWith("-") ||
                 argv[i].endsWith(".cup"))
-        usage("-expect must have a name argument");
+        return usage("-expect must have a name argument");
 
           /* record the number */
           try {
-            expect_conflicts = Integer.parseInt(argv[i]);
+            ctx.expect_conflicts = Integer.parseInt(argv[i]);
           } catch (NumberFormatException e) {
-        usage("-expect must be followed by a decimal integer");
+        return usage("-expect must be followed by a decimal integer");
           }
         }
           else if (argv[i].equals("-out"))
         {
           /* must have an arg */
               if (++i >= len || argv[i].startsWith("-"))
-                usage("-out must have a path argument");
+                return usage("-out must have a path argument");
 
               /* validate path */
               if (argv[i].length() != 0) {
-                out_path = argv[i] + File.separator;
-                File f = new File(out_path);
+                ctx.out_path = argv[i] + File.separator;
+                File f = new File(ctx.out_path);
                 if (!f.exists() || !f.isDirectory())
-                  out_path = null;
+                  ctx.out_path = null;
           }
-              if (out_path == null)
-                usage("-out argument must be a valid existing path");
+              if (ctx.out_path == null)
+                return usage("-out argument must be a valid existing path");
         }
-      else if (argv[i].equals("-compact_red"))  opt_compact_red = true;
-      else if (argv[i].equals("-nosummary"))    no_summary = true;
-      else if (argv[i].equals("-nowarn"))       emit.nowarn = true;
-      else if (argv[i].equals("-dump_states"))  opt_dump_states = true;
-      else if (argv[i].equals("-dump_tables"))  opt_dump_tables = true;
-      else if (argv[i].equals("-progress"))     print_progress = true;
-      else if (argv[i].equals("-dump_grammar")) opt_dump_grammar = true;
+      else if (argv[i].equals("-compact_red"))  ctx.opt_compact_red = true;
+      else if (argv[i].equals("-packed_tables")) ctx.opt_packed_tables = true;
+      else if (argv[i].equals("-force"))        ctx.opt_force = true;
+      else if (argv[i].equals("-nosummary"))    ctx.no_summary = true;
+      else if (argv[i].equals("-nowarn"))       ctx.emit.nowarn = true;
+      else if (argv[i].equals("-dump_states"))  ctx.opt_dump_states = true;
+      else if (argv[i].equals("-dump_tables"))  ctx.opt_dump_tables = true;
+      else if (argv[i].equals("-progress"))     ctx.print_progress = true;
+      else if (argv[i].equals("-dump_grammar")) ctx.opt_dump_grammar = true;
       else if (argv[i].equals("-dump"))
-            opt_dump_states = opt_dump_tables = opt_dump_grammar = true;
-      else if (argv[i].equals("-time"))         opt_show_timing = true;
-      else if (argv[i].equals("-debug"))        opt_do_debug = true;
+            ctx.opt_dump_states = ctx.opt_dump_tables =
+          ctx.opt_dump_grammar = true;
+      else if (argv[i].equals("-time"))         ctx.opt_show_timing = true;
+      else if (argv[i].equals("-report"))
+        {
+          /* must have an arg */
+          if (++i >= len || argv[i].startsWith("-") ||
+                argv[i].endsWith(".cup"))
+        return usage("-report must have a file name argument");
+
+          /* record the name */
+          ctx.report_file = argv[i];
+        }
+      else if (argv[i].equals("-generator_src"))
+        {
+          /* must have an arg */
+          if (++i >= len || argv[i].startsWith("-"))
+        return usage("-generator_src must have a path argument");
+
+          /* validate path */
+          if (!new File(argv[i]).isDirectory())
+        return usage("-generator_src argument must be a valid existing path");
+          ctx.generator_src = argv[i];
+        }
+      else if (argv[i].equals("-debug"))        ctx.opt_do_debug = true;
       else
         {
-          usage("Unrecognized option \"" + argv[i] + "\"");
+          return usage("Unrecognized option \"" + argv[i] + "\"");
         }
     }
+      return true;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /*-------*/
-  /* Files */
-  /*-------*/
+  /** Open the specification, standard input unless an input file name
+   *  was given.
+   * @param ctx the context to open the input of.
+   * @return 0, or the exit status if the file could not be opened.
+   */
+  protected static int open_input(CupContext ctx)
+    {
+      /* use a buffered version of standard input */
+        if (ctx.emit.input_file_name != null)
+            try {
+                ctx.input_file = new BufferedInputStream(
+                    new FileInputStream(ctx.emit.input_file_name));
+            } catch (Exception ex) {
+                ex.printStackTrace();
+                return 3;
+            }
+        else
+            ctx.input_file = new BufferedInputStream(System.in);
+
+      return 0;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Read the whole specification into memory and work out the hash that
+   *  identifies the code generated from it.  This is a SHA-1 of the version
+   *  of the system, the sources of the generator (if -generator_src names 
+   *  them, see hash_generator()), the options that change the generated 
+   *  code and the text of the specification.  The hash is written into the
+   *  output files (see emit.spec_hash), and the specification is parsed 
+   *  from the copy in memory.
+   * @param ctx the context holding the open input and the options.
+   */
+  protected static void hash_spec(CupContext ctx)
+    throws java.io.IOException, java.security.NoSuchAlgorithmException
+    {
+      ByteArrayOutputStream spec = new ByteArrayOutputStream();
+      byte                  buf[] = new byte[8192];
+      int                   len;
+      MessageDigest         digest;
+      byte                  hash[];
+      StringBuffer          result;
+
+      while ((len = ctx.input_file.read(buf)) > 0)
+    spec.write(buf, 0, len);
+      ctx.input_file.close();
+      ctx.input_file = new BufferedInputStream(
+        new ByteArrayInputStream(spec.toByteArray()));
+
+      digest = MessageDigest.getInstance("SHA-1");
+      digest.update((version.title_str +
+    " package=" + ctx.emit.package_name +
+    " parser=" + ctx.emit.parser_class_name +
+    " symbols=" + ctx.emit.symbol_const_class_name +
+    " nonterms=" + ctx.include_non_terms +
+    " expect=" + ctx.expect_conflicts +
+    " compact_red=" + ctx.opt_compact_red +
+    " packed_tables=" + ctx.opt_packed_tables + "\n").getBytes("UTF-8"));
+      if (ctx.generator_src != null)
+    hash_generator(digest, new File(ctx.generator_src));
+      digest.update(spec.toByteArray());
+      hash = digest.digest();
+
+      result = new StringBuffer();
+      for (int i = 0; i < hash.length; i++)
+    result.append(Integer.toHexString(0x100 | (hash[i] & 0xff)).substring(1));
+      ctx.emit.spec_hash = result.toString();
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Add the sources of the generator to a hash: the names and contents of
+   *  the .java files in the java_cup source directory and its 
+   *  subdirectories, in name order.  Unlike the class files, these are the 
+   *  same whatever compiler the generator is built with.  Line ends are 
+   *  hashed as a single newline, so a checkout with CR-LF line ends gives 
+   *  the same hash.  A change of the generator then changes the hash as 
+   *  well, so its outputs are not taken as up to date.
+   * @param digest the hash to add the sources to.
+   * @param dir    the directory holding the sources.
+   */
+  protected static void hash_generator(MessageDigest digest, File dir)
+    throws java.io.IOException
+    {
+      hash_source_files(digest, dir, "java_cup");
+    }
 
-  /** Input file.  This is a buffered version of System.in. */
-  protected static BufferedInputStream input_file;
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Add the names and contents of the source files in a directory and its
+   *  subdirectories to a hash, in name order.
+   * @param digest the hash to add the files to.
+   * @param dir    the directory.
+   * @param name   the name of the directory to hash along with its files.
+   */
+  protected static void hash_source_files(MessageDigest digest, File dir,
+                      String name)
+    throws java.io.IOException
+    {
+      String files[] = dir.list();
+
+      if (files == null)
+    throw new java.io.IOException("Cannot list " + dir);
+      java.util.Arrays.sort(files);
+      for (int i = 0; i < files.length; i++)
+    {
+      File file = new File(dir, files[i]);
+      if (file.isDirectory())
+        hash_source_files(digest, file, name + "/" + files[i]);
+      else if (files[i].endsWith(".java"))
+        {
+          digest.update((name + "/" + files[i] + "\n").getBytes("UTF-8"));
+          hash_file(digest, file);
+        }
+    }
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Output file for the parser class. */
-  protected static PrintStream parser_class_file;
+  /** Add the contents of a text file to a hash, with its line ends (CR-LF,
+   *  CR or LF) hashed as a single newline.
+   * @param digest the hash to add the file to.
+   * @param file   the file.
+   */
+  protected static void hash_file(MessageDigest digest, File file)
+    throws java.io.IOException
+    {
+      BufferedReader in = new BufferedReader(new java.io.InputStreamReader(
+        new FileInputStream(file), "UTF-8"));
+      String         line;
 
-  /** Output file for the symbol constant class. */
-  protected static PrintStream symbol_class_file;
+      try {
+          while ((line = in.readLine()) != null)
+        digest.update((line + "\n").getBytes("UTF-8"));
+      } finally {
+          in.close();
+      }
+    }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Open various files used by the system. */
-  protected static void open_files()
+  /** Determine if both output files exist and were generated from the same
+   *  specification and options as this run (see hash_spec()).
+   * @param ctx the context holding the hash and the output file names.
+   */
+  protected static boolean outputs_up_to_date(CupContext ctx)
+    {
+      String path = ctx.out_path == null ? "" : ctx.out_path;
+
+      return has_spec_hash(path + ctx.emit.parser_class_name + ".java",
+               ctx.emit.spec_hash) &&
+         has_spec_hash(path + ctx.emit.symbol_const_class_name + ".java",
+               ctx.emit.spec_hash);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Determine if a generated file carries a given specification hash.  Only
+   *  the header comment at the top of the file is looked at.
+   * @param file_name the name of the file.
+   * @param hash      the hash to look for.
+   */
+  protected static boolean has_spec_hash(String file_name, String hash)
+    {
+      BufferedReader in = null;
+      String         line;
+
+      try {
+    in = new BufferedReader(new FileReader(file_name));
+    for (int i = 0; i < 10 && (line = in.readLine()) != null; i++)
+      if (line.equals(emit.hash_comment + hash))
+        return true;
+    return false;
+      } catch (java.io.IOException e) {
+    /* missing or unreadable, so it has to be generated */
+    return false;
+      } finally {
+    try {
+      if (in != null) in.close();
+    } catch (java.io.IOException e) { }
+      }
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Open the output files.
+   * @param ctx the context to open the files of.
+   * @return 0, or the exit status if a file could not be opened.
+   */
+  protected static int open_files(CupContext ctx)
     {
       File fil;
       String out_name;
 
-      /* use a buffered version of standard input */
-        if (emit.input_file_name != null)
-            try {
-                input_file = new BufferedInputStream(new FileInputStream(emit.input_file_name));
-            } catch (Exception ex) {
-                ex.printStackTrace();
-                System.exit(3);
-            }
-        else
-            input_file = new BufferedInputStream(System.in);
-
       /* open each of the output files */
-      if (out_path == null)
-        out_path = "";
+      if (ctx.out_path == null)
+        ctx.out_path = "";
 
       /* parser class */
-      out_name = out_path + emit.parser_class_name + ".java";
+      out_name = ctx.out_path + ctx.emit.parser_class_name + ".java";
       fil = new File(out_name);
       try {
-        parser_class_file = new PrintStream(
+        ctx.parser_class_file = new PrintStream(
          new BufferedOutputStream(new FileOutputStream(fil), 4096));
       } catch(Exception e) {
     System.err.println("Can't open \"" + out_name + "\" for output");
-    System.exit(3);
+    return 3;
       }
 
       /* symbol constants class */
-      out_name = out_path + emit.symbol_const_class_name + ".java";
+      out_name = ctx.out_path + ctx.emit.symbol_const_class_name + ".java";
       fil = new File(out_name);
       try {
-        symbol_class_file = new PrintStream(
+        ctx.symbol_class_file = new PrintStream(
          new BufferedOutputStream(new FileOutputStream(fil), 4096));
       } catch(Exception e) {
     System.err.println("Can't open \"" + out_name + "\" for output");
-    System.exit(4);
+    return 4;
       }
+
+      return 0;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Close various files used by the system. */
-  protected static void close_files() throws java.io.IOException
+  /** Close various files used by the system.  Files that are already
+   *  closed are skipped.
+   * @param ctx the context to close the files of.
+   */
+  protected static void close_files(CupContext ctx) throws java.io.IOException
     {
-      if (input_file != null) input_file.close();
-      if (parser_class_file != null) parser_class_file.close();
-      if (symbol_class_file != null) symbol_class_file.close();
+      if (ctx.input_file != null) ctx.input_file.close();
+      if (ctx.parser_class_file != null) ctx.parser_class_file.close();
+      if (ctx.symbol_class_file != null) ctx.symbol_class_file.close();
+      ctx.input_file = null;
+      ctx.parser_class_file = null;
+      ctx.symbol_class_file = null;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Parse the grammar specification from standard input.  This produces
+  /** Parse the grammar specification from the input file.  This produces
    *  sets of terminal, non-terminals, and productions which can be accessed
-   *  via static variables of the respective classes, as well as the setting
-   *  of various variables (mostly in the emit class) for small user supplied
-   *  items such as the code to scan with.
+   *  via the context, as well as the setting of various variables (mostly
+   *  in the emit object of the context) for small user supplied items such
+   *  as the code to scan with.
+   * @param ctx the context to parse into.
    */
-  protected static void parse_grammar_spec() throws java.lang.Exception
+  protected static void parse_grammar_spec(CupContext ctx)
+    throws java.lang.Exception
     {
       parser parser_obj;
 
       /* create a parser and parse with it */
-      parser_obj = new parser();
+      parser_obj = new parser(ctx);
       try {
-    if (opt_do_debug)
+    if (ctx.opt_do_debug)
           parser_obj.debug_parse();
     else
-          parser_obj.parse();
+          parser_obj.fast_parse();
       } catch (Exception e)
       {
     /* something threw an exception.  catch it and emit a message so we
        have a line number to work with, then re-throw it */
-    lexer.emit_error("Internal error: Unexpected exception");
+    ctx.lexer.emit_error("Internal error: Unexpected exception");
     throw e;
       }
     }
@@ -446,39 +685,40 @@ public class Main {
 
   /** Check for unused symbols.  Unreduced productions get checked when
    *  tables are created.
+   * @param ctx the context to check.
    */
-  protected static void check_unused()
+  protected static void check_unused(CupContext ctx)
     {
       terminal term;
       non_terminal nt;
 
       /* check for unused terminals */
-      for (Enumeration t = terminal.all(); t.hasMoreElements(); )
+      for (Enumeration t = terminal.all(ctx); t.hasMoreElements(); )
     {
       term = (terminal)t.nextElement();
 
       /* don't issue a message for EOF */
-      if (term == terminal.EOF) continue;
+      if (term == ctx.EOF) continue;
 
       /* or error */
-      if (term == terminal.error) continue;
+      if (term == ctx.error) continue;
 
       /* is this one unused */
       if (term.use_count() == 0)
         {
           /* count it and warn if we are doing warnings */
-          emit.unused_term++;
-          if (!emit.nowarn)
+          ctx.emit.unused_term++;
+          if (!ctx.emit.nowarn)
         {
           System.err.println("Warning: Terminal \"" + term.name() +
                      "\" was declared but never used");
-          lexer.warning_count++;
+          ctx.lexer.warning_count++;
         }
         }
     }
 
       /* check for unused non terminals */
-      for (Enumeration n = non_terminal.all(); n.hasMoreElements(); )
+      for (Enumeration n = non_terminal.all(ctx); n.hasMoreElements(); )
     {
       nt = (non_terminal)n.nextElement();
 
@@ -486,31 +726,18 @@ public class Main {
       if (nt.use_count() == 0)
         {
           /* count and warn if we are doing warnings */
-          emit.unused_term++;
-          if (!emit.nowarn)
+          ctx.emit.unused_term++;
+          if (!ctx.emit.nowarn)
         {
           System.err.println("Warning: Non terminal \"" + nt.name() +
                      "\" was declared but never used");
-          lexer.warning_count++;
+          ctx.lexer.warning_count++;
         }
         }
     }
 
     }
 
-  /* . . . . . . . . . . . . . . . . . . . . . . . . .*/
-  /* . . Internal Results of Generating the Parser . .*/
-  /* . . . . . . . . . . . . . . . . . . . . . . . . .*/
-
-  /** Start state in the overall state machine. */
-  protected static lalr_state start_state;
-
-  /** Resulting parse action table. */
-  protected static parse_action_table action_table;
-
-  /** Resulting reduce-goto table. */
-  protected static parse_reduce_table reduce_table;
-
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Build the (internal) parser from the previously parsed specification.
@@ -521,75 +748,80 @@ public class Main {
    *    <li> Filling in the (internal) parse tables.
    *    <li> Checking for unreduced productions.
    *  </ul>
+   * @param ctx the context holding the specification.
+   * @return false if there were more conflicts than expected.
    */
-  protected static void build_parser() throws internal_error
+  protected static boolean build_parser(CupContext ctx) throws internal_error
     {
       /* compute nullability of all non terminals */
-      if (opt_do_debug || print_progress)
+      if (ctx.opt_do_debug || ctx.print_progress)
     System.err.println("  Computing non-terminal nullability...");
-      non_terminal.compute_nullability();
+      non_terminal.compute_nullability(ctx);
 
-      nullability_end = System.currentTimeMillis();
+      ctx.nullability_end = System.nanoTime();
 
       /* compute first sets of all non terminals */
-      if (opt_do_debug || print_progress)
+      if (ctx.opt_do_debug || ctx.print_progress)
     System.err.println("  Computing first sets...");
-      non_terminal.compute_first_sets();
+      non_terminal.compute_first_sets(ctx);
 
-      first_end = System.currentTimeMillis();
+      ctx.first_end = System.nanoTime();
 
       /* build the LR viable prefix recognition machine */
-      if (opt_do_debug || print_progress)
+      if (ctx.opt_do_debug || ctx.print_progress)
     System.err.println("  Building state machine...");
-      start_state = lalr_state.build_machine(emit.start_production);
+      ctx.start_state =
+    lalr_state.build_machine(ctx, ctx.emit.start_production);
 
-      machine_end = System.currentTimeMillis();
+      ctx.machine_end = System.nanoTime();
 
       /* build the LR parser action and reduce-goto tables */
-      if (opt_do_debug || print_progress)
+      if (ctx.opt_do_debug || ctx.print_progress)
     System.err.println("  Filling in tables...");
-      action_table = new parse_action_table();
-      reduce_table = new parse_reduce_table();
-      for (Enumeration st = lalr_state.all(); st.hasMoreElements(); )
-    {
-      ((lalr_state)st.nextElement()).build_table_entries(
-                                  action_table, reduce_table);
-    }
+      ctx.action_table = new parse_action_table(ctx);
+      ctx.reduce_table = new parse_reduce_table(ctx);
+      ctx.action_table.build_entries(ctx.reduce_table);
 
-      table_end = System.currentTimeMillis();
+      ctx.table_end = System.nanoTime();
 
       /* check and warn for non-reduced productions */
-      if (opt_do_debug || print_progress)
+      if (ctx.opt_do_debug || ctx.print_progress)
     System.err.println("  Checking for non-reduced productions...");
-      action_table.check_reductions();
+      ctx.action_table.check_reductions();
 
-      reduce_check_end = System.currentTimeMillis();
+      ctx.reduce_check_end = System.nanoTime();
 
-      /* if we have more conflicts than we expected issue a message and die */
-      if (emit.num_conflicts > expect_conflicts)
+      /* if we have more conflicts than we expected issue a message and stop */
+      if (ctx.emit.num_conflicts > ctx.expect_conflicts)
     {
       System.err.println("*** More conflicts encountered than expected " +
                  "-- parser generation aborted");
-      lexer.error_count++;
-      build_end = System.currentTimeMillis();
+      ctx.lexer.error_count++;
+      ctx.build_end = System.nanoTime();
 
       /* do dumps and summary as needed */
-          if (opt_dump_grammar) dump_grammar();
-          if (opt_dump_states)  dump_machine();
-      if (!no_summary) emit_summary(false);
+          if (ctx.opt_dump_grammar) dump_grammar(ctx);
+          if (ctx.opt_dump_states)  dump_machine(ctx);
+      if (!ctx.no_summary) emit_summary(ctx, false);
 
-      System.exit(100);
+      return false;
     }
+
+      return true;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Call the emit routines necessary to write out the generated parser. */
-  protected static void emit_parser() throws internal_error
+  /** Call the emit routines necessary to write out the generated parser.
+   * @param ctx the context holding the parse tables.
+   */
+  protected static void emit_parser(CupContext ctx) throws internal_error
     {
-      emit.symbols(symbol_class_file, include_non_terms);
-      emit.parser(parser_class_file, action_table, reduce_table,
-          start_state.index(), emit.start_production, opt_compact_red);
+      ctx.emit.symbols(ctx.symbol_class_file, ctx.include_non_terms);
+      ctx.emit.parser(ctx.parser_class_file, ctx.action_table,
+          ctx.reduce_table, ctx.start_state.index(),
+          ctx.emit.start_production, ctx.opt_compact_red,
+          ctx.opt_packed_tables);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -607,59 +839,85 @@ public class Main {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Emit a short summary message to standard error (System.err) for a run
+   *  that found its output files up to date.
+   * @param ctx the context of the run.
+   */
+  protected static void emit_up_to_date_summary(CupContext ctx)
+    {
+      ctx.final_time = System.nanoTime();
+
+      System.err.println("------- " + version.title_str +
+             " Parser Generation Summary -------");
+      System.err.println("  Code in \"" + ctx.emit.parser_class_name +
+            ".java\", and \"" + ctx.emit.symbol_const_class_name +
+            ".java\" is up to date.");
+      if (ctx.opt_show_timing)
+    System.err.println("  Total time       " +
+      timestr(ctx.final_time - ctx.start_time,
+          ctx.final_time - ctx.start_time));
+      System.err.println(
+    "---------------------------------------------------- (" +
+     version.version_str + ")");
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Emit a long summary message to standard error (System.err) which
    *  summarizes what was found in the specification, how many states were
    *  produced, how many conflicts were found, etc.  A detailed timing
    *  summary is also produced if it was requested by the user.
+   * @param ctx             the context to summarize.
    * @param output_produced did the system get far enough to generate code.
    */
-  protected static void emit_summary(boolean output_produced)
+  protected static void emit_summary(CupContext ctx, boolean output_produced)
     {
-      final_time = System.currentTimeMillis();
+      ctx.final_time = System.nanoTime();
 
-      if (no_summary) return;
+      if (ctx.no_summary) return;
 
       System.err.println("------- " + version.title_str +
              " Parser Generation Summary -------");
 
       /* error and warning count */
-      System.err.println("  " + lexer.error_count + " error" +
-     plural(lexer.error_count) + " and " + lexer.warning_count +
-     " warning" + plural(lexer.warning_count));
+      System.err.println("  " + ctx.lexer.error_count + " error" +
+     plural(ctx.lexer.error_count) + " and " + ctx.lexer.warning_count +
+     " warning" + plural(ctx.lexer.warning_count));
 
       /* basic stats */
-      System.err.print("  " + terminal.number() + " terminal" +
-             plural(terminal.number()) + ", ");
-      System.err.print(non_terminal.number() + " non terminal" +
-             plural(non_terminal.number()) + ", and ");
-      System.err.println(production.number() + " production" +
-             plural(production.number()) + " declared, ");
-      System.err.println("  producing " + lalr_state.number() +
+      System.err.print("  " + terminal.number(ctx) + " terminal" +
+             plural(terminal.number(ctx)) + ", ");
+      System.err.print(non_terminal.number(ctx) + " non terminal" +
+             plural(non_terminal.number(ctx)) + ", and ");
+      System.err.println(production.number(ctx) + " production" +
+             plural(production.number(ctx)) + " declared, ");
+      System.err.println("  producing " + lalr_state.number(ctx) +
              " unique parse states.");
 
       /* unused symbols */
-      System.err.println("  " + emit.unused_term + " terminal" +
-             plural(emit.unused_term) + " declared but not used.");
-      System.err.println("  " + emit.unused_non_term + " non terminal" +
-             plural(emit.unused_term) + " declared but not used.");
+      System.err.println("  " + ctx.emit.unused_term + " terminal" +
+             plural(ctx.emit.unused_term) + " declared but not used.");
+      System.err.println("  " + ctx.emit.unused_non_term + " non terminal" +
+             plural(ctx.emit.unused_term) + " declared but not used.");
 
       /* productions that didn't reduce */
-      System.err.println("  " + emit.not_reduced + " production" +
-             plural(emit.not_reduced) + " never reduced.");
+      System.err.println("  " + ctx.emit.not_reduced + " production" +
+             plural(ctx.emit.not_reduced) + " never reduced.");
 
       /* conflicts */
-      System.err.println("  " + emit.num_conflicts + " conflict" +
-             plural(emit.num_conflicts) + " detected" +
-                     " (" + expect_conflicts + " expected).");
+      System.err.println("  " + ctx.emit.num_conflicts + " conflict" +
+             plural(ctx.emit.num_conflicts) + " detected" +
+                     " (" + ctx.expect_conflicts + " expected).");
 
       /* code location */
       if (output_produced)
-    System.err.println("  Code written to \"" + emit.parser_class_name +
-            ".java\", and \"" + emit.symbol_const_class_name + ".java\".");
+    System.err.println("  Code written to \"" + ctx.emit.parser_class_name +
+            ".java\", and \"" + ctx.emit.symbol_const_class_name +
+            ".java\".");
       else
     System.err.println("  No code produced.");
 
-      if (opt_show_timing) show_times();
+      if (ctx.opt_show_timing) show_times(ctx);
 
       System.err.println(
     "---------------------------------------------------- (" +
@@ -668,74 +926,76 @@ public class Main {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Produce the optional timing summary as part of an overall summary. */
-  protected static void show_times()
+  /** Produce the optional timing summary as part of an overall summary.
+   * @param ctx the context to summarize.
+   */
+  protected static void show_times(CupContext ctx)
     {
-      long total_time = final_time - start_time;
+      long total_time = ctx.final_time - ctx.start_time;
 
       System.err.println(". . . . . . . . . . . . . . . . . . . . . . . . . ");
       System.err.println("  Timing Summary");
       System.err.println("    Total time       "
-        + timestr(final_time-start_time, total_time));
+        + timestr(ctx.final_time-ctx.start_time, total_time));
       System.err.println("      Startup        "
-    + timestr(prelim_end-start_time, total_time));
+    + timestr(ctx.prelim_end-ctx.start_time, total_time));
       System.err.println("      Parse          "
-    + timestr(parse_end-prelim_end, total_time) );
-      if (check_end != 0)
+    + timestr(ctx.parse_end-ctx.prelim_end, total_time) );
+      if (ctx.check_end != 0)
         System.err.println("      Checking       "
-        + timestr(check_end-parse_end, total_time));
-      if (check_end != 0 && build_end != 0)
+        + timestr(ctx.check_end-ctx.parse_end, total_time));
+      if (ctx.check_end != 0 && ctx.build_end != 0)
         System.err.println("      Parser Build   "
-        + timestr(build_end-check_end, total_time));
-      if (nullability_end != 0 && check_end != 0)
+        + timestr(ctx.build_end-ctx.check_end, total_time));
+      if (ctx.nullability_end != 0 && ctx.check_end != 0)
         System.err.println("        Nullability  "
-        + timestr(nullability_end-check_end, total_time));
-      if (first_end != 0 && nullability_end != 0)
+        + timestr(ctx.nullability_end-ctx.check_end, total_time));
+      if (ctx.first_end != 0 && ctx.nullability_end != 0)
         System.err.println("        First sets   "
-            + timestr(first_end-nullability_end, total_time));
-      if (machine_end != 0 && first_end != 0)
+            + timestr(ctx.first_end-ctx.nullability_end, total_time));
+      if (ctx.machine_end != 0 && ctx.first_end != 0)
         System.err.println("        State build  "
-        + timestr(machine_end-first_end, total_time));
-      if (table_end != 0 && machine_end != 0)
+        + timestr(ctx.machine_end-ctx.first_end, total_time));
+      if (ctx.table_end != 0 && ctx.machine_end != 0)
         System.err.println("        Table build  "
-        + timestr(table_end-machine_end, total_time));
-      if (reduce_check_end != 0 && table_end != 0)
+        + timestr(ctx.table_end-ctx.machine_end, total_time));
+      if (ctx.reduce_check_end != 0 && ctx.table_end != 0)
         System.err.println("        Checking     "
-        + timestr(reduce_check_end-table_end, total_time));
-      if (emit_end != 0 && build_end != 0)
+        + timestr(ctx.reduce_check_end-ctx.table_end, total_time));
+      if (ctx.emit_end != 0 && ctx.build_end != 0)
         System.err.println("      Code Output    "
-        + timestr(emit_end-build_end, total_time));
-      if (emit.symbols_time != 0)
+        + timestr(ctx.emit_end-ctx.build_end, total_time));
+      if (ctx.emit.symbols_time != 0)
     System.err.println("        Symbols      "
-        + timestr(emit.symbols_time, total_time));
-      if (emit.parser_time != 0)
+        + timestr(ctx.emit.symbols_time, total_time));
+      if (ctx.emit.parser_time != 0)
     System.err.println("        Parser class "
-        + timestr(emit.parser_time, total_time));
-      if (emit.action_code_time != 0)
+        + timestr(ctx.emit.parser_time, total_time));
+      if (ctx.emit.action_code_time != 0)
     System.err.println("          Actions    "
-        + timestr(emit.action_code_time, total_time));
-      if (emit.production_table_time != 0)
+        + timestr(ctx.emit.action_code_time, total_time));
+      if (ctx.emit.production_table_time != 0)
     System.err.println("          Prod table "
-        + timestr(emit.production_table_time, total_time));
-      if (emit.action_table_time != 0)
+        + timestr(ctx.emit.production_table_time, total_time));
+      if (ctx.emit.action_table_time != 0)
     System.err.println("          Action tab "
-        + timestr(emit.action_table_time, total_time));
-      if (emit.goto_table_time != 0)
+        + timestr(ctx.emit.action_table_time, total_time));
+      if (ctx.emit.goto_table_time != 0)
     System.err.println("          Reduce tab "
-        + timestr(emit.goto_table_time, total_time));
+        + timestr(ctx.emit.goto_table_time, total_time));
 
       System.err.println("      Dump Output    "
-    + timestr(dump_end-emit_end, total_time));
+    + timestr(ctx.dump_end-ctx.emit_end, total_time));
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Helper routine to format a decimal based display of seconds and
-   *  percentage of total time given counts of milliseconds.   Note: this
+   *  percentage of total time given counts of nanoseconds.   Note: this
    *  is broken for use with some instances of negative time (since we don't
    *  use any negative time here, we let if be for now).
-   * @param time_val   the value being formatted (in ms).
-   * @param total_time total time percentages are calculated against (in ms).
+   * @param time_val   the value being formatted (in ns).
+   * @param total_time total time percentages are calculated against (in ns).
    */
   protected static String timestr(long time_val, long total_time)
     {
@@ -750,8 +1010,8 @@ public class Main {
       if (neg) time_val = -time_val;
 
       /* pull out seconds and ms */
-      ms = time_val % 1000;
-      sec = time_val / 1000;
+      ms = (time_val / 1000000) % 1000;
+      sec = time_val / 1000000000;
 
       /* construct a pad to blank fill seconds out to 4 places */
       if (sec < 10)
@@ -764,7 +1024,7 @@ public class Main {
     pad = "";
 
       /* calculate 10 times the percentage of total */
-      percent10 = (time_val*1000)/total_time;
+      percent10 = total_time == 0 ? 0 : (time_val*1000)/total_time;
 
       /* build and return the output string */
       return (neg ? "-" : "") + pad + sec + "." +
@@ -774,15 +1034,198 @@ public class Main {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Produce a human readable dump of the grammar. */
-  public static void dump_grammar() throws internal_error
+  /** Write a machine readable report of the run to the file named by the
+   *  -report option.  The report is a JSON object holding the outcome of
+   *  the run, the time taken by each phase (in ns, null for phases that were
+   *  not reached), the size of the grammar and the state machine, the number
+   *  of entries in the parse tables before and after compression, and the
+   *  peak heap use.  Note that the peak heap use is measured over the whole
+   *  VM, so it includes anything else that ran in the VM at the same time.
+   * @param ctx    the context of the run.
+   * @param status the exit status of the run.
+   */
+  protected static void emit_report(CupContext ctx, int status)
+    {
+      PrintStream out;
+      int         num_states = lalr_state.number(ctx);
+      int         num_items = 0;
+
+      if (ctx.final_time == 0) ctx.final_time = System.nanoTime();
+
+      try {
+    out = new PrintStream(
+      new BufferedOutputStream(new FileOutputStream(ctx.report_file), 4096));
+      } catch (java.io.IOException e) {
+    System.err.println("Can't open \"" + ctx.report_file + "\" for output");
+    return;
+      }
+
+      for (Enumeration s = lalr_state.all(ctx); s.hasMoreElements(); )
+    num_items += ((lalr_state)s.nextElement()).items().size();
+
+      out.println("{");
+      out.println("  \"version\": " + json_string(version.version_str) + ",");
+      out.println("  \"parser\": " +
+    json_string(ctx.emit.parser_class_name) + ",");
+      out.println("  \"status\": " + status + ",");
+      out.println("  \"up_to_date\": " + ctx.up_to_date + ",");
+      out.println("  \"output_produced\": " + ctx.output_produced + ",");
+      out.println("  \"errors\": " + ctx.lexer.error_count + ",");
+      out.println("  \"warnings\": " + ctx.lexer.warning_count + ",");
+
+      out.println("  \"phases_ns\": {");
+      out.println("    \"prelim\": " +
+    interval(ctx.start_time, ctx.prelim_end) + ",");
+      out.println("    \"parse\": " +
+    interval(ctx.prelim_end, ctx.parse_end) + ",");
+      out.println("    \"check\": " +
+    interval(ctx.parse_end, ctx.check_end) + ",");
+      out.println("    \"nullability\": " +
+    interval(ctx.check_end, ctx.nullability_end) + ",");
+      out.println("    \"first_sets\": " +
+    interval(ctx.nullability_end, ctx.first_end) + ",");
+      out.println("    \"machine_build\": " +
+    interval(ctx.first_end, ctx.machine_end) + ",");
+      out.println("    \"table_build\": " +
+    interval(ctx.machine_end, ctx.table_end) + ",");
+      out.println("    \"reduce_check\": " +
+    interval(ctx.table_end, ctx.reduce_check_end) + ",");
+      out.println("    \"emit\": " +
+    interval(ctx.build_end, ctx.output_produced ? ctx.emit_end : 0) + ",");
+      out.println("    \"dump\": " +
+    interval(ctx.emit_end, ctx.dump_end) + ",");
+      out.println("    \"total\": " +
+    interval(ctx.start_time, ctx.final_time));
+      out.println("  },");
+
+      out.println("  \"emit_ns\": {");
+      out.println("    \"symbols\": " + ctx.emit.symbols_time + ",");
+      out.println("    \"parser\": " + ctx.emit.parser_time + ",");
+      out.println("    \"action_code\": " + ctx.emit.action_code_time + ",");
+      out.println("    \"production_table\": " +
+    ctx.emit.production_table_time + ",");
+      out.println("    \"action_table\": " + ctx.emit.action_table_time + ",");
+      out.println("    \"goto_table\": " + ctx.emit.goto_table_time);
+      out.println("  },");
+
+      out.println("  \"grammar\": {");
+      out.println("    \"terminals\": " + terminal.number(ctx) + ",");
+      out.println("    \"non_terminals\": " + non_terminal.number(ctx) + ",");
+      out.println("    \"productions\": " + production.number(ctx) + ",");
+      out.println("    \"states\": " + num_states + ",");
+      out.println("    \"items\": " + num_items + ",");
+      out.println("    \"conflicts\": " + ctx.emit.num_conflicts + ",");
+      out.println("    \"expected_conflicts\": " + ctx.expect_conflicts + ",");
+      out.println("    \"unused_terminals\": " + ctx.emit.unused_term + ",");
+      out.println("    \"unused_non_terminals\": " +
+    ctx.emit.unused_non_term + ",");
+      out.println("    \"never_reduced\": " + ctx.emit.not_reduced);
+      out.println("  },");
+
+      /* the dense sizes are those of a plain states x symbols table */
+      out.println("  \"tables\": {");
+      out.println("    \"encoding\": " +
+    json_string(ctx.opt_packed_tables ? "packed" : "rows") + ",");
+      out.println("    \"compact_reduces\": " + ctx.opt_compact_red + ",");
+      out.println("    \"production\": {\"dense\": " +
+    2*production.number(ctx) + ", \"emitted\": " +
+    ctx.emit.production_table_size + "},");
+      out.println("    \"action\": {\"dense\": " +
+    num_states*terminal.number(ctx) + ", \"emitted\": " +
+    ctx.emit.action_table_size + "},");
+      out.println("    \"reduce_goto\": {\"dense\": " +
+    num_states*non_terminal.number(ctx) + ", \"emitted\": " +
+    ctx.emit.goto_table_size + "}");
+      out.println("  },");
+
+      out.println("  \"peak_heap_bytes\": " + peak_heap());
+      out.println("}");
+      out.close();
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Helper routine to format the length of a phase for the report.
+   * @param start the time the phase started (in ns, 0 if never).
+   * @param end   the time the phase ended (in ns, 0 if never).
+   */
+  protected static String interval(long start, long end)
+    {
+      if (start == 0 || end == 0)
+    return "null";
+      else
+    return Long.toString(end - start);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Helper routine to quote a string for the report.
+   * @param str the string to quote.
+   */
+  protected static String json_string(String str)
+    {
+      StringBuffer result = new StringBuffer("\"");
+      char         c;
+
+      for (int i = 0; i < str.length(); i++)
+    {
+      c = str.charAt(i);
+      if (c == '"' || c == '\\')
+        result.append('\\').append(c);
+      else if (c < ' ')
+        result.append("\\u00").append(
+          Integer.toHexString(0x100 | c).substring(1));
+      else
+        result.append(c);
+    }
+      return result.append('"').toString();
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Reset the peak usage of the heap memory pools of the VM. */
+  protected static void reset_peak_heap()
+    {
+      for (Iterator p = ManagementFactory.getMemoryPoolMXBeans().iterator();
+       p.hasNext(); )
+    {
+      MemoryPoolMXBean pool = (MemoryPoolMXBean)p.next();
+      if (pool.getType() == MemoryType.HEAP) pool.resetPeakUsage();
+    }
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Sum of the peak usage of the heap memory pools of the VM since the last
+   *  reset_peak_heap() (in bytes).
+   */
+  protected static long peak_heap()
+    {
+      long total = 0;
+
+      for (Iterator p = ManagementFactory.getMemoryPoolMXBeans().iterator();
+       p.hasNext(); )
+    {
+      MemoryPoolMXBean pool = (MemoryPoolMXBean)p.next();
+      if (pool.getType() == MemoryType.HEAP)
+        total += pool.getPeakUsage().getUsed();
+    }
+      return total;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Produce a human readable dump of the grammar.
+   * @param ctx the context holding the grammar.
+   */
+  public static void dump_grammar(CupContext ctx) throws internal_error
     {
       int cnt;
       Enumeration t, n, p;
       production prod;
 
       System.err.println("===== Terminals =====");
-      for (t = terminal.all(), cnt=0; t.hasMoreElements(); cnt++)
+      for (t = terminal.all(ctx), cnt=0; t.hasMoreElements(); cnt++)
     {
       System.err.print(((terminal)t.nextElement()).name() + " ");
       if ((cnt+1) % 5 == 0) System.err.println();
@@ -791,7 +1234,7 @@ public class Main {
       System.err.println();
 
       System.err.println("===== Non terminals =====");
-      for (n=non_terminal.all(), cnt=0; n.hasMoreElements(); cnt++)
+      for (n=non_terminal.all(ctx), cnt=0; n.hasMoreElements(); cnt++)
     {
       System.err.print(((non_terminal)n.nextElement()).name() + " ");
       if ((cnt+1) % 5 == 0) System.err.println();
@@ -801,7 +1244,7 @@ public class Main {
 
 
       System.err.println("===== Productions =====");
-      for (p=production.all(); p.hasMoreElements(); )
+      for (p=production.all(ctx); p.hasMoreElements(); )
     {
       prod = (production)p.nextElement();
       System.err.print(prod.lhs().the_symbol().name() + " ::= ");
@@ -820,22 +1263,23 @@ public class Main {
 
   /** Produce a (semi-) human readable dump of the complete viable prefix
    *  recognition state machine.
+   * @param ctx the context holding the state machine.
    */
-  public static void dump_machine()
+  public static void dump_machine(CupContext ctx)
     {
-      lalr_state ordered[] = new lalr_state[lalr_state.number()];
+      lalr_state ordered[] = new lalr_state[lalr_state.number(ctx)];
 
       /* put the states in sorted order for a nicer display */
-      for (Enumeration s = lalr_state.all(); s.hasMoreElements(); )
+      for (Enumeration s = lalr_state.all(ctx); s.hasMoreElements(); )
     {
       lalr_state st = (lalr_state)s.nextElement();
       ordered[st.index()] = st;
     }
 
       System.err.println("===== Viable Prefix Recognizer =====");
-      for (int i = 0; i<lalr_state.number(); i++)
+      for (int i = 0; i<lalr_state.number(ctx); i++)
     {
-      if (ordered[i] == start_state) System.err.print("START ");
+      if (ordered[i] == ctx.start_state) System.err.print("START ");
           System.err.println(ordered[i]);
       System.err.println("-------------------");
     }
@@ -843,11 +1287,13 @@ public class Main {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Produce a (semi-) human readable dumps of the parse tables */
-  public static void dump_tables()
+  /** Produce a (semi-) human readable dumps of the parse tables
+   * @param ctx the context holding the parse tables.
+   */
+  public static void dump_tables(CupContext ctx)
     {
-      System.err.println(action_table);
-      System.err.println(reduce_table);
+      System.err.println(ctx.action_table);
+      System.err.println(ctx.reduce_table);
     }
 
   /*-----------------------------------------------------------*/
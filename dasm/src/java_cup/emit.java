@@ -42,13 +42,18 @@ import java.util.Stack;
  *           how to make these transitions.
  *    </dl><p>
  *
+ *  With the -packed_tables option the tables are instead compressed by row
+ *  displacement and written as string constants of a nested class, which
+ *  are unpacked when the first parse starts (see
+ *  java_cup.runtime.packed_table).<p>
+ *
  * In addition to the method interface, this class maintains a series of
  * public global variables and flags indicating how misc. parts of the code
  * and other output is to be produced, and counting things such as number of
  * conflicts detected (see the source code and public variables below for
  * more details).<p>
  *
- * This class is "static" (contains only static data and methods).<p>
+ * One instance of this class belongs to each CupContext.<p>
  *
  * @see java_cup.main
  * @version last update: 11/25/95
@@ -65,6 +70,7 @@ import java.util.Stack;
      emit_production_table - emit declaration and init for the production table
      do_action_table       - emit declaration and init for the action table
      do_reduce_table       - emit declaration and init for the reduce-goto table
+     do_packed_tables      - emit all three tables packed into string constants
 
    Finally, this class uses a number of public instance variables to communicate
    optional parameters and flags used to control how code is generated,
@@ -102,113 +108,156 @@ public class emit {
   /*--- Constructor(s) ----------------------------------------*/
   /*-----------------------------------------------------------*/
 
-  /** Only constructor is private so no instances can be created. */
-  private emit() { }
+  /** Simple constructor.
+   * @param ctx the context we emit code for.
+   */
+  protected emit(CupContext ctx)
+    {
+      _ctx = ctx;
+    }
 
   /*-----------------------------------------------------------*/
   /*--- Static (Class) Variables ------------------------------*/
   /*-----------------------------------------------------------*/
 
-  public static String input_file_name;
-
   /** The prefix placed on names that pollute someone else's name space. */
-  public static String prefix = "CUP$";
+  public static final String prefix = "CUP$";
+
+  /*-----------------------------------------------------------*/
+  /*--- Instance Variables ------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** The context we emit code for. */
+  protected CupContext _ctx;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Name of the specification file, null when reading standard input. */
+  public String input_file_name;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Hash of the specification and the options that change the generated
+   *  code (see Main.hash_spec()).  This is written into the header of both 
+   *  output files, so that a later run with the same input can tell that
+   *  there is nothing to do.  Null if not known.
+   */
+  public String spec_hash = null;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Start of the header line holding spec_hash. */
+  public static final String hash_comment = "// Specification hash ";
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Package that the resulting code goes into (null is used for unnamed). */
-  public static String package_name = null;
+  public String package_name = null;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Name of the generated class for symbol constants. */
-  public static String symbol_const_class_name = "sym";
+  public String symbol_const_class_name = "sym";
 
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Name of the generated parser class. */
-  public static String parser_class_name = "parser";
+  public String parser_class_name = "parser";
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** User declarations for direct inclusion in user action class. */
-  public static String action_code = null;
+  public String action_code = null;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** User declarations for direct inclusion in parser class. */
-  public static String parser_code = null;
+  public String parser_code = null;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** User code for user_init() which is called during parser initialization. */
-  public static String init_code = null;
+  public String init_code = null;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** User code for scan() which is called to get the next token. */
-  public static String scan_code = null;
+  public String scan_code = null;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** The start production of the grammar. */
-  public static production start_production = null;
+  public production start_production = null;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** List of imports (Strings containing class names) to go with actions. */
-  public static Stack import_list = new Stack();
+  public Stack import_list = new Stack();
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Number of conflict found while building tables. */
-  public static int num_conflicts = 0;
+  public int num_conflicts = 0;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Do we skip warnings? */
-  public static boolean nowarn = false;
+  public boolean nowarn = false;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Count of the number on non-reduced productions found. */
-  public static int not_reduced = 0;
+  public int not_reduced = 0;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Count of unused terminals. */
-  public static int unused_term = 0;
+  public int unused_term = 0;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Count of unused non terminals. */
-  public static int unused_non_term = 0;
+  public int unused_non_term = 0;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /* Timing values used to produce timing report in main.*/
+  /* Timing values used to produce timing report in main (in ns).*/
 
   /** Time to produce symbol constant class. */
-  public static long symbols_time          = 0;
+  public long symbols_time          = 0;
 
   /** Time to produce parser class. */
-  public static long parser_time           = 0;
+  public long parser_time           = 0;
 
   /** Time to produce action code class. */
-  public static long action_code_time      = 0;
+  public long action_code_time      = 0;
 
   /** Time to produce the production table. */
-  public static long production_table_time = 0;
+  public long production_table_time = 0;
 
   /** Time to produce the action table. */
-  public static long action_table_time     = 0;
+  public long action_table_time     = 0;
 
   /** Time to produce the reduce-goto table. */
-  public static long goto_table_time       = 0;
+  public long goto_table_time       = 0;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /* Sizes of the emitted tables used to produce the report in main, counted 
+     in table entries (shorts, or packed ints with -packed_tables).*/
+
+  /** Entries emitted for the production table. */
+  public int production_table_size = 0;
+
+  /** Entries emitted for the action table. */
+  public int action_table_size     = 0;
+
+  /** Entries emitted for the reduce-goto table. */
+  public int goto_table_size       = 0;
 
   /** Do we produce calls debug_gammar in generated parser? */
-  public static String debug_grammar = null;
+  public String debug_grammar = null;
 
   /*-----------------------------------------------------------*/
   /*--- General Methods ---------------------------------------*/
@@ -224,7 +273,7 @@ public class emit {
   /** Emit a package spec if the user wants one.
    * @param out stream to produce output on.
    */
-  protected static void emit_package(PrintStream out)
+  protected void emit_package(PrintStream out)
     {
       /* generate a package spec if we have a name for one */
       if (package_name != null)
@@ -239,12 +288,12 @@ public class emit {
    * @param out            stream to produce output on.
    * @param emit_non_terms do we emit constants for non terminals?
    */
-  public static void symbols(PrintStream out, boolean emit_non_terms)
+  public void symbols(PrintStream out, boolean emit_non_terms)
     {
       terminal term;
       non_terminal nt;
 
-      long start_time = System.currentTimeMillis();
+      long start_time = System.nanoTime();
 
       /* top of file */
       out.println();
@@ -252,6 +301,7 @@ public class emit {
       out.println("// The following code was generated by " +
                                version.title_str);
       out.println("// " + new Date());
+      if (spec_hash != null) out.println(hash_comment + spec_hash);
       out.println("//----------------------------------------------------");
       out.println();
       emit_package(out);
@@ -264,7 +314,7 @@ public class emit {
       out.println("  /* terminals */");
 
       /* walk over the terminals */              /* later might sort these */
-      for (Enumeration e = terminal.all(); e.hasMoreElements(); )
+      for (Enumeration e = terminal.all(_ctx); e.hasMoreElements(); )
     {
       term = (terminal)e.nextElement();
 
@@ -279,7 +329,7 @@ public class emit {
           out.println("\n  /* non terminals */");
 
           /* walk over the non terminals */       /* later might sort these */
-          for (Enumeration e = non_terminal.all(); e.hasMoreElements(); )
+          for (Enumeration e = non_terminal.all(_ctx); e.hasMoreElements(); )
         {
           nt = (non_terminal)e.nextElement();
 
@@ -292,7 +342,7 @@ public class emit {
       /* end of class */
       out.println("};\n");
 
-      symbols_time = System.currentTimeMillis() - start_time;
+      symbols_time = System.nanoTime() - start_time;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -301,12 +351,12 @@ public class emit {
    * @param out        stream to produce output on.
    * @param start_prod the start production of the grammar.
    */
-  protected static void emit_action_code(PrintStream out, production start_prod)
+  protected void emit_action_code(PrintStream out, production start_prod)
     throws internal_error
     {
       production prod;
 
-      long start_time = System.currentTimeMillis();
+      long start_time = System.nanoTime();
 
       /* class header */
       out.println();
@@ -350,7 +400,7 @@ public class emit {
       out.println("        {");
 
       /* emit action code for each production as a separate case */
-      for (Enumeration p = production.all(); p.hasMoreElements(); )
+      for (Enumeration p = production.all(_ctx); p.hasMoreElements(); )
     {
       prod = (production)p.nextElement();
 
@@ -408,7 +458,7 @@ public class emit {
       /* end of class */
       out.println("};\n");
 
-      action_code_time = System.currentTimeMillis() - start_time;
+      action_code_time = System.nanoTime() - start_time;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -416,12 +466,12 @@ public class emit {
   /** Emit the production table.
    * @param out stream to produce output on.
    */
-  protected static void emit_production_table(PrintStream out)
+  protected void emit_production_table(PrintStream out)
     {
       production all_prods[];
       production prod;
 
-      long start_time = System.currentTimeMillis();
+      long start_time = System.nanoTime();
 
       /* do the top of the table */
       out.println();
@@ -429,8 +479,8 @@ public class emit {
       out.println("  protected static final short _production_table[][] = {");
 
       /* collect up the productions in order */
-      all_prods = new production[production.number()];
-      for (Enumeration p = production.all(); p.hasMoreElements(); )
+      all_prods = new production[production.number(_ctx)];
+      for (Enumeration p = production.all(_ctx); p.hasMoreElements(); )
     {
       prod = (production)p.nextElement();
       all_prods[prod.index()] = prod;
@@ -438,7 +488,7 @@ public class emit {
 
       /* do one entry per production */
       out.print("    ");
-      for (int i = 0; i<production.number(); i++)
+      for (int i = 0; i<production.number(_ctx); i++)
     {
       prod = all_prods[i];
 
@@ -446,9 +496,10 @@ public class emit {
       out.print("    {");
       out.print(/* lhs symbol # */ prod.lhs().the_symbol().index() + ", ");
       out.print(/* rhs size */     prod.rhs_length() + "}");
+      production_table_size += 2;
 
       /* put in a comma if we aren't at the end */
-      if (i < production.number()-1) out.print(", ");
+      if (i < production.number(_ctx)-1) out.print(", ");
 
       /* 5 entries per line */
       if ((i+1) % 5 == 0)
@@ -467,7 +518,7 @@ public class emit {
       out.println("  public short[][] production_table() " +
                          "{return _production_table;}");
 
-      production_table_time = System.currentTimeMillis() - start_time;
+      production_table_time = System.nanoTime() - start_time;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -477,7 +528,7 @@ public class emit {
    * @param act_tab         the internal representation of the action table.
    * @param compact_reduces do we use the most frequent reduce as default?
    */
-  protected static void do_action_table(
+  protected void do_action_table(
     PrintStream        out,
     parse_action_table act_tab,
     boolean            compact_reduces)
@@ -487,7 +538,7 @@ public class emit {
       parse_action     act;
       int              red;
 
-      long start_time = System.currentTimeMillis();
+      long start_time = System.nanoTime();
 
       out.println();
       out.println("  /** parse action table */");
@@ -523,6 +574,7 @@ public class emit {
             {
             out.print(j + "," +
                 (((shift_action)act).shift_to().index() + 1) + ",");
+            action_table_size += 2;
             }
 
           /* reduce actions get negated entries of production# + 1 */
@@ -531,7 +583,10 @@ public class emit {
               /* if its the default entry let it get defaulted out */
               red = ((reduce_action)act).reduce_with().index();
               if (red != row.default_reduce)
-                out.print(j + "," + (-(red+1)) + ",");
+            {
+              out.print(j + "," + (-(red+1)) + ",");
+              action_table_size += 2;
+            }
             }
 
           /* shouldn't be anything else */
@@ -542,6 +597,7 @@ public class emit {
         }
 
       /* finish off the row with a default entry */
+      action_table_size += 2;
       if (row.default_reduce != -1)
         out.println("-1," + (-(row.default_reduce+1)) + "},");
       else
@@ -556,7 +612,7 @@ public class emit {
       out.println("  /** access to parse action table */");
       out.println("  public short[][] action_table() {return _action_table;}");
 
-      action_table_time = System.currentTimeMillis() - start_time;
+      action_table_time = System.nanoTime() - start_time;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -565,14 +621,14 @@ public class emit {
    * @param out     stream to produce output on.
    * @param red_tab the internal representation of the reduce-goto table.
    */
-  protected static void do_reduce_table(
+  protected void do_reduce_table(
     PrintStream out,
     parse_reduce_table red_tab)
     {
       lalr_state       goto_st;
       parse_action     act;
 
-      long start_time = System.currentTimeMillis();
+      long start_time = System.nanoTime();
 
       out.println();
       out.println("  /** reduce_goto table */");
@@ -594,11 +650,13 @@ public class emit {
         {
           /* make entries for the index and the value */
           out.print(j + "," + goto_st.index() + ",");
+          goto_table_size += 2;
         }
         }
 
       /* end row with default value */
       out.println("-1,-1},");
+      goto_table_size += 2;
     }
 
       /* finish off the init of the table */
@@ -610,7 +668,171 @@ public class emit {
       out.println("  public short[][] reduce_table() {return _reduce_table;}");
       out.println();
 
-      goto_table_time = System.currentTimeMillis() - start_time;
+      goto_table_time = System.nanoTime() - start_time;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Emit all three tables compressed by row displacement and encoded as
+   *  string constants (see java_cup.table_packer).  The constants go in a
+   *  nested class, so that they are only unpacked when the first parse asks
+   *  for the tables, and only once however many parsers are created.
+   * @param out             stream to produce output on.
+   * @param act_tab         the internal representation of the action table.
+   * @param red_tab         the internal representation of the reduce-goto table.
+   * @param compact_reduces do we use the most frequent reduce as default?
+   */
+  protected void do_packed_tables(
+    PrintStream        out,
+    parse_action_table act_tab,
+    parse_reduce_table red_tab,
+    boolean            compact_reduces)
+    throws internal_error
+    {
+      production       prod;
+      int              prod_data[];
+      table_packer     packer;
+      parse_action_row row;
+      parse_action     act;
+      lalr_state       goto_st;
+      int              cols[], vals[], count, red;
+      int              packed[];
+
+      long start_time = System.nanoTime();
+
+      out.println();
+      out.println("  /** parse tables, packed into string constants and unpacked");
+      out.println("   *  on first use (see java_cup.runtime.packed_table) */");
+      out.println("  static class " + pre("tables") + " {");
+
+      /* production table, one row of lhs symbol # and rhs size each */
+      prod_data = new int[1 + 3*production.number(_ctx)];
+      prod_data[0] = production.number(_ctx);
+      for (Enumeration p = production.all(_ctx); p.hasMoreElements(); )
+    {
+      prod = (production)p.nextElement();
+      prod_data[1 + 3*prod.index()] = 2;
+      prod_data[2 + 3*prod.index()] = prod.lhs().the_symbol().index();
+      prod_data[3 + 3*prod.index()] = prod.rhs_length();
+    }
+      out.println("    /** production table */");
+      out.println("    static final short[][] production =");
+      out.println("      java_cup.runtime.packed_table.unpack_rows(new String[] {");
+      table_packer.emit_strings(out, prod_data, "        ");
+      production_table_size = prod_data.length;
+      out.println("});");
+
+      production_table_time = System.nanoTime() - start_time;
+      start_time = System.nanoTime();
+
+      /* action table, leaving out errors and the default reduce */
+      packer = new table_packer(act_tab.num_states());
+      cols = new int[terminal.number(_ctx)];
+      vals = new int[terminal.number(_ctx)];
+      for (int i = 0; i < act_tab.num_states(); i++)
+    {
+      row = act_tab.under_state[i];
+
+      /* determine the default for the row */
+      if (compact_reduces)
+        row.compute_default();
+      else
+        row.default_reduce = -1;
+
+      count = 0;
+      for (int j = 0; j < row.size(); j++)
+        {
+          act = row.under_term[j];
+
+          /* shifts get positive entries of state number + 1 */
+          if (act.kind() == parse_action.SHIFT)
+        {
+          cols[count] = j;
+          vals[count++] = ((shift_action)act).shift_to().index() + 1;
+        }
+
+          /* reduce actions get negated entries of production# + 1 */
+          else if (act.kind() == parse_action.REDUCE)
+        {
+          red = ((reduce_action)act).reduce_with().index();
+          if (red != row.default_reduce)
+            {
+              cols[count] = j;
+              vals[count++] = -(red+1);
+            }
+        }
+
+          /* shouldn't be anything else */
+          else if (act.kind() != parse_action.ERROR)
+        throw new internal_error("Unrecognized action code " +
+          act.kind() + " found in parse table");
+        }
+
+      packer.set_row(i, cols, vals, count,
+        row.default_reduce != -1 ? -(row.default_reduce+1) : 0);
+    }
+      out.println();
+      out.println("    /** parse action table */");
+      out.println("    static final java_cup.runtime.packed_table action =");
+      out.println("      new java_cup.runtime.packed_table(new String[] {");
+      packed = packer.pack();
+      action_table_size = packed.length;
+      table_packer.emit_strings(out, packed, "        ");
+      out.println("});");
+
+      action_table_time = System.nanoTime() - start_time;
+      start_time = System.nanoTime();
+
+      /* reduce-goto table, where missing entries default to -1 */
+      packer = new table_packer(red_tab.num_states());
+      cols = new int[non_terminal.number(_ctx)];
+      vals = new int[non_terminal.number(_ctx)];
+      for (int i = 0; i < red_tab.num_states(); i++)
+    {
+      count = 0;
+      for (int j = 0; j < red_tab.under_state[i].size(); j++)
+        {
+          goto_st = red_tab.under_state[i].under_non_term[j];
+          if (goto_st != null)
+        {
+          cols[count] = j;
+          vals[count++] = goto_st.index();
+        }
+        }
+      packer.set_row(i, cols, vals, count, -1);
+    }
+      out.println();
+      out.println("    /** reduce_goto table */");
+      out.println("    static final java_cup.runtime.packed_table reduce =");
+      out.println("      new java_cup.runtime.packed_table(new String[] {");
+      packed = packer.pack();
+      goto_table_size = packed.length;
+      table_packer.emit_strings(out, packed, "        ");
+      out.println("});");
+      out.println("  }");
+
+      /* do the public accessor methods */
+      out.println();
+      out.println("  /** access to production table */");
+      out.println("  public short[][] production_table() " +
+                         "{return " + pre("tables") + ".production;}");
+      out.println();
+      out.println("  /** the parse action and reduce_goto tables are packed */");
+      out.println("  public short[][] action_table() {return null;}");
+      out.println("  public short[][] reduce_table() {return null;}");
+      out.println();
+      out.println("  /** access to packed parse action table */");
+      out.println("  public java_cup.runtime.packed_table " +
+              "packed_action_table()");
+      out.println("    {return " + pre("tables") + ".action;}");
+      out.println();
+      out.println("  /** access to packed reduce_goto table */");
+      out.println("  public java_cup.runtime.packed_table " +
+              "packed_reduce_table()");
+      out.println("    {return " + pre("tables") + ".reduce;}");
+      out.println();
+
+      goto_table_time = System.nanoTime() - start_time;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -622,17 +844,19 @@ public class emit {
    * @param start_st        start state of the parse machine.
    * @param start_prod      start production of the grammar.
    * @param compact_reduces do we use most frequent reduce as default?
+   * @param packed_tables   do we pack the tables into string constants?
    */
-  public static void parser(
+  public void parser(
     PrintStream        out,
     parse_action_table action_table,
     parse_reduce_table reduce_table,
     int                start_st,
     production         start_prod,
-    boolean            compact_reduces)
+    boolean            compact_reduces,
+    boolean            packed_tables)
     throws internal_error
     {
-      long start_time = System.currentTimeMillis();
+      long start_time = System.nanoTime();
 
       /* top of file */
       out.println();
@@ -640,6 +864,7 @@ public class emit {
       out.println("// The following code was generated by " +
                             version.title_str);
       out.println("// " + new Date());
+      if (spec_hash != null) out.println(hash_comment + spec_hash);
       out.println("//----------------------------------------------------");
       out.println();
       emit_package(out);
@@ -659,9 +884,14 @@ public class emit {
       out.println("  public " + parser_class_name + "() {super();}");
 
       /* emit the various tables */
+      if (packed_tables)
+    do_packed_tables(out, action_table, reduce_table, compact_reduces);
+      else
+    {
       emit_production_table(out);
       do_action_table(out, action_table, compact_reduces);
       do_reduce_table(out, reduce_table);
+    }
 
       /* instance of the action encapsulation class */
       out.println("  /** instance of action encapsulation class */");
@@ -704,11 +934,11 @@ public class emit {
 
       /* methods to indicate EOF and error symbol indexes */
       out.println("  /** EOF symbol index */");
-      out.println("  public int EOF_sym() {return " + terminal.EOF.index() +
+      out.println("  public int EOF_sym() {return " + _ctx.EOF.index() +
                       ";}");
       out.println();
       out.println("  /** error symbol index */");
-      out.println("  public int error_sym() {return " + terminal.error.index() +
+      out.println("  public int error_sym() {return " + _ctx.error.index() +
                       ";}");
       out.println();
 
@@ -748,7 +978,7 @@ public class emit {
       /* put out the action code class */
       emit_action_code(out, start_prod);
 
-      parser_time = System.currentTimeMillis() - start_time;
+      parser_time = System.nanoTime() - start_time;
     }
 
     /*-----------------------------------------------------------*/
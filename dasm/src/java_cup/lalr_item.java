@@ -66,7 +66,7 @@ public class lalr_item extends lr_item_core {
    */
   public lalr_item(production prod) throws internal_error
     {
-      this(prod,0,new terminal_set());
+      this(prod,0,new terminal_set(prod.ctx()));
     }
 
   /*-----------------------------------------------------------*/
@@ -108,34 +108,70 @@ public class lalr_item extends lr_item_core {
   /*-----------------------------------------------------------*/
 
   /** Propagate incoming lookaheads through this item to others need to 
-   *  be changed.
+   *  be changed.  Links are followed depth first, the same way a recursive
+   *  call per link would, but with an explicit stack since chains of links 
+   *  get about as long as the grammar is big.  Items created together by a
+   *  closure step share one lookahead set, which makes the result depend on
+   *  the order in which links are visited, so that order must not change.
    * @params incoming symbols to potentially be added to lookahead of this item.
    */
   public void propagate_lookaheads(terminal_set incoming) throws internal_error
     {
-      boolean change = false;
+      Stack     path;
+      int       next_link[];
+      int       top;
+      lalr_item itm, prop_to;
 
       /* if we don't need to propagate, then bail out now */
       if (!needs_propagation && (incoming == null || incoming.empty()))
     return;
 
-      /* if we have null incoming, treat as an empty set */
-      if (incoming != null)
-    {
-      /* add the incoming to the lookahead of this item */
-      change = lookahead().add(incoming);
-    }
+      /* add the incoming to the lookahead of this item, if we didn't change
+         and don't need it anyway we are done */
+      if (!(incoming != null && lookahead().add(incoming)) && 
+      !needs_propagation)
+    return;
 
-      /* if we changed or need it anyway, propagate across our links */
-      if (change || needs_propagation)
+      /* don't need to propagate again */
+      needs_propagation = false;
+
+      /* walk the links, keeping the next link to follow out of each item
+         on the path to where we are */
+      path = new Stack();
+      next_link = new int[16];
+      path.push(this);
+      next_link[0] = 0;
+      while (!path.empty())
     {
-          /* don't need to propagate again */
-          needs_propagation = false;
+      top = path.size() - 1;
+      itm = (lalr_item)path.peek();
 
-      /* propagate our lookahead into each item we are linked to */
-      for (int i = 0; i < propagate_items().size(); i++)
-        ((lalr_item)propagate_items().elementAt(i))
-                      .propagate_lookaheads(lookahead());
+      /* back up when we have followed every link out of this item */
+      if (next_link[top] == itm.propagate_items().size())
+        {
+          path.pop();
+          continue;
+        }
+      prop_to = (lalr_item)itm.propagate_items().elementAt(next_link[top]++);
+
+      /* propagate our lookahead into the item we are linked to, and on
+         from there if that changed it or it needs it anyway */
+      if (!prop_to.needs_propagation && itm.lookahead().empty())
+        continue;
+      if (prop_to.lookahead().add(itm.lookahead()) || 
+          prop_to.needs_propagation)
+        {
+          prop_to.needs_propagation = false;
+
+          if (top + 1 == next_link.length)
+        {
+          int grown[] = new int[next_link.length * 2];
+          System.arraycopy(next_link, 0, grown, 0, next_link.length);
+          next_link = grown;
+        }
+          next_link[top + 1] = 0;
+          path.push(prop_to);
+        }
     }
     }
 
@@ -183,7 +219,7 @@ public class lalr_item extends lr_item_core {
       "Attempt to calculate a lookahead set with a completed item");
 
       /* start with an empty result */
-      result = new terminal_set();
+      result = new terminal_set(the_production().ctx());
 
       /* consider all nullable symbols after the one to the right of the dot */
       for (pos = dot_pos()+1; pos < the_production().rhs_length(); pos++) 
@@ -306,10 +342,11 @@ public class lalr_item extends lr_item_core {
       result += ", ";
       if (lookahead() != null)
     {
+      CupContext ctx = the_production().ctx();
       result += "{";
-      for (int t = 0; t < terminal.number(); t++)
+      for (int t = 0; t < terminal.number(ctx); t++)
         if (lookahead().contains(t))
-          result += terminal.find(t).name() + " ";
+          result += terminal.find(ctx, t).name() + " ";
       result += "}";
     }
       else
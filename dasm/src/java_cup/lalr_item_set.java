@@ -37,6 +37,7 @@ public class lalr_item_set {
     {
       not_null(other);
       _all = (Hashtable)other._all.clone();
+      _fingerprint = other._fingerprint;
     }
 
   /*-----------------------------------------------------------*/
@@ -58,6 +59,27 @@ public class lalr_item_set {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** Hash of the cores of all the items in the set.  This is kept up to 
+   *  date as items are added and removed, so that sets (in particular state 
+   *  kernels being looked up) can be told apart without walking their items.
+   *  The hash code only looks at a few items and can't be changed, since it
+   *  decides the order in which states are enumerated.
+   */
+  protected int _fingerprint = 0;
+
+  /** Contribution of a single item to the fingerprint of a set.  Item hash 
+   *  codes are small and close together, so they are spread out before they
+   *  are combined.
+   * @param itm the item being added or removed.
+   */
+  protected static int fingerprint(lalr_item itm)
+    {
+      int h = itm.hashCode() * 0x9E3779B1;
+      return h ^ (h >>> 16);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Size of the set */
   public int size() {return _all.size();}
 
@@ -132,8 +154,9 @@ public class lalr_item_set {
       /* otherwise we just go in the set */
       else
     {
-          /* invalidate cached hashcode */
+          /* invalidate cached hashcode and fold into our fingerprint */
           hashcode_cache = null;
+          _fingerprint ^= fingerprint(itm);
 
           _all.put(itm,itm);
       return itm;
@@ -153,7 +176,8 @@ public class lalr_item_set {
       hashcode_cache = null;
 
       /* remove it from hash table implementing set */
-      _all.remove(itm);
+      if (_all.remove(itm) != null)
+    _fingerprint ^= fingerprint(itm);
     };
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -301,6 +325,9 @@ public class lalr_item_set {
     {
       if (other == null || other.size() != size()) return false;
 
+      /* sets with different fingerprints can't hold the same items */
+      if (other._fingerprint != _fingerprint) return false;
+
       /* once we know they are the same size, then improper subset does test */
       try {
         return is_subset_of(other);
@@ -1,9 +1,11 @@
 
 package java_cup;
 
+import java.io.PrintStream;
 import java.util.Enumeration;
 import java.util.Hashtable;
 import java.util.Stack;
+import java.util.Vector;
 
 /** This class represents a state in the LALR viable prefix recognition machine.
  *  A state consists of an LALR item set and a set of transitions to other 
@@ -55,51 +57,43 @@ public class lalr_state {
   /*-----------------------------------------------------------*/
        
   /** Constructor for building a state from a set of items.
+   * @param ctx  the context the state belongs to.
    * @param itms the set of items that makes up this state.
    */
-  public lalr_state(lalr_item_set itms) throws internal_error
+  public lalr_state(CupContext ctx, lalr_item_set itms) throws internal_error
    {
      /* don't allow null or duplicate item sets */
      if (itms == null)
        throw new internal_error(
      "Attempt to construct an LALR state from a null item set");
 
-     if (find_state(itms) != null)
+     if (find_state(ctx, itms) != null)
        throw new internal_error(
      "Attempt to construct a duplicate LALR state");
 
+     _ctx = ctx;
+
      /* assign a unique index */
-     _index = next_index++;
+     _index = ctx.next_state_index++;
 
      /* store the items */
      _items = itms;
 
-     /* add to the global collection, keyed with its item set */
-     _all.put(_items,this);
+     /* add to the collection of the context, keyed with its item set */
+     ctx.states.put(_items,this);
    }
 
   /*-----------------------------------------------------------*/
   /*--- (Access to) Static (Class) Variables ------------------*/
   /*-----------------------------------------------------------*/
 
-  /** Collection of all states. */
-  protected static Hashtable _all = new Hashtable();
-
-  /** Collection of all states. */
-  public static Enumeration all() {return _all.elements();}
-
-  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
-
-  /** Indicate total number of states there are. */
-  public static int number() {return _all.size();}
+  /** Collection of all states of a context. */
+  public static Enumeration all(CupContext ctx) {return ctx.states.elements();}
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Hash table to find states by their kernels (i.e, the original, 
-   *  unclosed, set of items -- which uniquely define the state).  This table 
-   *  stores state objects using (a copy of) their kernel item sets as keys. 
-   */
-  protected static Hashtable _all_kernels = new Hashtable();
+  /** Indicate total number of states there are in a context. */
+  public static int number(CupContext ctx) {return ctx.states.size();}
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
@@ -108,25 +102,26 @@ public class lalr_state {
    *  originally create the state.  These items are formed by "shifting the
    *  dot" within items of other states that have a transition to this one.
    *  The remaining elements of this state's item set are added during closure.
+   * @param ctx  the context to look in.
    * @param itms the kernel set of the state we are looking for. 
    */
-  public static lalr_state find_state(lalr_item_set itms)
+  public static lalr_state find_state(CupContext ctx, lalr_item_set itms)
     {
       if (itms == null) 
       return null;
       else
-      return (lalr_state)_all.get(itms);
+      return (lalr_state)ctx.states.get(itms);
     }
 
-  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
-
-  /** Static counter for assigning unique state indexes. */
-  protected static int next_index = 0;
-
   /*-----------------------------------------------------------*/
   /*--- (Access to) Instance Variables ------------------------*/
   /*-----------------------------------------------------------*/
 
+  /** The context this state belongs to. */
+  protected CupContext _ctx;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** The item set for this state. */
   protected lalr_item_set _items;
 
@@ -200,10 +195,11 @@ public class lalr_state {
       to the lookahead of one item to be included in other items that it 
       was used to directly or indirectly create.
    */
-  protected static void propagate_all_lookaheads() throws internal_error
+  protected static void propagate_all_lookaheads(CupContext ctx)
+    throws internal_error
     {
       /* iterate across all states */
-      for (Enumeration st = all(); st.hasMoreElements(); )
+      for (Enumeration st = all(ctx); st.hasMoreElements(); )
     {
       /* propagate lookaheads out of that state */
       ((lalr_state)st.nextElement()).propagate_lookaheads();
@@ -263,12 +259,15 @@ public class lalr_state {
    *  propagate_all_lookaheads().  This makes use of propagation links 
    *  constructed during the closure and transition process.
    *
+   * @param ctx        the context to build the states in
    * @param start_prod the start production of the grammar
    * @see   java_cup.lalr_item_set#compute_closure
    * @see   java_cup.lalr_state#propagate_all_lookaheads
    */
 
-  public static lalr_state build_machine(production start_prod) 
+  public static lalr_state build_machine(
+    CupContext ctx,
+    production start_prod) 
     throws internal_error
     {
       lalr_state    start_state;
@@ -279,8 +278,10 @@ public class lalr_state {
       Stack         work_stack = new Stack();
       lalr_state    st, new_st;
       symbol_set    outgoing;
+      Hashtable     shifting;
+      Vector        sym_items;
       lalr_item     itm, new_itm, existing, fix_itm;
-      symbol        sym, sym2;
+      symbol        sym;
       Enumeration   i, s, fix;
 
       /* sanity check */
@@ -291,7 +292,7 @@ public class lalr_state {
       /* build item with dot at front of start production and EOF lookahead */
       start_items = new lalr_item_set();
       itm = new lalr_item(start_prod);
-      itm.lookahead().add(terminal.EOF);
+      itm.lookahead().add(ctx.EOF);
       start_items.add(itm);
 
       /* create copy the item set to form the kernel */
@@ -301,11 +302,11 @@ public class lalr_state {
       start_items.compute_closure();
 
       /* build a state out of that item set and put it in our work set */
-      start_state = new lalr_state(start_items);
+      start_state = new lalr_state(ctx, start_items);
       work_stack.push(start_state);
 
       /* enter the state using the kernel as the key */
-      _all_kernels.put(kernel, start_state);
+      ctx.state_kernels.put(kernel, start_state);
 
       /* continue looking at new states until we have no more work to do */
       while (!work_stack.empty())
@@ -313,15 +314,27 @@ public class lalr_state {
       /* remove a state from the work set */
       st = (lalr_state)work_stack.pop();
 
-      /* gather up all the symbols that appear before dots */
+      /* gather up all the symbols that appear before dots, along with 
+         the items that have each of them before the dot (in item order) */
       outgoing = new symbol_set();
+      shifting = new Hashtable();
       for (i = st.items().all(); i.hasMoreElements(); )
         {
           itm = (lalr_item)i.nextElement();
 
           /* add the symbol before the dot (if any) to our collection */
           sym = itm.symbol_after_dot();
-          if (sym != null) outgoing.add(sym);
+          if (sym != null) 
+        {
+          outgoing.add(sym);
+          sym_items = (Vector)shifting.get(sym);
+          if (sym_items == null)
+            {
+              sym_items = new Vector();
+              shifting.put(sym, sym_items);
+            }
+          sym_items.addElement(itm);
+        }
         }
 
       /* now create a transition out for each individual symbol */
@@ -335,27 +348,23 @@ public class lalr_state {
           /* gather up shifted versions of all the items that have this
          symbol before the dot */
           new_items = new lalr_item_set();
-          for (i = st.items().all(); i.hasMoreElements();)
+          sym_items = (Vector)shifting.get(sym);
+          for (int n = 0; n < sym_items.size(); n++)
         {
-          itm = (lalr_item)i.nextElement();
+          itm = (lalr_item)sym_items.elementAt(n);
 
-          /* if this is the symbol we are working on now, add to set */
-          sym2 = itm.symbol_after_dot();
-          if (sym.equals(sym2))
-            {
-              /* add to the kernel of the new state */
-              new_items.add(itm.shift());
+          /* add to the kernel of the new state */
+          new_items.add(itm.shift());
 
-              /* remember that itm has propagate link to it */
-              linked_items.add(itm);
-            }
+          /* remember that itm has propagate link to it */
+          linked_items.add(itm);
         }
 
           /* use new items as state kernel */
           kernel = new lalr_item_set(new_items);
 
           /* have we seen this one already? */
-          new_st = (lalr_state)_all_kernels.get(kernel);
+          new_st = (lalr_state)ctx.state_kernels.get(kernel);
 
           /* if we haven't, build a new state out of the item set */
           if (new_st == null)
@@ -364,13 +373,13 @@ public class lalr_state {
               new_items.compute_closure();
 
           /* build the new state */
-          new_st = new lalr_state(new_items);
+          new_st = new lalr_state(ctx, new_items);
 
           /* add the new state to our work set */
           work_stack.push(new_st);
 
           /* put it in our kernel table */
-          _all_kernels.put(kernel, new_st);
+          ctx.state_kernels.put(kernel, new_st);
         }
           /* otherwise relink propagation to items in existing state */
           else 
@@ -405,16 +414,16 @@ public class lalr_state {
       /* all done building states */
 
       /* propagate complete lookahead sets throughout the states */
-      propagate_all_lookaheads();
+      propagate_all_lookaheads(ctx);
 
       return start_state;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Propagate lookahead sets out of this state. This recursively 
-   *  propagates to all items that have propagation links from some item 
-   *  in this state. 
+  /** Propagate lookahead sets out of this state. This propagates to all 
+   *  items that have propagation links from some item in this state, 
+   *  directly or indirectly.
    */
   protected void propagate_lookaheads() throws internal_error
     {
@@ -450,6 +459,32 @@ public class lalr_state {
     parse_action_table act_table, 
     parse_reduce_table reduce_table)
     throws internal_error
+    {
+      int conflicts = build_table_entries(act_table, reduce_table, System.err);
+
+      /* count the conflicts */
+      _ctx.emit.num_conflicts += conflicts;
+      _ctx.lexer.warning_count += conflicts;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Fill in the parse table entries of this state as above, but write the
+   *  conflict messages to the given stream and leave counting them to the
+   *  caller.  This only changes the rows of this state, so different states
+   *  may be done at the same time on different threads (see 
+   *  parse_action_table.build_entries()).
+   *
+   * @param act_table    the action table to put entries in.
+   * @param reduce_table the reduce-goto table to put entries in.
+   * @param err          the stream to report conflicts on.
+   * @return the number of conflicts reported.
+   */
+  public int build_table_entries(
+    parse_action_table act_table, 
+    parse_reduce_table reduce_table,
+    PrintStream        err)
+    throws internal_error
     {
       parse_action_row our_act_row;
       parse_reduce_row our_red_row;
@@ -473,7 +508,7 @@ public class lalr_state {
           act = new reduce_action(itm.the_production());
 
           /* consider each lookahead symbol */
-          for (int t = 0; t < terminal.number(); t++)
+          for (int t = 0; t < terminal.number(_ctx); t++)
         {
           /* skip over the ones not in the lookahead */
           if (!itm.lookahead().contains(t)) continue;
@@ -540,19 +575,25 @@ public class lalr_state {
 
       /* if we end up with conflict(s), report them */
       if (conflicted)
-        report_conflicts();
+        return report_conflicts(err);
+      else
+        return 0;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Produce warning messages for all conflicts found in this state.  */
-  protected void report_conflicts()
+  /** Produce warning messages for all conflicts found in this state.
+   * @param err the stream to report the conflicts on.
+   * @return the number of conflicts reported.
+   */
+  protected int report_conflicts(PrintStream err)
     throws internal_error
     {
       lalr_item    itm, compare;
       symbol       shift_sym;
       terminal_set conflict_set;
       boolean      after_itm;
+      int          conflicts = 0;
 
       /* consider each element */
       for (Enumeration itms = items().all(); itms.hasMoreElements(); )
@@ -560,7 +601,7 @@ public class lalr_state {
       itm = (lalr_item)itms.nextElement();
 
       /* clear the S/R conflict set for this item */
-      conflict_set = new terminal_set();
+      conflict_set = new terminal_set(_ctx);
 
       /* if it results in a reduce, it could be a conflict */
       if (itm.dot_at_end())
@@ -586,8 +627,11 @@ public class lalr_state {
               if (after_itm)
                             /* does the comparison item conflict? */
                             if (compare.lookahead().intersects(itm.lookahead()))
-                              /* report a reduce/reduce conflict */
-                              report_reduce_reduce(itm, compare);
+                              {
+                                /* report a reduce/reduce conflict */
+                                report_reduce_reduce(itm, compare, err);
+                                conflicts++;
+                              }
             }
               /* must be a shift on a terminal or non-terminal */
               else 
@@ -605,11 +649,16 @@ public class lalr_state {
             }
         }
           /* report S/R conflicts under all the symbols we conflict under */
-          for (int t = 0; t < terminal.number(); t++)
+          for (int t = 0; t < terminal.number(_ctx); t++)
         if (conflict_set.contains(t))
-          report_shift_reduce(itm,t);
+          {
+            report_shift_reduce(itm, t, err);
+            conflicts++;
+          }
         }
     }
+
+      return conflicts;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -618,36 +667,36 @@ public class lalr_state {
    *
    * @param itm1 first item in conflict.
    * @param itm2 second item in conflict.
+   * @param err  the stream to report the conflict on.
    */
-  protected void report_reduce_reduce(lalr_item itm1, lalr_item itm2)
+  protected void report_reduce_reduce(
+    lalr_item   itm1,
+    lalr_item   itm2,
+    PrintStream err)
     throws internal_error
     {
       boolean comma_flag = false;
 
-      System.err.println("*** Reduce/Reduce conflict found in state #"+index());
-      System.err.print  ("  between ");
-      System.err.println(itm1.to_simple_string());
-      System.err.print  ("  and     ");
-      System.err.println(itm2.to_simple_string());
-      System.err.print("  under symbols: {" );
-      for (int t = 0; t < terminal.number(); t++)
+      err.println("*** Reduce/Reduce conflict found in state #"+index());
+      err.print  ("  between ");
+      err.println(itm1.to_simple_string());
+      err.print  ("  and     ");
+      err.println(itm2.to_simple_string());
+      err.print("  under symbols: {" );
+      for (int t = 0; t < terminal.number(_ctx); t++)
     {
       if (itm1.lookahead().contains(t) && itm2.lookahead().contains(t))
         {
-          if (comma_flag) System.err.print(", "); else comma_flag = true;
-          System.err.print(terminal.find(t).name());
+          if (comma_flag) err.print(", "); else comma_flag = true;
+          err.print(terminal.find(_ctx, t).name());
         }
     }
-      System.err.println("}");
-      System.err.print("  Resolved in favor of ");
+      err.println("}");
+      err.print("  Resolved in favor of ");
       if (itm1.the_production().index() < itm2.the_production().index())
-    System.err.println("the first production.\n");
+    err.println("the first production.\n");
       else
-    System.err.println("the second production.\n");
-
-      /* count the conflict */
-      emit.num_conflicts++;
-      lexer.warning_count++;
+    err.println("the second production.\n");
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -656,19 +705,21 @@ public class lalr_state {
    *
    * @param red_itm      the item with the reduce.
    * @param conflict_sym the index of the symbol conflict occurs under.
+   * @param err          the stream to report the conflict on.
    */
   protected void report_shift_reduce(
-    lalr_item red_itm, 
-    int       conflict_sym)
+    lalr_item   red_itm, 
+    int         conflict_sym,
+    PrintStream err)
     throws internal_error
     {
       lalr_item    itm;
       symbol       shift_sym;
 
       /* emit top part of message including the reduce item */
-      System.err.println("*** Shift/Reduce conflict found in state #"+index());
-      System.err.print  ("  between ");
-      System.err.println(red_itm.to_simple_string());
+      err.println("*** Shift/Reduce conflict found in state #"+index());
+      err.print  ("  between ");
+      err.println(red_itm.to_simple_string());
 
       /* find and report on all items that shift under our conflict symbol */
       for (Enumeration itms = items().all(); itms.hasMoreElements(); )
@@ -683,16 +734,13 @@ public class lalr_state {
           if (!shift_sym.is_non_term() && shift_sym.index() == conflict_sym)
             {
           /* yes, report on it */
-                  System.err.println("  and     " + itm.to_simple_string());
+                  err.println("  and     " + itm.to_simple_string());
         }
         }
     }
-      System.err.println("  under symbol "+ terminal.find(conflict_sym).name());
-      System.err.println("  Resolved in favor of shifting.\n");
-
-      /* count the conflict */
-      emit.num_conflicts++;
-      lexer.warning_count++;
+      err.println("  under symbol "+
+             terminal.find(_ctx, conflict_sym).name());
+      err.println("  Resolved in favor of shifting.\n");
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -6,10 +6,10 @@ import java_cup.runtime.str_token;
 import java_cup.runtime.token;
 
 /** This class implements a small scanner (aka lexical analyzer or lexer) for
- *  the JavaCup specification.  This scanner reads characters from standard 
- *  input (System.in) and returns integers corresponding to the terminal 
- *  number of the next token.  Once end of input is reached the EOF token is 
- *  returned on every subsequent call.<p>
+ *  the JavaCup specification.  This scanner reads characters from an input
+ *  stream (normally System.in) and returns integers corresponding to the 
+ *  terminal number of the next token.  Once end of input is reached the EOF 
+ *  token is returned on every subsequent call.<p>
  *  Tokens currently returned include: <pre>
  *    Symbol        Constant Returned     Symbol        Constant Returned
  *    ------        -----------------     ------        -----------------
@@ -33,7 +33,7 @@ import java_cup.runtime.token;
  *  warning routines and keeps a count of errors and warnings that is 
  *  publicly accessible.<p>
  *  
- *  This class is "static" (i.e., it has only static members and methods).
+ *  One instance of this class belongs to each CupContext.
  *
  * @version last updated: 11/25/95
  * @author  Scott Hudson
@@ -44,18 +44,23 @@ public class lexer {
   /*--- Constructor(s) ----------------------------------------*/
   /*-----------------------------------------------------------*/
 
-  /** The only constructor is private, so no instances can be created. */
-  private lexer() { }
+  /** Simple constructor.  The lexer reads nothing until init() is called. */
+  public lexer() { }
 
   /*-----------------------------------------------------------*/
-  /*--- Static (Class) Variables ------------------------------*/
+  /*--- Instance Variables ------------------------------------*/
   /*-----------------------------------------------------------*/
 
+  /** Stream the specification is read from. */
+  protected java.io.InputStream input;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** First character of lookahead. */
-  protected static int next_char; 
+  protected int next_char; 
 
   /** Second character of lookahead. */
-  protected static int next_char2;
+  protected int next_char2;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
@@ -69,7 +74,7 @@ public class lexer {
    *  they match one of the keywords.  The string of the name is the key here,
    *  which indexes Integer objects holding the symbol number. 
    */
-  protected static Hashtable keywords = new Hashtable(23);
+  protected Hashtable keywords = new Hashtable(23);
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
@@ -79,37 +84,40 @@ public class lexer {
    *  appropriate char (currently Character objects have a bug which precludes
    *  their use in tables).
    */
-  protected static Hashtable char_symbols = new Hashtable(11);
+  protected Hashtable char_symbols = new Hashtable(11);
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Current line number for use in error messages. */
-  protected static int current_line = 1;
+  protected int current_line = 1;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Character position in current line. */
-  protected static int current_position = 1;
+  protected int current_position = 1;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Count of total errors detected so far. */
-  public static int error_count = 0;
+  public int error_count = 0;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Count of warnings issued so far */
-  public static int warning_count = 0;
+  public int warning_count = 0;
 
   /*-----------------------------------------------------------*/
-  /*--- Static Methods ----------------------------------------*/
+  /*--- General Methods ---------------------------------------*/
   /*-----------------------------------------------------------*/
 
   /** Initialize the scanner.  This sets up the keywords and char_symbols
     * tables and reads the first two characters of lookahead.  
+    * @param in the stream to read the specification from.
     */
-  public static void init() throws java.io.IOException
+  public void init(java.io.InputStream in) throws java.io.IOException
     {
+      input = in;
+
       /* set up the keyword table */
       keywords.put("package",  new Integer(sym.PACKAGE));
       keywords.put("import",   new Integer(sym.IMPORT));
@@ -132,11 +140,11 @@ public class lexer {
       char_symbols.put(new Integer('|'), new Integer(sym.BAR));
 
       /* read two characters of lookahead */
-      next_char = System.in.read();
+      next_char = input.read();
       if (next_char == EOF_CHAR) 
     next_char2 = EOF_CHAR;
       else
-    next_char2 = System.in.read();
+    next_char2 = input.read();
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -144,7 +152,7 @@ public class lexer {
   /** Advance the scanner one character in the input stream.  This moves
    * next_char2 to next_char and then reads a new next_char2.  
    */
-  protected static void advance() throws java.io.IOException
+  protected void advance() throws java.io.IOException
     {
       int old_char;
 
@@ -153,7 +161,7 @@ public class lexer {
       if (next_char == EOF_CHAR)
     next_char2 = EOF_CHAR;
       else
-    next_char2 = System.in.read();
+    next_char2 = input.read();
 
       /* count this */
       current_position++;
@@ -171,7 +179,7 @@ public class lexer {
    *  are printed on standard error (System.err).
    * @param message the message to print.
    */
-  public static void emit_error(String message)
+  public void emit_error(String message)
     {
       System.err.println("Error at " + current_line + "(" + current_position +
              "): " + message);
@@ -185,7 +193,7 @@ public class lexer {
    *  printed on standard error (System.err).
    * @param message the message to print.
    */
-  public static void emit_warn(String message)
+  public void emit_warn(String message)
     {
       System.err.println("Warning at " + current_line + "(" + current_position +
              "): " + message);
@@ -197,7 +205,7 @@ public class lexer {
   /** Determine if a character is ok to start an id. 
    * @param ch the character in question.
    */
-  protected static boolean id_start_char(int ch)
+  protected boolean id_start_char(int ch)
     {
       return (ch >= 'a' &&  ch <= 'z') || (ch >= 'A' && ch <= 'Z') || 
          (ch == '_');
@@ -210,7 +218,7 @@ public class lexer {
   /** Determine if a character is ok for the middle of an id.
    * @param ch the character in question. 
    */
-  protected static boolean id_char(int ch)
+  protected boolean id_char(int ch)
     {
       return id_start_char(ch) || (ch >= '0' && ch <= '9');
     }
@@ -220,7 +228,7 @@ public class lexer {
   /** Try to look up a single character symbol, returns -1 for not found. 
    * @param ch the character in question.
    */
-  protected static int find_single_char(int ch)
+  protected int find_single_char(int ch)
     {
       Integer result;
 
@@ -236,7 +244,7 @@ public class lexer {
   /** Handle swallowing up a comment.  Both old style C and new style C++
    *  comments are handled.
    */
-  protected static void swallow_comment() throws java.io.IOException
+  protected void swallow_comment() throws java.io.IOException
     {
       /* next_char == '/' at this point */
 
@@ -295,7 +303,7 @@ public class lexer {
       include ":}" inside a code string).  The routine returns an str_token
       object suitable for return by the scanner.
    */
-  protected static token do_code_string() throws java.io.IOException
+  protected token do_code_string() throws java.io.IOException
     {
       StringBuffer result = new StringBuffer();
 
@@ -329,7 +337,7 @@ public class lexer {
    *  underscores or dollar signs.  This routine returns an str_token suitable
    *  for return by the scanner.
    */
-  protected static token do_id() throws java.io.IOException
+  protected token do_id() throws java.io.IOException
     {
       StringBuffer result = new StringBuffer();
       String       result_str;
@@ -370,7 +378,7 @@ public class lexer {
    *  parser, this can be changed to call debug_next_token() which prints
    *  a debugging message before returning the token.
    */
-  public static token next_token() throws java.io.IOException
+  public token next_token() throws java.io.IOException
     {
       return real_next_token();
     }
@@ -381,7 +389,7 @@ public class lexer {
    *  routine, prints a message on System.out indicating what the token is,
    *  then returns it.
    */
-  public static token debug_next_token() throws java.io.IOException
+  public token debug_next_token() throws java.io.IOException
     {
       token result = real_next_token();
       System.out.println("# next_token() => " + result.sym);
@@ -394,7 +402,7 @@ public class lexer {
    *  next_token(), but for debugging purposes can be called indirectly from
    *  debug_next_token(). 
    */
-  protected static token real_next_token() throws java.io.IOException
+  protected token real_next_token() throws java.io.IOException
     {
       int sym_num;
 
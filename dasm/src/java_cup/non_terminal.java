@@ -19,104 +19,94 @@ public class non_terminal extends symbol {
   /*-----------------------------------------------------------*/
 
   /** Full constructor.
+   * @param ctx the context the non terminal belongs to.
    * @param nm  the name of the non terminal.
    * @param tp  the type string for the non terminal.
    */
-  public non_terminal(String nm, String tp) 
+  public non_terminal(CupContext ctx, String nm, String tp) 
     {
       /* super class does most of the work */
-      super(nm, tp);
+      super(ctx, nm, tp);
 
       /* add to set of all non terminals and check for duplicates */
-      Object conflict = _all.put(nm,this);
+      Object conflict = ctx.non_terminals.put(nm,this);
       if (conflict != null)
-    // can't throw an exception here because these are used in static
-    // initializers, so we crash instead
+    // can't throw an exception here because this is used by the
+    // CupContext constructor, so we crash instead
     // was: 
     // throw new internal_error("Duplicate non-terminal ("+nm+") created");
     (new internal_error("Duplicate non-terminal ("+nm+") created")).crash();
 
       /* assign a unique index */
-      _index = next_index++;
+      _index = ctx.next_non_terminal_index++;
+
+      _first_set = new terminal_set(ctx);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Constructor with default type. 
+   * @param ctx the context the non terminal belongs to.
    * @param nm  the name of the non terminal.
    */
-  public non_terminal(String nm) 
+  public non_terminal(CupContext ctx, String nm) 
     {
-      this(nm, null);
+      this(ctx, nm, null);
     }
 
   /*-----------------------------------------------------------*/
-  /*--- (Access to) Static (Class) Variables ------------------*/
+  /*--- Static Methods ----------------------------------------*/
   /*-----------------------------------------------------------*/
 
-  /** Table of all non-terminals -- elements are stored using name strings 
-   *  as the key 
-   */
-  protected static Hashtable _all = new Hashtable();
-
-  /** Access to all non-terminals. */
-  public static Enumeration all() {return _all.elements();};
+  /** Access to all non-terminals of a context. */
+  public static Enumeration all(CupContext ctx)
+    {
+      return ctx.non_terminals.elements();
+    }
 
-  /** lookup a non terminal by name string */ 
-  public static non_terminal find(String with_name)
+  /** lookup a non terminal of a context by name string */ 
+  public static non_terminal find(CupContext ctx, String with_name)
     {
       if (with_name == null)
         return null;
       else 
-        return (non_terminal)_all.get(with_name);
+        return (non_terminal)ctx.non_terminals.get(with_name);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Total number of non-terminals. */
-  public static int number() {return _all.size();};
-
-  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
-
-  /** Static counter to assign unique indexes. */
-  protected static int next_index = 0;
-
-  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
-
-  /** Static counter for creating unique non-terminal names */
-  static protected int next_nt = 0;
+  /** Total number of non-terminals of a context. */
+  public static int number(CupContext ctx)
+    {
+      return ctx.non_terminals.size();
+    }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
-
-  /** special non-terminal for start symbol */
-  public static final non_terminal START_nt = new non_terminal("$START");
-
-  /*-----------------------------------------------------------*/
-  /*--- Static Methods ----------------------------------------*/
-  /*-----------------------------------------------------------*/
      
   /** Method for creating a new uniquely named hidden non-terminal using 
    *  the given string as a base for the name (or "NT$" if null is passed).
+   * @param ctx    the context to create the non terminal in.
    * @param prefix base name to construct unique name from. 
    */
-  static non_terminal create_new(String prefix) throws internal_error
+  static non_terminal create_new(CupContext ctx, String prefix)
+    throws internal_error
     {
       if (prefix == null) prefix = "NT$";
-      return new non_terminal(prefix + next_nt++);
+      return new non_terminal(ctx, prefix + ctx.next_nt++);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** static routine for creating a new uniquely named hidden non-terminal */
-  static non_terminal create_new() throws internal_error
+  static non_terminal create_new(CupContext ctx) throws internal_error
     { 
-      return create_new(null); 
+      return create_new(ctx, null); 
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Compute nullability of all non-terminals. */
-  public static void compute_nullability() throws internal_error
+  /** Compute nullability of all non-terminals of a context. */
+  public static void compute_nullability(CupContext ctx) throws internal_error
     {
       boolean      change = true;
       non_terminal nt;
@@ -130,7 +120,7 @@ public class non_terminal extends symbol {
       change = false;
 
       /* consider each non-terminal */
-      for (e=all(); e.hasMoreElements(); )
+      for (e=all(ctx); e.hasMoreElements(); )
         {
           nt = (non_terminal)e.nextElement();
 
@@ -147,7 +137,7 @@ public class non_terminal extends symbol {
     }
       
       /* do one last pass over the productions to finalize all of them */
-      for (e=production.all(); e.hasMoreElements(); )
+      for (e=production.all(ctx); e.hasMoreElements(); )
     {
       prod = (production)e.nextElement();
       prod.set_nullable(prod.check_nullable());
@@ -159,7 +149,7 @@ public class non_terminal extends symbol {
   /** Compute first sets for all non-terminals.  This assumes nullability has
    *  already computed.
    */
-  public static void compute_first_sets() throws internal_error
+  public static void compute_first_sets(CupContext ctx) throws internal_error
     {
       boolean      change = true;
       Enumeration  n;
@@ -175,7 +165,7 @@ public class non_terminal extends symbol {
       change = false;
 
       /* consider each non-terminal */
-      for (n = all(); n.hasMoreElements(); )
+      for (n = all(ctx); n.hasMoreElements(); )
         {
           nt = (non_terminal)n.nextElement();
 
@@ -238,7 +228,7 @@ public class non_terminal extends symbol {
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** First set for this non-terminal. */
-  protected terminal_set _first_set = new terminal_set();
+  protected terminal_set _first_set;
 
   /** First set for this non-terminal. */
   public terminal_set first_set() {return _first_set;}
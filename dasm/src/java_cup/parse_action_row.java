@@ -12,11 +12,14 @@ public class parse_action_row {
            
   /** Simple constructor.  Note: this should not be used until the number of
    *  terminals in the grammar has been established.
+   * @param ctx the context of the grammar.
    */
-  public parse_action_row()
+  public parse_action_row(CupContext ctx)
     {
-      /* make sure the size is set */
-      if (_size <= 0 )  _size = terminal.number();
+      _ctx = ctx;
+
+      /* set the size */
+      _size = terminal.number(ctx);
 
       /* allocate the array */
       under_term = new parse_action[size()];
@@ -27,23 +30,21 @@ public class parse_action_row {
     }
 
   /*-----------------------------------------------------------*/
-  /*--- (Access to) Static (Class) Variables ------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
   /*-----------------------------------------------------------*/
 
-  /** Number of columns (terminals) in every row. */
-  protected static int _size = 0;
-
-  /** Number of columns (terminals) in every row. */
-  public static int size() {return _size;}
+  /** The context of the grammar. */
+  protected CupContext _ctx;
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Table of reduction counts (reused by compute_default()). */
-  protected static int reduction_count[] = null;
+  /** Number of columns (terminals) in the row. */
+  protected int _size;
 
-  /*-----------------------------------------------------------*/
-  /*--- (Access to) Instance Variables ------------------------*/
-  /*-----------------------------------------------------------*/
+  /** Number of columns (terminals) in the row. */
+  public int size() {return _size;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Actual action entries for the row. */
   public parse_action under_term[];
@@ -71,13 +72,8 @@ public class parse_action_row {
     {
       int i, prod, max_prod, max_red;
 
-      /* if we haven't allocated the count table, do so now */
-      if (reduction_count == null) 
-    reduction_count = new int[production.number()];
-
-      /* clear the reduction count table and maximums */
-      for (i = 0; i < production.number(); i++)
-    reduction_count[i] = 0;
+      /* allocate a cleared count table and clear the maximums */
+      int reduction_count[] = new int[production.number(_ctx)];
       max_prod = -1;
       max_red = 0;
      
@@ -2,6 +2,7 @@
 package java_cup;
 
 import java.util.Enumeration;
+import java.util.concurrent.ForkJoinPool;
 
 /** This class represents the complete "action" table of the parser. 
  *  It has one row for each state in the parse machine, and a column for
@@ -22,22 +23,30 @@ public class parse_action_table {
   /** Simple constructor.  All terminals, non-terminals, and productions must 
    *  already have been entered, and the viable prefix recognizer should
    *  have been constructed before this is called.
+   * @param ctx the context of the grammar.
    */
-  public parse_action_table()
+  public parse_action_table(CupContext ctx)
     {
+      _ctx = ctx;
+
       /* determine how many states we are working with */
-      _num_states = lalr_state.number();
+      _num_states = lalr_state.number(ctx);
 
       /* allocate the array and fill it in with empty rows */
       under_state = new parse_action_row[_num_states];
       for (int i=0; i<_num_states; i++)
-    under_state[i] = new parse_action_row();
+    under_state[i] = new parse_action_row(ctx);
     }
 
   /*-----------------------------------------------------------*/
   /*--- (Access to) Instance Variables ------------------------*/
   /*-----------------------------------------------------------*/
 
+  /** The context of the grammar. */
+  protected CupContext _ctx;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** How many rows/states are in the machine/table. */
   protected int _num_states;
 
@@ -53,6 +62,46 @@ public class parse_action_table {
   /*--- General Methods ---------------------------------------*/
   /*-----------------------------------------------------------*/
 
+  /** Fill in the entries of this table and of the reduce-goto table from
+   *  the states of the viable prefix recognizer (see 
+   *  lalr_state.build_table_entries()), and report and count the conflicts 
+   *  found.  Once the lookaheads are final the entries of each state only
+   *  depend on that state, so the states are spread across a fork/join pool
+   *  (see table_fill_task).  The conflicts are reported in the order the 
+   *  states are enumerated in, just as if the states were done one after 
+   *  the other, so the output does not depend on the number of threads.
+   * @param reduce_table the reduce-goto table to put entries in.
+   */
+  public void build_entries(parse_reduce_table reduce_table)
+    throws internal_error
+    {
+      lalr_state     states[] = new lalr_state[lalr_state.number(_ctx)];
+      byte           messages[][] = new byte[states.length][];
+      int            conflicts[] = new int[states.length];
+      internal_error errors[] = new internal_error[states.length];
+      int            i = 0;
+
+      for (Enumeration s = lalr_state.all(_ctx); s.hasMoreElements(); )
+    states[i++] = (lalr_state)s.nextElement();
+
+      ForkJoinPool.commonPool().invoke(new table_fill_task(states, this,
+    reduce_table, 0, states.length, messages, conflicts, errors));
+
+      /* report and count the conflicts in order */
+      for (i = 0; i < states.length; i++)
+    {
+      if (messages[i] != null)
+        System.err.write(messages[i], 0, messages[i].length);
+      if (errors[i] != null)
+        throw errors[i];
+
+      _ctx.emit.num_conflicts += conflicts[i];
+      _ctx.lexer.warning_count += conflicts[i];
+    }
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Check the table to ensure that all productions have been reduced. 
    *  Issue a warning message (to System.err) for each production that
    *  is never reduced.
@@ -79,7 +128,7 @@ public class parse_action_table {
     }
 
       /* now go across every production and make sure we hit it */
-      for (Enumeration p = production.all(); p.hasMoreElements(); )
+      for (Enumeration p = production.all(_ctx); p.hasMoreElements(); )
     {
       prod = (production)p.nextElement();
 
@@ -87,14 +136,14 @@ public class parse_action_table {
       if (prod.num_reductions() == 0)
         {
           /* count it *
-          emit.not_reduced++;
+          _ctx.emit.not_reduced++;
 
           /* give a warning if they haven't been turned off */
-          if (!emit.nowarn)
+          if (!_ctx.emit.nowarn)
         {
           System.err.println("*** Production \"" + 
                   prod.to_simple_string() + "\" never reduced");
-          lexer.warning_count++;
+          _ctx.lexer.warning_count++;
         }
         }
     }
@@ -11,29 +11,28 @@ public class parse_reduce_row {
 
   /** Simple constructor. Note: this should not be used until the number
    *  of terminals in the grammar has been established.
+   * @param ctx the context of the grammar.
    */
-  public parse_reduce_row()
+  public parse_reduce_row(CupContext ctx)
     {
-      /* make sure the size is set */
-      if (_size <= 0 )  _size = non_terminal.number();
+      /* set the size */
+      _size = non_terminal.number(ctx);
 
       /* allocate the array */
       under_non_term = new lalr_state[size()];
     }
 
   /*-----------------------------------------------------------*/
-  /*--- (Access to) Static (Class) Variables ------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
   /*-----------------------------------------------------------*/
 
-  /** Number of columns (non terminals) in every row. */
-  protected static int _size = 0;
+  /** Number of columns (non terminals) in the row. */
+  protected int _size;
 
-  /** Number of columns (non terminals) in every row. */
-  public static int size() {return _size;}
-   
-  /*-----------------------------------------------------------*/
-  /*--- (Access to) Instance Variables ------------------------*/
-  /*-----------------------------------------------------------*/
+  /** Number of columns (non terminals) in the row. */
+  public int size() {return _size;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Actual entries for the row. */
   public lalr_state under_non_term[];
@@ -323,18 +323,28 @@ public class parser extends java_cup.runtime.lr_parser {
   /** user initialization */
   public void user_init() throws java.lang.Exception
     {
- lexer.init(); 
+ action_obj.ctx = ctx; ctx.lexer.init(ctx.input_file); 
     }
 
   /** scan to get the next token */
   public java_cup.runtime.token scan()
     throws java.lang.Exception
     {
- return lexer.next_token(); 
+ return ctx.lexer.next_token(); 
     }
 
 
 
+  /** context of the run */
+  protected CupContext ctx;
+
+  /** constructor for parsing into a context */
+  public parser(CupContext ctx)
+    {
+      this();
+      this.ctx = ctx;
+    }
+
   /* override error routines */
 
   public void report_fatal_error(
@@ -342,14 +352,14 @@ public class parser extends java_cup.runtime.lr_parser {
     Object   info)
     {
       done_parsing();
-      lexer.emit_error(message);
+      ctx.lexer.emit_error(message);
       System.err.println("Can't recover from previous error(s), giving up.");
-      System.exit(1);
+      ctx.parse_aborted = true;
     }
 
     public void report_error(String message, Object info)
     {
-      lexer.emit_error(message);
+      ctx.lexer.emit_error(message);
     }
 
 };
@@ -358,6 +368,9 @@ public class parser extends java_cup.runtime.lr_parser {
 class CUP$actions {
 
 
+  /** context of the run, set by the parser before parsing starts */
+  protected CupContext ctx;
+
   /** helper routine to clone a new production part adding a given label */
   protected production_part add_lab(production_part part, String lab)
     throws internal_error
@@ -478,14 +491,14 @@ class CUP$actions {
       if (symbols.get((/*non_term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val) != null)
         {
           /* issue a message */
-          lexer.emit_error( "Symbol \"" + (/*non_term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val +
+          ctx.lexer.emit_error( "Symbol \"" + (/*non_term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val +
                                   "\" has already been declared");
         }
       else
         {
           /* build the non terminal object */
               non_terminal this_nt =
-        new non_terminal((/*non_term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val, multipart_name);
+        new non_terminal(ctx, (/*non_term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val, multipart_name);
 
           /* put it in the non_terms table */
           non_terms.put((/*non_term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val, this_nt);
@@ -506,14 +519,15 @@ class CUP$actions {
       if (symbols.get((/*term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val) != null)
         {
           /* issue a message */
-          lexer.emit_error("Symbol \"" + (/*term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val +
+          ctx.lexer.emit_error("Symbol \"" + (/*term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val +
                "\" has already been declared");
         }
       else
         {
           /* build a production_part and put it in the table */
           symbols.put((/*term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val,
-            new symbol_part(new terminal((/*term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val, multipart_name)));
+            new symbol_part(
+          new terminal(ctx, (/*term_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val, multipart_name)));
         }
     
             }
@@ -597,8 +611,8 @@ class CUP$actions {
       /* if that fails, symbol is undeclared */
       if (symb == null)
         {
-          if (lexer.error_count == 0)
-            lexer.emit_error("Symbol \"" + (/*symid*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val +
+          if (ctx.lexer.error_count == 0)
+            ctx.lexer.emit_error("Symbol \"" + (/*symid*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val +
                    "\" has not been declared");
         }
       else
@@ -646,9 +660,9 @@ class CUP$actions {
               /* build a special start production */
               new_rhs();
               add_rhs_part(new symbol_part(start_nt));
-              add_rhs_part(new symbol_part(terminal.EOF));
-              emit.start_production =
-             new production(non_terminal.START_nt, rhs_parts, rhs_pos);
+              add_rhs_part(new symbol_part(ctx.EOF));
+              ctx.emit.start_production =
+             new production(ctx.START_nt, rhs_parts, rhs_pos);
               new_rhs();
         }
         }
@@ -687,7 +701,7 @@ class CUP$actions {
           case 43: // NT$9 ::= 
             {
               CUP$result = new java_cup.runtime.token(/*NT$9*/41);
-               lexer.emit_error("Syntax Error"); 
+               ctx.lexer.emit_error("Syntax Error"); 
             }
           return CUP$result;
 
@@ -710,8 +724,8 @@ class CUP$actions {
           /* if it wasn't declared, emit a message */
       if (lhs_nt == null)
         {
-          if (lexer.error_count == 0)
-            lexer.emit_error("LHS non terminal \"" + (/*lhs_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val +
+          if (ctx.lexer.error_count == 0)
+            ctx.lexer.emit_error("LHS non terminal \"" + (/*lhs_id*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val +
                    "\" has not been declared");
         }
 
@@ -762,7 +776,7 @@ class CUP$actions {
       non_terminal nt = (non_terminal)non_terms.get((/*start_name*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val);
       if (nt == null)
         {
-          lexer.emit_error( "Start non terminal \"" + (/*start_name*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val +
+          ctx.lexer.emit_error( "Start non terminal \"" + (/*start_name*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-0)).str_val +
                        "\" has not been declared");
         }
           else
@@ -773,9 +787,9 @@ class CUP$actions {
           /* build a special start production */
           new_rhs();
           add_rhs_part(new symbol_part(start_nt));
-          add_rhs_part(new symbol_part(terminal.EOF));
-          emit.start_production =
-             new production(non_terminal.START_nt, rhs_parts, rhs_pos);
+          add_rhs_part(new symbol_part(ctx.EOF));
+          ctx.emit.start_production =
+             new production(ctx.START_nt, rhs_parts, rhs_pos);
           new_rhs();
         }
     
@@ -920,7 +934,7 @@ class CUP$actions {
               CUP$result = new java_cup.runtime.symbol(/*debug_grammar*/16);
               
       /* save the procedure name */
-          emit.debug_grammar = multipart_name;
+          ctx.emit.debug_grammar = multipart_name;
           /* reset the accumulated multipart name */
           multipart_name = new String();
     
@@ -941,7 +955,7 @@ class CUP$actions {
               CUP$result = new java_cup.runtime.symbol(/*scan_code*/14);
               
       /* save the user code */
-      emit.scan_code = (/*user_code*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val;
+      ctx.emit.scan_code = (/*user_code*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val;
     
             }
           return CUP$result;
@@ -960,7 +974,7 @@ class CUP$actions {
               CUP$result = new java_cup.runtime.symbol(/*init_code*/13);
               
       /* save the user code */
-      emit.init_code = (/*user_code*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val;
+      ctx.emit.init_code = (/*user_code*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val;
     
             }
           return CUP$result;
@@ -979,7 +993,7 @@ class CUP$actions {
               CUP$result = new java_cup.runtime.symbol(/*parser_code_part*/6);
               
       /* save the user included code string */
-      emit.parser_code = (/*user_code*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val;
+      ctx.emit.parser_code = (/*user_code*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val;
     
             }
           return CUP$result;
@@ -998,7 +1012,7 @@ class CUP$actions {
               CUP$result = new java_cup.runtime.symbol(/*action_code_part*/5);
               
       /* save the user included code string */
-      emit.action_code = (/*user_code*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val;
+      ctx.emit.action_code = (/*user_code*/(java_cup.runtime.str_token)CUP$stack.elementAt(CUP$top-1)).str_val;
     
             }
           return CUP$result;
@@ -1025,7 +1039,7 @@ class CUP$actions {
               CUP$result = new java_cup.runtime.token(/*NT$2*/34);
               
       /* save this import on the imports list */
-      emit.import_list.push(multipart_name);
+      ctx.emit.import_list.push(multipart_name);
 
       /* reset the accumulated multipart name */
       multipart_name = new String();
@@ -1071,7 +1085,7 @@ class CUP$actions {
               CUP$result = new java_cup.runtime.token(/*NT$1*/33);
               
       /* save the package name */
-      emit.package_name = multipart_name;
+      ctx.emit.package_name = multipart_name;
 
       /* reset the accumulated multipart name */
       multipart_name = new String();
@@ -1101,10 +1115,10 @@ class CUP$actions {
               CUP$result = new java_cup.runtime.token(/*NT$0*/32);
               
           /* declare "error" as a terminal */
-          symbols.put("error", new symbol_part(terminal.error));
+          symbols.put("error", new symbol_part(ctx.error));
 
           /* declare start non terminal */
-          non_terms.put("$START", non_terminal.START_nt);
+          non_terms.put("$START", ctx.START_nt);
     
             }
           return CUP$result;
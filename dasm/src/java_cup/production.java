@@ -76,6 +76,10 @@ public class production {
     throw new internal_error(
       "Attempt to construct a production with a null LHS");
 
+      /* we belong to the same context as our lhs */
+      _ctx = lhs_sym.ctx();
+      _first_set = new terminal_set(_ctx);
+
       /* translate labels appearing in action strings */
       action_str = translate_labels(
              rhs_parts, rhs_l, action_str, lhs_sym.stack_type());
@@ -115,10 +119,10 @@ public class production {
       remove_embedded_actions();
 
       /* assign an index */
-      _index = next_index++;
+      _index = _ctx.next_production_index++;
 
-      /* put us in the global collection of productions */
-      _all.put(new Integer(_index),this);
+      /* put us in the collection of productions of our context */
+      _ctx.productions.put(new Integer(_index),this);
 
       /* put us in the production list of the lhs non terminal */
       lhs_sym.add_production(this);
@@ -140,26 +144,29 @@ public class production {
   /*--- (Access to) Static (Class) Variables ------------------*/
   /*-----------------------------------------------------------*/
  
-  /** Table of all productions.  Elements are stored using their index as 
-   *  the key.
-   */
-  protected static Hashtable _all = new Hashtable();
- 
-  /** Access to all productions. */
-  public static Enumeration all() {return _all.elements();};
+  /** Access to all productions of a context. */
+  public static Enumeration all(CupContext ctx)
+    {
+      return ctx.productions.elements();
+    }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
  
-  /** Total number of productions. */
-  public static int number() {return _all.size();};
-
-  /** Static counter for assigning unique index numbers. */
-  protected static int next_index;
+  /** Total number of productions of a context. */
+  public static int number(CupContext ctx) {return ctx.productions.size();};
 
   /*-----------------------------------------------------------*/
   /*--- (Access to) Instance Variables ------------------------*/
   /*-----------------------------------------------------------*/
 
+  /** The context the production belongs to. */
+  protected CupContext _ctx;
+
+  /** The context the production belongs to. */
+  public CupContext ctx() {return _ctx;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** The left hand side non-terminal. */
   protected symbol_part _lhs;
 
@@ -241,7 +248,7 @@ public class production {
   /** First set of the production.  This is the set of terminals that 
    *  could appear at the front of some string derived from this production.
    */
-  protected terminal_set _first_set = new terminal_set();
+  protected terminal_set _first_set;
 
   /** First set of the production.  This is the set of terminals that 
    *  could appear at the front of some string derived from this production.
@@ -321,7 +328,7 @@ public class production {
        /* emit an error message */
        System.err.println("*** Label \"" + id_str + 
          "\" appears in action before it appears in production");
-        lexer.error_count++;
+        _ctx.lexer.error_count++;
 
         // later need to print the production this is in
     
@@ -589,7 +596,7 @@ public class production {
     if (rhs(act_loc).is_action())
       {
         /* create a new non terminal for the action production */
-        new_nt = non_terminal.create_new();
+        new_nt = non_terminal.create_new(_ctx);
 
         /* create a new production with just the action */
         new_prod = new action_production(this, new_nt, null, 0, 
@@ -0,0 +1,163 @@
+package java_cup.runtime;
+
+import java.util.Stack;
+
+/** This class implements the parse stack used by lr_parser.fast_parse().
+ *  The states are kept in an int array, and the symbols in a parallel array
+ *  of symbol objects.  Since the state is not stored in the symbol, shifting
+ *  a token does not modify it, so tokens that carry no value can be shared
+ *  (and need not be allocated for each shift).<p>
+ *
+ *  This extends Stack only so that it can be handed to the generated
+ *  do_action() method, which reaches the symbols of the handle using
+ *  elementAt().  Of the Stack methods only the read methods overridden here
+ *  (elementAt(), get(), peek(), size(), empty() and isEmpty()) reflect the
+ *  contents; the stack itself must only be changed with push_state() and
+ *  pop_states().
+ *
+ * @see     java_cup.runtime.lr_parser#fast_parse
+ * @see     java_cup.runtime.virtual_parse_stack
+ */
+public class array_parse_stack extends Stack {
+
+  /*-----------------------------------------------------------*/
+  /*--- Constructor(s) ----------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Simple constructor for an empty stack. */
+  public array_parse_stack()
+    {
+      states = new int[initial_size];
+      values = new symbol[initial_size];
+      _size  = 0;
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Number of entries allocated up front, the arrays double from there. */
+  protected static final int initial_size = 64;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The state of each entry, from the bottom of the stack up. */
+  protected int states[];
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The symbol of each entry, parallel to states[]. */
+  protected symbol values[];
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Number of entries on the stack. */
+  protected int _size;
+
+  /** Number of entries on the stack. */
+  public int size() {return _size;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Is the stack empty? */
+  public boolean empty() {return _size == 0;}
+
+  /** Is the stack empty? */
+  public boolean isEmpty() {return _size == 0;}
+
+  /*-----------------------------------------------------------*/
+  /*--- General Methods ---------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Push a symbol along with the state it leads to.
+   * @param state the state on top of the stack after the push.
+   * @param sym   the symbol being pushed (left unchanged).
+   */
+  public final void push_state(int state, symbol sym)
+    {
+      if (_size == states.length)
+    {
+      int    new_states[] = new int[_size * 2];
+      symbol new_values[] = new symbol[_size * 2];
+
+      System.arraycopy(states, 0, new_states, 0, _size);
+      System.arraycopy(values, 0, new_values, 0, _size);
+      states = new_states;
+      values = new_values;
+    }
+
+      states[_size] = state;
+      values[_size] = sym;
+      _size++;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Pop a number of entries off the stack.
+   * @param count the number of entries to pop.
+   */
+  public final void pop_states(int count)
+    {
+      /* drop the symbols so they are not kept alive by the stack */
+      for (int i = 0; i < count; i++)
+    values[--_size] = null;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The state on top of the stack. */
+  public final int top_state()
+    {
+      return states[_size-1];
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The state of an entry, counting from the bottom of the stack.
+   * @param index the index of the entry.
+   */
+  public final int state_at(int index)
+    {
+      if (index >= _size)
+    throw new ArrayIndexOutOfBoundsException(index + " >= " + _size);
+
+      return states[index];
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The symbol of an entry, counting from the bottom of the stack.
+   * @param index the index of the entry.
+   */
+  public Object elementAt(int index)
+    {
+      if (index >= _size)
+    throw new ArrayIndexOutOfBoundsException(index + " >= " + _size);
+
+      return values[index];
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The symbol of an entry, counting from the bottom of the stack.
+   * @param index the index of the entry.
+   */
+  public Object get(int index)
+    {
+      return elementAt(index);
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The symbol on top of the stack. */
+  public Object peek()
+    {
+      if (_size == 0)
+    throw new java.util.EmptyStackException();
+
+      return values[_size-1];
+    }
+
+  /*-----------------------------------------------------------*/
+
+};
@@ -38,6 +38,13 @@ import java.util.Stack;
  *  input in order to execute all actions and re-synchronize the actual parser 
  *  configuration.<p>
  *
+ *  The method fast_parse() is a variant of parse() which keeps the parse 
+ *  stack in an array_parse_stack: an int array of states and a parallel 
+ *  array of symbols, rather than a Stack of symbols each holding their 
+ *  state.  Shifting a token then neither allocates nor modifies it, so 
+ *  tokens that carry no value may be shared by the scanner.  Error recovery
+ *  works the same way with either stack.<p>
+ *
  *  This is an abstract class which is normally filled out by a subclass
  *  generated by the JavaCup parser generator.  In addition to supplying
  *  the actual parse tables, generated code also supplies methods which 
@@ -53,6 +60,11 @@ import java.util.Stack;
  *  <dd> Provides a reference to the parse action table.
  *  <dt> short[][] reduce_table()
  *  <dd> Provides a reference to the reduce-goto table.
+ *  <dt> packed_table packed_action_table(), packed_table packed_reduce_table()
+ *  <dd> Provide the action and reduce-goto tables in row displacement 
+ *       compressed form instead (only for parsers generated with the 
+ *       -packed_tables option, action_table() and reduce_table() then 
+ *       return null).
  *  <dt> int start_state()      
  *  <dd> Indicates the index of the start state.
  *  <dt> int start_production() 
@@ -105,6 +117,7 @@ import java.util.Stack;
  * @see     java_cup.runtime.symbol
  * @see     java_cup.runtime.token
  * @see     java_cup.runtime.virtual_parse_stack
+ * @see     java_cup.runtime.array_parse_stack
  * @version last updated: 11/25/95
  * @author  Scott Hudson
  */
@@ -187,6 +200,26 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** The action table in row displacement compressed form (supplied by
+   *  generated subclasses built with the -packed_tables option).  When this
+   *  is not null it is used instead of action_table().
+   *
+   * @see java_cup.runtime.packed_table
+   */
+  public packed_table packed_action_table() {return null;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The reduce-goto table in row displacement compressed form (supplied by
+   *  generated subclasses built with the -packed_tables option).  When this
+   *  is not null it is used instead of reduce_table().
+   *
+   * @see java_cup.runtime.packed_table
+   */
+  public packed_table packed_reduce_table() {return null;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** The index of the start state (supplied by generated subclass). */
   public abstract int start_state();
 
@@ -243,6 +276,14 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** The parse stack as an array_parse_stack while fast_parse() is running
+   *  (stack then refers to the same object), null otherwise.  Parse states
+   *  are not stored in the symbols of this stack.
+   */
+  protected array_parse_stack array_stack;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Direct reference to the production table. */ 
   protected short[][] production_tab;
 
@@ -256,6 +297,16 @@ public abstract class lr_parser {
   /** Direct reference to the reduce-goto table. */
   protected short[][] reduce_tab;
 
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Direct reference to the packed action table (if any). */
+  protected packed_table packed_action_tab;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Direct reference to the packed reduce-goto table (if any). */
+  protected packed_table packed_reduce_tab;
+
   /*-----------------------------------------------------------*/
   /*--- General Methods ---------------------------------------*/
   /*-----------------------------------------------------------*/
@@ -388,7 +439,13 @@ public abstract class lr_parser {
     {
       short tag;
       int first, last, probe;
-      short[] row = action_tab[state];
+      short[] row;
+
+      /* packed tables are indexed directly */
+      if (packed_action_tab != null)
+    return packed_action_tab.get(state, sym);
+
+      row = action_tab[state];
 
       /* linear search if we are < 10 entries */
       if (row.length < 20)
@@ -442,7 +499,13 @@ public abstract class lr_parser {
   protected final short get_reduce(int state, int sym)
     {
       short tag;
-      short[] row = reduce_tab[state];
+      short[] row;
+
+      /* packed tables are indexed directly */
+      if (packed_reduce_tab != null)
+    return packed_reduce_tab.get(state, sym);
+
+      row = reduce_tab[state];
 
       /* if we have a null row we go with the default */
       if (row == null)
@@ -464,6 +527,82 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** The state on top of the (real) parse stack. */
+  protected final int top_state()
+    {
+      if (array_stack != null)
+    return array_stack.top_state();
+      else
+    return ((symbol)stack.peek()).parse_state;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** The state of an entry of the (real) parse stack, counting from the 
+   *  bottom. 
+   *
+   * @param index the index of the entry.
+   */
+  protected final int state_at(int index)
+    {
+      if (array_stack != null)
+    return array_stack.state_at(index);
+      else
+    return ((symbol)stack.elementAt(index)).parse_state;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Push a symbol onto the (real) parse stack, along with the state it 
+   *  leads to, and adjust tos. 
+   *
+   * @param sym   the symbol being pushed.
+   * @param state the state on top of the stack after the push.
+   */
+  protected final void push_stack(symbol sym, int state)
+    {
+      if (array_stack != null)
+    array_stack.push_state(state, sym);
+      else
+    {
+      sym.parse_state = state;
+      stack.push(sym);
+    }
+      tos++;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Pop a number of entries off the (real) parse stack and adjust tos.
+   *
+   * @param count the number of entries to pop.
+   */
+  protected final void pop_stack(int count)
+    {
+      if (array_stack != null)
+    array_stack.pop_states(count);
+      else
+    for (int i = 0; i < count; i++)
+      stack.pop();
+      tos -= count;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Go back to a parse stack of symbols holding their states, as used by 
+   *  parse() and debug_parse(), if fast_parse() was used before. 
+   */
+  protected void use_symbol_stack()
+    {
+      if (array_stack != null)
+    {
+      stack = new Stack();
+      array_stack = null;
+    }
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** This method provides the main parsing routine.  It returns only when 
    *  done_parsing() has been called (typically because the parser has 
    *  accepted, or a fatal error has been reported).  See the header 
@@ -486,6 +625,11 @@ public abstract class lr_parser {
       production_tab = production_table();
       action_tab     = action_table();
       reduce_tab     = reduce_table();
+      packed_action_tab = packed_action_table();
+      packed_reduce_tab = packed_reduce_table();
+
+      /* the states are kept in the symbols on the stack */
+      use_symbol_stack();
 
       /* initialize the action encapsulation object */
       init_actions();
@@ -565,6 +709,109 @@ public abstract class lr_parser {
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
+  /** This method is a variant of parse() that keeps its parse stack in an
+   *  array_parse_stack.  No allocation is done for a shift, and shifted 
+   *  tokens are not modified, so tokens without a value may be shared.  
+   *  Actions are handed the array_parse_stack as their stack (it supports 
+   *  elementAt() for reaching the symbols of the handle).  Otherwise this 
+   *  behaves exactly as parse(), including error recovery.
+   */
+  public void fast_parse() throws java.lang.Exception
+    {
+      /* the current action code */
+      int act;
+
+      /* the symbol/stack element returned by a reduce */
+      symbol lhs_sym;
+
+      /* information about production being reduced with */
+      short handle_size, lhs_sym_num;
+
+      /* set up direct reference to tables to drive the parser */
+
+      production_tab = production_table();
+      action_tab     = action_table();
+      reduce_tab     = reduce_table();
+      packed_action_tab = packed_action_table();
+      packed_reduce_tab = packed_reduce_table();
+
+      /* the states are kept apart from the symbols on the stack */
+      array_stack = new array_parse_stack();
+      stack = array_stack;
+
+      /* initialize the action encapsulation object */
+      init_actions();
+
+      /* do user initialization */
+      user_init();
+
+      /* get the first token */
+      cur_token = scan(); 
+
+      /* push dummy symbol with start state to get us underway */
+      array_stack.push_state(start_state(), new symbol(0));
+      tos = 0;
+
+      /* continue until we are told to stop */
+      for (_done_parsing = false; !_done_parsing; )
+    {
+      /* current state is always on the top of the stack */
+
+      /* look up action out of the current state with the current input */
+      act = get_action(array_stack.top_state(), cur_token.sym);
+
+      /* decode the action -- > 0 encodes shift */
+      if (act > 0)
+        {
+          /* shift to the encoded state by pushing it on the stack */
+          array_stack.push_state(act-1, cur_token);
+          tos++;
+
+          /* advance to the next token */
+          cur_token = scan();
+        }
+      /* if its less than zero, then it encodes a reduce action */
+      else if (act < 0)
+        {
+          /* perform the action for the reduce */
+          lhs_sym = do_action((-act)-1, this, array_stack, tos);
+
+          /* look up information about the production */
+          lhs_sym_num = production_tab[(-act)-1][0];
+          handle_size = production_tab[(-act)-1][1];
+
+          /* pop the handle off the stack */
+          array_stack.pop_states(handle_size);
+          tos -= handle_size;
+          
+          /* look up the state to go to from the one popped back to */
+          act = get_reduce(array_stack.top_state(), lhs_sym_num);
+
+          /* shift to that state */
+          array_stack.push_state(act, lhs_sym);
+          tos++;
+        }
+      /* finally if the entry is zero, we have an error */
+      else if (act == 0)
+        {
+          /* call user syntax error reporting routine */
+          syntax_error(cur_token);
+
+          /* try to error recover */
+          if (!error_recovery(false))
+        {
+          /* if that fails give up with a fatal syntax error */
+          unrecovered_syntax_error(cur_token);
+
+          /* just in case that wasn't fatal enough, end parse */
+          done_parsing();
+        }
+        }
+    }
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
   /** Write a debugging message to System.err for the debugging version 
    *  of the parser. 
    *
@@ -592,7 +839,7 @@ public abstract class lr_parser {
       for (int i=0; i<stack.size(); i++)
     {
       debug_message("Symbol: " + ((symbol)stack.elementAt(i)).sym +
-            " State: " + ((symbol)stack.elementAt(i)).parse_state);
+            " State: " + state_at(i));
     }
       debug_message("==========================================");
     }
@@ -646,9 +893,14 @@ public abstract class lr_parser {
       production_tab = production_table();
       action_tab     = action_table();
       reduce_tab     = reduce_table();
+      packed_action_tab = packed_action_table();
+      packed_reduce_tab = packed_reduce_table();
 
       debug_message("# Initializing parser");
 
+      /* the states are kept in the symbols on the stack */
+      use_symbol_stack();
+
       /* initialize the action encapsulation object */
       init_actions();
 
@@ -816,7 +1068,7 @@ public abstract class lr_parser {
   protected boolean shift_under_error()
     {
       /* is there a shift under error symbol */
-      return get_action(((symbol)stack.peek()).parse_state, error_sym()) > 0;
+      return get_action(top_state(), error_sym()) > 0;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -840,10 +1092,8 @@ public abstract class lr_parser {
     {
       /* pop the stack */
       if (debug) 
-        debug_message("# Pop stack by one, state was # " +
-                      ((symbol)stack.peek()).parse_state);
-          stack.pop();    
-      tos--;
+        debug_message("# Pop stack by one, state was # " + top_state());
+      pop_stack(1);
 
       /* if we have hit bottom, we fail */
       if (stack.empty()) 
@@ -854,19 +1104,16 @@ public abstract class lr_parser {
     }
 
       /* state on top of the stack can shift under error, find the shift */
-      act = get_action(((symbol)stack.peek()).parse_state, error_sym());
+      act = get_action(top_state(), error_sym());
       if (debug) 
     {
-      debug_message("# Recover state found (#" + 
-            ((symbol)stack.peek()).parse_state + ")");
+      debug_message("# Recover state found (#" + top_state() + ")");
       debug_message("# Shifting on error to state #" + (act-1));
     }
 
       /* build and shift a special error token */
       error_token = new token(error_sym());
-      error_token.parse_state = act-1;
-      stack.push(error_token);
-      tos++;
+      push_stack(error_token, act-1);
 
       return true;
     }
@@ -1039,8 +1286,7 @@ public abstract class lr_parser {
     {
       debug_message("# Reparsing saved input with actions");
       debug_message("# Current token is #" + cur_err_token().sym);
-      debug_message("# Current state is #" + 
-            ((symbol)stack.peek()).parse_state);
+      debug_message("# Current state is #" + top_state());
     }
 
       /* continue until we accept or have read all lookahead input */
@@ -1049,17 +1295,14 @@ public abstract class lr_parser {
       /* current state is always on the top of the stack */
 
       /* look up action out of the current state with the current input */
-      act = 
-        get_action(((symbol)stack.peek()).parse_state, cur_err_token().sym);
+      act = get_action(top_state(), cur_err_token().sym);
 
       /* decode the action -- > 0 encodes shift */
       if (act > 0)
         {
           /* shift to the encoded state by pushing it on the stack */
-          cur_err_token().parse_state = act-1;
+          push_stack(cur_err_token(), act-1);
           if (debug) debug_shift(cur_err_token());
-          stack.push(cur_err_token());
-          tos++;
 
           /* advance to the next token, if there is none, we are done */
           if (!advance_lookahead()) 
@@ -1089,19 +1332,13 @@ public abstract class lr_parser {
           if (debug) debug_reduce((-act)-1, lhs_sym_num, handle_size);
 
           /* pop the handle off the stack */
-          for (int i = 0; i < handle_size; i++)
-        {
-          stack.pop();
-          tos--;
-        }
+          pop_stack(handle_size);
           
           /* look up the state to go to from the one popped back to */
-          act = get_reduce(((symbol)stack.peek()).parse_state, lhs_sym_num);
+          act = get_reduce(top_state(), lhs_sym_num);
 
           /* shift to that state */
-          lhs_sym.parse_state = act;
-          stack.push(lhs_sym);
-          tos++;
+          push_stack(lhs_sym, act);
            
           if (debug) debug_message("# Goto state #" + act);
 
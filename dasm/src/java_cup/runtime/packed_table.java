@@ -0,0 +1,169 @@
+package java_cup.runtime;
+
+/** This class holds a parse table (action or reduce-goto) that has been
+ *  compressed by row displacement.  Generated parsers that were built with
+ *  the -packed_tables option supply their tables in this form instead of as
+ *  short[][] initializers (see lr_parser.packed_action_table() and
+ *  lr_parser.packed_reduce_table()).<p>
+ *
+ *  Each state keeps the entries of its row that differ from the row default.
+ *  All rows are overlaid onto one pair of arrays: the entry of a state for a
+ *  given symbol is stored at index base[state]+symbol, and check[] records
+ *  which state each slot belongs to.  A lookup is then a single array access
+ *  instead of a search of the row.  Slots that are not owned by the state
+ *  being looked up fall back to the default of the row.<p>
+ *
+ *  The table is written into the generated parser as string constants
+ *  rather than array initializers, since constants cost next to nothing
+ *  when the parser class is loaded.  The strings hold a stream of numbers,
+ *  one char per number, or two chars for larger numbers
+ *  (see decode()).  They are unpacked when the table is first used.
+ *
+ * @see     java_cup.runtime.lr_parser
+ */
+public class packed_table {
+
+  /*-----------------------------------------------------------*/
+  /*--- Constructor(s) ----------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Unpack a table written by the parser generator.  The stream holds the
+   *  number of states, the number of slots, then the base and default of
+   *  each state and the check and value of each slot.  These are used in
+   *  place rather than copied out into separate arrays.
+   * @param strings the string constants holding the table.
+   */
+  public packed_table(String strings[])
+    {
+      data = decode(strings);
+      _num_states = data[0];
+      num_slots  = data[1];
+      default_start = 2 + _num_states;
+      check_start   = default_start + _num_states;
+      value_start   = check_start + num_slots;
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** The decoded stream.  The base of each state (the offset of its entries
+   *  among the slots) starts at index 2, followed by the default entry of
+   *  each state, the state owning each slot (-1 for unused slots) and the
+   *  entry stored in each slot.
+   */
+  protected final int data[];
+
+  /** Number of states (rows) in the table. */
+  protected final int _num_states;
+
+  /** Number of slots the rows are overlaid onto. */
+  protected final int num_slots;
+
+  /** Index in data[] of the default entry of state 0. */
+  protected final int default_start;
+
+  /** Index in data[] of the owner of slot 0. */
+  protected final int check_start;
+
+  /** Index in data[] of the entry in slot 0. */
+  protected final int value_start;
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Number of states (rows) in the table. */
+  public int num_states() {return _num_states;}
+
+  /*-----------------------------------------------------------*/
+  /*--- General Methods ---------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Fetch an entry from the table.  Entries are encoded the same way as
+   *  in the short[][] tables (see lr_parser.action_table() and
+   *  lr_parser.reduce_table()).
+   * @param state the state index of the entry being accessed.
+   * @param sym   the symbol index of the entry being accessed.
+   */
+  public final short get(int state, int sym)
+    {
+      int slot = data[2 + state] + sym;
+
+      if (slot < num_slots && data[check_start + slot] == state)
+    return (short)data[value_start + slot];
+      else
+    return (short)data[default_start + state];
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Unpack a table of rows written by the parser generator (this is used
+   *  for the production table).  The stream holds the number of rows, then
+   *  each row as its length followed by its entries.
+   * @param strings the string constants holding the table.
+   */
+  public static short[][] unpack_rows(String strings[])
+    {
+      int data[] = decode(strings);
+      short result[][] = new short[data[0]][];
+      int pos = 1;
+
+      for (int i = 0; i < result.length; i++)
+    {
+      result[i] = new short[data[pos++]];
+      for (int j = 0; j < result[i].length; j++)
+        result[i][j] = (short)data[pos++];
+    }
+
+      return result;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Decode the stream of numbers held in a set of string constants.  The
+   *  stream starts with the count of numbers that follow.  Each number is
+   *  first mapped to a non negative one (n >= 0 becomes 2n and n < 0
+   *  becomes -2n-1), so that small negative entries stay small.  Results
+   *  below 0x7fff are stored as one char holding the result plus one (to
+   *  keep zero chars, which take more space in a class file, out of the
+   *  strings).  Larger ones, and always the count, are stored as a char
+   *  holding 0x8000 plus the high bits, followed by a char holding the low
+   *  14 bits plus one.
+   * @param strings the string constants holding the stream.
+   */
+  public static int[] decode(String strings[])
+    {
+      char chars[];
+      int  length = 0;
+      int  result[];
+      int  pos;
+      int  c, n;
+
+      /* copy out all the chars in one go, this is run once per table so
+         it is always interpreted and calling charAt() for each is slow */
+      for (int s = 0; s < strings.length; s++)
+    length += strings[s].length();
+      chars = new char[length];
+      pos = 0;
+      for (int s = 0; s < strings.length; s++)
+    {
+      strings[s].getChars(0, strings[s].length(), chars, pos);
+      pos += strings[s].length();
+    }
+
+      result = new int[((chars[0] - 0x8000) << 14) | (chars[1] - 1)];
+      pos = 0;
+      for (int i = 2; i < length; i++)
+    {
+      c = chars[i];
+      if (c >= 0x8000)
+        n = ((c - 0x8000) << 14) | (chars[++i] - 1);
+      else
+        n = c - 1;
+
+      /* undo the mapping to non negative numbers */
+      result[pos++] = (n >>> 1) ^ -(n & 1);
+    }
+
+      return result;
+    }
+};
@@ -47,7 +47,8 @@ public class virtual_parse_stack {
        
   /** The real stack that we shadow.  This is accessed when we move off
    *  the bottom of the virtual portion of the stack, but is always left
-   *  unmodified.
+   *  unmodified.  This is an array_parse_stack when shadowing the stack
+   *  of lr_parser.fast_parse().
    */
   protected Stack real_stack;
 
@@ -79,16 +80,26 @@ public class virtual_parse_stack {
   protected void get_from_real()
     {
       symbol stack_sym;
+      int    index;
 
       /* don't transfer if the real stack is empty */
       if (real_next >= real_stack.size()) return;
 
-      /* get a copy of the first symbol we have not transfered */
-      stack_sym = (symbol)real_stack.elementAt(real_stack.size()-1-real_next);
-
       /* record the transfer */
+      index = real_stack.size()-1-real_next;
       real_next++;
 
+      /* stacks of lr_parser.fast_parse() keep the states apart */
+      if (real_stack instanceof array_parse_stack)
+    {
+      vstack.push(
+        new Integer(((array_parse_stack)real_stack).state_at(index)));
+      return;
+    }
+
+      /* get a copy of the first symbol we have not transfered */
+      stack_sym = (symbol)real_stack.elementAt(index);
+
       /* put the state number from the symbol onto the virtual stack */
       vstack.push(new Integer(stack_sym.parse_state));
     }
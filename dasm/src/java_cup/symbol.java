@@ -19,11 +19,14 @@ public abstract class symbol {
    /*-----------------------------------------------------------*/
 
    /** Full constructor.
-    * @param nm the name of the symbol.
-    * @param tp a string with the type name.
+    * @param ctx the context the symbol belongs to.
+    * @param nm  the name of the symbol.
+    * @param tp  a string with the type name.
     */
-   public symbol(String nm, String tp)
+   public symbol(CupContext ctx, String nm, String tp)
      {
+       _ctx = ctx;
+
        /* sanity check */
        if (nm == null) nm = "";
 
@@ -37,17 +40,26 @@ public abstract class symbol {
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
    /** Constructor with default type. 
-    * @param nm the name of the symbol.
+    * @param ctx the context the symbol belongs to.
+    * @param nm  the name of the symbol.
     */
-   public symbol(String nm)
+   public symbol(CupContext ctx, String nm)
      {
-       this(nm, null);
+       this(ctx, nm, null);
      }
 
    /*-----------------------------------------------------------*/
    /*--- (Access to) Instance Variables ------------------------*/
    /*-----------------------------------------------------------*/
 
+   /** The context the symbol belongs to. */
+   protected CupContext _ctx;
+
+   /** The context the symbol belongs to. */
+   public CupContext ctx() {return _ctx;}
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
    /** String for the human readable name of the symbol. */
    protected String _name; 
  
@@ -0,0 +1,134 @@
+package java_cup;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.concurrent.RecursiveAction;
+
+/** This class fills in the parse table entries of a range of states as a
+ *  fork/join task (see parse_action_table.build_entries()).  Ranges larger
+ *  than states_per_task are split in two halves that are done in parallel.
+ *  The conflict messages of each state are kept aside (as the bytes that
+ *  would have gone to System.err) along with the number of conflicts, so
+ *  that they can be reported in the order of the states once all of the
+ *  tasks are done.  Nothing else is shared between the tasks: each state
+ *  only changes its own rows of the tables.
+ *
+ * @see     java_cup.parse_action_table#build_entries
+ */
+public class table_fill_task extends RecursiveAction {
+
+  /*-----------------------------------------------------------*/
+  /*--- Constructor(s) ----------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Full constructor.
+   * @param states       the states (in the order to report them in).
+   * @param act_table    the action table to put entries in.
+   * @param reduce_table the reduce-goto table to put entries in.
+   * @param from         the index of the first state of the range.
+   * @param to           the index after the last state of the range.
+   * @param messages     conflict messages of each state (filled in).
+   * @param conflicts    number of conflicts of each state (filled in).
+   * @param errors       internal error of each state if any (filled in).
+   */
+  public table_fill_task(
+    lalr_state         states[],
+    parse_action_table act_table,
+    parse_reduce_table reduce_table,
+    int                from,
+    int                to,
+    byte               messages[][],
+    int                conflicts[],
+    internal_error     errors[])
+    {
+      _states       = states;
+      _act_table    = act_table;
+      _reduce_table = reduce_table;
+      _from         = from;
+      _to           = to;
+      _messages     = messages;
+      _conflicts    = conflicts;
+      _errors       = errors;
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- (Access to) Static (Class) Variables ------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Largest number of states done by one task without splitting it. */
+  public static final int states_per_task = 32;
+
+  /*-----------------------------------------------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** The states being filled in. */
+  protected lalr_state _states[];
+
+  /** The action table to put entries in. */
+  protected parse_action_table _act_table;
+
+  /** The reduce-goto table to put entries in. */
+  protected parse_reduce_table _reduce_table;
+
+  /** Index of the first state of our range. */
+  protected int _from;
+
+  /** Index after the last state of our range. */
+  protected int _to;
+
+  /** Conflict messages of each state, null for states without conflicts. */
+  protected byte _messages[][];
+
+  /** Number of conflicts of each state. */
+  protected int _conflicts[];
+
+  /** Internal error raised by each state, null if none. */
+  protected internal_error _errors[];
+
+  /*-----------------------------------------------------------*/
+  /*--- General Methods ---------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Fill in our range of states, splitting it up if it is large. */
+  protected void compute()
+    {
+      ByteArrayOutputStream buffer;
+      PrintStream           err;
+      int                   mid;
+
+      if (_to - _from > states_per_task)
+    {
+      mid = (_from + _to) >>> 1;
+      invokeAll(
+        new table_fill_task(_states, _act_table, _reduce_table, _from, mid,
+          _messages, _conflicts, _errors),
+        new table_fill_task(_states, _act_table, _reduce_table, mid, _to,
+          _messages, _conflicts, _errors));
+      return;
+    }
+
+      buffer = new ByteArrayOutputStream();
+      err    = new PrintStream(buffer);
+      for (int i = _from; i < _to; i++)
+    {
+      try {
+        _conflicts[i] =
+          _states[i].build_table_entries(_act_table, _reduce_table, err);
+      } catch (internal_error e) {
+        _errors[i] = e;
+      }
+
+      /* keep the messages of each state apart */
+      err.flush();
+      if (buffer.size() != 0)
+        {
+          _messages[i] = buffer.toByteArray();
+          buffer.reset();
+        }
+    }
+    }
+
+  /*-----------------------------------------------------------*/
+
+};
@@ -0,0 +1,246 @@
+package java_cup;
+
+import java.io.PrintStream;
+
+/** This class compresses a parse table by row displacement and writes it
+ *  out as string constants, for parsers generated with the -packed_tables
+ *  option.  Rows are added one state at a time, listing only the entries
+ *  that differ from the default of the row.  The rows are then overlaid onto
+ *  one array of slots, so that the entry of a state for a symbol ends up at
+ *  slot base[state]+symbol.  See java_cup.runtime.packed_table for the
+ *  lookup and for the encoding of the strings.
+ *
+ * @see     java_cup.runtime.packed_table
+ * @see     java_cup.emit
+ */
+public class table_packer {
+
+  /*-----------------------------------------------------------*/
+  /*--- Constructor(s) ----------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Constructor for a table with a given number of states.
+   * @param num_states the number of states (rows) of the table.
+   */
+  public table_packer(int num_states)
+    {
+      row_cols     = new int[num_states][];
+      row_vals     = new int[num_states][];
+      row_defaults = new int[num_states];
+    }
+
+  /*-----------------------------------------------------------*/
+  /*--- (Access to) Instance Variables ------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Symbol indexes of the entries of each row. */
+  protected int row_cols[][];
+
+  /** Values of the entries of each row. */
+  protected int row_vals[][];
+
+  /** Default value of each row. */
+  protected int row_defaults[];
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Largest number of chars placed in a single string constant.  A char
+   *  takes at most 3 bytes in a class file, which keeps each constant well
+   *  under the 64K limit.
+   */
+  protected static final int max_string_chars = 16000;
+
+  /** Number of numbers written per line of output. */
+  protected static final int line_numbers = 12;
+
+  /*-----------------------------------------------------------*/
+  /*--- General Methods ---------------------------------------*/
+  /*-----------------------------------------------------------*/
+
+  /** Set the entries of one row.
+   * @param state the state (row) being set.
+   * @param cols  symbol indexes of the entries, in increasing order.
+   * @param vals  values of the entries.
+   * @param count number of entries in cols and vals.
+   * @param dflt  value for all symbols not listed.
+   */
+  public void set_row(int state, int cols[], int vals[], int count, int dflt)
+    {
+      row_cols[state] = new int[count];
+      row_vals[state] = new int[count];
+      System.arraycopy(cols, 0, row_cols[state], 0, count);
+      System.arraycopy(vals, 0, row_vals[state], 0, count);
+      row_defaults[state] = dflt;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Overlay the rows and return the packed table as the stream of numbers
+   *  read by java_cup.runtime.packed_table: number of states, number of
+   *  slots, base and default of each state, check and value of each slot.
+   *  Rows are placed largest first, each at the lowest base where none of
+   *  its slots are taken.
+   */
+  public int[] pack()
+    {
+      int     num_states = row_cols.length;
+      int     order[] = new int[num_states];
+      int     base[] = new int[num_states];
+      int     check[] = new int[64];
+      int     value[] = new int[64];
+      int     num_slots = 0;
+      int     first_free = 0;
+      int     st, b, c, last;
+      boolean fits;
+      int     result[];
+
+      for (int i = 0; i < check.length; i++) check[i] = -1;
+
+      /* sort states by decreasing row size (stable, so ties stay in state
+         order and the output is always the same) */
+      for (int i = 0; i < num_states; i++)
+    {
+      int j = i;
+      while (j > 0 && row_cols[order[j-1]].length < row_cols[i].length)
+        {
+          order[j] = order[j-1];
+          j--;
+        }
+      order[j] = i;
+    }
+
+      for (int i = 0; i < num_states; i++)
+    {
+      st = order[i];
+
+      /* empty rows own no slots, any base will do */
+      if (row_cols[st].length == 0)
+        continue;
+
+      /* find the lowest base where every entry lands in a free slot */
+      b = Math.max(0, first_free - row_cols[st][0]);
+      for (;; b++)
+        {
+          fits = true;
+          for (int j = 0; j < row_cols[st].length; j++)
+        {
+          c = b + row_cols[st][j];
+          if (c < check.length && check[c] != -1)
+            {
+              fits = false;
+              break;
+            }
+        }
+          if (fits) break;
+        }
+      base[st] = b;
+
+      /* make room for the row and claim its slots */
+      last = b + row_cols[st][row_cols[st].length-1];
+      if (last >= check.length)
+        {
+          int size = Math.max(check.length * 2, last + 1);
+          int new_check[] = new int[size];
+          int new_value[] = new int[size];
+          System.arraycopy(check, 0, new_check, 0, check.length);
+          System.arraycopy(value, 0, new_value, 0, value.length);
+          for (int j = check.length; j < size; j++) new_check[j] = -1;
+          check = new_check;
+          value = new_value;
+        }
+      for (int j = 0; j < row_cols[st].length; j++)
+        {
+          check[b + row_cols[st][j]] = st;
+          value[b + row_cols[st][j]] = row_vals[st][j];
+        }
+      num_slots = Math.max(num_slots, last + 1);
+      while (first_free < check.length && check[first_free] != -1)
+        first_free++;
+    }
+
+      /* put together the stream */
+      result = new int[2 + 2*num_states + 2*num_slots];
+      result[0] = num_states;
+      result[1] = num_slots;
+      System.arraycopy(base, 0, result, 2, num_states);
+      System.arraycopy(row_defaults, 0, result, 2 + num_states, num_states);
+      System.arraycopy(check, 0, result, 2 + 2*num_states, num_slots);
+      System.arraycopy(value, 0, result, 2 + 2*num_states + num_slots,
+               num_slots);
+      return result;
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Write a stream of numbers as the elements of a String[] initializer
+   *  (without the surrounding braces).  See
+   *  java_cup.runtime.packed_table.decode() for the encoding.
+   * @param out    stream to produce output on.
+   * @param data   the numbers to write.
+   * @param indent string to start each line of output with.
+   */
+  public static void emit_strings(PrintStream out, int data[], String indent)
+    {
+      int string_chars;
+      int numbers = 0;
+      int n;
+
+      /* the count of numbers goes first, always as a pair, so the reader
+         can size its result without a separate pass */
+      out.print(indent + "\"");
+      emit_char(out, 0x8000 + (data.length >>> 14));
+      emit_char(out, (data.length & 0x3fff) + 1);
+      string_chars = 2;
+
+      for (int i = 0; i < data.length; i++)
+    {
+      /* map to a non negative number */
+      n = data[i] >= 0 ? 2*data[i] : -2*data[i] - 1;
+
+      /* start a new string rather than split a pair */
+      if (string_chars + 2 > max_string_chars)
+        {
+          out.print("\",\n" + indent + "\"");
+          string_chars = numbers = 0;
+        }
+      /* and a new line now and then */
+      else if (numbers >= line_numbers)
+        {
+          out.print("\" +\n" + indent + "\"");
+          numbers = 0;
+        }
+
+      if (n < 0x7fff)
+        {
+          emit_char(out, n + 1);
+          string_chars++;
+        }
+      else
+        {
+          emit_char(out, 0x8000 + (n >>> 14));
+          emit_char(out, (n & 0x3fff) + 1);
+          string_chars += 2;
+        }
+      numbers++;
+    }
+      out.print("\"");
+    }
+
+  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
+
+  /** Write one char of a string literal.  Octal escapes are used for
+   *  unprintable chars that fit, since a unicode escape for a line
+   *  terminator or quote would be translated before the literal is read.
+   * @param out stream to produce output on.
+   * @param c   the char to write.
+   */
+  protected static void emit_char(PrintStream out, int c)
+    {
+      if (c >= 0x20 && c < 0x7f && c != '"' && c != '\\')
+    out.print((char)c);
+      else if (c < 0x100)
+    out.print("\\" + Integer.toOctalString(0x200 | c).substring(1));
+      else
+    out.print("\\u" + Integer.toHexString(0x10000 | c).substring(1));
+    }
+};
@@ -1,7 +1,6 @@
 package java_cup;
  
 import java.util.Enumeration;
-import java.util.Hashtable;
 
 /** This class represents a terminal symbol in the grammar.  Each terminal 
  *  has a textual name, an index, and a string which indicates the type of 
@@ -19,93 +18,75 @@ public class terminal extends symbol {
   /*-----------------------------------------------------------*/
 
   /** Full constructor.
-   * @param nm the name of the terminal.
-   * @param tp the type of the terminal.
+   * @param ctx the context the terminal belongs to.
+   * @param nm  the name of the terminal.
+   * @param tp  the type of the terminal.
    */
-  public terminal(String nm, String tp) 
+  public terminal(CupContext ctx, String nm, String tp) 
     {
       /* superclass does most of the work */
-      super(nm, tp);
+      super(ctx, nm, tp);
 
       /* add to set of all terminals and check for duplicates */
-      Object conflict = _all.put(nm,this);
+      Object conflict = ctx.terminals.put(nm,this);
       if (conflict != null)
-    // can't throw an execption here because this is used in static 
-    // initializers, so we do a crash instead
+    // can't throw an execption here because this is used by the 
+    // CupContext constructor, so we do a crash instead
     // was:
     // throw new internal_error("Duplicate terminal (" + nm + ") created");
     (new internal_error("Duplicate terminal (" + nm + ") created")).crash();
 
       /* assign a unique index */
-      _index = next_index++;
+      _index = ctx.next_terminal_index++;
 
       /* add to by_index set */
-      _all_by_index.put(new Integer(_index), this);
+      ctx.terminals_by_index.put(new Integer(_index), this);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
   /** Constructor with default type. 
-   * @param nm the name of the terminal.
+   * @param ctx the context the terminal belongs to.
+   * @param nm  the name of the terminal.
    */
-  public terminal(String nm) 
+  public terminal(CupContext ctx, String nm) 
     {
-      this(nm, null);
+      this(ctx, nm, null);
     }
 
   /*-----------------------------------------------------------*/
-  /*--- (Access to) Static (Class) Variables ------------------*/
+  /*--- Static Methods ----------------------------------------*/
   /*-----------------------------------------------------------*/
 
-  /** Table of all terminals.  Elements are stored using name strings as 
-   *  the key 
-   */
-  protected static Hashtable _all = new Hashtable();
-
-  /** Access to all terminals. */
-  public static Enumeration all() {return _all.elements();};
+  /** Access to all terminals of a context. */
+  public static Enumeration all(CupContext ctx)
+    {
+      return ctx.terminals.elements();
+    }
 
-  /** Lookup a terminal by name string. */ 
-  public static terminal find(String with_name)
+  /** Lookup a terminal of a context by name string. */ 
+  public static terminal find(CupContext ctx, String with_name)
     {
       if (with_name == null)
     return null;
       else 
-    return (terminal)_all.get(with_name);
+    return (terminal)ctx.terminals.get(with_name);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Table of all terminals indexed by their index number. */
-  protected static Hashtable _all_by_index = new Hashtable();
-
-  /** Lookup a terminal by index. */
-  public static terminal find(int indx)
+  /** Lookup a terminal of a context by index. */
+  public static terminal find(CupContext ctx, int indx)
     {
       Integer the_indx = new Integer(indx);
 
-      return (terminal)_all_by_index.get(the_indx);
+      return (terminal)ctx.terminals_by_index.get(the_indx);
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
 
-  /** Total number of terminals. */
-  public static int number() {return _all.size();};
-
-  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
- 
-  /** Static counter to assign unique index. */
-  protected static int next_index = 0;
-
-  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
-
-  /** Special terminal for end of input. */
-  public static final terminal EOF = new terminal("EOF");
-
-  /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
-
-  /** special terminal used for error recovery */
-  public static final terminal error = new terminal("error");
+  /** Total number of terminals of a context. */
+  public static int number(CupContext ctx) {return ctx.terminals.size();};
 
   /*-----------------------------------------------------------*/
   /*--- General Methods ---------------------------------------*/
@@ -13,11 +13,15 @@ public class terminal_set {
   /*--- Constructor(s) ----------------------------------------*/
   /*-----------------------------------------------------------*/
 
-  /** Constructor for an empty set. */
-  public terminal_set() 
+  /** Constructor for an empty set. 
+   * @param ctx the context of the terminals in the set.
+   */
+  public terminal_set(CupContext ctx) 
     { 
+      _ctx = ctx;
+
       /* allocate the bitset at what is probably the right size */
-      _elements = new BitSet(terminal.number());
+      _elements = new BitSet(terminal.number(ctx));
     };
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -29,20 +33,17 @@ public class terminal_set {
     throws internal_error
     {
       not_null(other);
+      _ctx = other._ctx;
       _elements = (BitSet)other._elements.clone();
     };
 
-  /*-----------------------------------------------------------*/
-  /*--- (Access to) Static (Class) Variables ------------------*/
-  /*-----------------------------------------------------------*/
-
-  /** Constant for the empty set. */
-  public static final terminal_set EMPTY = new terminal_set();
-
   /*-----------------------------------------------------------*/
   /*--- (Access to) Instance Variables ------------------------*/
   /*-----------------------------------------------------------*/
 
+  /** The context of the terminals in the set. */
+  protected CupContext _ctx;
+
   /** Bitset to implement the actual set. */
   protected BitSet _elements;
 
@@ -65,7 +66,7 @@ public class terminal_set {
   /** Determine if the set is empty. */
   public boolean empty()
     {
-      return equals(EMPTY);
+      return _elements.isEmpty();
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -100,14 +101,12 @@ public class terminal_set {
     {
       not_null(other);
 
-      /* make a copy of the other set */
-      BitSet copy_other = (BitSet)other._elements.clone();
-
-      /* and or in */
-      copy_other.or(_elements);
+      /* look for one of our elements that the other set doesn't have */
+      for (int i = _elements.nextSetBit(0); i >= 0; 
+           i = _elements.nextSetBit(i+1))
+    if (!other._elements.get(i)) return false;
 
-      /* if it hasn't changed, we were a subset */
-      return copy_other.equals(other._elements);
+      return true;
     }
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -168,14 +167,11 @@ public class terminal_set {
     {
       not_null(other);
 
-      /* make a copy */
-      BitSet copy = (BitSet)_elements.clone();
-
-      /* or in the other set */
+      /* or in the other set, we changed if that added any elements (this 
+         is called for every lookahead propagation, so avoid copying) */
+      int old_count = _elements.cardinality();
       _elements.or(other._elements);
-
-      /* changed if we are not the same as the copy */
-      return !_elements.equals(copy);
+      return _elements.cardinality() != old_count;
     };
 
   /*. . . . . . . . . . . . . . . . . . . . . . . . . . . . . .*/
@@ -230,7 +226,7 @@ public class terminal_set {
       
       result = "{";
       comma_flag = false;
-      for (int t = 0; t < terminal.number(); t++)
+      for (int t = 0; t < terminal.number(_ctx); t++)
     {
       if (_elements.get(t))
         {
@@ -239,7 +235,7 @@ public class terminal_set {
           else
             comma_flag = true;
 
-          result += terminal.find(t).name();
+          result += terminal.find(_ctx, t).name();
         }
     }
       result += "}";
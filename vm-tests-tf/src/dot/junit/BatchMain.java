@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dot.junit;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+
+/**
+ * Runs a batch of the generated Main_ classes in one VM, rather than one VM per test.
+ * <p>
+ * Each test runs in a class loader of its own, which loads the classes of the test (and
+ * DxAbstractMain, whose checks the tests use) from scratch: a class that fails to load or
+ * verify in one test is loaded again by the next one, as in a VM of its own. On a host VM
+ * the class path is made of class folders or jars, e.g. of the .java twins of the T_
+ * classes, so that the runner can be tried without a device.
+ * <p>
+ * usage: BatchMain &lt;class path&gt; [&lt;main class&gt;[=&lt;class path&gt;] ...]
+ * <p>
+ * The first class path is used by all tests, e.g. dexcore.jar and mains.jar. Each test adds
+ * its own, e.g. the jars of the T_ classes it uses. Without tests as arguments, the tests
+ * are read from the standard input, one per line, until it is closed. For each test, a
+ * {@link #START} line is written before it runs, and a {@link #RESULT} line after it ran:
+ * <pre>
+ * BatchMain-START  &lt;main class&gt;
+ * BatchMain-RESULT &lt;main class&gt; PASS|FAIL &lt;milliseconds&gt; [&lt;failure&gt;]
+ * </pre>
+ * with the fields separated by tabs. Anything else on the output was written by the tests.
+ * A test that crashes the VM has a START line without a RESULT line.
+ */
+public class BatchMain {
+
+    public static final String START = "BatchMain-START";
+
+    public static final String RESULT = "BatchMain-RESULT";
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("usage: BatchMain <class path> [<main class>[=<class path>] ...]");
+            System.exit(1);
+        }
+
+        String classPath = args[0];
+        if (args.length > 1) {
+            for (int i = 1; i < args.length; i++) {
+                runTest(classPath, args[i]);
+            }
+        } else {
+            BufferedReader in = new BufferedReader(new InputStreamReader(System.in));
+            String line;
+            while ((line = in.readLine()) != null) {
+                line = line.trim();
+                if (line.length() != 0) {
+                    runTest(classPath, line);
+                }
+            }
+        }
+    }
+
+    private static void runTest(String classPath, String test) {
+        int separator = test.indexOf('=');
+        String mainClass = separator < 0 ? test : test.substring(0, separator);
+        String testClassPath = separator < 0 || separator == test.length() - 1 ? classPath
+                : classPath + File.pathSeparator + test.substring(separator + 1);
+
+        System.out.println(START + "\t" + mainClass);
+        System.out.flush();
+
+        long start = System.nanoTime();
+        String failure = null;
+        try {
+            Class<?> c = Class.forName(mainClass, true, createClassLoader(testClassPath));
+            Method main = c.getMethod("main", String[].class);
+            main.invoke(null, (Object) new String[0]);
+        } catch (InvocationTargetException e) {
+            failure = describe(e.getCause());
+        } catch (Throwable t) {
+            failure = describe(t);
+        }
+        long millis = (System.nanoTime() - start) / 1000000;
+
+        System.out.println(RESULT + "\t" + mainClass + "\t" + (failure == null ? "PASS" : "FAIL")
+                + "\t" + millis + (failure == null ? "" : "\t" + failure));
+        System.out.flush();
+    }
+
+    /**
+     * Returns a class loader for the given class path, which shares only the classes of
+     * the platform with the other tests.
+     */
+    private static ClassLoader createClassLoader(String classPath) throws Exception {
+        ClassLoader parent = ClassLoader.getSystemClassLoader().getParent();
+        Class<?> pathClassLoader;
+        try {
+            pathClassLoader = Class.forName("dalvik.system.PathClassLoader");
+        } catch (ClassNotFoundException e) {
+            // on a host VM
+            String[] entries = classPath.split(File.pathSeparator);
+            URL[] urls = new URL[entries.length];
+            for (int i = 0; i < entries.length; i++) {
+                urls[i] = new File(entries[i]).toURI().toURL();
+            }
+            return new URLClassLoader(urls, parent);
+        }
+        return (ClassLoader) pathClassLoader.getConstructor(String.class, ClassLoader.class)
+                .newInstance(classPath, parent);
+    }
+
+    /**
+     * Describes a failure (and its causes) on one line.
+     */
+    private static String describe(Throwable t) {
+        StringBuilder description = new StringBuilder(String.valueOf(t));
+        for (Throwable cause = t.getCause(); cause != null && cause != t;
+                t = cause, cause = cause.getCause()) {
+            description.append(" caused by ").append(cause);
+        }
+        return description.toString().replace('\n', ' ').replace('\r', ' ').replace('\t', ' ');
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dot.junit;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BatchWorkerPool runs tests in a few long-lived worker VMs running {@link BatchMain},
+ * rather than in a VM per test, and keeps a test that crashes or hangs its VM from taking
+ * the other tests with it:
+ * <ul>
+ * <li>Each worker is handed one test at a time, as a line on its standard input.
+ * <li>A worker that dies while it runs a test (its output ends before the RESULT line of
+ * the test) is replaced by a new one, and the test is recorded as crashed.
+ * <li>A test that doesn't finish in time is recorded as timed out, and its worker is
+ * killed and replaced.
+ * </ul>
+ * The workers are started by a {@link ProcessLauncher}, e.g. on a device through adb, or on
+ * the host (see {@link CommandLauncher#forHostVm}), which {@link #main} does.
+ */
+public class BatchWorkerPool {
+
+    /** Marks the end of the output of a worker. */
+    private static final String EOF = new String("EOF");
+
+    private final ProcessLauncher launcher;
+
+    private final int workerCount;
+
+    private final long timeoutMillis;
+
+    /**
+     * @param launcher starts the workers.
+     * @param workerCount how many workers run tests at the same time.
+     * @param timeout how long a test may run, including the start of its worker.
+     */
+    public BatchWorkerPool(ProcessLauncher launcher, int workerCount, long timeout,
+            TimeUnit unit) {
+        this.launcher = launcher;
+        this.workerCount = Math.max(1, workerCount);
+        this.timeoutMillis = unit.toMillis(timeout);
+    }
+
+    /**
+     * usage: BatchWorkerPool &lt;workers&gt; &lt;timeout seconds&gt; &lt;class path&gt;
+     * &lt;main class&gt;[=&lt;class path&gt;] ...
+     * <p>
+     * Runs the tests in workers on the host VM, and prints the result of each.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("usage: BatchWorkerPool <workers> <timeout seconds> "
+                    + "<class path> <main class>[=<class path>] ...");
+            System.exit(1);
+        }
+
+        BatchWorkerPool pool = new BatchWorkerPool(CommandLauncher.forHostVm(args[2]),
+                Integer.parseInt(args[0]), Long.parseLong(args[1]), TimeUnit.SECONDS);
+        long start = System.currentTimeMillis();
+        Map<String, String> results = pool.runAll(
+                Arrays.asList(args).subList(3, args.length));
+        int failed = 0;
+        for (Map.Entry<String, String> result : new TreeMap<String, String>(results)
+                .entrySet()) {
+            if (result.getValue().isEmpty()) {
+                System.out.println("PASS " + result.getKey());
+            } else {
+                System.out.println("FAIL " + result.getKey() + ": " + result.getValue());
+                failed++;
+            }
+        }
+        System.out.println(results.size() + " tests, " + failed + " failed, in "
+                + (System.currentTimeMillis() - start) + " ms");
+        System.exit(failed == 0 ? 0 : 1);
+    }
+
+    /**
+     * Runs the given tests, as {@link BatchMain} takes them, spread over the workers.
+     *
+     * @return the result of each test by its main class: "" if the test passed, what went
+     *         wrong otherwise. As when a test runs in a VM of its own, a test that writes
+     *         anything to the output fails.
+     */
+    public Map<String, String> runAll(Collection<String> tests) throws InterruptedException {
+        final Queue<String> pending = new ConcurrentLinkedQueue<String>(tests);
+        final Map<String, String> results = new ConcurrentHashMap<String, String>();
+        int threads = Math.min(workerCount, tests.size());
+        if (threads == 0) {
+            return results;
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<Future<Void>>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    public Void call() throws InterruptedException {
+                        runPending(pending, results);
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        return results;
+    }
+
+    /**
+     * Runs tests from the queue in one worker (at a time) until the queue is empty.
+     */
+    private void runPending(Queue<String> pending, Map<String, String> results)
+            throws InterruptedException {
+        Worker worker = null;
+        try {
+            String test;
+            while ((test = pending.poll()) != null) {
+                if (worker == null || !worker.alive) {
+                    if (worker != null) {
+                        worker.destroy();
+                    }
+                    try {
+                        worker = new Worker(launcher.launch());
+                    } catch (IOException e) {
+                        worker = null;
+                        results.put(getMainClass(test), "failed to start " + launcher + ": " + e);
+                        continue;
+                    }
+                }
+                results.put(getMainClass(test), worker.run(test, timeoutMillis));
+            }
+        } finally {
+            if (worker != null) {
+                worker.destroy();
+            }
+        }
+    }
+
+    private static String getMainClass(String test) {
+        int separator = test.indexOf('=');
+        return separator < 0 ? test : test.substring(0, separator);
+    }
+
+    /**
+     * A worker process, and a thread reading its output.
+     */
+    private static class Worker {
+        final Process process;
+        final Writer in;
+        final BlockingQueue<String> output = new LinkedBlockingQueue<String>();
+        boolean alive = true;
+
+        Worker(Process process) {
+            this.process = process;
+            this.in = new OutputStreamWriter(process.getOutputStream());
+            Thread reader = new Thread("BatchWorkerPool reader") {
+                @Override
+                public void run() {
+                    try (BufferedReader out = new BufferedReader(
+                            new InputStreamReader(Worker.this.process.getInputStream()))) {
+                        String line;
+                        while ((line = out.readLine()) != null) {
+                            output.add(line);
+                        }
+                    } catch (IOException e) {
+                        // The worker was killed; it is replaced anyway.
+                    }
+                    output.add(EOF);
+                }
+            };
+            reader.setDaemon(true);
+            reader.start();
+        }
+
+        /**
+         * Runs a test and returns its result. If the worker died or had to be killed, it
+         * isn't alive afterwards.
+         */
+        String run(String test, long timeoutMillis) throws InterruptedException {
+            String mainClass = getMainClass(test);
+            StringBuilder testOutput = new StringBuilder();
+            try {
+                in.write(test + "\n");
+                in.flush();
+            } catch (IOException e) {
+                // The worker died since its last test, its output tells why.
+            }
+
+            long deadline = System.currentTimeMillis() + timeoutMillis;
+            while (true) {
+                String line = output.poll(deadline - System.currentTimeMillis(),
+                        TimeUnit.MILLISECONDS);
+                if (line == null) {
+                    alive = false;
+                    return "timed out after " + timeoutMillis / 1000 + " s" + format(testOutput);
+                }
+                if (line == EOF) {
+                    alive = false;
+                    return "crashed" + format(testOutput);
+                }
+                String[] fields = line.split("\t", 5);
+                if (fields[0].equals(BatchMain.START) && fields.length > 1
+                        && fields[1].equals(mainClass)) {
+                    continue;
+                }
+                if (fields[0].equals(BatchMain.RESULT) && fields.length > 3
+                        && fields[1].equals(mainClass)) {
+                    String result = fields[2].equals("PASS") ? ""
+                            : fields.length > 4 ? fields[4] : fields[2];
+                    if (testOutput.length() > 0) {
+                        result += (result.isEmpty() ? "" : ", ") + "output" + format(testOutput);
+                    }
+                    return result;
+                }
+                testOutput.append(line).append('\n');
+            }
+        }
+
+        void destroy() {
+            try {
+                in.close();
+            } catch (IOException e) {
+                // Killed below anyway.
+            }
+            process.destroy();
+        }
+
+        private static String format(StringBuilder testOutput) {
+            return testOutput.length() == 0 ? ""
+                    : ": " + testOutput.toString().trim().replace('\n', ' ');
+        }
+    }
+}
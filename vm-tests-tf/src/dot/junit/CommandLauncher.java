@@ -0,0 +1,69 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dot.junit;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CommandLauncher starts the workers of a {@link BatchWorkerPool} by running a command,
+ * e.g. a dalvikvm on a device through adb shell, or a VM on the host. The standard error
+ * of the command is merged into its output, as adb shell does.
+ */
+public class CommandLauncher implements ProcessLauncher {
+
+    private final List<String> command;
+
+    public CommandLauncher(String... command) {
+        this.command = Arrays.asList(command.clone());
+    }
+
+    /**
+     * Returns a launcher for workers running in VMs like the one running this code, with
+     * the given class path, e.g. of the .java twins of the T_ classes. This is meant to try
+     * the pool on the host, without a device.
+     */
+    public static CommandLauncher forHostVm(String classPath) {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator
+                + "java";
+        return new CommandLauncher(java, "-classpath", classPath, BatchMain.class.getName(),
+                classPath);
+    }
+
+    /**
+     * Returns a launcher for workers running in a shell on the device with the given serial
+     * number, e.g. the one of the ITestDevice under test, so that the workers run on the
+     * device the harness allocated. adb is taken from the path, where tradefed looks for it
+     * by default; whichever adb runs, it talks to the adb server named by the environment
+     * this VM passes on, i.e. the one the harness uses.
+     */
+    public static CommandLauncher forDevice(String serialNumber, String shellCommand) {
+        return new CommandLauncher("adb", "-s", serialNumber, "shell", shellCommand);
+    }
+
+    @Override
+    public Process launch() throws IOException {
+        return new ProcessBuilder(command).redirectErrorStream(true).start();
+    }
+
+    @Override
+    public String toString() {
+        return command.toString();
+    }
+}
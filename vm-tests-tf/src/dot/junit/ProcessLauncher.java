@@ -0,0 +1,32 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dot.junit;
+
+import java.io.IOException;
+
+/**
+ * Starts the worker processes of a {@link BatchWorkerPool}: VMs running {@link BatchMain},
+ * which read the tests to run from their standard input.
+ */
+public interface ProcessLauncher {
+
+    /**
+     * Starts a new worker process. Its standard output (and error, if it is to be told
+     * apart from the output of the tests) is read by the pool.
+     */
+    Process launch() throws IOException;
+}
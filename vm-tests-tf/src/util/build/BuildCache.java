@@ -0,0 +1,251 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BuildCache keeps the outputs of build steps in a directory by a key describing what the
+ * outputs were built from (see {@link BuildGraph}), so that another build of the same
+ * step, in this tree or another one, can take them from there instead of building them.
+ * The directory may be shared by several builders, e.g. on a shared mount:
+ * <ul>
+ * <li>An entry is a directory &lt;key prefix&gt;/&lt;key&gt; holding the outputs of the
+ * step, named by their index in path order. It is written in tmp/ first and then moved
+ * in place atomically, so an entry is complete as soon as it exists. If several builders
+ * write the same entry, the first one wins.
+ * <li>Outputs are restored by a hard link to the cached file, or a copy where the file
+ * system can't link. Cached files are read-only, and the build deletes the outputs of a
+ * step before it builds it, so the entry isn't written through the link.
+ * <li>Restoring an entry updates its time stamp. When the cache grows beyond its size, the
+ * entries used least recently are evicted: moved to tmp/ atomically and deleted there.
+ * A builder that loses an entry while restoring it builds the step instead.
+ * </ul>
+ */
+class BuildCache {
+
+    /** How long a file in tmp/ may be left by a builder that died before it is deleted. */
+    private static final long TMP_MAX_AGE = TimeUnit.DAYS.toMillis(1);
+
+    private final File dir;
+
+    private final File tmpDir;
+
+    private final long maxSize;
+
+    /**
+     * @param dir the cache directory.
+     * @param maxSize the size in bytes to trim the cache to.
+     */
+    BuildCache(File dir, long maxSize) {
+        this.dir = dir;
+        this.tmpDir = new File(dir, "tmp");
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Returns true if the cache has an entry for the given key.
+     */
+    boolean contains(String key) {
+        return getEntry(key).isDirectory();
+    }
+
+    /**
+     * Restores the outputs of a step from the entry of the given key.
+     *
+     * @return false if there is no (complete) entry, then no output is left behind.
+     */
+    boolean restore(BuildStep step, String key) {
+        File entry = getEntry(key);
+        List<File> outputs = new ArrayList<File>(new TreeSet<File>(step.getOutputs()));
+        try {
+            for (int i = 0; i < outputs.size(); i++) {
+                File cached = new File(entry, Integer.toString(i));
+                File output = outputs.get(i);
+                File parent = output.getAbsoluteFile().getParentFile();
+                if (!parent.exists() && !parent.mkdirs()) {
+                    throw new IOException("failed to create dir: " + parent.getAbsolutePath());
+                }
+                Files.deleteIfExists(output.toPath());
+                try {
+                    Files.createLink(output.toPath(), cached.toPath());
+                } catch (IOException | UnsupportedOperationException e) {
+                    Files.copy(cached.toPath(), output.toPath());
+                }
+            }
+        } catch (IOException e) {
+            for (File output : outputs) {
+                output.delete();
+            }
+            return false;
+        }
+        entry.setLastModified(System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * Stores the outputs of a step as the entry of the given key, unless there is one
+     * already. Steps with an output that isn't a file (e.g. a folder of classes) aren't
+     * stored.
+     */
+    void store(BuildStep step, String key) throws IOException {
+        File entry = getEntry(key);
+        List<File> outputs = new ArrayList<File>(new TreeSet<File>(step.getOutputs()));
+        for (File output : outputs) {
+            if (!output.isFile()) {
+                return;
+            }
+        }
+        if (entry.isDirectory()) {
+            return;
+        }
+
+        File tmp = newTmpFile(key);
+        try {
+            if (!tmp.mkdirs()) {
+                throw new IOException("failed to create dir: " + tmp.getAbsolutePath());
+            }
+            // Copied rather than linked: the build may write to its outputs again. The
+            // copies are read-only, so that a writer that doesn't delete a restored output
+            // first fails rather than changes the entry.
+            for (int i = 0; i < outputs.size(); i++) {
+                File cached = new File(tmp, Integer.toString(i));
+                Files.copy(outputs.get(i).toPath(), cached.toPath());
+                cached.setReadOnly();
+            }
+            File parent = entry.getParentFile();
+            if (!parent.exists() && !parent.mkdirs() && !parent.isDirectory()) {
+                throw new IOException("failed to create dir: " + parent.getAbsolutePath());
+            }
+            try {
+                Files.move(tmp.toPath(), entry.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another builder stored the same outputs first.
+            } catch (IOException e) {
+                if (!entry.isDirectory()) {
+                    throw e;
+                }
+            }
+        } finally {
+            delete(tmp);
+        }
+    }
+
+    /**
+     * Evicts the entries used least recently until the cache fits its size, and deletes
+     * what builders that died left in tmp/.
+     */
+    void trim() {
+        File[] tmpFiles = tmpDir.listFiles();
+        if (tmpFiles != null) {
+            long now = System.currentTimeMillis();
+            for (File tmpFile : tmpFiles) {
+                if (now - tmpFile.lastModified() > TMP_MAX_AGE) {
+                    delete(tmpFile);
+                }
+            }
+        }
+
+        List<File> entries = new ArrayList<File>();
+        long size = 0;
+        File[] prefixes = dir.listFiles();
+        if (prefixes == null) {
+            return;
+        }
+        for (File prefix : prefixes) {
+            File[] prefixEntries = prefix.equals(tmpDir) ? null : prefix.listFiles();
+            if (prefixEntries == null) {
+                continue;
+            }
+            for (File entry : prefixEntries) {
+                entries.add(entry);
+                size += sizeOf(entry);
+            }
+        }
+        if (size <= maxSize) {
+            return;
+        }
+
+        final Map<File, Long> lastUsed = new HashMap<File, Long>();
+        for (File entry : entries) {
+            lastUsed.put(entry, entry.lastModified());
+        }
+        Collections.sort(entries, new Comparator<File>() {
+            public int compare(File e1, File e2) {
+                return Long.compare(lastUsed.get(e1), lastUsed.get(e2));
+            }
+        });
+        for (File entry : entries) {
+            if (size <= maxSize) {
+                break;
+            }
+            long entrySize = sizeOf(entry);
+            File evicted = newTmpFile(entry.getName());
+            try {
+                tmpDir.mkdirs();
+                Files.move(entry.toPath(), evicted.toPath(), StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                // Evicted by another builder.
+                continue;
+            }
+            delete(evicted);
+            size -= entrySize;
+        }
+    }
+
+    private File getEntry(String key) {
+        return new File(new File(dir, key.substring(0, 2)), key);
+    }
+
+    private File newTmpFile(String name) {
+        return new File(tmpDir, name + "." + UUID.randomUUID());
+    }
+
+    private static long sizeOf(File entry) {
+        long size = 0;
+        File[] files = entry.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                size += file.length();
+            }
+        }
+        return size;
+    }
+
+    private static void delete(File file) {
+        File[] children = file.listFiles();
+        if (children != null) {
+            for (File child : children) {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+}
@@ -16,37 +16,23 @@
 
 package util.build;
 
-import com.android.dex.util.FileUtils;
-
-import dot.junit.AllTests;
 import util.build.BuildStep.BuildFile;
 
-import junit.framework.TestCase;
-import junit.framework.TestResult;
-import junit.framework.TestSuite;
-import junit.textui.TestRunner;
-
-import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.OutputStreamWriter;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Scanner;
+import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.Map.Entry;
-import java.util.regex.MatchResult;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Main class to generate data from the test suite to later run from a shell
@@ -61,6 +47,43 @@ public class BuildDalvikSuite {
 
     public static boolean DEBUG = true;
 
+    /**
+     * Whether to write the generated sources to disk even if they are compiled from memory,
+     * to debug the generator. Set with -Dvm-tests.keep-generated-sources=true.
+     */
+    public static boolean KEEP_GENERATED_SOURCES =
+            Boolean.getBoolean("vm-tests.keep-generated-sources");
+
+    /**
+     * The source files (.d, .dfh or .java) that changed since the last build, separated by
+     * the path separator, or null. If given, only the outputs of the tests affected by
+     * them are built, see {@link TestDependencies}. Set with -Dvm-tests.changed-files=...
+     */
+    public static String CHANGED_FILES = System.getProperty("vm-tests.changed-files");
+
+    /**
+     * A directory to share the outputs of build steps through, e.g. between the builds of
+     * several trees on a shared mount, see {@link BuildCache}, or null. Set with
+     * -Dvm-tests.cache-dir=..., and the size it is trimmed to with
+     * -Dvm-tests.cache-size-mb=... (2048 by default).
+     */
+    public static String CACHE_DIR = System.getProperty("vm-tests.cache-dir");
+
+    /**
+     * Whether the generated host tests run the tests of a JUnit_ class in a pool of
+     * long-lived VMs with dot.junit.BatchWorkerPool, rather than one VM per test. Set with
+     * -Dvm-tests.batch-host-tests=true, the number of VMs with -Dvm-tests.batch-workers=...
+     * (4 by default) and how long a test may run with -Dvm-tests.batch-test-timeout-s=...
+     * (120 by default).
+     */
+    public static boolean BATCH_HOST_TESTS = Boolean.getBoolean("vm-tests.batch-host-tests");
+
+    public static int BATCH_WORKERS = Integer.getInteger("vm-tests.batch-workers", 4);
+
+    public static long BATCH_TEST_TIMEOUT_S = Long.getLong("vm-tests.batch-test-timeout-s", 120);
+
+    public static long CACHE_SIZE_MB = Long.getLong("vm-tests.cache-size-mb", 2048);
+
     private static String JAVASRC_FOLDER = "";
     private static String MAIN_SRC_OUTPUT_FOLDER = "";
 
@@ -70,13 +93,14 @@ public class BuildDalvikSuite {
     private static String OUTPUT_FOLDER = "";
     private static String COMPILED_CLASSES_FOLDER = "";
 
-    private static String CLASSES_OUTPUT_FOLDER = "";
     private static String HOSTJUNIT_CLASSES_OUTPUT_FOLDER = "";
 
     private static String CLASS_PATH = "";
 
     private static String restrictTo = null; // e.g. restrict to "opcodes.add_double"
 
+    private static final String ALL_TESTS_CLASS = "dot.junit.AllTests";
+
     private static final String TARGET_JAR_ROOT_PATH = "/data/local/tmp/vm-tests";
 
     private int testClassCnt = 0;
@@ -93,8 +117,25 @@ public class BuildDalvikSuite {
     private LinkedHashMap<String, List<String>> map = new LinkedHashMap<String,
     List<String>>();
 
+    /** The parsed source of each test class, by fully qualified name. */
+    private Map<String, TestSourceIndex> sourceIndexes =
+            new ConcurrentHashMap<String, TestSourceIndex>();
+
+    /** The sources and outputs of each test class, as of the last build. */
+    private TestDependencies testDependencies;
+
+    /**
+     * The test classes whose outputs are built, or null for all. Only the build steps of
+     * these are run, everything else is kept from the last build.
+     */
+    private Set<String> affectedTests;
+
+    /** The steps dexing the classes the tests of a package use, by output folder. */
+    private Map<File, DexBatchBuildStep> dexBatches = new HashMap<File, DexBatchBuildStep>();
+
     private class MethodData {
         String methodBody, constraint, title;
+        Set<String> dependencies;
     }
 
     /**
@@ -124,7 +165,6 @@ public class BuildDalvikSuite {
           OUTPUT_FOLDER = args[1];
           CLASS_PATH = args[2];
           MAIN_SRC_OUTPUT_FOLDER = args[3];
-          CLASSES_OUTPUT_FOLDER = MAIN_SRC_OUTPUT_FOLDER + "/classes";
 
           COMPILED_CLASSES_FOLDER = args[4];
 
@@ -154,18 +194,55 @@ public class BuildDalvikSuite {
 
     public void compose() throws IOException {
         System.out.println("Collecting all junit tests...");
-        new TestRunner() {
-            @Override
-            protected TestResult createTestResult() {
-                return new TestResult() {
-                    @Override
-                    protected void run(TestCase test) {
-                        addToTests(test);
-                    }
-
-                };
+        // The tests are found in the sources rather than by loading and running the
+        // suite: the test classes are listed by AllTests.java, and the source of each
+        // one (within the restriction) is parsed once, in parallel, for its test methods.
+        List<String> allTestClasses = TestDiscovery.listTestClasses(new File(JAVASRC_FOLDER),
+                ALL_TESTS_CLASS);
+        List<String> testClasses = new ArrayList<String>();
+        for (String fqcn : allTestClasses) {
+            // ignore all tests not belonging to the given restriction
+            if (restrictTo == null || fqcn.contains(restrictTo)) {
+                testClasses.add(fqcn);
+            }
+        }
+
+        testDependencies = TestDependencies.load(
+                new File(MAIN_SRC_OUTPUT_FOLDER, "test.dependencies"));
+        testDependencies.retainTests(allTestClasses);
+        if (CHANGED_FILES != null) {
+            List<File> changedFiles = new ArrayList<File>();
+            for (String changedFile : CHANGED_FILES.split(File.pathSeparator)) {
+                if (!changedFile.isEmpty()) {
+                    changedFiles.add(new File(changedFile));
+                }
+            }
+            affectedTests = testDependencies.getAffectedTests(changedFiles);
+            if (affectedTests == null) {
+                System.out.println("changed files not known from the last build, " +
+                        "building all tests");
+            } else {
+                Set<String> outputs = testDependencies.getOutputs(affectedTests);
+                System.out.println(affectedTests.size() + " test classes with " +
+                        outputs.size() + " outputs affected by the changed files:");
+                for (String output : outputs) {
+                    System.out.println("  " + output);
+                }
+            }
+        }
+        testClasses.parallelStream().distinct().forEach(fqcn -> {
+            int lastDotPos = fqcn.lastIndexOf('.');
+            String pName = fqcn.substring(0, lastDotPos);
+            String classOnlyName = fqcn.substring(lastDotPos + 1);
+            String path = pName.replaceAll("\\.", "/");
+            File source = new File(JAVASRC_FOLDER + "/" + path + "/" + classOnlyName + ".java");
+            sourceIndexes.put(fqcn, new TestSourceIndex(pName, classOnlyName, source));
+        });
+        for (String fqcn : testClasses) {
+            for (String method : sourceIndexes.get(fqcn).getTestMethods()) {
+                addToTests(fqcn, method);
             }
-        }.doRun(AllTests.suite());
+        }
 
         // for each combination of TestClass and method, generate a Main_testN1
         // class in the respective package.
@@ -177,19 +254,11 @@ public class BuildDalvikSuite {
         handleTests();
     }
 
-    private void addToTests(TestCase test) {
-
-        String packageName = test.getClass().getPackage().getName();
-        packageName = packageName.substring(packageName.lastIndexOf('.'));
-
-
-        String method = test.getName(); // e.g. testVFE2
-        String fqcn = test.getClass().getName(); // e.g.
-        // dxc.junit.opcodes.iload_3.Test_iload_3
-
-        // ignore all tests not belonging to the given restriction
-        if (restrictTo != null && !fqcn.contains(restrictTo)) return;
-
+    /**
+     * @param fqcn e.g. dxc.junit.opcodes.iload_3.Test_iload_3
+     * @param method e.g. testVFE2
+     */
+    private void addToTests(String fqcn, String method) {
         testMethodsCnt++;
         List<String> li = map.get(fqcn);
         if (li == null) {
@@ -201,22 +270,28 @@ public class BuildDalvikSuite {
     }
     private String curJunitFileName = null;
     private String curJunitName = null;
-    private String curJunitFileData = "";
+    private StringBuilder curJunitFileData = null;
+    /** The tests of the current JUnit_ class as BatchMain arguments, if batched. */
+    private StringBuilder curJunitBatch = null;
 
     private SourceBuildStep hostJunitBuildStep;
 
+    private GeneratedSources generatedSources;
+
     private void flushHostJunitFile() {
         if (curJunitFileName != null) {
             File toWrite = new File(curJunitFileName);
-            String absPath = toWrite.getAbsolutePath();
-            // add to java source files for later compilation
-            hostJunitBuildStep.addSourceFile(absPath);
-            // write file
-            curJunitFileData += "\n}\n";
-            writeToFileMkdir(toWrite, curJunitFileData);
+            if (BATCH_HOST_TESTS) {
+                curJunitFileData.append(getBatchRunnerCode(curJunitBatch.toString()));
+            }
+            curJunitFileData.append("\n}\n");
+            // add to java sources for later compilation
+            addGeneratedSource(hostJunitBuildStep, curJunitName, toWrite, curJunitFileData);
 
             curJunitFileName = null;
-            curJunitFileData = "";
+            curJunitName = null;
+            curJunitFileData = null;
+            curJunitBatch = null;
         }
     }
 
@@ -228,17 +303,21 @@ public class BuildDalvikSuite {
         // prepare current testcase-file
         curJunitFileName = HOSTJUNIT_SRC_OUTPUT_FOLDER + "/" + pName.replaceAll("\\.","/") + "/" +
         sourceName + ".java";
-        curJunitFileData = getWarningMessage() +
-        "package " + pName + ";\n" +
-        "import java.io.IOException;\n" +
-        "import java.util.concurrent.TimeUnit;\n\n" +
-        "import com.android.tradefed.device.CollectingOutputReceiver;\n" +
-        "import com.android.tradefed.testtype.IAbi;\n" +
-        "import com.android.tradefed.testtype.IAbiReceiver;\n" +
-        "import com.android.tradefed.testtype.DeviceTestCase;\n" +
-        "import com.android.tradefed.util.AbiFormatter;\n" +
-        "\n" +
-        "public class " + sourceName + " extends DeviceTestCase implements IAbiReceiver {\n";
+        curJunitName = pName + "." + sourceName;
+        curJunitFileData = new StringBuilder();
+        curJunitBatch = new StringBuilder();
+        curJunitFileData.append(getWarningMessage())
+        .append("package ").append(pName).append(";\n")
+        .append("import java.io.IOException;\n")
+        .append("import java.util.concurrent.TimeUnit;\n\n")
+        .append("import com.android.tradefed.device.CollectingOutputReceiver;\n")
+        .append("import com.android.tradefed.testtype.IAbi;\n")
+        .append("import com.android.tradefed.testtype.IAbiReceiver;\n")
+        .append("import com.android.tradefed.testtype.DeviceTestCase;\n")
+        .append("import com.android.tradefed.util.AbiFormatter;\n")
+        .append("\n")
+        .append("public class ").append(sourceName)
+        .append(" extends DeviceTestCase implements IAbiReceiver {\n");
     }
 
     private String getShellExecJavaLine(String classpath, String mainclass) {
@@ -256,51 +335,124 @@ public class BuildDalvikSuite {
       return code.toString();
     }
 
+    /**
+     * Returns the code that runs the tests of a JUnit_ class in a pool of worker VMs, see
+     * dot.junit.BatchWorkerPool, and keeps the result of each test: "" if the test passed,
+     * what went wrong otherwise. As when a test runs on its own, a test that writes
+     * anything to the output fails.
+     */
+    private String getBatchRunnerCode(String batchTests) {
+      final String targetCoreJarPath = String.format("%s/dot/junit/dexcore.jar",
+              TARGET_JAR_ROOT_PATH);
+      String mainsJar = String.format("%s/%s", TARGET_JAR_ROOT_PATH, TARGET_MAIN_FILE);
+      String cmd = String.format("ANDROID_DATA=%s dalvikvm|#ABI#| -Xmx512M -Xss32K " +
+              "-Djava.io.tmpdir=%s -classpath %s dot.junit.BatchMain %s:%s", TARGET_JAR_ROOT_PATH,
+              TARGET_JAR_ROOT_PATH, targetCoreJarPath, targetCoreJarPath, mainsJar);
+      StringBuilder code = new StringBuilder();
+      code.append("// The tests of this class run in a pool of VMs, see dot.junit.BatchWorkerPool.")
+          .append("\n")
+          .append("private static final String BATCH_TESTS = \"").append(batchTests).append("\";\n")
+          .append("private static final java.util.Map<String, java.util.Map<String, String>> ")
+          .append("sBatchResults =\n")
+          .append("        new java.util.HashMap<String, java.util.Map<String, String>>();\n\n")
+          .append("private String getBatchResult(String mainClass) throws Exception {\n")
+          .append("    java.util.Map<String, String> results = ")
+          .append("sBatchResults.get(mAbi.getBitness());\n")
+          .append("    if (results == null) {\n")
+          .append("        String cmd = AbiFormatter.formatCmdForAbi(\"")
+          .append(cmd)
+          .append("\", mAbi.getBitness());\n")
+          .append("        dot.junit.BatchWorkerPool pool = new dot.junit.BatchWorkerPool(\n")
+          .append("                dot.junit.CommandLauncher.forDevice(")
+          .append("getDevice().getSerialNumber(), cmd),\n")
+          .append("                ").append(BATCH_WORKERS).append(", ")
+          .append(BATCH_TEST_TIMEOUT_S).append(", TimeUnit.SECONDS);\n")
+          .append("        results = pool.runAll(")
+          .append("java.util.Arrays.asList(BATCH_TESTS.trim().split(\" \")));\n")
+          .append("        sBatchResults.put(mAbi.getBitness(), results);\n")
+          .append("    }\n")
+          .append("    String result = results.get(mainClass);\n")
+          .append("    return result != null ? result : \"not run\";\n")
+          .append("}\n");
+      return code.toString();
+    }
+
     private String getWarningMessage() {
         return "//Autogenerated code by " + this.getClass().getName() + "; do not edit.\n";
     }
 
     private void addCTSHostMethod(String pName, String method, MethodData md,
             Set<String> dependentTestClassNames) {
-        curJunitFileData += "public void " + method + "() throws Exception {\n";
+        curJunitFileData.append("public void ").append(method).append("() throws Exception {\n");
         final String targetCoreJarPath = String.format("%s/dot/junit/dexcore.jar",
                 TARGET_JAR_ROOT_PATH);
 
         String mainsJar = String.format("%s/%s", TARGET_JAR_ROOT_PATH, TARGET_MAIN_FILE);
 
-        String cp = String.format("%s:%s", targetCoreJarPath, mainsJar);
+        StringBuilder cp = new StringBuilder();
+        cp.append(targetCoreJarPath).append(':').append(mainsJar);
+        StringBuilder testCp = new StringBuilder();
         for (String depFqcn : dependentTestClassNames) {
             String sourceName = depFqcn.replaceAll("\\.", "/") + ".jar";
             String targetName= String.format("%s/%s", TARGET_JAR_ROOT_PATH,
                     sourceName);
-            cp += ":" + targetName;
+            cp.append(':').append(targetName);
+            testCp.append(testCp.length() == 0 ? "" : ":").append(targetName);
             // dot.junit.opcodes.invoke_interface_range.ITest
             // -> dot/junit/opcodes/invoke_interface_range/ITest.jar
         }
 
         //"dot.junit.opcodes.add_double_2addr.Main_testN2";
         String mainclass = pName + ".Main_" + method;
-        curJunitFileData += getShellExecJavaLine(cp, mainclass);
-        curJunitFileData += "\n}\n\n";
+        if (BATCH_HOST_TESTS) {
+            // BatchMain adds the class path of the test to dexcore.jar and mains.jar.
+            curJunitBatch.append(' ').append(mainclass).append('=').append(testCp);
+            curJunitFileData.append("    assertEquals(\"").append(mainclass)
+                    .append("\", \"\", getBatchResult(\"").append(mainclass).append("\"));");
+        } else {
+            curJunitFileData.append(getShellExecJavaLine(cp.toString(), mainclass));
+        }
+        curJunitFileData.append("\n}\n\n");
     }
 
     private void handleTests() throws IOException {
         System.out.println("collected " + testMethodsCnt + " test methods in " +
                 testClassCnt + " junit test classes");
-        String datafileContent = "";
+        StringBuilder datafileContent = new StringBuilder();
         Set<BuildStep> targets = new TreeSet<BuildStep>();
 
         SourceBuildStep srcBuildStep;
         hostJunitBuildStep = new JavacBuildStep(
             HOSTJUNIT_CLASSES_OUTPUT_FOLDER, CLASS_PATH);
+        if (BATCH_HOST_TESTS) {
+            // The host tests drive the worker pool, so it goes into their jar.
+            for (String poolClass : new String[] {"BatchMain", "BatchWorkerPool",
+                    "CommandLauncher", "ProcessLauncher"}) {
+                hostJunitBuildStep.addSourceFile(new File(JAVASRC_FOLDER,
+                        "dot/junit/" + poolClass + ".java").getAbsolutePath());
+            }
+        }
 
         String mainsJar = OUTPUT_FOLDER + File.separator + TARGET_MAIN_FILE;
         if (useJack) {
             srcBuildStep = new JackBuildStep(mainsJar,
             CLASS_PATH);
         } else {
-            srcBuildStep = new JavacBuildStep(CLASSES_OUTPUT_FOLDER, CLASS_PATH);
+            // The mains are compiled and dexed in memory.
+            srcBuildStep = new JavacDexBuildStep(mainsJar, CLASS_PATH);
+        }
+
+        // Steps whose inputs didn't change since the last build are skipped. The manifest
+        // also knows the hashes of the sources generated by the last build, so that the
+        // ones that didn't change aren't written (and compiled) again.
+        BuildManifest manifest = BuildManifest.load(
+                new File(MAIN_SRC_OUTPUT_FOLDER, "buildsteps.manifest"));
+        generatedSources = new GeneratedSources(manifest);
+        if (affectedTests != null) {
+            manifest.keepPreviousSteps();
         }
+        BuildCache cache = CACHE_DIR == null ? null
+                : new BuildCache(new File(CACHE_DIR), CACHE_SIZE_MB * 1024 * 1024);
 
         for (Entry<String, List<String>> entry : map.entrySet()) {
 
@@ -309,15 +461,27 @@ public class BuildDalvikSuite {
             String pName = fqcn.substring(0, lastDotPos);
             String classOnlyName = fqcn.substring(lastDotPos + 1);
             String instPrefix = "new " + classOnlyName + "()";
+            TestSourceIndex sourceIndex = sourceIndexes.get(fqcn);
+
+            // Record what the test class is built from and what is built for it. The
+            // build steps of a test class that isn't affected by the changed files are
+            // left out.
+            Set<String> testSources = new HashSet<String>();
+            testSources.add(new File(JAVASRC_FOLDER, fqcn.replace('.', '/') + ".java")
+                    .getAbsolutePath());
+            Set<String> testOutputs = new HashSet<String>();
+            testOutputs.add(pName + ".JUnit_" + classOnlyName);
+            Set<BuildStep> testTargets = affectedTests == null || affectedTests.contains(fqcn)
+                    ? targets : new HashSet<BuildStep>();
 
             openCTSHostFileFor(pName, classOnlyName);
 
-            curJunitFileData += "\n" +
+            curJunitFileData.append("\n" +
                     "protected IAbi mAbi;\n" +
                     "@Override\n" +
                     "public void setAbi(IAbi abi) {\n" +
                     "    mAbi = abi;\n" +
-                    "}\n\n";
+                    "}\n\n");
 
             List<String> methods = entry.getValue();
             Collections.sort(methods, new Comparator<String>() {
@@ -341,11 +505,10 @@ public class BuildDalvikSuite {
                 // new dxc.junit.opcodes.aaload.Test_aaload().testN1();
                 // }
                 // }
-                MethodData md = parseTestMethod(pName, classOnlyName, method);
+                MethodData md = parseTestMethod(sourceIndex, pName, classOnlyName, method);
                 String methodContent = md.methodBody;
 
-                Set<String> dependentTestClassNames = parseTestClassName(pName,
-                        classOnlyName, methodContent);
+                Set<String> dependentTestClassNames = md.dependencies;
 
                 addCTSHostMethod(pName, method, md, dependentTestClassNames);
 
@@ -355,18 +518,19 @@ public class BuildDalvikSuite {
                 }
 
 
-                String content = getWarningMessage() +
-                "package " + pName + ";\n" +
-                "import " + pName + ".d.*;\n" +
-                "import dot.junit.*;\n" +
-                "public class Main_" + method + " extends DxAbstractMain {\n" +
-                "    public static void main(String[] args) throws Exception {" +
-                methodContent + "\n}\n";
-
-                File sourceFile = getFileFromPackage(pName, method);
+                StringBuilder content = new StringBuilder();
+                content.append(getWarningMessage())
+                .append("package ").append(pName).append(";\n")
+                .append("import ").append(pName).append(".d.*;\n")
+                .append("import dot.junit.*;\n")
+                .append("public class Main_").append(method).append(" extends DxAbstractMain {\n")
+                .append("    public static void main(String[] args) throws Exception {")
+                .append(methodContent).append("\n}\n");
 
-                writeToFile(sourceFile, content);
-                srcBuildStep.addSourceFile(sourceFile.getAbsolutePath());
+                File sourceFile = new File(MAIN_SRC_OUTPUT_FOLDER,
+                        getFileName(pName, method, ".java"));
+                addGeneratedSource(srcBuildStep, pName + ".Main_" + method, sourceFile,
+                        content);
 
                 // prepare the entry in the data file for the bash script.
                 // e.g.
@@ -395,9 +559,9 @@ public class BuildDalvikSuite {
                             + method + " for " + fqcn);
                 }
 
-                String line = pName + ".Main_" + method + ";";
+                datafileContent.append(pName).append(".Main_").append(method).append(';');
                 for (String className : dependentTestClassNames) {
-                    line += className + " ";
+                    datafileContent.append(className).append(' ');
                 }
 
 
@@ -444,61 +608,95 @@ public class BuildDalvikSuite {
                             + details.substring(1);
                 }
 
-                line += ";" + description + ";" + comment + ";" + details;
-
-                datafileContent += line + "\n";
+                datafileContent.append(';').append(description).append(';').append(comment)
+                        .append(';').append(details).append('\n');
+                testOutputs.add(pName + ".Main_" + method);
                 generateBuildStepFor(pName, method, dependentTestClassNames,
-                        targets);
+                        testTargets, testSources, testOutputs);
             }
 
+            testDependencies.setTest(fqcn, testSources, testOutputs);
 
-        }
-
-        if (!useJack) {
-          DxBuildStep dexBuildStep = new DxBuildStep(
-              new BuildStep.BuildFile(new File(CLASSES_OUTPUT_FOLDER)),
-              new BuildStep.BuildFile(new File(mainsJar)),
-              false);
 
-          targets.add(dexBuildStep);
         }
 
         // write latest HOSTJUNIT generated file.
         flushHostJunitFile();
 
+        testDependencies.save();
+
         File scriptDataDir = new File(OUTPUT_FOLDER + "/data/");
-        scriptDataDir.mkdirs();
-        writeToFile(new File(scriptDataDir, "scriptdata"), datafileContent);
+        generatedSources.add(new File(scriptDataDir, "scriptdata"), datafileContent);
+
+        generatedSources.write();
+        System.out.println("wrote " + generatedSources.getWrittenCount()
+                + " changed generated files");
 
-        if (!hostJunitBuildStep.build()) {
+        if (!buildSourceStep(hostJunitBuildStep, manifest, cache)) {
             System.out.println("main javac cts-host-hostjunit-classes build step failed");
             System.exit(1);
         }
 
-        if (!srcBuildStep.build()) {
+        if (!buildSourceStep(srcBuildStep, manifest, cache)) {
             System.out.println("main src dalvik-cts-buildutil build step failed");
             System.exit(1);
         }
 
+        // The targets share some of their children, and most of them don't depend on
+        // each other: build each step once, and independent steps in parallel.
+        BuildGraph graph = new BuildGraph(manifest);
+        graph.setCache(cache);
         for (BuildStep buildStep : targets) {
-            if (!buildStep.build()) {
-                System.out.println("building failed. buildStep: " +
-                        buildStep.getClass().getName() + ", " + buildStep);
-                System.exit(1);
-            }
+            graph.add(buildStep);
+        }
+        boolean built = graph.build(Runtime.getRuntime().availableProcessors());
+        manifest.save();
+        if (!built) {
+            BuildStep buildStep = graph.getFailedStep();
+            System.out.println("building failed. buildStep: " +
+                    (buildStep == null ? null : buildStep.getClass().getName()) + ", "
+                    + buildStep);
+            System.exit(1);
+        }
+        manifest.removeOldOutputs();
+        System.out.println("built " + graph.getBuiltCount() + " of " + graph.size()
+                + " build steps" + (cache == null ? ""
+                        : ", " + graph.getRestoredCount() + " from the build cache"));
+        if (cache != null) {
+            cache.trim();
         }
     }
 
+    private static boolean buildSourceStep(SourceBuildStep buildStep, BuildManifest manifest,
+            BuildCache cache) throws IOException {
+        BuildGraph graph = new BuildGraph(manifest);
+        graph.setCache(cache);
+        graph.add(buildStep);
+        boolean built = graph.build(1);
+        manifest.save();
+        return built;
+    }
+
     private void generateBuildStepFor(String pName, String method,
-            Set<String> dependentTestClassNames, Set<BuildStep> targets) {
+            Set<String> dependentTestClassNames, Set<BuildStep> targets,
+            Set<String> sources, Set<String> outputs) {
 
 
         for (String dependentTestClassName : dependentTestClassNames) {
-            generateBuildStepForDependant(dependentTestClassName, targets);
+            File source = generateBuildStepForDependant(dependentTestClassName, targets);
+            if (source != null) {
+                sources.add(source.getAbsolutePath());
+            }
+            outputs.add(new File(OUTPUT_FOLDER,
+                    dependentTestClassName.replace('.', '/').trim() + ".jar").getPath());
         }
     }
 
-    private void generateBuildStepForDependant(String dependentTestClassName,
+    /**
+     * Returns the source file the build steps are for, or null if the class is taken from
+     * the class path.
+     */
+    private File generateBuildStepForDependant(String dependentTestClassName,
             Set<BuildStep> targets) {
 
         File sourceFolder = new File(JAVASRC_FOLDER);
@@ -520,7 +718,7 @@ public class BuildDalvikSuite {
             jarBuildStep.addChild(buildStep);
 
             targets.add(jarBuildStep);
-            return;
+            return inputFile.fileName;
         }
 
         if (new File(sourceFolder, fileName + ".d").exists()) {
@@ -539,7 +737,7 @@ public class BuildDalvikSuite {
                     "classes.dex", jarFile, true);
             jarBuildStep.addChild(buildStep);
             targets.add(jarBuildStep);
-            return;
+            return inputFile.fileName;
         }
 
         File srcFile = new File(sourceFolder, fileName + ".java");
@@ -556,7 +754,7 @@ public class BuildDalvikSuite {
                 COMPILED_CLASSES_FOLDER, fileName, null);
             }
             targets.add(dexBuildStep);
-            return;
+            return srcFile;
         }
 
         try {
@@ -576,7 +774,7 @@ public class BuildDalvikSuite {
                 BuildStep dexBuildStep = generateDexBuildStep(
                     COMPILED_CLASSES_FOLDER, fileName, jillBuildStep);
                 targets.add(dexBuildStep);
-                return;
+                return null;
             }
         } catch (ClassNotFoundException e) {
             // do nothing
@@ -589,29 +787,26 @@ public class BuildDalvikSuite {
     private BuildStep generateDexBuildStep(String classFileFolder,
             String classFileName, BuildStep dependency) {
         if (!useJack) {
+            // Classes are dexed in one batch per package rather than one dx run each.
+            File packageFolder = new File(OUTPUT_FOLDER, classFileName).getParentFile();
+            DexBatchBuildStep dexBuildStep = dexBatches.get(packageFolder);
+            if (dexBuildStep == null) {
+                dexBuildStep = new DexBatchBuildStep(packageFolder);
+                dexBatches.put(packageFolder, dexBuildStep);
+            }
+
             BuildStep.BuildFile classFile = new BuildStep.BuildFile(
                     classFileFolder, classFileName + ".class");
 
-            BuildStep.BuildFile tmpJarFile = new BuildStep.BuildFile(
-                    OUTPUT_FOLDER,
-                    classFileName + "_tmp.jar");
-
-            JarBuildStep jarBuildStep = new JarBuildStep(classFile,
-                    classFileName + ".class", tmpJarFile, false);
-
-            if (dependency != null) {
-                jarBuildStep.addChild(dependency);
-            }
-
             BuildStep.BuildFile outputFile = new BuildStep.BuildFile(
                     OUTPUT_FOLDER,
                     classFileName + ".jar");
 
-            DxBuildStep dexBuildStep = new DxBuildStep(tmpJarFile,
-                    outputFile,
-                    true);
+            dexBuildStep.addClassFile(classFile, classFileName + ".class", outputFile);
 
-            dexBuildStep.addChild(jarBuildStep);
+            if (dependency != null) {
+                dexBuildStep.addChild(dependency);
+            }
             return dexBuildStep;
         } else {
           BuildStep.BuildFile jackFile = new BuildStep.BuildFile(
@@ -634,165 +829,23 @@ public class BuildDalvikSuite {
 
     }
 
-    /**
-     * @param pName
-     * @param classOnlyName
-     * @param methodSource
-     * @return testclass names
-     */
-    private Set<String> parseTestClassName(String pName, String classOnlyName,
-            String methodSource) {
-        Set<String> entries = new HashSet<String>();
-        String opcodeName = classOnlyName.substring(5);
-
-        Scanner scanner = new Scanner(methodSource);
-
-        String[] patterns = new String[] {"new\\s(T_" + opcodeName + "\\w*)",
-                "(T_" + opcodeName + "\\w*)", "new\\s(T\\w*)"};
-
-        String token = null;
-        for (String pattern : patterns) {
-            token = scanner.findWithinHorizon(pattern, methodSource.length());
-            if (token != null) {
-                break;
-            }
-        }
-
-        if (token == null) {
-            System.err.println("warning: failed to find dependent test class name: " + pName +
-                    ", " + classOnlyName + " in methodSource:\n" + methodSource);
-            return entries;
-        }
-
-        MatchResult result = scanner.match();
-
-        entries.add((pName + ".d." + result.group(1)).trim());
-
-        // search additional @uses directives
-        Pattern p = Pattern.compile("@uses\\s+(.*)\\s+", Pattern.MULTILINE);
-        Matcher m = p.matcher(methodSource);
-        while (m.find()) {
-            String res = m.group(1);
-            entries.add(res.trim());
-        }
-
-        // search for " load(\"...\" " and add as dependency
-        Pattern loadPattern = Pattern.compile("load\\(\"([^\"]*)\"", Pattern.MULTILINE);
-        Matcher loadMatcher = loadPattern.matcher(methodSource);
-        while (loadMatcher.find()) {
-            String res = loadMatcher.group(1);
-            entries.add(res.trim());
-        }
-
-        // search for " loadAndRun(\"...\" " and add as dependency
-        Pattern loadAndRunPattern = Pattern.compile("loadAndRun\\(\"([^\"]*)\"", Pattern.MULTILINE);
-        Matcher loadAndRunMatcher = loadAndRunPattern.matcher(methodSource);
-        while (loadAndRunMatcher.find()) {
-            String res = loadAndRunMatcher.group(1);
-            entries.add(res.trim());
-        }
-
-        // lines with the form @uses
-        // dot.junit.opcodes.add_double.jm.T_add_double_2
-        // one dependency per one @uses
-        // TODO
-
-        return entries;
-    }
-
-    private MethodData parseTestMethod(String pname, String classOnlyName,
-            String method) {
-
-        String path = pname.replaceAll("\\.", "/");
-        String absPath = JAVASRC_FOLDER + "/" + path + "/" + classOnlyName + ".java";
-        File f = new File(absPath);
-
-        Scanner scanner;
-        try {
-            scanner = new Scanner(f);
-        } catch (FileNotFoundException e) {
-            throw new RuntimeException("error while reading to file: " + e.getClass().getName() +
-                    ", msg:" + e.getMessage());
-        }
-
-        String methodPattern = "public\\s+void\\s+" + method + "[^\\{]+\\{";
-
-        String token = scanner.findWithinHorizon(methodPattern, (int) f.length());
-        if (token == null) {
+    private MethodData parseTestMethod(TestSourceIndex sourceIndex, String pname,
+            String classOnlyName, String method) {
+        TestSourceIndex.TestMethod testMethod = sourceIndex.getMethod(method);
+        if (testMethod == null) {
+            String path = pname.replaceAll("\\.", "/");
+            String absPath = JAVASRC_FOLDER + "/" + path + "/" + classOnlyName + ".java";
             throw new RuntimeException("cannot find method source of 'public void " + method +
                     "' in file '" + absPath + "'");
         }
 
-        MatchResult result = scanner.match();
-        result.start();
-        result.end();
-
-        StringBuilder builder = new StringBuilder();
-        //builder.append(token);
-
-        try {
-            FileReader reader = new FileReader(f);
-            reader.skip(result.end());
-
-            char currentChar;
-            int blocks = 1;
-            while ((currentChar = (char) reader.read()) != -1 && blocks > 0) {
-                switch (currentChar) {
-                    case '}': {
-                        blocks--;
-                        builder.append(currentChar);
-                        break;
-                    }
-                    case '{': {
-                        blocks++;
-                        builder.append(currentChar);
-                        break;
-                    }
-                    default: {
-                        builder.append(currentChar);
-                        break;
-                    }
-                }
-            }
-            if (reader != null) {
-                reader.close();
-            }
-        } catch (Exception e) {
-            throw new RuntimeException("failed to parse", e);
-        }
-
-        // find the @title/@constraint in javadoc comment for this method
-        // using platform's default charset
-        String all = new String(FileUtils.readFile(f));
-        // System.out.println("grepping javadoc found for method " + method +
-        // " in " + pname + "," + classOnlyName);
-        String commentPattern = "/\\*\\*([^{]*)\\*/\\s*" + methodPattern;
-        Pattern p = Pattern.compile(commentPattern, Pattern.DOTALL);
-        Matcher m = p.matcher(all);
-        String title = null, constraint = null;
-        if (m.find()) {
-            String res = m.group(1);
-            // System.out.println("res: " + res);
-            // now grep @title and @constraint
-            Matcher titleM = Pattern.compile("@title (.*)", Pattern.DOTALL)
-            .matcher(res);
-            if (titleM.find()) {
-                title = titleM.group(1).replaceAll("\\n     \\*", "");
-                title = title.replaceAll("\\n", " ");
-                title = title.trim();
-                // System.out.println("title: " + title);
-            } else {
+        // the @title/@constraint in javadoc comment for this method
+        if (testMethod.hasJavadoc) {
+            if (testMethod.title == null) {
                 System.err.println("warning: no @title found for method " + method + " in " + pname +
                         "," + classOnlyName);
             }
-            // constraint can be one line only
-            Matcher constraintM = Pattern.compile("@constraint (.*)").matcher(
-                    res);
-            if (constraintM.find()) {
-                constraint = constraintM.group(1);
-                constraint = constraint.trim();
-                // System.out.println("constraint: " + constraint);
-            } else if (method.contains("VFE")) {
+            if (testMethod.constraint == null && method.contains("VFE")) {
                 System.err
                 .println("warning: no @constraint for for a VFE method:" + method + " in " +
                         pname + "," + classOnlyName);
@@ -801,62 +854,38 @@ public class BuildDalvikSuite {
             System.err.println("warning: no javadoc found for method " + method + " in " + pname +
                     "," + classOnlyName);
         }
+
         MethodData md = new MethodData();
-        md.methodBody = builder.toString();
-        md.constraint = constraint;
-        md.title = title;
-        if (scanner != null) {
-            scanner.close();
+        md.methodBody = testMethod.body;
+        md.constraint = testMethod.constraint;
+        md.title = testMethod.title;
+
+        // the test classes the method uses
+        md.dependencies = new HashSet<String>();
+        if (testMethod.dependencies == null) {
+            System.err.println("warning: failed to find dependent test class name: " + pname +
+                    ", " + classOnlyName + " in methodSource:\n" + testMethod.body);
+        } else {
+            md.dependencies.addAll(testMethod.dependencies);
         }
         return md;
     }
 
-    private void writeToFileMkdir(File file, String content) {
-        File parent = file.getParentFile();
-        if (!parent.exists() && !parent.mkdirs()) {
-            throw new RuntimeException("failed to create directory: " + parent.getAbsolutePath());
-        }
-        writeToFile(file, content);
-    }
-
-    private void writeToFile(File file, String content) {
-        try {
-            if (file.exists() && file.length() == content.length()) {
-                FileReader reader = new FileReader(file);
-                char[] charContents = new char[(int) file.length()];
-                reader.read(charContents);
-                reader.close();
-                String contents = new String(charContents);
-                if (contents.equals(content)) {
-                    // System.out.println("skipping identical: "
-                    // + file.getAbsolutePath());
-                    return;
-                }
+    /**
+     * Adds a generated source to a step. Javac compiles it from memory, it is only
+     * written to disk for other steps or if {@link #KEEP_GENERATED_SOURCES} is set.
+     */
+    private void addGeneratedSource(SourceBuildStep buildStep, String className,
+            File sourceFile, CharSequence content) {
+        if (buildStep instanceof JavacBuildStep) {
+            ((JavacBuildStep) buildStep).addSource(className, content);
+            if (KEEP_GENERATED_SOURCES) {
+                generatedSources.add(sourceFile, content);
             }
-
-            //System.out.println("writing file " + file.getAbsolutePath());
-
-            BufferedWriter bw = new BufferedWriter(new OutputStreamWriter(
-                    new FileOutputStream(file), "utf-8"));
-            bw.write(content);
-            bw.close();
-        } catch (Exception e) {
-            throw new RuntimeException("error while writing to file: " + e.getClass().getName() +
-                    ", msg:" + e.getMessage());
-        }
-    }
-
-    private File getFileFromPackage(String pname, String methodName)
-    throws IOException {
-        // e.g. dxc.junit.argsreturns.pargsreturn
-        String path = getFileName(pname, methodName, ".java");
-        String absPath = MAIN_SRC_OUTPUT_FOLDER + "/" + path;
-        File dirPath = new File(absPath);
-        File parent = dirPath.getParentFile();
-        if (!parent.exists() && !parent.mkdirs()) {
-            throw new IOException("failed to create directory: " + absPath);
+        } else {
+            generatedSources.add(sourceFile, content);
+            buildStep.addSourceFile(sourceFile.getAbsolutePath());
         }
-        return dirPath;
     }
 
     private String getFileName(String pname, String methodName,
@@ -0,0 +1,384 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import util.build.BuildStep.BuildFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BuildGraph builds a set of target steps together with all the steps they depend on.
+ * Steps are identified by their output file, so a step shared by several targets is only
+ * built once. A step is started as soon as all of its children are built, and steps that
+ * don't depend on each other are built in parallel on a fixed number of threads. The
+ * first step that fails stops the build: steps that weren't started yet are not built.
+ * <p>
+ * With a {@link BuildManifest}, steps that are up to date are skipped. The fingerprint
+ * of a step is a hash of its class, tool version, outputs and inputs. An input written by
+ * another step of the graph is represented by the fingerprint of that step (it may be a
+ * temporary file that doesn't exist anymore), any other input by its content hash. A
+ * step is built if its fingerprint or its outputs changed since it was last built, and
+ * it is a target or it is the child of a step that is built.
+ * <p>
+ * With a {@link BuildCache} as well, the outputs of targets that aren't up to date are
+ * taken from the cache if they are there, and stored in the cache when they are built.
+ * The cache key of a step is like its fingerprint, but with the names of its inputs and
+ * outputs rather than their paths, so that builds in other trees can share it. The
+ * children of a target that is restored from the cache aren't built, unless the cache
+ * fails to restore it after all.
+ */
+class BuildGraph {
+
+    /** All steps by output file, children before the steps that depend on them. */
+    private final Map<BuildFile, BuildStep> steps = new LinkedHashMap<BuildFile, BuildStep>();
+
+    /** For each step, the steps that need it to be built first. */
+    private final Map<BuildStep, List<BuildStep>> dependants =
+            new IdentityHashMap<BuildStep, List<BuildStep>>();
+
+    /** For each step, the number of its children that aren't built yet. */
+    private final Map<BuildStep, Integer> pending = new IdentityHashMap<BuildStep, Integer>();
+
+    /** Targets as added, as opposed to the steps they depend on. */
+    private final Set<BuildStep> targets =
+            Collections.newSetFromMap(new IdentityHashMap<BuildStep, Boolean>());
+
+    private final BuildManifest manifest;
+
+    private BuildCache cache;
+
+    private BuildStep failedStep;
+
+    private int builtCount;
+
+    private final AtomicInteger restoredCount = new AtomicInteger();
+
+    /**
+     * @param manifest the manifest to skip up-to-date steps with, or null to build all
+     *        steps.
+     */
+    BuildGraph(BuildManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    /**
+     * Adds a target and (recursively) its children. Steps with the same output file as
+     * a step already in the graph are replaced by that step.
+     */
+    void add(BuildStep target) {
+        targets.add(add(target, new HashMap<BuildFile, Boolean>()));
+    }
+
+    private BuildStep add(BuildStep step, Map<BuildFile, Boolean> visiting) {
+        BuildStep known = steps.get(step.outputFile);
+        if (known != null) {
+            return known;
+        }
+        if (visiting.put(step.outputFile, Boolean.TRUE) != null) {
+            throw new IllegalStateException("dependency cycle at " + step.outputFile.getPath());
+        }
+
+        int children = 0;
+        for (BuildStep child : step.getChildren()) {
+            BuildStep node = add(child, visiting);
+            List<BuildStep> list = dependants.get(node);
+            if (!list.contains(step)) {
+                list.add(step);
+                children++;
+            }
+        }
+
+        visiting.remove(step.outputFile);
+        steps.put(step.outputFile, step);
+        dependants.put(step, new ArrayList<BuildStep>());
+        pending.put(step, children);
+        return step;
+    }
+
+    /**
+     * Sets the cache to take the outputs of targets from, see {@link BuildCache}.
+     */
+    void setCache(BuildCache cache) {
+        this.cache = cache;
+    }
+
+    int size() {
+        return steps.size();
+    }
+
+    /**
+     * Returns the number of steps the last {@link #build(int)} built, as opposed to the
+     * ones it skipped.
+     */
+    int getBuiltCount() {
+        return builtCount;
+    }
+
+    /**
+     * Returns the number of the built steps that were restored from the cache.
+     */
+    int getRestoredCount() {
+        return restoredCount.get();
+    }
+
+    /**
+     * Returns the step that failed the last {@link #build(int)}, or null.
+     */
+    BuildStep getFailedStep() {
+        return failedStep;
+    }
+
+    /**
+     * Builds all steps of the graph using the given number of threads.
+     *
+     * @return true if all steps were built, false if a step failed (see
+     *         {@link #getFailedStep()}).
+     */
+    boolean build(int threads) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        CompletionService<Boolean> completion = new ExecutorCompletionService<Boolean>(executor);
+        Map<Future<Boolean>, BuildStep> running = new HashMap<Future<Boolean>, BuildStep>();
+
+        Map<BuildStep, String> fingerprints = new IdentityHashMap<BuildStep, String>();
+        Map<BuildStep, String> cacheKeys = new IdentityHashMap<BuildStep, String>();
+        Set<BuildStep> skipped = Collections.newSetFromMap(
+                new IdentityHashMap<BuildStep, Boolean>());
+        Set<BuildStep> cached = Collections.newSetFromMap(
+                new IdentityHashMap<BuildStep, Boolean>());
+        builtCount = 0;
+        restoredCount.set(0);
+        if (manifest != null) {
+            try {
+                findUpToDate(fingerprints, cacheKeys, skipped, cached);
+            } catch (IOException e) {
+                // Build everything rather than possibly leave something out.
+                System.err.println("failed to check for up-to-date steps: " + e);
+                fingerprints.clear();
+                cacheKeys.clear();
+                skipped.clear();
+                cached.clear();
+            }
+        }
+
+        try {
+            Deque<BuildStep> ready = new ArrayDeque<BuildStep>();
+            for (BuildStep step : steps.values()) {
+                if (pending.get(step) == 0) {
+                    ready.add(step);
+                }
+            }
+            start(ready, skipped, cached, cacheKeys, completion, running);
+
+            while (!running.isEmpty()) {
+                Future<Boolean> done = completion.take();
+                BuildStep step = running.remove(done);
+                boolean built;
+                try {
+                    built = done.get();
+                } catch (ExecutionException e) {
+                    System.err.println("exception while building " + step.outputFile.getPath());
+                    e.getCause().printStackTrace();
+                    built = false;
+                }
+                if (!built) {
+                    failedStep = step;
+                    if (manifest != null) {
+                        manifest.stepFailed(step);
+                    }
+                    return false;
+                }
+                if (fingerprints.containsKey(step)) {
+                    manifest.stepBuilt(step, fingerprints.get(step));
+                }
+                builtCount++;
+
+                done(step, ready);
+                start(ready, skipped, cached, cacheKeys, completion, running);
+            }
+            return true;
+        } catch (IOException e) {
+            System.err.println("failed to record build step: " + e);
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            executor.shutdownNow();
+            try {
+                // Let the steps that are still running finish, so that they don't write
+                // to the output folder or the console after we returned.
+                executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Computes the fingerprints (and cache keys) of all steps, which steps don't need to
+     * be built and which can be restored from the cache.
+     */
+    private void findUpToDate(Map<BuildStep, String> fingerprints,
+            Map<BuildStep, String> cacheKeys, Set<BuildStep> skipped, Set<BuildStep> cached)
+            throws IOException {
+        for (BuildStep step : steps.values()) {
+            StringBuilder description = new StringBuilder();
+            StringBuilder key = new StringBuilder();
+            description.append(step.getClass().getName()).append('\n');
+            description.append(step.getToolVersion()).append('\n');
+            key.append(description);
+            for (File output : new TreeSet<File>(step.getOutputs())) {
+                description.append("out ").append(output.getPath()).append('\n');
+                key.append("out ").append(output.getName()).append('\n');
+            }
+            for (File input : new TreeSet<File>(step.getInputs())) {
+                BuildStep producer = steps.get(new BuildFile(input));
+                boolean produced = producer != null && producer != step;
+                description.append("in ").append(input.getPath()).append(' ');
+                description.append(produced
+                        ? fingerprints.get(producer) : manifest.hash(input)).append('\n');
+                key.append("in ").append(input.getName()).append(' ');
+                key.append(produced
+                        ? cacheKeys.get(producer) : manifest.hash(input)).append('\n');
+            }
+            for (BuildStep child : step.getChildren()) {
+                BuildStep node = steps.get(child.outputFile);
+                description.append("child ").append(fingerprints.get(node)).append('\n');
+                key.append("child ").append(cacheKeys.get(node)).append('\n');
+            }
+            fingerprints.put(step, BuildManifest.digest(description.toString()));
+            cacheKeys.put(step, BuildManifest.digest(key.toString()));
+        }
+
+        // Dependants come after their children, so go backwards to know whether any of
+        // the dependants of a step is built before deciding about the step.
+        List<BuildStep> order = new ArrayList<BuildStep>(steps.values());
+        Set<BuildStep> needed = Collections.newSetFromMap(
+                new IdentityHashMap<BuildStep, Boolean>());
+        for (int i = order.size() - 1; i >= 0; i--) {
+            BuildStep step = order.get(i);
+            boolean wanted = targets.contains(step);
+            for (BuildStep dependant : dependants.get(step)) {
+                wanted |= needed.contains(dependant);
+            }
+            boolean upToDate = manifest.isUpToDate(step, fingerprints.get(step));
+            if (!wanted || upToDate) {
+                skipped.add(step);
+            } else if (cache != null && targets.contains(step)
+                    && cache.contains(cacheKeys.get(step))) {
+                // Its children aren't needed for this step.
+                cached.add(step);
+            } else {
+                needed.add(step);
+            }
+        }
+    }
+
+    /**
+     * Starts the steps that are ready, or marks them as done right away if they are
+     * skipped (which may make more steps ready).
+     */
+    private void start(Deque<BuildStep> ready, Set<BuildStep> skipped, Set<BuildStep> cached,
+            Map<BuildStep, String> cacheKeys, CompletionService<Boolean> completion,
+            Map<Future<Boolean>, BuildStep> running) {
+        while (!ready.isEmpty()) {
+            BuildStep step = ready.remove();
+            if (skipped.contains(step)) {
+                done(step, ready);
+            } else {
+                running.put(submit(completion, step, cacheKeys.get(step),
+                        cached.contains(step)), step);
+            }
+        }
+    }
+
+    private void done(BuildStep step, Deque<BuildStep> ready) {
+        for (BuildStep dependant : dependants.get(step)) {
+            int left = pending.get(dependant) - 1;
+            pending.put(dependant, left);
+            if (left == 0) {
+                ready.add(dependant);
+            }
+        }
+    }
+
+    private Future<Boolean> submit(CompletionService<Boolean> completion,
+            final BuildStep step, final String cacheKey, final boolean restore) {
+        if (cache == null || cacheKey == null) {
+            step.setChildrenBuilt();
+            return completion.submit(() -> {
+                deleteOutputs(step);
+                return step.build();
+            });
+        }
+        if (!restore) {
+            step.setChildrenBuilt();
+        }
+        return completion.submit(() -> {
+            if (restore && cache.restore(step, cacheKey)) {
+                restoredCount.incrementAndGet();
+                return true;
+            }
+            deleteOutputs(step);
+            // If the step couldn't be restored, its children weren't built and it builds
+            // them itself.
+            boolean built = step.build();
+            if (built && targets.contains(step)) {
+                try {
+                    cache.store(step, cacheKey);
+                } catch (IOException e) {
+                    System.err.println("failed to store " + step.outputFile.getPath()
+                            + " in the build cache: " + e);
+                }
+            }
+            return built;
+        });
+    }
+
+    /**
+     * Deletes the outputs of a step before it is built. They may be hard links to the
+     * files of a cache, by this build or an earlier one with a cache, which the step must
+     * not write to.
+     */
+    private static void deleteOutputs(BuildStep step) {
+        for (File output : step.getOutputs()) {
+            if (output.isFile()) {
+                output.delete();
+            }
+        }
+    }
+}
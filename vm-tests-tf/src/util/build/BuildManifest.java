@@ -0,0 +1,335 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.net.JarURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * BuildManifest remembers, across runs of the build, what each build step was last built
+ * from and what it produced, so that steps whose inputs didn't change can be skipped.
+ * <p>
+ * A step is recorded under its output file with its fingerprint (a hash of the step's
+ * tools, settings and inputs, see {@link BuildGraph}) and a hash of its outputs. The
+ * content hash of each file is recorded as well, together with its size and modification
+ * time: a file whose size and time didn't change isn't read again.
+ */
+class BuildManifest {
+
+    private static final String MISSING = "-";
+
+    private static final Map<Class<?>, String> toolVersions =
+            new ConcurrentHashMap<Class<?>, String>();
+
+    private final File file;
+
+    /** Content hashes by absolute path. */
+    private final Map<String, FileHash> files = new ConcurrentHashMap<String, FileHash>();
+
+    /** Steps recorded by a previous run, by output path. */
+    private final Map<String, StepRecord> previousSteps = new TreeMap<String, StepRecord>();
+
+    /** Steps recorded by this run, by output path. */
+    private final Map<String, StepRecord> steps = new ConcurrentHashMap<String, StepRecord>();
+
+    /** Output paths of all steps of this run, whether they were built or not. */
+    private final Set<String> seen = Collections.newSetFromMap(
+            new ConcurrentHashMap<String, Boolean>());
+
+    private static class FileHash {
+        final long length;
+        final long lastModified;
+        final String hash;
+
+        FileHash(long length, long lastModified, String hash) {
+            this.length = length;
+            this.lastModified = lastModified;
+            this.hash = hash;
+        }
+    }
+
+    private static class StepRecord {
+        final String fingerprint;
+        final String outputHash;
+
+        StepRecord(String fingerprint, String outputHash) {
+            this.fingerprint = fingerprint;
+            this.outputHash = outputHash;
+        }
+    }
+
+    private BuildManifest(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the manifest from the given file. A missing or unreadable file gives an empty
+     * manifest, which means all steps are built.
+     */
+    static BuildManifest load(File file) {
+        BuildManifest manifest = new BuildManifest(file);
+        if (!file.exists()) {
+            return manifest;
+        }
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length == 5 && fields[0].equals("file")) {
+                    manifest.files.put(fields[1], new FileHash(Long.parseLong(fields[2]),
+                            Long.parseLong(fields[3]), fields[4]));
+                } else if (fields.length == 4 && fields[0].equals("step")) {
+                    manifest.previousSteps.put(fields[1],
+                            new StepRecord(fields[2], fields[3]));
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            System.err.println("ignoring unreadable build manifest " + file.getAbsolutePath()
+                    + ": " + e);
+            manifest.files.clear();
+            manifest.previousSteps.clear();
+        }
+        return manifest;
+    }
+
+    /**
+     * Writes the manifest back. Only the steps recorded by this run are kept, and the
+     * hashes of the files that still exist.
+     */
+    void save() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("failed to create dir: " + parent.getAbsolutePath());
+        }
+        File tmp = new File(parent, file.getName() + ".tmp");
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+            for (Map.Entry<String, FileHash> entry : new TreeMap<String, FileHash>(files)
+                    .entrySet()) {
+                FileHash hash = entry.getValue();
+                if (new File(entry.getKey()).isFile()) {
+                    out.write("file\t" + entry.getKey() + "\t" + hash.length + "\t"
+                            + hash.lastModified + "\t" + hash.hash + "\n");
+                }
+            }
+            for (Map.Entry<String, StepRecord> entry : new TreeMap<String, StepRecord>(steps)
+                    .entrySet()) {
+                StepRecord step = entry.getValue();
+                out.write("step\t" + entry.getKey() + "\t" + step.fingerprint + "\t"
+                        + step.outputHash + "\n");
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Returns true if the step was recorded with this fingerprint, and its outputs are
+     * still the ones it produced then.
+     */
+    boolean isUpToDate(BuildStep step, String fingerprint) throws IOException {
+        String key = step.outputFile.getPath();
+        seen.add(key);
+        StepRecord record = steps.get(key);
+        if (record == null) {
+            record = previousSteps.get(key);
+        }
+        if (record != null && record.fingerprint.equals(fingerprint)
+                && record.outputHash.equals(hashOutputs(step))) {
+            steps.put(key, record);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Records that the step was built with this fingerprint.
+     */
+    void stepBuilt(BuildStep step, String fingerprint) throws IOException {
+        steps.put(step.outputFile.getPath(), new StepRecord(fingerprint, hashOutputs(step)));
+    }
+
+    /**
+     * Forgets the step, so that it is built by the next run.
+     */
+    void stepFailed(BuildStep step) {
+        String key = step.outputFile.getPath();
+        steps.remove(key);
+        previousSteps.remove(key);
+    }
+
+    /**
+     * Keeps the records of the previous run for the steps this run doesn't get to, for a
+     * run that only builds part of the suite. Their outputs are kept as well.
+     */
+    void keepPreviousSteps() {
+        for (Map.Entry<String, StepRecord> entry : previousSteps.entrySet()) {
+            steps.putIfAbsent(entry.getKey(), entry.getValue());
+            seen.add(entry.getKey());
+        }
+    }
+
+    /**
+     * Deletes the outputs of the steps of the previous run that are not part of this run
+     * (e.g. of a test that was removed), so that they don't end up in the suite.
+     */
+    void removeOldOutputs() {
+        for (String key : previousSteps.keySet()) {
+            File output = new File(key);
+            if (!seen.contains(key) && output.isFile()) {
+                output.delete();
+            }
+        }
+    }
+
+    private String hashOutputs(BuildStep step) throws IOException {
+        StringBuilder hashes = new StringBuilder();
+        for (File output : step.getOutputs()) {
+            hashes.append(output.getPath()).append('=').append(hash(output)).append('\n');
+        }
+        return digest(hashes.toString());
+    }
+
+    /**
+     * Returns the content hash of a file, or of all files in a folder, or a fixed value if
+     * the file doesn't exist.
+     */
+    String hash(File file) throws IOException {
+        if (file.isDirectory()) {
+            File[] children = file.listFiles();
+            if (children == null) {
+                throw new IOException("failed to list dir: " + file.getAbsolutePath());
+            }
+            Arrays.sort(children);
+            StringBuilder hashes = new StringBuilder();
+            for (File child : children) {
+                hashes.append(child.getName()).append('=').append(hash(child)).append('\n');
+            }
+            return digest(hashes.toString());
+        }
+        if (!file.isFile()) {
+            return MISSING;
+        }
+
+        String path = file.getAbsolutePath();
+        long length = file.length();
+        long lastModified = file.lastModified();
+        FileHash known = files.get(path);
+        if (known != null && known.length == length && known.lastModified == lastModified) {
+            return known.hash;
+        }
+        String hash;
+        try (InputStream in = new FileInputStream(file)) {
+            hash = digest(in);
+        }
+        files.put(path, new FileHash(length, lastModified, hash));
+        return hash;
+    }
+
+    /**
+     * Records the content hash of a file that was just written, so that it isn't read
+     * again to hash it.
+     */
+    void setHash(File file, String hash) {
+        files.put(file.getAbsolutePath(), new FileHash(file.length(), file.lastModified(), hash));
+    }
+
+    /**
+     * Returns a version of the tools given as classes: a hash of the jar (or class file)
+     * each class was loaded from. These are hashed once per run.
+     */
+    static String toolVersion(Class<?>... tools) {
+        StringBuilder version = new StringBuilder();
+        for (Class<?> tool : tools) {
+            String hash = toolVersions.get(tool);
+            if (hash == null) {
+                try {
+                    URL url = tool.getResource(tool.getSimpleName() + ".class");
+                    if (url == null) {
+                        hash = MISSING;
+                    } else if (url.getProtocol().equals("jar")) {
+                        URL jar = ((JarURLConnection) url.openConnection()).getJarFileURL();
+                        try (InputStream in = jar.openStream()) {
+                            hash = digest(in);
+                        }
+                    } else {
+                        try (InputStream in = url.openStream()) {
+                            hash = digest(in);
+                        }
+                    }
+                } catch (IOException e) {
+                    // Not knowing the version just means the steps will be built.
+                    hash = MISSING + e;
+                }
+                toolVersions.put(tool, hash);
+            }
+            version.append(tool.getName()).append('=').append(hash).append(' ');
+        }
+        return version.toString();
+    }
+
+    static String digest(String s) {
+        MessageDigest digest = newDigest();
+        return toHex(digest.digest(s.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static String digest(InputStream in) throws IOException {
+        MessageDigest digest = newDigest();
+        byte[] buffer = new byte[64 * 1024];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            digest.update(buffer, 0, read);
+        }
+        return toHex(digest.digest());
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(Character.forDigit((b >> 4) & 0xf, 16));
+            hex.append(Character.forDigit(b & 0xf, 16));
+        }
+        return hex.toString();
+    }
+}
@@ -21,6 +21,7 @@ import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.nio.channels.FileChannel;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Set;
 
@@ -79,9 +80,10 @@ abstract class BuildStep implements Comparable<BuildStep> {
     }
 
     private Set<BuildStep> children;
+    private boolean childrenBuilt;
 
     boolean build() {
-        if (children != null) {
+        if (children != null && !childrenBuilt) {
             for (BuildStep child : children) {
                 if (!child.build()) {
                     return false;
@@ -108,6 +110,41 @@ abstract class BuildStep implements Comparable<BuildStep> {
         children.add(child);
     }
 
+    Set<BuildStep> getChildren() {
+        return children == null ? Collections.<BuildStep>emptySet() : children;
+    }
+
+    /**
+     * Returns the files (or folders) this step reads.
+     */
+    Set<File> getInputs() {
+        return inputFile == null ? Collections.<File>emptySet()
+                : Collections.singleton(inputFile.fileName);
+    }
+
+    /**
+     * Returns the files (or folders) this step writes.
+     */
+    Set<File> getOutputs() {
+        return Collections.singleton(outputFile.fileName);
+    }
+
+    /**
+     * Returns a description of the tools and settings the outputs depend on besides the
+     * inputs. A step is built again when this changes, see {@link BuildManifest}.
+     */
+    String getToolVersion() {
+        return BuildManifest.toolVersion(getClass());
+    }
+
+    /**
+     * Tells this step that its children were already built (see {@link BuildGraph}), so
+     * that {@link #build()} only has to do the work of this step itself.
+     */
+    void setChildrenBuilt() {
+        childrenBuilt = true;
+    }
+
     public static void copyFile(File in, File out) throws IOException {
         FileChannel inChannel = new FileInputStream(in).getChannel();
         FileChannel outChannel = new FileOutputStream(out).getChannel();
@@ -64,6 +64,11 @@ public class DFHBuildStep extends BuildStep {
         return false;
     }
 
+    @Override
+    String getToolVersion() {
+        return BuildManifest.toolVersion(getClass(), ClassFileAssembler.class);
+    }
+
     @Override
     public boolean equals(Object obj) {
 
@@ -155,6 +155,12 @@ class DasmBuildStep extends BuildStep {
         }
     }
 
+    @Override
+    String getToolVersion() {
+        return BuildManifest.toolVersion(getClass(), DAsm.class)
+                + (generate_linenum ? "linenum" : "");
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (super.equals(obj)) {
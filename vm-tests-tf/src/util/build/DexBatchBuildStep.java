@@ -0,0 +1,204 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import com.android.dex.DexFormat;
+import com.android.dx.Version;
+import com.android.dx.cf.direct.DirectClassFile;
+import com.android.dx.cf.direct.StdAttributeFactory;
+import com.android.dx.command.dexer.Main;
+import com.android.dx.dex.DexOptions;
+import com.android.dx.dex.cf.CfOptions;
+import com.android.dx.dex.cf.CfTranslator;
+import com.android.dx.dex.file.DexFile;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.jar.Attributes;
+import java.util.jar.JarEntry;
+import java.util.jar.JarOutputStream;
+import java.util.jar.Manifest;
+
+/**
+ * DexBatchBuildStep dexes a group of class files (the dependencies of the tests of a
+ * package) and writes the dex of each class to its own jar, as a DxBuildStep on a jar
+ * holding only that class would. The classes are translated with the dx library
+ * directly, which saves a temporary jar, a dx run and a pair of build steps per class.
+ */
+public class DexBatchBuildStep extends BuildStep {
+
+    /** The class files to dex, by path relative to their class path root. */
+    private final Map<String, BuildFile> classFiles = new TreeMap<String, BuildFile>();
+
+    /** The jar to write for each class, by path relative to its class path root. */
+    private final Map<String, BuildFile> jarFiles = new TreeMap<String, BuildFile>();
+
+    /**
+     * @param outputFolder the folder the jars are written to. This identifies the step,
+     *        its outputs are the jars.
+     */
+    DexBatchBuildStep(File outputFolder) {
+        super(outputFolder);
+    }
+
+    /**
+     * Adds a class to the batch.
+     *
+     * @param classFile the class file.
+     * @param classFileName the path of the class file relative to its class path root,
+     *        e.g. "dot/junit/opcodes/iget/TestStubs.class".
+     * @param jarFile the jar to write the dex of the class to.
+     */
+    void addClassFile(BuildFile classFile, String classFileName, BuildFile jarFile) {
+        classFiles.put(classFileName, classFile);
+        jarFiles.put(classFileName, jarFile);
+    }
+
+    @Override
+    boolean build() {
+        if (super.build()) {
+            CfOptions cfOptions = newCfOptions();
+            DexOptions dexOptions = newDexOptions();
+            for (Map.Entry<String, BuildFile> entry : classFiles.entrySet()) {
+                File classFile = entry.getValue().fileName;
+                File jarFile = jarFiles.get(entry.getKey()).fileName;
+                try {
+                    byte[] bytes = Files.readAllBytes(classFile.toPath());
+                    DexFile dexFile = new DexFile(dexOptions);
+                    addClass(dexFile, entry.getKey(), bytes, cfOptions);
+                    writeJar(jarFile, dexFile.toDex(null, false));
+                } catch (Exception e) {
+                    System.err.println("exception while dexing "
+                            + classFile.getAbsolutePath() + " to "
+                            + jarFile.getAbsolutePath());
+                    e.printStackTrace(System.err);
+                    jarFile.delete();
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the class file options a dx run without arguments would use.
+     */
+    static CfOptions newCfOptions() {
+        Main.Arguments args = new Main.Arguments();
+        CfOptions cfOptions = new CfOptions();
+        cfOptions.positionInfo = args.positionInfo;
+        cfOptions.localInfo = args.localInfo;
+        cfOptions.strictNameCheck = args.strictNameCheck;
+        cfOptions.optimize = args.optimize;
+        cfOptions.warn = System.err;
+        return cfOptions;
+    }
+
+    /**
+     * Returns the dex options a dx run without arguments would use.
+     */
+    static DexOptions newDexOptions() {
+        DexOptions dexOptions = new DexOptions();
+        dexOptions.forceJumbo = new Main.Arguments().forceJumbo;
+        return dexOptions;
+    }
+
+    /**
+     * Translates a class file and adds it to the given dex, as dx does.
+     *
+     * @param classFileName the path of the class file relative to its class path root.
+     */
+    static void addClass(DexFile dexFile, String classFileName, byte[] bytes,
+            CfOptions cfOptions) {
+        DirectClassFile cf = new DirectClassFile(bytes, classFileName,
+                cfOptions.strictNameCheck);
+        cf.setAttributeFactory(StdAttributeFactory.THE_ONE);
+        cf.getMagic();
+        dexFile.add(CfTranslator.translate(cf, bytes, cfOptions, dexFile.getDexOptions(),
+                dexFile));
+    }
+
+    /**
+     * Writes a jar holding the given dex, with the manifest dx writes.
+     */
+    static void writeJar(File jarFile, byte[] dex) throws Exception {
+        File outDir = jarFile.getParentFile();
+        if (!outDir.exists() && !outDir.mkdirs()) {
+            throw new Exception("failed to create output dir: " + outDir.getAbsolutePath());
+        }
+
+        Manifest manifest = new Manifest();
+        Attributes attribs = manifest.getMainAttributes();
+        attribs.put(Attributes.Name.MANIFEST_VERSION, "1.0");
+        attribs.put(new Attributes.Name("Created-By"), "dx " + Version.VERSION);
+        attribs.putValue("Dex-Location", DexFormat.DEX_IN_JAR_NAME);
+
+        try (JarOutputStream jarOut = new JarOutputStream(new FileOutputStream(jarFile),
+                manifest)) {
+            JarEntry entry = new JarEntry(DexFormat.DEX_IN_JAR_NAME);
+            entry.setSize(dex.length);
+            jarOut.putNextEntry(entry);
+            jarOut.write(dex);
+            jarOut.closeEntry();
+        }
+    }
+
+    @Override
+    Set<File> getInputs() {
+        Set<File> inputs = new HashSet<File>();
+        for (BuildFile classFile : classFiles.values()) {
+            inputs.add(classFile.fileName);
+        }
+        return inputs;
+    }
+
+    @Override
+    Set<File> getOutputs() {
+        Set<File> outputs = new HashSet<File>();
+        for (BuildFile jarFile : jarFiles.values()) {
+            outputs.add(jarFile.fileName);
+        }
+        return outputs;
+    }
+
+    @Override
+    String getToolVersion() {
+        return BuildManifest.toolVersion(getClass(), Main.class);
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (super.equals(obj)) {
+            DexBatchBuildStep other = (DexBatchBuildStep) obj;
+            return outputFile.equals(other.outputFile)
+                    && classFiles.equals(other.classFiles)
+                    && jarFiles.equals(other.jarFiles);
+        }
+        return false;
+    }
+
+    @Override
+    public int hashCode() {
+        return outputFile.hashCode() ^ classFiles.hashCode() ^ jarFiles.hashCode();
+    }
+}
@@ -21,6 +21,12 @@ import java.io.IOException;
 
 public class DxBuildStep extends BuildStep {
 
+    /**
+     * dx keeps the state of a run in static fields of its Main class, so only one
+     * DxBuildStep can run it at a time, even when the steps are built in parallel.
+     */
+    private static final Object DX_LOCK = new Object();
+
     private final boolean deleteInputFileAfterBuild;
 
     DxBuildStep(BuildFile inputFile, BuildFile outputFile,
@@ -42,7 +48,9 @@ public class DxBuildStep extends BuildStep {
 
             int result = 0;
             try {
-                result = Main.run(args);
+                synchronized (DX_LOCK) {
+                    result = Main.run(args);
+                }
             } catch (IOException e) {
                 e.printStackTrace();
                 return false;
@@ -63,6 +71,11 @@ public class DxBuildStep extends BuildStep {
         return false;
     }
 
+    @Override
+    String getToolVersion() {
+        return BuildManifest.toolVersion(getClass(), Main.class);
+    }
+
     @Override
     public int hashCode() {
         return inputFile.hashCode() ^ outputFile.hashCode();
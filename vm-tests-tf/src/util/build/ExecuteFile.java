@@ -17,9 +17,7 @@
 package util.build;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -27,6 +25,8 @@ import java.io.PrintStream;
 import java.io.StreamTokenizer;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.logging.Level;
 import java.util.logging.Logger;
 
@@ -35,8 +35,29 @@ import javax.annotation.Nonnull;
 
 /**
  * Class to handle the execution of an external process
+ * <p>
+ * At most {@code vm-tests.max-processes} processes (the number of processors by default) run
+ * at the same time, the others wait for their turn. A process that runs longer than its
+ * timeout ({@code vm-tests.process-timeout-s}, 30 minutes by default) is killed. Input from
+ * and output to a file or to the standard streams of this process is redirected by the
+ * system rather than copied by a thread; see {@link #getStatistics()} for how the processes
+ * did.
  */
 public class ExecuteFile {
+  @Nonnull
+  private static final Semaphore processSlots = new Semaphore(Integer.getInteger(
+      "vm-tests.max-processes", Runtime.getRuntime().availableProcessors()).intValue(), true);
+
+  private static final long DEFAULT_TIMEOUT_MS = TimeUnit.SECONDS.toMillis(
+      Long.getLong("vm-tests.process-timeout-s", TimeUnit.MINUTES.toSeconds(30)).longValue());
+
+  private static int runCount;
+  private static int failedCount;
+  private static int timedOutCount;
+  private static long totalWaitMs;
+  private static long totalRunMs;
+  private static long maxRunMs;
+
   @Nonnull
   private final String[] cmdLine;
 
@@ -46,44 +67,77 @@ public class ExecuteFile {
   @CheckForNull
   private InputStream inStream;
   private boolean inToBeClose;
+  @CheckForNull
+  private File inFile;
 
   @CheckForNull
   private OutputStream outStream;
   private boolean outToBeClose;
+  @CheckForNull
+  private File outFile;
 
   @CheckForNull
   private OutputStream errStream;
   private boolean errToBeClose;
+  @CheckForNull
+  private File errFile;
   private boolean verbose;
 
+  private long timeoutMs = DEFAULT_TIMEOUT_MS;
+
   @Nonnull
   private final Logger logger = Logger.getLogger(this.getClass().getName());
 
   public void setErr(@Nonnull File file) throws FileNotFoundException {
-    errStream = new FileOutputStream(file);
-    errToBeClose = true;
+    checkWritable(file);
+    errFile = file;
+    errStream = null;
   }
 
   public void setOut(@Nonnull File file) throws FileNotFoundException {
-    outStream = new FileOutputStream(file);
-    outToBeClose = true;
+    checkWritable(file);
+    outFile = file;
+    outStream = null;
+  }
+
+  private static void checkWritable(@Nonnull File file) throws FileNotFoundException {
+    File parent = file.getAbsoluteFile().getParentFile();
+    if (file.isDirectory() || !parent.isDirectory()) {
+      throw new FileNotFoundException(file.getPath() + " cannot be written");
+    }
   }
 
   public void setIn(@Nonnull File file) throws FileNotFoundException {
-    inStream = new FileInputStream(file);
-    inToBeClose = true;
+    if (!file.isFile()) {
+      throw new FileNotFoundException(file.getPath() + " is not a file");
+    }
+    inFile = file;
+    inStream = null;
   }
 
   public void setErr(@Nonnull OutputStream stream) {
     errStream = stream;
+    errToBeClose = false;
+    errFile = null;
   }
 
   public void setOut(@Nonnull OutputStream stream) {
     outStream = stream;
+    outToBeClose = false;
+    outFile = null;
   }
 
   public void setIn(@Nonnull InputStream stream) {
     inStream = stream;
+    inToBeClose = false;
+    inFile = null;
+  }
+
+  /**
+   * Sets how long the process may run before it is killed, 0 for no limit.
+   */
+  public void setTimeout(long timeout, @Nonnull TimeUnit unit) {
+    timeoutMs = unit.toMillis(timeout);
   }
 
   public void setWorkingDir(@Nonnull File dir, boolean create) throws IOException {
@@ -149,43 +203,76 @@ public class ExecuteFile {
   }
 
   public boolean run() {
-    int ret;
+    StringBuilder cmdLineBuilder = new StringBuilder();
+    for (String arg : cmdLine) {
+      cmdLineBuilder.append(arg).append(' ');
+    }
+    if (verbose) {
+      PrintStream printStream;
+      if (outStream instanceof PrintStream) {
+        printStream = (PrintStream) outStream;
+      } else {
+        printStream = System.out;
+      }
+
+      if (printStream != null) {
+        printStream.println(cmdLineBuilder);
+      }
+    } else {
+      logger.log(Level.FINE, "Execute: {0}", cmdLineBuilder);
+    }
+
+    long queued = System.nanoTime();
+    try {
+      processSlots.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+    long started = System.nanoTime();
+
     Process proc = null;
     Thread suckOut = null;
     Thread suckErr = null;
     Thread suckIn = null;
+    int ret = -1;
+    boolean timedOut = false;
 
     try {
-      StringBuilder cmdLineBuilder = new StringBuilder();
-      for (String arg : cmdLine) {
-        cmdLineBuilder.append(arg).append(' ');
+      ProcessBuilder builder = new ProcessBuilder(cmdLine).directory(workDir);
+
+      InputStream localInStream = inStream;
+      if (inFile != null) {
+        builder.redirectInput(inFile);
       }
-      if (verbose) {
-        PrintStream printStream;
-        if (outStream instanceof PrintStream) {
-          printStream = (PrintStream) outStream;
-        } else {
-          printStream = System.out;
-        }
 
-        if (printStream != null) {
-          printStream.println(cmdLineBuilder);
-        }
-      } else {
-        logger.log(Level.FINE, "Execute: {0}", cmdLineBuilder);
+      OutputStream localOutStream = outStream;
+      if (outFile != null) {
+        builder.redirectOutput(outFile);
+      } else if (localOutStream == System.out) {
+        System.out.flush();
+        builder.redirectOutput(ProcessBuilder.Redirect.INHERIT);
+        localOutStream = null;
       }
 
-      proc = Runtime.getRuntime().exec(cmdLine, null, workDir);
+      OutputStream localErrStream = errStream;
+      if (errFile != null) {
+        builder.redirectError(errFile);
+      } else if (localErrStream == System.err) {
+        System.err.flush();
+        builder.redirectError(ProcessBuilder.Redirect.INHERIT);
+        localErrStream = null;
+      }
+
+      proc = builder.start();
 
-      InputStream localInStream = inStream;
       if (localInStream != null) {
         suckIn = new Thread(
             new ThreadBytesStreamSucker(localInStream, proc.getOutputStream(), inToBeClose));
-      } else {
+      } else if (inFile == null) {
         proc.getOutputStream().close();
       }
 
-      OutputStream localOutStream = outStream;
       if (localOutStream != null) {
         if (localOutStream instanceof PrintStream) {
           suckOut = new Thread(new ThreadCharactersStreamSucker(proc.getInputStream(),
@@ -196,7 +283,6 @@ public class ExecuteFile {
         }
       }
 
-      OutputStream localErrStream = errStream;
       if (localErrStream != null) {
         if (localErrStream instanceof PrintStream) {
           suckErr = new Thread(new ThreadCharactersStreamSucker(proc.getErrorStream(),
@@ -217,7 +303,16 @@ public class ExecuteFile {
         suckErr.start();
       }
 
-      proc.waitFor();
+      if (timeoutMs > 0) {
+        if (!proc.waitFor(timeoutMs, TimeUnit.MILLISECONDS)) {
+          timedOut = true;
+          System.err.println("killing process after " + timeoutMs + " ms: " + cmdLineBuilder);
+          proc.destroyForcibly();
+          proc.waitFor();
+        }
+      } else {
+        proc.waitFor();
+      }
       if (suckIn != null) {
         suckIn.join();
       }
@@ -229,13 +324,57 @@ public class ExecuteFile {
       }
 
       ret = proc.exitValue();
-      proc.destroy();
 
-      return ret == 0;
+      return ret == 0 && !timedOut;
     } catch (Throwable e) {
       e.printStackTrace();
       return false;
+    } finally {
+      if (proc != null) {
+        proc.destroy();
+      }
+      processSlots.release();
+
+      long waitMs = TimeUnit.NANOSECONDS.toMillis(started - queued);
+      long runMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - started);
+      record(waitMs, runMs, ret == 0 && !timedOut, timedOut);
+      logger.log(Level.FINE, "Exit {0} after {1} ms (waited {2} ms): {3}",
+          new Object[] {Integer.valueOf(ret), Long.valueOf(runMs), Long.valueOf(waitMs),
+              cmdLineBuilder});
+    }
+  }
+
+  private static synchronized void record(long waitMs, long runMs, boolean succeeded,
+      boolean timedOut) {
+    runCount++;
+    if (!succeeded) {
+      failedCount++;
     }
+    if (timedOut) {
+      timedOutCount++;
+    }
+    totalWaitMs += waitMs;
+    totalRunMs += runMs;
+    maxRunMs = Math.max(maxRunMs, runMs);
+  }
+
+  /**
+   * Returns the number of processes run so far.
+   */
+  public static synchronized int getRunCount() {
+    return runCount;
+  }
+
+  /**
+   * Returns a summary of the processes run so far: how many failed or timed out, and how
+   * long they ran and waited for their turn.
+   */
+  @Nonnull
+  public static synchronized String getStatistics() {
+    return runCount + " processes, " + failedCount + " failed (" + timedOutCount
+        + " timed out), run time total " + totalRunMs + " ms, average "
+        + (runCount == 0 ? 0 : totalRunMs / runCount) + " ms, max " + maxRunMs
+        + " ms, waited " + totalWaitMs + " ms for a slot";
   }
 
   private static class ThreadBytesStreamSucker extends BytesStreamSucker implements Runnable {
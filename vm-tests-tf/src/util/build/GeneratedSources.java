@@ -0,0 +1,118 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * GeneratedSources collects the files BuildDalvikSuite generates and writes them in one
+ * go, the files of different folders (i.e. packages) in parallel. A file whose content
+ * didn't change is not written again, so that it keeps its time stamp. Whether it changed
+ * is decided by comparing the hash of the new content with the hash of the file the
+ * {@link BuildManifest} knows, which only reads the file if it was touched since.
+ */
+class GeneratedSources {
+
+    private static class GeneratedFile {
+        final File file;
+        final CharSequence content;
+
+        GeneratedFile(File file, CharSequence content) {
+            this.file = file;
+            this.content = content;
+        }
+    }
+
+    private final BuildManifest manifest;
+
+    private final Map<File, List<GeneratedFile>> filesByFolder =
+            new LinkedHashMap<File, List<GeneratedFile>>();
+
+    private int writtenCount;
+
+    GeneratedSources(BuildManifest manifest) {
+        this.manifest = manifest;
+    }
+
+    /**
+     * Adds a file to write. The content must not change until {@link #write()}.
+     */
+    void add(File file, CharSequence content) {
+        File folder = file.getAbsoluteFile().getParentFile();
+        List<GeneratedFile> files = filesByFolder.get(folder);
+        if (files == null) {
+            files = new ArrayList<GeneratedFile>();
+            filesByFolder.put(folder, files);
+        }
+        files.add(new GeneratedFile(file, content));
+    }
+
+    /**
+     * Writes the files that changed.
+     */
+    void write() {
+        filesByFolder.entrySet().parallelStream().forEach(entry -> {
+            File folder = entry.getKey();
+            if (!folder.exists() && !folder.mkdirs()) {
+                throw new RuntimeException("failed to create directory: "
+                        + folder.getAbsolutePath());
+            }
+            for (GeneratedFile generated : entry.getValue()) {
+                write(generated.file, generated.content);
+            }
+        });
+        filesByFolder.clear();
+    }
+
+    /**
+     * Returns the number of files {@link #write()} wrote, as opposed to the ones that
+     * were up to date.
+     */
+    synchronized int getWrittenCount() {
+        return writtenCount;
+    }
+
+    private void write(File file, CharSequence content) {
+        try {
+            String hash = BuildManifest.digest(content.toString());
+            if (file.exists() && manifest.hash(file).equals(hash)) {
+                return;
+            }
+
+            try (Writer out = new BufferedWriter(new OutputStreamWriter(
+                    new FileOutputStream(file), StandardCharsets.UTF_8))) {
+                out.append(content);
+            }
+            manifest.setHash(file, hash);
+            synchronized (this) {
+                writtenCount++;
+            }
+        } catch (Exception e) {
+            throw new RuntimeException("error while writing to file: " + e.getClass().getName() +
+                    ", msg:" + e.getMessage());
+        }
+    }
+}
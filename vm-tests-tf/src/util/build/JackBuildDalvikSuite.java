@@ -43,9 +43,18 @@ public class JackBuildDalvikSuite {
         cat.compose();
         long end = System.currentTimeMillis();
 
+        if (ExecuteFile.getRunCount() > 0) {
+            System.out.println("jack: " + ExecuteFile.getStatistics());
+        }
         System.out.println("elapsed seconds: " + (end - start) / 1000);
     }
 
+    /**
+     * Returns the jack command and version used by the jack build steps.
+     */
+    static String getJackVersion() {
+        return JACK + " " + System.getenv("JACK_VERSION");
+    }
 
     private static void printUsage() {
         System.out.println("usage: java-src-folder output-folder classpath " +
@@ -121,6 +121,25 @@ public class JackBuildStep extends SourceBuildStep {
         return false;
     }
 
+    @Override
+    Set<File> getInputs() {
+        Set<File> inputs = new HashSet<File>();
+        for (String sourceFile : sourceFiles) {
+            inputs.add(new File(sourceFile));
+        }
+        for (String entry : classPath.split(":")) {
+            if (!entry.isEmpty()) {
+                inputs.add(new File(entry));
+            }
+        }
+        return inputs;
+    }
+
+    @Override
+    String getToolVersion() {
+        return super.getToolVersion() + JackBuildDalvikSuite.getJackVersion() + classPath;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (super.equals(obj)) {
@@ -103,6 +103,11 @@ public class JackDexBuildStep extends BuildStep {
         return inputFile.hashCode() ^ outputFile.hashCode();
     }
 
+    @Override
+    String getToolVersion() {
+        return super.getToolVersion() + JackBuildDalvikSuite.getJackVersion();
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (super.equals(obj)) {
@@ -20,10 +20,8 @@ import java.io.BufferedInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
-import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.jar.JarEntry;
 import java.util.jar.JarOutputStream;
 
@@ -45,19 +43,6 @@ public class JarBuildStep extends BuildStep {
     @Override
     boolean build() {
         if (super.build()) {
-            File tempFile = new File(inputFile.folder, outputJarEntryName);
-            try {
-                if (!inputFile.fileName.equals(tempFile)) {
-                    copyFile(inputFile.fileName, tempFile);
-                } else {
-                    tempFile = null;
-                }
-            } catch (IOException e) {
-                System.err.println("io exception:"+e.getMessage());
-                e.printStackTrace();
-                return false;
-            }
-
             File outDir = outputFile.fileName.getParentFile();
             if (!outDir.exists() && !outDir.mkdirs()) {
                 System.err.println("failed to create output dir: "
@@ -65,12 +50,11 @@ public class JarBuildStep extends BuildStep {
                 return false;
             }
 
-            // Find the input. We'll need to look into the input folder, but check with the
-            // (relative) destination filename (this is effectively removing the inputFile folder
-            // from the entry path in the jar file).
-            Path absoluteInputPath = Paths.get(inputFile.folder.getAbsolutePath())
-                    .resolve(outputJarEntryName);
-            File absoluteInputFile = absoluteInputPath.toFile();
+            // The input is stored under outputJarEntryName directly. It isn't copied to
+            // a file of that name next to it first, as several steps with the same entry
+            // name (e.g. "classes.dex") may share the input folder and run in parallel.
+            File absoluteInputFile = inputFile.fileName.getAbsoluteFile();
+            Path absoluteInputPath = absoluteInputFile.toPath();
             if (!absoluteInputFile.exists()) {
                 // Something went wrong.
                 throw new IllegalArgumentException(absoluteInputFile.getAbsolutePath());
@@ -103,9 +87,6 @@ public class JarBuildStep extends BuildStep {
             }
 
             // Clean up.
-            if (tempFile != null) {
-                tempFile.delete();
-            }
             if (deleteInputFileAfterBuild) {
                 inputFile.fileName.delete();
             }
@@ -115,6 +96,11 @@ public class JarBuildStep extends BuildStep {
         return false;
     }
 
+    @Override
+    String getToolVersion() {
+        return super.getToolVersion() + outputJarEntryName;
+    }
+
     @Override
     public int hashCode() {
         return inputFile.hashCode() ^ outputFile.hashCode()
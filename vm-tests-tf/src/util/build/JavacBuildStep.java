@@ -19,11 +19,15 @@ package util.build;
 import java.io.File;
 import java.lang.Iterable;
 import java.util.stream.Collectors;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
 import javax.tools.JavaFileObject;
 import javax.tools.StandardJavaFileManager;
 import javax.tools.StandardLocation;
@@ -34,6 +38,8 @@ public class JavacBuildStep extends SourceBuildStep {
     private final String destPath;
     private final String classPath;
     private final Set<String> sourceFiles = new HashSet<String>();
+    /** Sources held in memory, by the name of their class. */
+    private final Map<String, CharSequence> sources = new TreeMap<String, CharSequence>();
     public JavacBuildStep(String destPath, String classPath) {
         super(new File(destPath));
         this.destPath = destPath;
@@ -46,22 +52,26 @@ public class JavacBuildStep extends SourceBuildStep {
         sourceFiles.add(sourceFile);
     }
 
+    /**
+     * Adds a source held in memory, e.g. a generated one. It is compiled without being
+     * written to disk.
+     *
+     * @param className the fully qualified name of the top level class of the source.
+     */
+    public void addSource(String className, CharSequence source)
+    {
+        sources.put(className, source);
+    }
+
     @Override
     boolean build() {
         if (super.build())
         {
-            if (sourceFiles.isEmpty())
+            if (sourceFiles.isEmpty() && sources.isEmpty())
             {
                 return true;
             }
 
-            File destFile = new File(destPath);
-            if (!destFile.exists() && !destFile.mkdirs())
-            {
-                System.err.println("failed to create destination dir");
-                return false;
-            }
-
             Iterable<File> classPathFiles = Arrays.asList(classPath.split(":"))
                     .stream()
                     .map(File::new)
@@ -72,22 +82,8 @@ public class JavacBuildStep extends SourceBuildStep {
                     null,     // diagnosticListener: we don't care about the details.
                     null,     // locale: use default locale.
                     null)) {  // charset: use platform default.
-                fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(
-                        new File(destPath)));
                 fileManager.setLocation(StandardLocation.CLASS_PATH, classPathFiles);
-
-                Iterable<? extends JavaFileObject> compilationUnits =
-                        fileManager.getJavaFileObjectsFromStrings(sourceFiles);
-
-                List<String> options = Arrays.asList("-source", "1.7", "-target", "1.7");
-
-                return compiler.getTask(
-                        null,  // out: write errors to System.err.
-                        fileManager,
-                        null,  // diagnosticListener: we don't care about the details.
-                        options,
-                        null,  // classes: classes for annotation processing = none.
-                        compilationUnits).call();
+                return compile(compiler, fileManager);
             } catch (Exception e) {
                 e.printStackTrace();
                 return false;
@@ -96,6 +92,100 @@ public class JavacBuildStep extends SourceBuildStep {
         return false;
     }
 
+    /**
+     * Compiles the sources into the destination folder. Subclasses may send the classes
+     * elsewhere, see {@link #runJavac}.
+     */
+    boolean compile(JavaCompiler compiler, StandardJavaFileManager fileManager)
+            throws Exception {
+        // Classes of sources that were removed since the last build must not stay in
+        // the destination folder, which is kept between builds (see BuildManifest).
+        File destFile = new File(destPath);
+        if (destFile.exists() && !deleteContents(destFile))
+        {
+            System.err.println("failed to clean destination dir");
+            return false;
+        }
+        if (!destFile.exists() && !destFile.mkdirs())
+        {
+            System.err.println("failed to create destination dir");
+            return false;
+        }
+        fileManager.setLocation(StandardLocation.CLASS_OUTPUT, Arrays.asList(destFile));
+        return runJavac(compiler, fileManager, fileManager);
+    }
+
+    /**
+     * Runs javac on the source files and the sources held in memory.
+     *
+     * @param fileManager the file manager javac reads and writes through. It must be
+     *        backed by the given standard file manager.
+     */
+    boolean runJavac(JavaCompiler compiler, StandardJavaFileManager standardFileManager,
+            JavaFileManager fileManager) {
+        List<JavaFileObject> compilationUnits = new ArrayList<JavaFileObject>();
+        for (JavaFileObject sourceFile : standardFileManager.getJavaFileObjectsFromStrings(
+                sourceFiles)) {
+            compilationUnits.add(sourceFile);
+        }
+        for (Map.Entry<String, CharSequence> source : sources.entrySet()) {
+            compilationUnits.add(new MemoryJavaFileManager.Source(source.getKey(),
+                    source.getValue()));
+        }
+
+        List<String> options = Arrays.asList("-source", "1.7", "-target", "1.7");
+
+        return compiler.getTask(
+                null,  // out: write errors to System.err.
+                fileManager,
+                null,  // diagnosticListener: we don't care about the details.
+                options,
+                null,  // classes: classes for annotation processing = none.
+                compilationUnits).call();
+    }
+
+    private static boolean deleteContents(File dir) {
+        File[] files = dir.listFiles();
+        if (files == null) {
+            return false;
+        }
+        boolean deleted = true;
+        for (File file : files) {
+            if (file.isDirectory()) {
+                deleted &= deleteContents(file);
+            }
+            deleted &= file.delete();
+        }
+        return deleted;
+    }
+
+    @Override
+    Set<File> getInputs() {
+        Set<File> inputs = new HashSet<File>();
+        for (String sourceFile : sourceFiles) {
+            inputs.add(new File(sourceFile));
+        }
+        for (String entry : classPath.split(":")) {
+            if (!entry.isEmpty()) {
+                inputs.add(new File(entry));
+            }
+        }
+        return inputs;
+    }
+
+    @Override
+    String getToolVersion() {
+        // The sources held in memory aren't files the build can hash, so they count as
+        // part of the settings.
+        StringBuilder memorySources = new StringBuilder();
+        for (Map.Entry<String, CharSequence> source : sources.entrySet()) {
+            memorySources.append(source.getKey()).append('=')
+                    .append(BuildManifest.digest(source.getValue().toString())).append('\n');
+        }
+        return super.getToolVersion() + System.getProperty("java.version") + classPath
+                + BuildManifest.digest(memorySources.toString());
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (super.equals(obj))
@@ -103,13 +193,15 @@ public class JavacBuildStep extends SourceBuildStep {
             JavacBuildStep other = (JavacBuildStep) obj;
             return destPath.equals(other.destPath)
                 && classPath.equals(other.classPath)
-                && sourceFiles.equals(other.sourceFiles);
+                && sourceFiles.equals(other.sourceFiles)
+                && sources.keySet().equals(other.sources.keySet());
         }
         return false;
     }
 
     @Override
     public int hashCode() {
-        return destPath.hashCode() ^ classPath.hashCode() ^ sourceFiles.hashCode();
+        return destPath.hashCode() ^ classPath.hashCode() ^ sourceFiles.hashCode()
+                ^ sources.keySet().hashCode();
     }
 }
@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import com.android.dx.command.dexer.Main;
+import com.android.dx.dex.cf.CfOptions;
+import com.android.dx.dex.file.DexFile;
+
+import java.io.File;
+import java.util.Map;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+
+/**
+ * JavacDexBuildStep compiles sources and dexes the classes into a jar, as a JavacBuildStep
+ * followed by a DxBuildStep on its destination folder would, but keeps the classes in
+ * memory in between.
+ */
+public class JavacDexBuildStep extends JavacBuildStep {
+
+    private final File jarFile;
+
+    /**
+     * @param jarPath the jar to write the dex of all classes to.
+     */
+    public JavacDexBuildStep(String jarPath, String classPath) {
+        super(jarPath, classPath);
+        this.jarFile = new File(jarPath);
+    }
+
+    @Override
+    boolean compile(JavaCompiler compiler, StandardJavaFileManager fileManager)
+            throws Exception {
+        MemoryJavaFileManager memoryFileManager = new MemoryJavaFileManager(fileManager);
+        if (!runJavac(compiler, fileManager, memoryFileManager)) {
+            return false;
+        }
+
+        try {
+            CfOptions cfOptions = DexBatchBuildStep.newCfOptions();
+            DexFile dexFile = new DexFile(DexBatchBuildStep.newDexOptions());
+            for (Map.Entry<String, byte[]> classFile :
+                    memoryFileManager.getClassFiles().entrySet()) {
+                DexBatchBuildStep.addClass(dexFile, classFile.getKey(), classFile.getValue(),
+                        cfOptions);
+            }
+            DexBatchBuildStep.writeJar(jarFile, dexFile.toDex(null, false));
+            return true;
+        } catch (Exception e) {
+            System.err.println("exception while dexing to " + jarFile.getAbsolutePath());
+            e.printStackTrace(System.err);
+            jarFile.delete();
+            return false;
+        }
+    }
+
+    @Override
+    String getToolVersion() {
+        return super.getToolVersion() + BuildManifest.toolVersion(Main.class);
+    }
+}
@@ -78,6 +78,11 @@ public class JillBuildStep extends BuildStep {
         return false;
     }
 
+    @Override
+    String getToolVersion() {
+        return super.getToolVersion() + JackBuildDalvikSuite.getJackVersion();
+    }
+
     @Override
     public boolean equals(Object obj) {
         if (super.equals(obj)) {
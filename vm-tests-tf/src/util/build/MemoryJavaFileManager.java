@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+/**
+ * MemoryJavaFileManager is a file manager which keeps the class files javac writes in
+ * memory, so that they can be dexed without going through the disk. Everything else
+ * (e.g. the class path) is left to the standard file manager.
+ */
+class MemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+
+    /**
+     * A source held in memory. Its URI ends with the path javac would expect the source
+     * at, so that the classes get the same SourceFile attribute as when compiled from a
+     * file.
+     */
+    static class Source extends SimpleJavaFileObject {
+        private final CharSequence content;
+
+        /**
+         * @param className the fully qualified name of the top level class of the source.
+         */
+        Source(String className, CharSequence content) {
+            super(URI.create("string:///" + className.replace('.', '/') + ".java"),
+                    Kind.SOURCE);
+            this.content = content;
+        }
+
+        @Override
+        public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+            return content;
+        }
+    }
+
+    private static class ClassFile extends SimpleJavaFileObject {
+        private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        ClassFile(String className) {
+            super(URI.create("byte:///" + className.replace('.', '/') + ".class"),
+                    Kind.CLASS);
+        }
+
+        @Override
+        public OutputStream openOutputStream() {
+            bytes.reset();
+            return bytes;
+        }
+    }
+
+    /** The written classes, by binary name. */
+    private final Map<String, ClassFile> classFiles = new TreeMap<String, ClassFile>();
+
+    MemoryJavaFileManager(StandardJavaFileManager fileManager) {
+        super(fileManager);
+    }
+
+    @Override
+    public JavaFileObject getJavaFileForOutput(Location location, String className,
+            JavaFileObject.Kind kind, FileObject sibling) {
+        ClassFile classFile = new ClassFile(className);
+        classFiles.put(className, classFile);
+        return classFile;
+    }
+
+    /**
+     * Returns the written class files by path relative to the class path root, e.g.
+     * "dot/junit/opcodes/nop/Main_testN1.class".
+     */
+    Map<String, byte[]> getClassFiles() {
+        Map<String, byte[]> result = new TreeMap<String, byte[]>();
+        for (Map.Entry<String, ClassFile> entry : classFiles.entrySet()) {
+            result.put(entry.getKey().replace('.', '/') + ".class",
+                    entry.getValue().bytes.toByteArray());
+        }
+        return result;
+    }
+}
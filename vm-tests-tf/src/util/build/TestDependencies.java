@@ -0,0 +1,202 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+
+/**
+ * TestDependencies remembers, across runs of the build, which source files each test class
+ * of the suite is built from (its own source and the .d, .dfh or .java sources of the
+ * classes its tests use, see the @uses and load("...") handling of TestSourceIndex) and
+ * which outputs are generated for it (its Main_ and JUnit_ classes and the jars of the
+ * classes it uses). Looked at the other way round, this tells which test classes, and so
+ * which outputs, are affected by a change of a source file.
+ * <p>
+ * The graph is updated with the test classes each run generates, the others keep what a
+ * previous run recorded.
+ */
+class TestDependencies {
+
+    private final File file;
+
+    /** The sources of each test class, by fully qualified name. */
+    private final Map<String, Set<String>> sources = new TreeMap<String, Set<String>>();
+
+    /** The outputs of each test class, by fully qualified name. */
+    private final Map<String, Set<String>> outputs = new TreeMap<String, Set<String>>();
+
+    /** The test classes built from each source, by absolute path. */
+    private final Map<String, Set<String>> users = new HashMap<String, Set<String>>();
+
+    private TestDependencies(File file) {
+        this.file = file;
+    }
+
+    /**
+     * Reads the graph from the given file. A missing or unreadable file gives an empty
+     * graph, which doesn't know any source.
+     */
+    static TestDependencies load(File file) {
+        TestDependencies dependencies = new TestDependencies(file);
+        if (!file.exists()) {
+            return dependencies;
+        }
+        Map<String, Set<String>> sources = new TreeMap<String, Set<String>>();
+        Map<String, Set<String>> outputs = new TreeMap<String, Set<String>>();
+        try (BufferedReader in = new BufferedReader(new FileReader(file))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                String[] fields = line.split("\t");
+                if (fields.length == 3 && fields[0].equals("source")) {
+                    get(sources, fields[1]).add(fields[2]);
+                } else if (fields.length == 3 && fields[0].equals("output")) {
+                    get(outputs, fields[1]).add(fields[2]);
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("ignoring unreadable test dependencies "
+                    + file.getAbsolutePath() + ": " + e);
+            return dependencies;
+        }
+        for (String testClass : sources.keySet()) {
+            dependencies.setTest(testClass, sources.get(testClass),
+                    outputs.containsKey(testClass) ? outputs.get(testClass)
+                            : new HashSet<String>());
+        }
+        return dependencies;
+    }
+
+    /**
+     * Writes the graph back.
+     */
+    void save() throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (!parent.exists() && !parent.mkdirs()) {
+            throw new IOException("failed to create dir: " + parent.getAbsolutePath());
+        }
+        File tmp = new File(parent, file.getName() + ".tmp");
+        try (BufferedWriter out = new BufferedWriter(new OutputStreamWriter(
+                new FileOutputStream(tmp), StandardCharsets.UTF_8))) {
+            for (String testClass : sources.keySet()) {
+                for (String source : new TreeSet<String>(sources.get(testClass))) {
+                    out.write("source\t" + testClass + "\t" + source + "\n");
+                }
+                for (String output : new TreeSet<String>(outputs.get(testClass))) {
+                    out.write("output\t" + testClass + "\t" + output + "\n");
+                }
+            }
+        }
+        Files.move(tmp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Records the sources and outputs of a test class, replacing what was recorded before.
+     *
+     * @param sources the source files, by absolute path.
+     * @param outputs the outputs, e.g. class names or jar paths.
+     */
+    void setTest(String testClass, Set<String> sources, Set<String> outputs) {
+        removeTest(testClass);
+        this.sources.put(testClass, sources);
+        this.outputs.put(testClass, outputs);
+        for (String source : sources) {
+            get(users, source).add(testClass);
+        }
+    }
+
+    /**
+     * Forgets the test classes that are not part of the suite anymore.
+     */
+    void retainTests(Collection<String> testClasses) {
+        Set<String> retained = new HashSet<String>(testClasses);
+        for (String testClass : new TreeSet<String>(sources.keySet())) {
+            if (!retained.contains(testClass)) {
+                removeTest(testClass);
+            }
+        }
+    }
+
+    /**
+     * Returns the test classes affected by a change of the given files, or null if one of
+     * the files isn't known as the source of any test class (e.g. a new file), so that
+     * what is affected can't be told.
+     */
+    Set<String> getAffectedTests(Collection<File> changedFiles) {
+        Set<String> affected = new TreeSet<String>();
+        for (File changedFile : changedFiles) {
+            Set<String> testClasses = users.get(changedFile.getAbsolutePath());
+            if (testClasses == null) {
+                return null;
+            }
+            affected.addAll(testClasses);
+        }
+        return affected;
+    }
+
+    /**
+     * Returns the outputs recorded for the given test classes.
+     */
+    Set<String> getOutputs(Collection<String> testClasses) {
+        Set<String> result = new TreeSet<String>();
+        for (String testClass : testClasses) {
+            Set<String> testOutputs = outputs.get(testClass);
+            if (testOutputs != null) {
+                result.addAll(testOutputs);
+            }
+        }
+        return result;
+    }
+
+    private void removeTest(String testClass) {
+        Set<String> oldSources = sources.remove(testClass);
+        outputs.remove(testClass);
+        if (oldSources != null) {
+            for (String source : oldSources) {
+                Set<String> testClasses = users.get(source);
+                testClasses.remove(testClass);
+                if (testClasses.isEmpty()) {
+                    users.remove(source);
+                }
+            }
+        }
+    }
+
+    private static Set<String> get(Map<String, Set<String>> map, String key) {
+        Set<String> values = map.get(key);
+        if (values == null) {
+            values = new HashSet<String>();
+            map.put(key, values);
+        }
+        return values;
+    }
+}
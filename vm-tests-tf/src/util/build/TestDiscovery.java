@@ -0,0 +1,75 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import com.android.dex.util.FileUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TestDiscovery lists the test classes of the suite from the sources of its AllTests
+ * classes (e.g. dot/junit/AllTests.java), without loading them or running their
+ * suite() methods. An AllTests class lists the test classes with
+ * suite.addTestSuite(Test_xxx.class), and includes other AllTests classes with
+ * suite.addTest(xxx.AllTests.suite()).
+ */
+class TestDiscovery {
+
+    private static final Pattern COMMENT_PATTERN =
+            Pattern.compile("//[^\\n]*|/\\*.*?\\*/", Pattern.DOTALL);
+
+    /** addTestSuite(<test class>.class) or addTest(<suite class>.suite()). */
+    private static final Pattern SUITE_ENTRY_PATTERN = Pattern.compile(
+            "addTest(?:Suite\\(\\s*([\\w.]+)\\.class|\\(\\s*([\\w.]+)\\.suite\\(\\s*\\))\\s*\\)");
+
+    /**
+     * Returns the fully qualified names of the test classes of a suite, in the order junit
+     * would run them.
+     *
+     * @param srcFolder the source folder of the suite.
+     * @param suiteClass the fully qualified name of the AllTests class of the suite.
+     */
+    static List<String> listTestClasses(File srcFolder, String suiteClass) {
+        List<String> testClasses = new ArrayList<String>();
+        addTestClasses(srcFolder, suiteClass, testClasses);
+        return testClasses;
+    }
+
+    private static void addTestClasses(File srcFolder, String suiteClass,
+            List<String> testClasses) {
+        File source = new File(srcFolder, suiteClass.replace('.', '/') + ".java");
+        if (!source.isFile()) {
+            throw new RuntimeException("cannot find source of test suite " + suiteClass
+                    + ": " + source.getAbsolutePath());
+        }
+
+        // using platform's default charset
+        String all = new String(FileUtils.readFile(source));
+        Matcher m = SUITE_ENTRY_PATTERN.matcher(COMMENT_PATTERN.matcher(all).replaceAll(""));
+        while (m.find()) {
+            if (m.group(1) != null) {
+                testClasses.add(m.group(1));
+            } else {
+                addTestClasses(srcFolder, m.group(2), testClasses);
+            }
+        }
+    }
+}
@@ -0,0 +1,222 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package util.build;
+
+import com.android.dex.util.FileUtils;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * TestSourceIndex holds what BuildDalvikSuite needs from the source of a junit test
+ * class (e.g. dot/junit/opcodes/add_int/Test_add_int.java): the body of each method, the
+ * @title and @constraint of its javadoc and the test classes it depends on. The source
+ * is read and parsed once, so the cost doesn't grow with the number of test methods
+ * times the size of the file.
+ */
+class TestSourceIndex {
+
+    /** A method declaration, up to and including the opening brace of its body. */
+    private static final Pattern METHOD_PATTERN =
+            Pattern.compile("public\\s+void\\s+(\\w+)[^\\{]+\\{");
+
+    /** What follows the name of a method without parameters, up to its body. */
+    private static final Pattern NO_PARAMETERS_PATTERN = Pattern.compile("\\s*\\(\\s*\\)[^\\{]*\\{");
+
+    /** A javadoc comment right before the end of the region it is matched in. */
+    private static final Pattern JAVADOC_PATTERN =
+            Pattern.compile("/\\*\\*(.*)\\*/\\s*\\z", Pattern.DOTALL);
+
+    private static final Pattern TITLE_PATTERN =
+            Pattern.compile("@title (.*)", Pattern.DOTALL);
+
+    // constraint can be one line only
+    private static final Pattern CONSTRAINT_PATTERN = Pattern.compile("@constraint (.*)");
+
+    private static final Pattern USES_PATTERN =
+            Pattern.compile("@uses\\s+(.*)\\s+", Pattern.MULTILINE);
+
+    private static final Pattern LOAD_PATTERN =
+            Pattern.compile("load\\(\"([^\"]*)\"", Pattern.MULTILINE);
+
+    private static final Pattern LOAD_AND_RUN_PATTERN =
+            Pattern.compile("loadAndRun\\(\"([^\"]*)\"", Pattern.MULTILINE);
+
+    static class TestMethod {
+        /** The source of the body, without the opening brace. */
+        String body;
+        /** True if the method has a javadoc comment. */
+        boolean hasJavadoc;
+        String title;
+        String constraint;
+        /**
+         * The test classes the method uses, or null if the test class it tests could not
+         * be found (then @uses etc. are not looked for either).
+         */
+        Set<String> dependencies;
+    }
+
+    /** The methods in the order they are declared in. */
+    private final Map<String, TestMethod> methods = new LinkedHashMap<String, TestMethod>();
+
+    private final List<String> testMethods = new ArrayList<String>();
+
+    /**
+     * Parses the source of a test class.
+     *
+     * @param pName the package of the class, e.g. "dot.junit.opcodes.add_int".
+     * @param classOnlyName the name of the class, e.g. "Test_add_int".
+     * @param source the source file of the class.
+     */
+    TestSourceIndex(String pName, String classOnlyName, File source) {
+        // using platform's default charset
+        String all = new String(FileUtils.readFile(source));
+
+        // The class the tests of Test_<opcode> test is usually called T_<opcode>...
+        String opcodeName = classOnlyName.substring(5);
+        Pattern[] testClassPatterns = new Pattern[] {
+                Pattern.compile("new\\s(T_" + opcodeName + "\\w*)"),
+                Pattern.compile("(T_" + opcodeName + "\\w*)"),
+                Pattern.compile("new\\s(T\\w*)")};
+
+        Matcher methodMatcher = METHOD_PATTERN.matcher(all);
+        Matcher javadocMatcher = JAVADOC_PATTERN.matcher(all);
+        int searchFrom = 0;
+        while (methodMatcher.find(searchFrom)) {
+            if (isInComment(all, methodMatcher.start())) {
+                // e.g. a test that was commented out
+                searchFrom = methodMatcher.end();
+                continue;
+            }
+            String name = methodMatcher.group(1);
+            int bodyStart = methodMatcher.end();
+            int bodyEnd = findBodyEnd(all, bodyStart);
+            searchFrom = bodyEnd;
+            if (methods.containsKey(name)) {
+                continue;
+            }
+
+            // junit runs the public void test*() methods
+            if (name.startsWith("test") && NO_PARAMETERS_PATTERN.matcher(all)
+                    .region(methodMatcher.end(1), bodyStart).matches()) {
+                testMethods.add(name);
+            }
+
+            TestMethod method = new TestMethod();
+            method.body = all.substring(bodyStart, bodyEnd);
+
+            // The javadoc can't contain braces, so it starts after the last brace before
+            // the declaration.
+            int lastBrace = all.lastIndexOf('{', methodMatcher.start()) + 1;
+            javadocMatcher.region(lastBrace, methodMatcher.start());
+            if (javadocMatcher.find()) {
+                method.hasJavadoc = true;
+                String javadoc = javadocMatcher.group(1);
+                Matcher titleMatcher = TITLE_PATTERN.matcher(javadoc);
+                if (titleMatcher.find()) {
+                    String title = titleMatcher.group(1).replaceAll("\\n     \\*", "");
+                    method.title = title.replaceAll("\\n", " ").trim();
+                }
+                Matcher constraintMatcher = CONSTRAINT_PATTERN.matcher(javadoc);
+                if (constraintMatcher.find()) {
+                    method.constraint = constraintMatcher.group(1).trim();
+                }
+            }
+
+            method.dependencies = findDependencies(method.body, pName, testClassPatterns);
+            methods.put(name, method);
+        }
+    }
+
+    /**
+     * Returns the parsed method of the given name, or null if there is none.
+     */
+    TestMethod getMethod(String name) {
+        return methods.get(name);
+    }
+
+    /**
+     * Returns the names of the test methods junit would run, in the order they are
+     * declared in.
+     */
+    List<String> getTestMethods() {
+        return testMethods;
+    }
+
+    private static boolean isInComment(String source, int pos) {
+        int lineStart = source.lastIndexOf('\n', pos) + 1;
+        if (source.substring(lineStart, pos).contains("//")) {
+            return true;
+        }
+        int commentStart = source.lastIndexOf("/*", pos);
+        return commentStart != -1 && source.lastIndexOf("*/", pos) < commentStart;
+    }
+
+    /**
+     * Returns the index after the brace closing the block that starts at the given index
+     * (just after its opening brace), or the end of the source.
+     */
+    private static int findBodyEnd(String source, int start) {
+        int blocks = 1;
+        int i = start;
+        while (i < source.length() && blocks > 0) {
+            char c = source.charAt(i++);
+            if (c == '}') {
+                blocks--;
+            } else if (c == '{') {
+                blocks++;
+            }
+        }
+        return i;
+    }
+
+    private static Set<String> findDependencies(String body, String pName,
+            Pattern[] testClassPatterns) {
+        Matcher testClassMatcher = null;
+        for (Pattern pattern : testClassPatterns) {
+            Matcher matcher = pattern.matcher(body);
+            if (matcher.find()) {
+                testClassMatcher = matcher;
+                break;
+            }
+        }
+        if (testClassMatcher == null) {
+            return null;
+        }
+
+        Set<String> entries = new HashSet<String>();
+        entries.add((pName + ".d." + testClassMatcher.group(1)).trim());
+
+        // search additional @uses directives, " load(\"...\" " and
+        // " loadAndRun(\"...\" " and add them as dependencies
+        for (Pattern pattern : new Pattern[] {
+                USES_PATTERN, LOAD_PATTERN, LOAD_AND_RUN_PATTERN}) {
+            Matcher matcher = pattern.matcher(body);
+            while (matcher.find()) {
+                entries.add(matcher.group(1).trim());
+            }
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dot.junit;
+
+import dot.junit.opcodes.add_int.d.T_add_int_1;
+
+import junit.framework.TestCase;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tests for {@link BatchMain}, run on the host VM with the .java twin of T_add_int_1 in
+ * place of its dex.
+ */
+public class BatchMainTest extends TestCase {
+
+    /** Runs like the generated Main_testN1 of add_int. */
+    public static class AddMain extends DxAbstractMain {
+        public static void main(String[] args) throws Exception {
+            T_add_int_1 t = new T_add_int_1();
+            assertEquals(12, t.run(8, 4));
+        }
+    }
+
+    /** Runs the twin the way the generated mains of the verifier tests load their class. */
+    public static class LoadAndRunMain extends DxAbstractMain {
+        public static void main(String[] args) throws Exception {
+            loadAndRun("dot.junit.opcodes.add_int.d.T_add_int_1", false, false, null, 8, 4);
+        }
+    }
+
+    public static class WrongSumMain extends DxAbstractMain {
+        public static void main(String[] args) throws Exception {
+            T_add_int_1 t = new T_add_int_1();
+            assertEquals(13, t.run(8, 4));
+        }
+    }
+
+    public static class ChainedFailureMain {
+        public static void main(String[] args) throws Exception {
+            throw new RuntimeException("first\nsecond", new IllegalStateException("cause"));
+        }
+    }
+
+    /** Fails if its class was initialized before, i.e. if a test didn't get a new loader. */
+    public static class InitializedOnceMain {
+        private static int sRuns;
+
+        public static void main(String[] args) throws Exception {
+            if (++sRuns != 1) {
+                throw new AssertionFailedException("run " + sRuns + " times in one class loader");
+            }
+        }
+    }
+
+    public void testPass() throws Exception {
+        List<String[]> results = runBatchMain(AddMain.class.getName(),
+                LoadAndRunMain.class.getName());
+        assertEquals(2, results.size());
+        assertResult(results.get(0), AddMain.class.getName(), "PASS", null);
+        assertResult(results.get(1), LoadAndRunMain.class.getName(), "PASS", null);
+    }
+
+    public void testFailure() throws Exception {
+        List<String[]> results = runBatchMain(WrongSumMain.class.getName(),
+                ChainedFailureMain.class.getName(), "dot.junit.NoSuchMain");
+        assertEquals(3, results.size());
+        assertResult(results.get(0), WrongSumMain.class.getName(), "FAIL",
+                "dot.junit.AssertionFailedException: not equals. Expected 13 actual 12");
+        assertResult(results.get(1), ChainedFailureMain.class.getName(), "FAIL",
+                "java.lang.RuntimeException: first second caused by "
+                + "java.lang.IllegalStateException: cause");
+        assertResult(results.get(2), "dot.junit.NoSuchMain", "FAIL",
+                "java.lang.ClassNotFoundException: dot.junit.NoSuchMain");
+    }
+
+    public void testClassLoaderPerTest() throws Exception {
+        String main = InitializedOnceMain.class.getName();
+        List<String[]> results = runBatchMain(main, main);
+        assertEquals(2, results.size());
+        assertResult(results.get(0), main, "PASS", null);
+        assertResult(results.get(1), main, "PASS", null);
+    }
+
+    public void testTestClassPath() throws Exception {
+        // The test class path is added to the one of all tests, here to an empty one.
+        String main = AddMain.class.getName();
+        List<String[]> results = runBatchMainWithClassPath(
+                new File("does-not-exist").getAbsolutePath(),
+                main + "=" + System.getProperty("java.class.path"));
+        assertEquals(1, results.size());
+        assertResult(results.get(0), main, "PASS", null);
+    }
+
+    private static void assertResult(String[] result, String mainClass, String status,
+            String failure) {
+        assertEquals(Arrays.toString(result), mainClass, result[1]);
+        assertEquals(Arrays.toString(result), status, result[2]);
+        Long.parseLong(result[3]); // the milliseconds
+        assertEquals(Arrays.toString(result), failure, result.length > 4 ? result[4] : null);
+    }
+
+    private static List<String[]> runBatchMain(String... tests) throws Exception {
+        return runBatchMainWithClassPath(System.getProperty("java.class.path"), tests);
+    }
+
+    /**
+     * Runs BatchMain in a VM of its own with the given class path and tests, and returns the
+     * fields of its RESULT lines, checking that each follows the START line of its test.
+     */
+    private static List<String[]> runBatchMainWithClassPath(String classPath,
+            String... tests) throws Exception {
+        List<String> command = new ArrayList<String>();
+        command.add(System.getProperty("java.home") + File.separator + "bin" + File.separator
+                + "java");
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add(BatchMain.class.getName());
+        command.add(classPath);
+        command.addAll(Arrays.asList(tests));
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        process.getOutputStream().close();
+
+        List<String> lines = new ArrayList<String>();
+        try (BufferedReader out = new BufferedReader(
+                new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = out.readLine()) != null) {
+                lines.add(line);
+            }
+        }
+        assertEquals(lines.toString(), 0, process.waitFor());
+
+        assertEquals(lines.toString(), tests.length * 2, lines.size());
+        List<String[]> results = new ArrayList<String[]>();
+        for (int i = 0; i < lines.size(); i += 2) {
+            String[] start = lines.get(i).split("\t");
+            String[] result = lines.get(i + 1).split("\t");
+            assertEquals(lines.toString(), 2, start.length);
+            assertEquals(lines.toString(), BatchMain.START, start[0]);
+            assertEquals(lines.toString(), BatchMain.RESULT, result[0]);
+            assertEquals(lines.toString(), start[1], result[1]);
+            results.add(result);
+        }
+        return results;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2017 The Android Open Source Project
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package dot.junit;
+
+import junit.framework.TestCase;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tests for {@link BatchWorkerPool}, with workers running {@link BatchMain} on the host VM.
+ */
+public class BatchWorkerPoolTest extends TestCase {
+
+    private static final long TIMEOUT_S = 5;
+
+    public static class PassMain {
+        public static void main(String[] args) {
+        }
+    }
+
+    public static class ThrowMain {
+        public static void main(String[] args) {
+            throw new IllegalStateException("thrown");
+        }
+    }
+
+    public static class HaltMain {
+        public static void main(String[] args) {
+            System.out.println("halting");
+            System.out.flush();
+            Runtime.getRuntime().halt(1);
+        }
+    }
+
+    public static class AfterHaltMain {
+        public static void main(String[] args) {
+        }
+    }
+
+    public static class HangMain {
+        public static void main(String[] args) throws InterruptedException {
+            Thread.sleep(TimeUnit.SECONDS.toMillis(TIMEOUT_S * 10));
+        }
+    }
+
+    public static class AfterHangMain {
+        public static void main(String[] args) {
+        }
+    }
+
+    public static class PrintMain {
+        public static void main(String[] args) {
+            System.out.println("hello");
+        }
+    }
+
+    public static class PrintAndThrowMain {
+        public static void main(String[] args) {
+            System.out.println("hello");
+            throw new IllegalStateException("thrown");
+        }
+    }
+
+    public void testResults() throws Exception {
+        // One worker, so that the tests after a crash or a hang run in the workers replacing
+        // the ones that died.
+        Map<String, String> results = runAll(1, PassMain.class, ThrowMain.class, HaltMain.class,
+                AfterHaltMain.class, HangMain.class, AfterHangMain.class, PrintMain.class,
+                PrintAndThrowMain.class);
+        assertEquals(results.toString(), 8, results.size());
+        assertEquals("", results.get(PassMain.class.getName()));
+        assertEquals("java.lang.IllegalStateException: thrown",
+                results.get(ThrowMain.class.getName()));
+        assertEquals("crashed: halting", results.get(HaltMain.class.getName()));
+        assertEquals("", results.get(AfterHaltMain.class.getName()));
+        assertEquals("timed out after " + TIMEOUT_S + " s",
+                results.get(HangMain.class.getName()));
+        assertEquals("", results.get(AfterHangMain.class.getName()));
+        assertEquals("output: hello", results.get(PrintMain.class.getName()));
+        assertEquals("java.lang.IllegalStateException: thrown, output: hello",
+                results.get(PrintAndThrowMain.class.getName()));
+    }
+
+    public void testWorkers() throws Exception {
+        Map<String, String> results = runAll(3, PassMain.class, ThrowMain.class, HaltMain.class,
+                AfterHaltMain.class, PrintMain.class);
+        assertEquals(results.toString(), 5, results.size());
+        assertEquals("", results.get(PassMain.class.getName()));
+        assertEquals("java.lang.IllegalStateException: thrown",
+                results.get(ThrowMain.class.getName()));
+        assertEquals("crashed: halting", results.get(HaltMain.class.getName()));
+        assertEquals("", results.get(AfterHaltMain.class.getName()));
+        assertEquals("output: hello", results.get(PrintMain.class.getName()));
+    }
+
+    public void testNoTests() throws Exception {
+        assertTrue(runAll(2).isEmpty());
+    }
+
+    public void testLaunchFailure() throws Exception {
+        BatchWorkerPool pool = new BatchWorkerPool(new CommandLauncher("/does/not/exist"), 1,
+                TIMEOUT_S, TimeUnit.SECONDS);
+        Map<String, String> results = pool.runAll(Arrays.asList(PassMain.class.getName()));
+        assertEquals(1, results.size());
+        assertTrue(results.toString(),
+                results.get(PassMain.class.getName()).startsWith("failed to start"));
+    }
+
+    private static Map<String, String> runAll(int workers, Class<?>... mains)
+            throws InterruptedException {
+        BatchWorkerPool pool = new BatchWorkerPool(
+                CommandLauncher.forHostVm(System.getProperty("java.class.path")), workers,
+                TIMEOUT_S, TimeUnit.SECONDS);
+        List<String> tests = new ArrayList<String>();
+        for (Class<?> main : mains) {
+            tests.add(main.getName());
+        }
+        return pool.runAll(tests);
+    }
+}